@@ -0,0 +1,57 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouped aggregation without a data window, by number of groups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregationGroupByBenchmark {
+    private static final int NUM_EVENTS = 16384;
+
+    @Param({"10", "10000"})
+    private int numGroups;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private MarketEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngine.allocate(BenchmarkEngine.getConfiguration());
+        epService.getEPAdministrator().createEPL("select symbol, sum(price) as total, avg(volume) as avgVolume, max(price) as maxPrice " +
+                "from MarketEvent group by symbol").addListener(new CountingListener());
+        runtime = epService.getEPRuntime();
+        events = BenchmarkEngine.makeMarketEvents(NUM_EVENTS, numGroups);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent() {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)]);
+    }
+}
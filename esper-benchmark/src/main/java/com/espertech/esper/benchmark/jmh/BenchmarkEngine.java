@@ -0,0 +1,82 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates engine instances for benchmarks: external clocking and the benchmark event types.
+ */
+public class BenchmarkEngine {
+    private static final AtomicInteger ENGINE_NUM = new AtomicInteger();
+
+    /**
+     * Returns a configuration with the internal timer disabled and the benchmark event types registered.
+     *
+     * @return configuration
+     */
+    public static Configuration getConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getLogging().setEnableExecutionDebug(false);
+        configuration.getEngineDefaults().getLogging().setEnableTimerDebug(false);
+        configuration.addEventType(MarketEvent.class);
+        configuration.addEventType(OrderEvent.class);
+        return configuration;
+    }
+
+    /**
+     * Allocates a new engine instance with the time set to zero.
+     *
+     * @param configuration engine configuration
+     * @return engine
+     */
+    public static EPServiceProvider allocate(Configuration configuration) {
+        EPServiceProvider epService = EPServiceProviderManager.getProvider("benchmark-" + ENGINE_NUM.incrementAndGet(), configuration);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        return epService;
+    }
+
+    /**
+     * Returns symbols "S0" to "S(n-1)".
+     *
+     * @param numSymbols number of symbols
+     * @return symbols
+     */
+    public static String[] makeSymbols(int numSymbols) {
+        String[] symbols = new String[numSymbols];
+        for (int i = 0; i < numSymbols; i++) {
+            symbols[i] = "S" + i;
+        }
+        return symbols;
+    }
+
+    /**
+     * Returns market events that cycle through the symbols, with prices and volumes that vary per event.
+     *
+     * @param numEvents  number of events
+     * @param numSymbols number of symbols
+     * @return events
+     */
+    public static MarketEvent[] makeMarketEvents(int numEvents, int numSymbols) {
+        String[] symbols = makeSymbols(numSymbols);
+        MarketEvent[] events = new MarketEvent[numEvents];
+        for (int i = 0; i < numEvents; i++) {
+            events[i] = new MarketEvent(symbols[i % numSymbols], i % 1000, i);
+        }
+        return events;
+    }
+}
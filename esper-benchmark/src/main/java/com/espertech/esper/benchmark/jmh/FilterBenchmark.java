@@ -0,0 +1,95 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter matching of a single event type against many statements, by filter index type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    /**
+     * Filter index type.
+     */
+    public enum FilterType {
+        EQUALS,
+        RANGE,
+        IN,
+        NOT_EQUAL,
+        BOOLEAN
+    }
+
+    @Param({"EQUALS", "RANGE", "IN", "NOT_EQUAL", "BOOLEAN"})
+    private FilterType filterType;
+
+    @Param({"10", "1000"})
+    private int numStatements;
+
+    @Param({"READMOSTLY", "LOCKFREEREAD"})
+    private ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private MarketEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = BenchmarkEngine.getConfiguration();
+        configuration.getEngineDefaults().getExecution().setFilterServiceProfile(filterServiceProfile);
+        epService = BenchmarkEngine.allocate(configuration);
+        CountingListener listener = new CountingListener();
+        for (int i = 0; i < numStatements; i++) {
+            epService.getEPAdministrator().createEPL("select * from MarketEvent(" + getFilter(i) + ")").addListener(listener);
+        }
+        runtime = epService.getEPRuntime();
+        events = BenchmarkEngine.makeMarketEvents(NUM_EVENTS, numStatements);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent() {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)]);
+    }
+
+    private String getFilter(int num) {
+        switch (filterType) {
+            case EQUALS:
+                return "symbol = 'S" + num + "'";
+            case RANGE:
+                return "price between " + num + " and " + (num + 1);
+            case IN:
+                return "symbol in ('S" + num + "', 'X" + num + "')";
+            case NOT_EQUAL:
+                return "symbol != 'S" + num + "'";
+            default:
+                return "price * 2 > volume + " + num;
+        }
+    }
+}
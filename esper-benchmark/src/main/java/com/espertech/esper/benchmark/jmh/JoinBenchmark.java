@@ -0,0 +1,64 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unidirectional join of market events against a window of orders, using an index lookup by symbol.
+ * There are ten orders per symbol.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"1000", "100000"})
+    private int numOrders;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private MarketEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngine.allocate(BenchmarkEngine.getConfiguration());
+        epService.getEPAdministrator().createEPL("select m.symbol, o.orderId from MarketEvent as m unidirectional, OrderEvent#unique(orderId) as o " +
+                "where o.symbol = m.symbol").addListener(new CountingListener());
+        runtime = epService.getEPRuntime();
+
+        int numSymbols = numOrders / 10;
+        String[] symbols = BenchmarkEngine.makeSymbols(numSymbols);
+        for (int i = 0; i < numOrders; i++) {
+            runtime.sendEvent(new OrderEvent("O" + i, symbols[i % numSymbols], i));
+        }
+        events = BenchmarkEngine.makeMarketEvents(NUM_EVENTS, numSymbols);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent() {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)]);
+    }
+}
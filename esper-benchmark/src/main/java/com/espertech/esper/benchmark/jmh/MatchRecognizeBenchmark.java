@@ -0,0 +1,65 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match-recognize of a rising price followed by a drop, partitioned by symbol.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchRecognizeBenchmark {
+    private static final int NUM_EVENTS = 16384;
+
+    @Param({"1", "1000"})
+    private int numPartitions;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private MarketEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngine.allocate(BenchmarkEngine.getConfiguration());
+        epService.getEPAdministrator().createEPL("select * from MarketEvent " +
+                "match_recognize (partition by symbol measures A.price as a, last(B.price) as b, C.price as c " +
+                "pattern (A B+ C) define B as B.price > prev(B.price), C as C.price < prev(C.price))").addListener(new CountingListener());
+        runtime = epService.getEPRuntime();
+
+        String[] symbols = BenchmarkEngine.makeSymbols(numPartitions);
+        events = new MarketEvent[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            // prices rise for four events per symbol and then fall
+            int sequence = i / numPartitions;
+            events[i] = new MarketEvent(symbols[i % numPartitions], sequence % 5 == 4 ? 0 : sequence % 5, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent() {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)]);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-merge into a named window keyed by symbol, updating the row when matched and inserting otherwise.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamedWindowMergeBenchmark {
+    private static final int NUM_EVENTS = 16384;
+
+    @Param({"100", "10000"})
+    private int numKeys;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private MarketEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngine.allocate(BenchmarkEngine.getConfiguration());
+        epService.getEPAdministrator().createEPL("create window PriceWindow#unique(symbol) as (symbol string, price double, volume long)");
+        epService.getEPAdministrator().createEPL("on MarketEvent as m merge PriceWindow as w where w.symbol = m.symbol " +
+                "when matched then update set price = m.price, volume = w.volume + m.volume " +
+                "when not matched then insert select m.symbol as symbol, m.price as price, m.volume as volume");
+        epService.getEPAdministrator().createEPL("select * from PriceWindow").addListener(new CountingListener());
+        runtime = epService.getEPRuntime();
+        events = BenchmarkEngine.makeMarketEvents(NUM_EVENTS, numKeys);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent() {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)]);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pattern of every market event followed by an order for the same symbol within a time interval.
+ * Each operation advances time by one millisecond and sends a market event and an order.
+ * The number of active pattern instances is determined by the interval.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternBenchmark {
+    private static final int NUM_EVENTS = 16384;
+
+    @Param({"100", "10000"})
+    private int withinMSec;
+
+    @Param({"100"})
+    private int numSymbols;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private MarketEvent[] events;
+    private OrderEvent[] orders;
+    private int index;
+    private long time;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngine.allocate(BenchmarkEngine.getConfiguration());
+        epService.getEPAdministrator().createEPL("select * from pattern [every m=MarketEvent -> o=OrderEvent(symbol = m.symbol) " +
+                "where timer:within(" + withinMSec + " milliseconds)]").addListener(new CountingListener());
+        runtime = epService.getEPRuntime();
+
+        events = BenchmarkEngine.makeMarketEvents(NUM_EVENTS, numSymbols);
+        String[] symbols = BenchmarkEngine.makeSymbols(numSymbols);
+        orders = new OrderEvent[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            // orders arrive for a different symbol than the preceding market event
+            orders[i] = new OrderEvent("O" + i, symbols[(i * 7 + 3) % numSymbols], i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvents() {
+        runtime.sendEvent(new CurrentTimeEvent(++time));
+        int num = index++ & (NUM_EVENTS - 1);
+        runtime.sendEvent(events[num]);
+        runtime.sendEvent(orders[num]);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.event.EventAdapterService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Property getter performance by event representation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyGetterBenchmark {
+
+    /**
+     * Event representation.
+     */
+    public enum Representation {
+        POJO,
+        MAP,
+        OBJECTARRAY
+    }
+
+    @Param({"POJO", "MAP", "OBJECTARRAY"})
+    private Representation representation;
+
+    private EPServiceProviderSPI epService;
+    private EventBean eventBean;
+    private EventPropertyGetter symbolGetter;
+    private EventPropertyGetter priceGetter;
+    private EventPropertyGetter volumeGetter;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put("symbol", String.class);
+        properties.put("price", double.class);
+        properties.put("volume", long.class);
+        Configuration configuration = BenchmarkEngine.getConfiguration();
+        configuration.addEventType("MarketMap", properties);
+        configuration.addEventType("MarketObjectArray", properties.keySet().toArray(new String[3]), properties.values().toArray());
+        epService = (EPServiceProviderSPI) BenchmarkEngine.allocate(configuration);
+
+        EventAdapterService eventAdapterService = epService.getEventAdapterService();
+        switch (representation) {
+            case POJO:
+                eventBean = eventAdapterService.adapterForBean(new MarketEvent("S0", 10, 100));
+                break;
+            case MAP:
+                Map<String, Object> values = new HashMap<String, Object>();
+                values.put("symbol", "S0");
+                values.put("price", 10d);
+                values.put("volume", 100L);
+                eventBean = eventAdapterService.adapterForMap(values, "MarketMap");
+                break;
+            default:
+                eventBean = eventAdapterService.adapterForObjectArray(new Object[]{"S0", 10d, 100L}, "MarketObjectArray");
+                break;
+        }
+        symbolGetter = eventBean.getEventType().getGetter("symbol");
+        priceGetter = eventBean.getEventType().getGetter("price");
+        volumeGetter = eventBean.getEventType().getGetter("volume");
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public Object getString() {
+        return symbolGetter.get(eventBean);
+    }
+
+    @Benchmark
+    public Object getDouble() {
+        return priceGetter.get(eventBean);
+    }
+
+    @Benchmark
+    public Object getLong() {
+        return volumeGetter.get(eventBean);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.schedule.ScheduleHandle;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
+import com.espertech.esper.schedule.SchedulingServiceSPI;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling service by profile, in steady state: each operation advances time by one millisecond,
+ * evaluates the schedules that are due and schedules each of them again.
+ * The handles are spread evenly over the schedule horizon.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingServiceBenchmark {
+
+    @Param({"SORTED", "TIMERWHEEL"})
+    private ConfigurationEngineDefaults.SchedulingServiceProfile schedulingServiceProfile;
+
+    @Param({"1000", "100000"})
+    private int numHandles;
+
+    @Param({"1000", "60000"})
+    private int horizonMSec;
+
+    private SchedulingServiceSPI schedulingService;
+    private List<ScheduleHandle> fired;
+    private long time;
+    private long slot;
+
+    @Setup
+    public void setup() {
+        schedulingService = SchedulingServiceProvider.newService(schedulingServiceProfile, new TimeSourceServiceImpl());
+        schedulingService.setTime(0);
+        fired = new ArrayList<ScheduleHandle>();
+        for (int i = 0; i < numHandles; i++) {
+            schedulingService.add(1 + (long) i * horizonMSec / numHandles, new BenchmarkScheduleHandle(i), slot++);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        schedulingService.destroy();
+    }
+
+    @Benchmark
+    public int advance() {
+        schedulingService.setTime(++time);
+        schedulingService.evaluate(fired);
+        int count = fired.size();
+        for (int i = 0; i < count; i++) {
+            schedulingService.add(horizonMSec, fired.get(i), slot++);
+        }
+        fired.clear();
+        return count;
+    }
+
+    @Benchmark
+    public boolean addRemove() {
+        BenchmarkScheduleHandle handle = new BenchmarkScheduleHandle(-1);
+        long current = slot++;
+        schedulingService.add(1 + current % horizonMSec, handle, current);
+        boolean scheduled = schedulingService.isScheduled(handle);
+        schedulingService.remove(handle, current);
+        return scheduled;
+    }
+
+    private static class BenchmarkScheduleHandle implements ScheduleHandle {
+        private final int statementId;
+
+        BenchmarkScheduleHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.schedule.ScheduleHandle;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
+import com.espertech.esper.schedule.SchedulingServiceSPI;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduling service by profile, under contention: several threads add and remove schedules on one shared service
+ * that already holds a number of schedules, as statements of different threads do when they start and stop timers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SchedulingServiceChurnBenchmark {
+
+    @Param({"SORTED", "TIMERWHEEL"})
+    private ConfigurationEngineDefaults.SchedulingServiceProfile schedulingServiceProfile;
+
+    @Param({"1000", "100000"})
+    private int numHandles;
+
+    @Param({"60000"})
+    private int horizonMSec;
+
+    private SchedulingServiceSPI schedulingService;
+    private final AtomicLong slots = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        schedulingService = SchedulingServiceProvider.newService(schedulingServiceProfile, new TimeSourceServiceImpl());
+        schedulingService.setTime(0);
+        for (int i = 0; i < numHandles; i++) {
+            schedulingService.add(1 + (long) i * horizonMSec / numHandles, new BenchmarkScheduleHandle(i), slots.getAndIncrement());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        schedulingService.destroy();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private final BenchmarkScheduleHandle handle = new BenchmarkScheduleHandle(-1);
+        private long slot;
+
+        @Setup
+        public void setup(SchedulingServiceChurnBenchmark benchmark) {
+            // each thread has its own range of slots
+            slot = benchmark.slots.getAndAdd(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public boolean addRemove(ThreadState state) {
+        long current = state.slot++;
+        schedulingService.add(1 + current % horizonMSec, state.handle, current);
+        boolean scheduled = schedulingService.isScheduled(state.handle);
+        schedulingService.remove(state.handle, current);
+        return scheduled;
+    }
+
+    private static class BenchmarkScheduleHandle implements ScheduleHandle {
+        private final int statementId;
+
+        BenchmarkScheduleHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sending events one at a time compared to batch sending: object-array events sent individually or in columnar form,
+ * and Java object events sent individually or as a collection. Throughput is per event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(SendEventBatchBenchmark.BATCH_SIZE)
+public class SendEventBatchBenchmark {
+    static final int BATCH_SIZE = 1000;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private Object[][] rows;
+    private List<Object> pojos;
+    private Object[] columns;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = BenchmarkEngine.getConfiguration();
+        configuration.addEventType("MarketRow", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        epService = BenchmarkEngine.allocate(configuration);
+        epService.getEPAdministrator().createEPL("select symbol, sum(price) as total from MarketRow(volume > 0) group by symbol").addListener(new CountingListener());
+        epService.getEPAdministrator().createEPL("select symbol, sum(price) as total from MarketEvent(volume > 0) group by symbol").addListener(new CountingListener());
+        runtime = epService.getEPRuntime();
+
+        String[] symbols = BenchmarkEngine.makeSymbols(100);
+        String[] symbolColumn = new String[BATCH_SIZE];
+        double[] priceColumn = new double[BATCH_SIZE];
+        long[] volumeColumn = new long[BATCH_SIZE];
+        rows = new Object[BATCH_SIZE][];
+        pojos = new ArrayList<Object>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            symbolColumn[i] = symbols[i % symbols.length];
+            priceColumn[i] = i;
+            volumeColumn[i] = i + 1;
+            rows[i] = new Object[]{symbolColumn[i], priceColumn[i], volumeColumn[i]};
+            pojos.add(new MarketEvent(symbolColumn[i], priceColumn[i], volumeColumn[i]));
+        }
+        columns = new Object[]{symbolColumn, priceColumn, volumeColumn};
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void objectArraySingle() {
+        for (Object[] row : rows) {
+            runtime.sendEvent(row, "MarketRow");
+        }
+    }
+
+    @Benchmark
+    public void objectArrayColumnar() {
+        runtime.sendEventColumnar(columns, BATCH_SIZE, "MarketRow");
+    }
+
+    @Benchmark
+    public void pojoSingle() {
+        for (Object pojo : pojos) {
+            runtime.sendEvent(pojo);
+        }
+    }
+
+    @Benchmark
+    public void pojoCollection() {
+        runtime.sendEvents(pojos);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.jmh;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Length and time windows with an aggregation over the window contents. For the time window each event
+ * advances time by one millisecond and the window size is in milliseconds, so that both windows hold the same number of events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    /**
+     * Data window kind.
+     */
+    public enum WindowKind {
+        LENGTH,
+        TIME
+    }
+
+    @Param({"LENGTH", "TIME"})
+    private WindowKind windowKind;
+
+    @Param({"1000", "100000"})
+    private int windowSize;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private MarketEvent[] events;
+    private int index;
+    private long time;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngine.allocate(BenchmarkEngine.getConfiguration());
+        String window = windowKind == WindowKind.LENGTH ? "#length(" + windowSize + ")" : "#time(" + windowSize + " milliseconds)";
+        epService.getEPAdministrator().createEPL("select sum(price) as total, count(*) as cnt from MarketEvent" + window).addListener(new CountingListener());
+        runtime = epService.getEPRuntime();
+        events = BenchmarkEngine.makeMarketEvents(NUM_EVENTS, 100);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public void sendEvent() {
+        if (windowKind == WindowKind.TIME) {
+            runtime.sendEvent(new CurrentTimeEvent(++time));
+        }
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)]);
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.annotation.AsyncDeliveryPolicy;
+import com.espertech.esper.client.metric.StatementMetric;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPStatementSPI;
+import com.espertech.esper.core.service.StatementResultAsyncDelivery;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestAsyncDelivery extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getMetricsReporting().setEnableMetricsReporting(true);
+        config.getEngineDefaults().getMetricsReporting().setThreading(false);
+        config.getEngineDefaults().getMetricsReporting().setStatementInterval(1000);
+        epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+    }
+
+    public void tearDown()
+    {
+        epService.destroy();
+    }
+
+    public void testBlock() throws Exception
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDelivery(capacity=2) select theString from SupportBean");
+        GateListener listener = new GateListener();
+        stmt.addListener(listener);
+        assertEquals(AsyncDeliveryPolicy.BLOCK, getDelivery(stmt).getPolicy());
+
+        sendAndAwaitEntered(listener, "E1");
+        sendEvent("E2");
+        sendEvent("E3");
+        assertEquals(2, getDelivery(stmt).getQueueDepth());
+
+        // the queue is full, the sender waits
+        Thread sender = new Thread(new Runnable() {
+            public void run() {
+                sendEvent("E4");
+            }
+        });
+        sender.start();
+        sender.join(200);
+        assertTrue(sender.isAlive());
+
+        listener.release();
+        sender.join(10000);
+        assertFalse(sender.isAlive());
+        listener.awaitNumReceived(4);
+        assertEquals("[[E1], [E2], [E3], [E4]]", listener.getReceived().toString());
+        for (Thread thread : listener.getThreads()) {
+            assertTrue(thread.getName(), thread.getName().startsWith("com.espertech.esper.AsyncDelivery-"));
+        }
+        assertEquals(0, getDelivery(stmt).getNumDropped());
+    }
+
+    public void testDropOldest() throws Exception
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDelivery(capacity=2, policy=drop_oldest) select theString from SupportBean");
+        GateListener listener = new GateListener();
+        stmt.addListener(listener);
+
+        sendAndAwaitEntered(listener, "E1");
+        for (int i = 2; i <= 5; i++) {
+            sendEvent("E" + i);
+        }
+        assertEquals(2, getDelivery(stmt).getNumDropped());
+
+        listener.release();
+        listener.awaitNumReceived(3);
+        assertEquals("[[E1], [E4], [E5]]", listener.getReceived().toString());
+    }
+
+    public void testCoalesce() throws Exception
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDelivery(capacity=1, policy='coalesce') select irstream theString from SupportBean#length(1)");
+        GateListener listener = new GateListener();
+        stmt.addListener(listener);
+
+        sendAndAwaitEntered(listener, "E1");
+        sendEvent("E2");
+        sendEvent("E3");
+        sendEvent("E4");
+
+        listener.release();
+        listener.awaitNumReceived(2);
+        assertEquals("[[E1], [E2, E3, E4]]", listener.getReceived().toString());
+        assertEquals("[[], [E1, E2, E3]]", listener.getReceivedOld().toString());
+    }
+
+    public void testListenerSendsEvents() throws Exception
+    {
+        // a listener on the delivery thread producing results for its own statement does not wait for itself
+        final EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDelivery(capacity=1) select theString from SupportBean");
+        final List<String> received = new ArrayList<String>();
+        final CountDownLatch done = new CountDownLatch(1);
+        stmt.addListener(new UpdateListener() {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                for (EventBean event : newEvents) {
+                    String value = (String) event.get("theString");
+                    received.add(value);
+                    if (value.equals("E1")) {
+                        sendEvent("E2");
+                        sendEvent("E3");
+                        sendEvent("E4");
+                    }
+                    if (value.equals("E4")) {
+                        done.countDown();
+                    }
+                }
+            }
+        });
+        sendEvent("E1");
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals("[E1, E2, E3, E4]", received.toString());
+    }
+
+    public void testMetric() throws Exception
+    {
+        SupportUpdateListener listenerMetric = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from " + StatementMetric.class.getName() + " where statementName = 'A'").addListener(listenerMetric);
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('A') @AsyncDelivery select theString from SupportBean");
+        GateListener listener = new GateListener();
+        stmt.addListener(listener);
+
+        sendAndAwaitEntered(listener, "E1");
+        sendEvent("E2");
+        sendEvent("E3");
+        sendEvent("E4");
+        assertEquals(3, getDelivery(stmt).getQueueDepth());
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        assertEquals(3L, listenerMetric.assertOneGetNewAndReset().get("asyncDeliveryQueueDepth"));
+
+        listener.release();
+        listener.awaitNumReceived(4);
+        sendEvent("E5");
+        listener.awaitNumReceived(5);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(2000));
+        assertEquals(1L, listenerMetric.assertOneGetNewAndReset().get("asyncDeliveryQueueDepth"));
+    }
+
+    public void testSubscriber() throws Exception
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDelivery select theString, intPrimitive from SupportBean");
+        MySubscriber subscriber = new MySubscriber();
+        stmt.setSubscriber(subscriber);
+
+        for (int i = 0; i < 100; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+        }
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) subscriber.values.get(i));
+        }
+        assertNotSame(Thread.currentThread(), subscriber.thread);
+    }
+
+    public void testStopCancels() throws Exception
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDelivery select theString from SupportBean");
+        GateListener listener = new GateListener();
+        stmt.addListener(listener);
+
+        sendAndAwaitEntered(listener, "E1");
+        sendEvent("E2");
+        sendEvent("E3");
+        assertEquals(2, getDelivery(stmt).getQueueDepth());
+
+        // queued results are discarded, the delivery in progress completes
+        stmt.stop();
+        assertEquals(0, getDelivery(stmt).getQueueDepth());
+        assertEquals(2, getDelivery(stmt).getNumDropped());
+        listener.release();
+        listener.awaitNumReceived(1);
+
+        stmt.start();
+        sendEvent("E4");
+        listener.awaitNumReceived(2);
+        assertEquals("[[E1], [E4]]", listener.getReceived().toString());
+    }
+
+    public void testBoundedPool() throws Exception
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getThreading().setThreadPoolAsyncDeliveryNumThreads(1);
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(this.getClass().getSimpleName() + "-bounded", config);
+        engine.initialize();
+
+        EPStatement stmtOne = engine.getEPAdministrator().createEPL("@AsyncDelivery select theString from SupportBean");
+        GateListener listenerOne = new GateListener();
+        stmtOne.addListener(listenerOne);
+        EPStatement stmtTwo = engine.getEPAdministrator().createEPL("@AsyncDelivery select theString from SupportBean");
+        GateListener listenerTwo = new GateListener();
+        listenerTwo.release();
+        stmtTwo.addListener(listenerTwo);
+
+        // the pool starts on first use
+        String threadNamePrefix = "com.espertech.esper.AsyncDelivery-" + engine.getURI() + "-";
+        assertEquals(0, countThreads(threadNamePrefix));
+
+        engine.getEPRuntime().sendEvent(new SupportBean("E1", 0));
+        assertTrue(listenerOne.entered.await(10, TimeUnit.SECONDS));
+        assertEquals(1, countThreads(threadNamePrefix));
+
+        // the only delivery thread is busy with the first statement
+        Thread.sleep(200);
+        assertEquals(0, listenerTwo.getReceived().size());
+        assertEquals(1, getDelivery(stmtTwo).getQueueDepth());
+
+        listenerOne.release();
+        listenerTwo.awaitNumReceived(1);
+        listenerOne.awaitNumReceived(1);
+        assertEquals(1, countThreads(threadNamePrefix));
+
+        engine.destroy();
+    }
+
+    public void testInvalid()
+    {
+        SupportMessageAssertUtil.tryInvalid(epService, "@AsyncDelivery(capacity=0) select * from SupportBean",
+                "Invalid @AsyncDelivery annotation, expected a capacity of at least 1 but received 0");
+        SupportMessageAssertUtil.tryInvalid(epService, "@AsyncDelivery(policy=xyz) select * from SupportBean",
+                "Failed to process statement annotations: Annotation 'AsyncDelivery' requires an enum-value 'AsyncDeliveryPolicy' for attribute 'policy' but received 'xyz' which is not one of the enum choices");
+    }
+
+    private void sendAndAwaitEntered(GateListener listener, String theString) throws InterruptedException
+    {
+        sendEvent(theString);
+        assertTrue(listener.entered.await(10, TimeUnit.SECONDS));
+    }
+
+    private void sendEvent(String theString)
+    {
+        epService.getEPRuntime().sendEvent(new SupportBean(theString, 0));
+    }
+
+    private static int countThreads(String threadNamePrefix)
+    {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(threadNamePrefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static StatementResultAsyncDelivery getDelivery(EPStatement stmt)
+    {
+        return ((EPStatementSPI) stmt).getStatementContext().getStatementResultService().getAsyncDelivery();
+    }
+
+    private static class GateListener implements UpdateListener
+    {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final List<List<String>> received = new ArrayList<List<String>>();
+        private final List<List<String>> receivedOld = new ArrayList<List<String>>();
+        private final List<Thread> threads = new ArrayList<Thread>();
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            synchronized (this) {
+                received.add(toList(newEvents));
+                receivedOld.add(toList(oldEvents));
+                threads.add(Thread.currentThread());
+                notifyAll();
+            }
+        }
+
+        void release()
+        {
+            gate.countDown();
+        }
+
+        synchronized void awaitNumReceived(int num) throws InterruptedException
+        {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (received.size() < num && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+            assertEquals(num, received.size());
+        }
+
+        synchronized List<List<String>> getReceived()
+        {
+            return received;
+        }
+
+        synchronized List<List<String>> getReceivedOld()
+        {
+            return receivedOld;
+        }
+
+        synchronized List<Thread> getThreads()
+        {
+            return threads;
+        }
+
+        private static List<String> toList(EventBean[] events)
+        {
+            List<String> values = new ArrayList<String>();
+            if (events != null) {
+                for (EventBean event : events) {
+                    values.add((String) event.get("theString"));
+                }
+            }
+            return values;
+        }
+    }
+
+    public static class MySubscriber
+    {
+        private final List<Integer> values = new ArrayList<Integer>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Thread thread;
+
+        public void update(String theString, int intPrimitive)
+        {
+            thread = Thread.currentThread();
+            values.add(intPrimitive);
+            if (values.size() == 100) {
+                done.countDown();
+            }
+        }
+    }
+}
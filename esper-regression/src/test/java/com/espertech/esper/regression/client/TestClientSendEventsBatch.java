@@ -0,0 +1,109 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class TestClientSendEventsBatch extends TestCase {
+    private EPServiceProviderSPI epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.addEventType(SupportBean_S0.class);
+        epService = (EPServiceProviderSPI) EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.startTest(epService, this.getClass(), getName());
+        }
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.endTest();
+        }
+        listener = null;
+    }
+
+    public void testSendEventsCollection() {
+        String[] fields = "theString,intPrimitive".split(",");
+        epService.getEPAdministrator().createEPL("select * from SupportBean").addListener(listener);
+        SupportUpdateListener listenerJoin = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select theString, p00 from SupportBean#lastevent, SupportBean_S0#lastevent").addListener(listenerJoin);
+        SupportUpdateListener listenerInsert = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString from SupportBean");
+        epService.getEPAdministrator().createEPL("select count(*) as cnt from MyStream").addListener(listenerInsert);
+
+        epService.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("E1", 1), new SupportBean_S0(10, "S1"), new SupportBean("E2", 2), new SupportBean("E3", 3)));
+        assertEquals(1, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"E1", 1}, {"E2", 2}, {"E3", 3}});
+        EPAssertionUtil.assertPropsPerRow(listenerJoin.getAndResetLastNewData(), "theString,p00".split(","), new Object[][]{{"E1", "S1"}, {"E2", "S1"}, {"E3", "S1"}});
+        assertEquals(3L, listenerInsert.getNewDataListFlattened()[listenerInsert.getNewDataListFlattened().length - 1].get("cnt"));
+        listenerInsert.reset();
+
+        // time events divide the batch
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        SupportUpdateListener listenerTime = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select count(*) as cnt from SupportBean#time(1 sec)").addListener(listenerTime);
+        epService.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("E4", 4), new SupportBean("E5", 5), new CurrentTimeEvent(1000), new SupportBean("E6", 6)));
+        assertEquals(2, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataList().get(0), fields, new Object[][]{{"E4", 4}, {"E5", 5}});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataList().get(1), fields, new Object[][]{{"E6", 6}});
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRow(listenerTime.getNewDataListFlattened(), "cnt".split(","), new Object[][]{{1L}, {2L}, {0L}, {1L}});
+
+        // empty batch
+        epService.getEPRuntime().sendEvents(Arrays.asList());
+        assertFalse(listener.isInvoked());
+
+        // null elements are rejected before any event is processed
+        try {
+            epService.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("E7", 7), null));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid null event object", ex.getMessage());
+        }
+        assertFalse(listener.isInvoked());
+    }
+
+    public void testSendEventsArray() {
+        String[] fields = "theString,intPrimitive".split(",");
+        epService.getEPAdministrator().createEPL("select * from SupportBean(intPrimitive > 1)").addListener(listener);
+
+        EventBean[] events = new EventBean[3];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = epService.getEventAdapterService().adapterForBean(new SupportBean("E" + i, i));
+        }
+        epService.getEPRuntime().sendEvents(events);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"E2", 2}});
+
+        try {
+            epService.getEPRuntime().sendEvents(new EventBean[]{events[0], null});
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid null event object", ex.getMessage());
+        }
+        assertFalse(listener.isInvoked());
+    }
+}
@@ -487,6 +487,60 @@ public class TestDeployAdmin extends TestCase
         assertEquals("iso1", epService.getEPAdministrator().getStatement("B").getServiceIsolated());
     }
 
+    public void testFlagCompileThreads() throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+
+        // statements refer to the variable, schema and window that preceding statements create
+        List<String> texts = new ArrayList<String>();
+        texts.add("@Name('V') create variable int minValue = 10");
+        texts.add("@Name('S') create schema MySchema (theString string, intPrimitive int)");
+        texts.add("@Name('W') create window MyWindow#keepall as MySchema");
+        texts.add("@Name('I') insert into MyWindow select theString, intPrimitive from SupportBean where intPrimitive > minValue");
+        for (int i = 0; i < 20; i++) {
+            texts.add("@Name('C" + i + "') select count(*) as cnt from MyWindow where intPrimitive > minValue + " + i);
+        }
+        Module module = makeModule("mymodule.threads", texts.toArray(new String[texts.size()]));
+
+        DeploymentOptions options = new DeploymentOptions();
+        options.setCompileThreads(4);
+        DeploymentResult result = deploymentAdmin.deploy(module, options);
+        assertEquals(24, result.getStatements().size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertEquals(texts.get(i), result.getStatements().get(i).getText());
+        }
+
+        epService.getEPAdministrator().getStatement("C5").addListener(listener);
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 5));
+        assertFalse(listener.isInvoked());
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        assertEquals(1L, listener.assertOneGetNewAndReset().get("cnt"));
+        deploymentAdmin.undeployRemove(result.getDeploymentId());
+
+        // a syntax error fails the compile step
+        module = makeModule("mymodule.invalid", "@Name('A') create schema MySchemaTwo (col1 int)", "select * from from", "@Name('B') select * from MySchemaTwo");
+        try {
+            deploymentAdmin.deploy(module, options);
+            fail();
+        } catch (DeploymentActionException ex) {
+            assertTrue(ex.getMessage().startsWith("Compilation failed in module 'mymodule.invalid' in expression 'select * from from' : Incorrect syntax near 'from'"));
+            assertEquals(1, ex.getExceptions().size());
+            assertEquals("select * from from", ex.getExceptions().get(0).getExpression());
+        }
+        assertEquals(0, epService.getEPAdministrator().getStatementNames().length);
+
+        // without the compile step the statement fails when created
+        options.setCompile(false);
+        options.setFailFast(false);
+        try {
+            deploymentAdmin.deploy(module, options);
+            fail();
+        } catch (DeploymentActionException ex) {
+            assertTrue(ex.getMessage().startsWith("Deployment failed in module 'mymodule.invalid' in expression 'select * from from' : Incorrect syntax near 'from'"));
+            assertEquals(1, ex.getExceptions().size());
+        }
+        assertEquals(0, epService.getEPAdministrator().getStatementNames().length);
+    }
+
     public void testFlagUndeployNoDestroy() throws Exception {
         epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
 
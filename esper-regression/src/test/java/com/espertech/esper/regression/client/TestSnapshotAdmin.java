@@ -0,0 +1,246 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.snapshot.EPSnapshotException;
+import com.espertech.esper.client.snapshot.EPSnapshotSummary;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.bean.SupportBean_S1;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+public class TestSnapshotAdmin extends TestCase {
+
+    private static final String EPL =
+            "create window MyWindow#keepall as SupportBean;\n" +
+            "insert into MyWindow select * from SupportBean;\n" +
+            "create context ByCategory group by intPrimitive < 0 as neg, group by intPrimitive >= 0 as pos from SupportBean;\n" +
+            "context ByCategory create window MyCtxWindow#lastevent as SupportBean;\n" +
+            "context ByCategory insert into MyCtxWindow select * from SupportBean;\n" +
+            "create table MyTable(k string primary key, v int);\n" +
+            "on SupportBean_S0 merge MyTable where p00 = k when not matched then insert select p00 as k, id as v;\n" +
+            "create variable int myVar = 0;\n" +
+            "create constant variable string myConst = 'c';\n" +
+            "on SupportBean_S1 set myVar = id;\n";
+
+    private EPServiceProvider epServiceOne;
+    private EPServiceProvider epServiceTwo;
+
+    public void setUp() {
+        epServiceOne = EPServiceProviderManager.getProvider(TestSnapshotAdmin.class.getName() + "_1", getConfiguration());
+        epServiceOne.initialize();
+        epServiceTwo = EPServiceProviderManager.getProvider(TestSnapshotAdmin.class.getName() + "_2", getConfiguration());
+        epServiceTwo.initialize();
+    }
+
+    public void tearDown() {
+        epServiceOne.destroy();
+        epServiceTwo.destroy();
+    }
+
+    public void testSnapshotRestore() throws Exception {
+        epServiceOne.getEPAdministrator().getDeploymentAdmin().parseDeploy(EPL);
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E2", -20));
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E3", 30));
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean_S0(1, "K1"));
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean_S0(2, "K2"));
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean_S1(100));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        EPSnapshotSummary summary = epServiceOne.getEPAdministrator().getSnapshotAdmin().snapshot(output);
+        assertEquals(5, summary.getNumNamedWindowEvents());
+        assertEquals(2, summary.getNumTableRows());
+        assertEquals(1, summary.getNumVariableValues());
+
+        epServiceTwo.getEPAdministrator().getDeploymentAdmin().parseDeploy(EPL);
+        summary = epServiceTwo.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(5, summary.getNumNamedWindowEvents());
+        assertEquals(2, summary.getNumTableRows());
+        assertEquals(1, summary.getNumVariableValues());
+
+        EPRuntime runtime = epServiceTwo.getEPRuntime();
+        EPAssertionUtil.assertPropsPerRowAnyOrder(runtime.executeQuery("select theString, intPrimitive from MyWindow").getArray(),
+                "theString,intPrimitive".split(","), new Object[][] {{"E1", 10}, {"E2", -20}, {"E3", 30}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(runtime.executeQuery("select theString from MyCtxWindow").getArray(),
+                "theString".split(","), new Object[][] {{"E2"}, {"E3"}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(runtime.executeQuery("select k, v from MyTable").getArray(),
+                "k,v".split(","), new Object[][] {{"K1", 1}, {"K2", 2}});
+        assertEquals(100, runtime.getVariableValue("myVar"));
+
+        // restored state continues to process events
+        runtime.sendEvent(new SupportBean("E4", -40));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(runtime.executeQuery("select theString from MyCtxWindow").getArray(),
+                "theString".split(","), new Object[][] {{"E4"}, {"E3"}});
+        runtime.sendEvent(new SupportBean_S0(3, "K1"));
+        assertEquals(2, runtime.executeQuery("select * from MyTable").getArray().length);
+
+        // restoring into non-empty named windows fails without changing state
+        runtime.setVariableValue("myVar", 5);
+        try {
+            epServiceTwo.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(output.toByteArray()));
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("is not empty"));
+        }
+        assertEquals(5, runtime.getVariableValue("myVar"));
+        assertEquals(4, runtime.executeQuery("select * from MyWindow").getArray().length);
+    }
+
+    public void testInvalid() throws Exception {
+        epServiceOne.getEPAdministrator().getDeploymentAdmin().parseDeploy(EPL);
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        epServiceOne.getEPAdministrator().getSnapshotAdmin().snapshot(output);
+
+        try {
+            epServiceTwo.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(output.toByteArray()));
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertEquals("Named window by name 'MyWindow' does not exist", ex.getMessage());
+        }
+
+        try {
+            epServiceTwo.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertEquals("Input is not a snapshot", ex.getMessage());
+        }
+
+        EPStatement stmt = epServiceOne.getEPAdministrator().createEPL("create table MyMedianTable(k string primary key, med median(int))");
+        output.reset();
+        try {
+            epServiceOne.getEPAdministrator().getSnapshotAdmin().snapshot(output);
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertEquals("Table by name 'MyMedianTable' column 'med' cannot be written: Aggregation 'AggregatorMedian' keeps state of type 'SortedDoubleTree' that is not supported by snapshots", ex.getMessage());
+        }
+        assertEquals(0, output.size());
+        stmt.destroy();
+
+        epServiceOne.getEPAdministrator().createEPL("create table MyAccessTable(k string primary key, win window(*) @type(SupportBean))");
+        try {
+            epServiceOne.getEPAdministrator().getSnapshotAdmin().snapshot(output);
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertEquals("Table by name 'MyAccessTable' column 'win' is an access aggregation column, snapshot does not support access aggregation state", ex.getMessage());
+        }
+        assertEquals(0, output.size());
+    }
+
+    public void testAggregationTable() throws Exception {
+        String epl = "create window MyWindow#length(3) as SupportBean;\n" +
+                "insert into MyWindow select * from SupportBean;\n" +
+                "create table MyAggTable(k string primary key, total sum(int), cnt count(*), mx max(int), fst firstever(int), dev avedev(int), cntd count(distinct int), lst lastever(int));\n" +
+                "into table MyAggTable select sum(intPrimitive) as total, count(*) as cnt, max(intPrimitive) as mx, firstever(intPrimitive) as fst, " +
+                "avedev(intPrimitive) as dev, count(distinct intPrimitive) as cntd, lastever(intPrimitive) as lst from MyWindow group by theString;\n";
+        String query = "select k, total, cnt, mx, fst, dev, cntd, lst from MyAggTable order by k";
+        String[] fields = "k,total,cnt,mx,fst,dev,cntd,lst".split(",");
+        epServiceOne.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        sendSupportBeans(epServiceOne, "A", 10, "A", 30, "B", 5, "A", 10);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        EPSnapshotSummary summary = epServiceOne.getEPAdministrator().getSnapshotAdmin().snapshot(output);
+        assertEquals(3, summary.getNumNamedWindowEvents());
+        assertEquals(2, summary.getNumTableRows());
+
+        epServiceTwo.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        epServiceTwo.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(output.toByteArray()));
+        EPAssertionUtil.assertPropsPerRow(epServiceTwo.getEPRuntime().executeQuery(query).getArray(), fields,
+                new Object[][] {{"A", 40, 2L, 30, 10, 10d, 2L, 10}, {"B", 5, 1L, 5, 5, 0d, 1L, 5}});
+
+        // restored aggregation state continues to aggregate, including events leaving the named window
+        sendSupportBeans(epServiceOne, "A", 10, "A", 10, "A", 1);
+        sendSupportBeans(epServiceTwo, "A", 10, "A", 10, "A", 1);
+        Object[][] expected = EPAssertionUtil.eventsToObjectArr(epServiceOne.getEPRuntime().executeQuery(query).getArray(), fields);
+        EPAssertionUtil.assertPropsPerRow(epServiceTwo.getEPRuntime().executeQuery(query).getArray(), fields, expected);
+        EPAssertionUtil.assertPropsPerRow(epServiceTwo.getEPRuntime().executeQuery(query).getArray(), "k,total,cnt,mx,fst,cntd,lst".split(","),
+                new Object[][] {{"A", 21, 3L, 10, 10, 2L, 1}, {"B", null, 0L, null, 5, 0L, 5}});
+    }
+
+    public void testRestoreNoDispatch() throws Exception {
+        String epl = "create window MyWindow#keepall as SupportBean;\n" +
+                "insert into MyWindow select * from SupportBean;\n" +
+                "create window MyCopyWindow#keepall as SupportBean;\n" +
+                "insert into MyCopyWindow select * from MyWindow;\n" +
+                "@Name('consumer') select * from MyWindow;\n";
+        epServiceOne.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        epServiceOne.getEPAdministrator().getSnapshotAdmin().snapshot(output);
+
+        epServiceTwo.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        SupportUpdateListener listenerWindow = new SupportUpdateListener();
+        SupportUpdateListener listenerConsumer = new SupportUpdateListener();
+        epServiceTwo.getEPAdministrator().getStatement("consumer").addListener(listenerConsumer);
+        epServiceTwo.getEPAdministrator().createEPL("select * from MyCopyWindow").addListener(listenerWindow);
+        EPSnapshotSummary summary = epServiceTwo.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(4, summary.getNumNamedWindowEvents());
+
+        assertFalse(listenerConsumer.isInvoked());
+        assertFalse(listenerWindow.isInvoked());
+        assertEquals(2, epServiceTwo.getEPRuntime().executeQuery("select * from MyWindow").getArray().length);
+        assertEquals(2, epServiceTwo.getEPRuntime().executeQuery("select * from MyCopyWindow").getArray().length);
+
+        epServiceTwo.getEPRuntime().sendEvent(new SupportBean("E3", 3));
+        assertEquals("E3", listenerConsumer.assertOneGetNewAndReset().get("theString"));
+        assertEquals(3, epServiceTwo.getEPRuntime().executeQuery("select * from MyCopyWindow").getArray().length);
+    }
+
+    public void testTimeWindowTimestamps() throws Exception {
+        String epl = "create window MyTimeWindow#time(10 sec) as SupportBean;\n" +
+                "insert into MyTimeWindow select * from SupportBean;\n";
+        epServiceOne.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epServiceOne.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epServiceOne.getEPRuntime().sendEvent(new CurrentTimeEvent(5000));
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        epServiceOne.getEPAdministrator().getSnapshotAdmin().snapshot(output);
+
+        EPRuntime runtime = epServiceTwo.getEPRuntime();
+        runtime.sendEvent(new CurrentTimeEvent(8000));
+        epServiceTwo.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+        epServiceTwo.getEPAdministrator().getSnapshotAdmin().restore(new ByteArrayInputStream(output.toByteArray()));
+        String query = "select theString from MyTimeWindow";
+        EPAssertionUtil.assertPropsPerRow(runtime.executeQuery(query).getArray(), "theString".split(","), new Object[][] {{"E1"}, {"E2"}});
+
+        runtime.sendEvent(new CurrentTimeEvent(9999));
+        assertEquals(2, runtime.executeQuery(query).getArray().length);
+        runtime.sendEvent(new CurrentTimeEvent(10000));
+        EPAssertionUtil.assertPropsPerRow(runtime.executeQuery(query).getArray(), "theString".split(","), new Object[][] {{"E2"}});
+        runtime.sendEvent(new CurrentTimeEvent(15000));
+        assertEquals(0, runtime.executeQuery(query).getArray().length);
+    }
+
+    private static void sendSupportBeans(EPServiceProvider epService, Object... stringAndInts) {
+        for (int i = 0; i < stringAndInts.length; i += 2) {
+            epService.getEPRuntime().sendEvent(new SupportBean((String) stringAndInts[i], (Integer) stringAndInts[i + 1]));
+        }
+    }
+
+    private static Configuration getConfiguration() {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+        configuration.addEventType(SupportBean_S1.class);
+        return configuration;
+    }
+}
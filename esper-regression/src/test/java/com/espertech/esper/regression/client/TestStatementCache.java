@@ -0,0 +1,176 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.deploy.DeploymentOptions;
+import com.espertech.esper.client.deploy.EPDeploymentAdmin;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPAdministratorSPI;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.service.StatementSpecCacheFile;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.util.Version;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public class TestStatementCache extends TestCase {
+
+    private static final String EPL = "@Name('s0') select theString, sum(intPrimitive) as total from SupportBean#keepall where intPrimitive > 0";
+
+    private File directory;
+    private Configuration configuration;
+
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("esper-statement-cache").toFile();
+        configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.getEngineDefaults().getExecution().setStatementCacheDirectory(directory.getAbsolutePath());
+    }
+
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testWarmStart() {
+        EPServiceProvider epService = startEngine();
+        StatementSpecCacheFile cache = getCache(epService);
+        assertEquals(0, cache.getNumHits());
+        assertEquals(1, cache.getNumMisses());
+        assertEquals(1, directory.listFiles().length);
+        assertStatement(epService);
+        epService.destroy();
+
+        // the second engine uses the cached statement and behaves the same
+        epService = startEngine();
+        cache = getCache(epService);
+        assertEquals(1, cache.getNumHits());
+        assertEquals(0, cache.getNumMisses());
+        assertEquals(EPL, epService.getEPAdministrator().getStatement("s0").getText());
+        assertStatement(epService);
+        epService.destroy();
+
+        // a changed configuration does not use entries of the prior configuration
+        configuration.addEventType("SupportBeanTwo", SupportBean.class);
+        epService = startEngine();
+        assertEquals(0, getCache(epService).getNumHits());
+        assertEquals(2, directory.listFiles().length);
+        epService.destroy();
+    }
+
+    public void testUncacheable() {
+        String epl = "select * from SupportBean where intPrimitive = ?";
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestStatementCache.class.getName(), configuration);
+        epService.getEPAdministrator().prepareEPL(epl);
+        StatementSpecCacheFile cache = getCache(epService);
+        assertEquals(1, cache.getNumMisses());
+        assertEquals(1, directory.listFiles().length);
+        assertFalse(((EPAdministratorSPI) epService.getEPAdministrator()).isStatementCached(epl));
+        epService.destroy();
+
+        // the second engine finds the statement recorded as not cacheable and compiles it without checking again
+        epService = EPServiceProviderManager.getProvider(TestStatementCache.class.getName(), configuration);
+        EPPreparedStatement prepared = epService.getEPAdministrator().prepareEPL(epl);
+        cache = getCache(epService);
+        assertEquals(0, cache.getNumHits());
+        assertEquals(0, cache.getNumMisses());
+        assertEquals(1, cache.getNumUncacheableHits());
+        prepared.setObject(1, 10);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().create(prepared).addListener(listener);
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        assertTrue(listener.isInvoked());
+        epService.destroy();
+    }
+
+    public void testMaxEntries() {
+        configuration.getEngineDefaults().getExecution().setStatementCacheMaxEntries(4);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestStatementCache.class.getName(), configuration);
+        for (int i = 0; i < 10; i++) {
+            epService.getEPAdministrator().createEPL("select * from SupportBean where intPrimitive = " + i);
+            assertTrue(directory.listFiles().length <= 4);
+        }
+        assertEquals(10, getCache(epService).getNumMisses());
+        for (File file : directory.listFiles()) {
+            assertTrue(file.getName(), file.getName().startsWith(Version.VERSION + "-"));
+        }
+        epService.destroy();
+    }
+
+    public void testCorruptEntry() throws Exception {
+        EPServiceProvider epService = startEngine();
+        epService.destroy();
+
+        // a corrupt entry is ignored and replaced
+        File file = directory.listFiles()[0];
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+        epService = startEngine();
+        assertEquals(0, getCache(epService).getNumHits());
+        assertStatement(epService);
+        epService.destroy();
+
+        epService = startEngine();
+        assertEquals(1, getCache(epService).getNumHits());
+        epService.destroy();
+    }
+
+    public void testDeployCompileThreads() throws Exception {
+        String module = EPL + ";\n@Name('s1') select count(*) as cnt from SupportBean;\n";
+        DeploymentOptions options = new DeploymentOptions();
+        options.setCompileThreads(2);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestStatementCache.class.getName(), configuration);
+        epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(module);
+        assertEquals(2, directory.listFiles().length);
+        epService.destroy();
+
+        // parallel compile of cached statements compiles each statement from its cache entry and creates it from the compile result
+        epService = EPServiceProviderManager.getProvider(TestStatementCache.class.getName(), configuration);
+        EPDeploymentAdmin deploymentAdmin = epService.getEPAdministrator().getDeploymentAdmin();
+        deploymentAdmin.deploy(deploymentAdmin.parse(module), options);
+        StatementSpecCacheFile cache = getCache(epService);
+        assertEquals(2, cache.getNumHits());
+        assertEquals(0, cache.getNumMisses());
+        assertStatement(epService);
+        epService.destroy();
+    }
+
+    private EPServiceProvider startEngine() {
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestStatementCache.class.getName(), configuration);
+        epService.getEPAdministrator().createEPL(EPL);
+        return epService;
+    }
+
+    private static StatementSpecCacheFile getCache(EPServiceProvider epService) {
+        return ((EPServiceProviderSPI) epService).getServicesContext().getStatementSpecCache();
+    }
+
+    private static void assertStatement(EPServiceProvider epService) {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().getStatement("s0").addListener(listener);
+        String[] fields = "theString,total".split(",");
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E1", 10});
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", -1));
+        assertFalse(listener.isInvoked());
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 5));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E3", 15});
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.hook.ExceptionHandlerContext;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportExceptionHandlerFactory;
+import com.espertech.esper.supportregression.epl.SupportStaticMethodLib;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestThreadedConfigFanOut extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolFanOut(true);
+        config.getEngineDefaults().getThreading().setThreadPoolFanOutNumThreads(4);
+        config.getEngineDefaults().getExpression().setUdfCache(false);
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        config.addImport(SupportStaticMethodLib.class.getName());
+        config.addPlugInAggregationFunctionFactory("myinvalidagg", TestExceptionHandler.InvalidAggTestFactory.class.getName());
+        config.getEngineDefaults().getExceptionHandling().addClass(SupportExceptionHandlerFactory.class);
+        SupportExceptionHandlerFactory.getFactoryContexts().clear();
+        SupportExceptionHandlerFactory.getHandlers().clear();
+
+        epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+        assertTrue(((EPServiceProviderSPI) epService).getThreadingService().isFanOutThreading());
+    }
+
+    public void tearDown()
+    {
+        epService.destroy();
+    }
+
+    public void testParallelAndOrderedPerStatement() throws Exception
+    {
+        int numStatements = 8;
+        MyOrderListener[] listeners = new MyOrderListener[numStatements];
+        for (int i = 0; i < numStatements; i++) {
+            listeners[i] = new MyOrderListener();
+            epService.getEPAdministrator().createEPL("select intPrimitive from SupportBean where SupportStaticMethodLib.sleepReturnTrue(" + (i % 2) + ")").addListener(listeners[i]);
+        }
+
+        int numEvents = 200;
+        Set<Thread> threads = new HashSet<Thread>();
+        for (int i = 0; i < numEvents; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+
+            // all statements are done processing when the send returns
+            for (MyOrderListener listener : listeners) {
+                assertEquals(i + 1, listener.getValues().size());
+            }
+        }
+
+        for (MyOrderListener listener : listeners) {
+            for (int i = 0; i < numEvents; i++) {
+                assertEquals(i, (int) listener.getValues().get(i));
+            }
+            threads.addAll(listener.getThreads());
+        }
+        assertFalse(threads.contains(Thread.currentThread()));
+        for (Thread thread : threads) {
+            assertTrue(thread.getName(), thread.getName().startsWith("com.espertech.esper.FanOut-"));
+        }
+    }
+
+    public void testInsertInto() throws Exception
+    {
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString, intPrimitive from SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString, intPrimitive * 10 as intPrimitive from SupportBean");
+        SupportUpdateListener listenerStream = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select sum(intPrimitive) as total from MyStream").addListener(listenerStream);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        EventBean[] totals = listenerStream.getNewDataListFlattened();
+        assertEquals(2, totals.length);
+        assertEquals(11, totals[1].get("total"));
+    }
+
+    public void testStatementManagementExcluded() throws Exception
+    {
+        for (int i = 0; i < 2; i++) {
+            epService.getEPAdministrator().createEPL("select * from SupportBean where SupportStaticMethodLib.sleepReturnTrue(500)");
+        }
+
+        // statement management from another thread waits for the event to complete processing
+        final long[] createdTime = new long[1];
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                epService.getEPAdministrator().createEPL("select * from SupportBean_S0");
+                createdTime[0] = System.currentTimeMillis();
+            }
+        });
+        thread.start();
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        long sentTime = System.currentTimeMillis();
+        thread.join();
+        assertTrue(createdTime[0] >= sentTime);
+    }
+
+    public void testExceptionHandled()
+    {
+        String epl = "@Name('invalid') select myinvalidagg() from SupportBean";
+        epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from SupportBean").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertEquals("E1", listener.assertOneGetNewAndReset().get("theString"));
+        List<SupportExceptionHandlerFactory.SupportExceptionHandler> handlers = SupportExceptionHandlerFactory.getHandlers();
+        List<ExceptionHandlerContext> contexts = handlers.get(handlers.size() - 1).getContexts();
+        assertEquals(1, contexts.size());
+        assertEquals("invalid", contexts.get(0).getStatementName());
+        assertEquals("Sample exception", contexts.get(0).getThrowable().getMessage());
+    }
+
+    public void testSelfJoinAndSingleMatch()
+    {
+        SupportUpdateListener listenerJoin = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select a.intPrimitive as a, b.intPrimitive as b from SupportBean#lastevent as a, SupportBean#lastevent as b").addListener(listenerJoin);
+        SupportUpdateListener listenerOne = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from SupportBean").addListener(listenerOne);
+        MyOrderListener listenerTwo = new MyOrderListener();
+        epService.getEPAdministrator().createEPL("select id as intPrimitive from SupportBean_S0").addListener(listenerTwo);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertEquals(1, listenerJoin.assertOneGetNewAndReset().get("b"));
+        assertEquals("E1", listenerOne.assertOneGetNewAndReset().get("theString"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2));
+        // a single matching statement is processed by the sending thread
+        assertEquals(Collections.singletonList(2), listenerTwo.getValues());
+        assertEquals(Collections.singleton(Thread.currentThread()), listenerTwo.getThreads());
+    }
+
+    private static class MyOrderListener implements UpdateListener {
+        private final List<Integer> values = Collections.synchronizedList(new ArrayList<Integer>());
+        private final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            values.add((Integer) newEvents[0].get("intPrimitive"));
+            threads.add(Thread.currentThread());
+        }
+
+        public List<Integer> getValues() {
+            return values;
+        }
+
+        public Set<Thread> getThreads() {
+            return threads;
+        }
+    }
+}
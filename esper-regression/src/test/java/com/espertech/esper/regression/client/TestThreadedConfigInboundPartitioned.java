@@ -0,0 +1,171 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportMarketDataBean;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestThreadedConfigInboundPartitioned extends TestCase
+{
+    public void testPartitionedOrderPerKey() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().addThreadPoolInboundPartitionKey("SupportBean", "theString");
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportMarketDataBean", SupportMarketDataBean.class);
+        config.addEventType("MyMap", Collections.<String, Object>singletonMap("id", String.class));
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().isInboundThreadingPartitioned());
+        assertNull(spi.getThreadingService().getInboundThreadPool());
+
+        MyOrderSubscriber subscriber = new MyOrderSubscriber();
+        epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean").setSubscriber(subscriber);
+        MyCountListener listenerMarket = new MyCountListener();
+        epService.getEPAdministrator().createEPL("select * from SupportMarketDataBean").addListener(listenerMarket);
+        MyCountListener listenerMap = new MyCountListener();
+        epService.getEPAdministrator().createEPL("select * from MyMap").addListener(listenerMap);
+
+        int numKeys = 20;
+        int numEventsPerKey = 500;
+        EventSender sender = epService.getEPRuntime().getEventSender("SupportBean");
+        for (int i = 0; i < numEventsPerKey; i++) {
+            for (int key = 0; key < numKeys; key++) {
+                SupportBean bean = new SupportBean("K" + key, i);
+                if (key % 2 == 0) {
+                    epService.getEPRuntime().sendEvent(bean);
+                } else {
+                    sender.sendEvent(bean);
+                }
+            }
+            epService.getEPRuntime().sendEvent(new SupportMarketDataBean("IBM", i, 0L, null));
+            epService.getEPRuntime().sendEvent(Collections.<String, Object>singletonMap("id", "E" + i), "MyMap");
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while ((subscriber.getCount() < numKeys * numEventsPerKey || listenerMarket.getCount() < numEventsPerKey || listenerMap.getCount() < numEventsPerKey)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(numKeys * numEventsPerKey, subscriber.getCount());
+        assertTrue(subscriber.isInOrder());
+        assertEquals(numKeys, subscriber.getThreadsPerKey().size());
+        Set<Thread> threads = new HashSet<Thread>();
+        for (Set<Thread> keyThreads : subscriber.getThreadsPerKey().values()) {
+            assertEquals(1, keyThreads.size());
+            threads.addAll(keyThreads);
+        }
+        assertTrue(threads.size() > 1);
+        assertEquals(numEventsPerKey, listenerMarket.getCount());
+        assertEquals(numEventsPerKey, listenerMap.getCount());
+
+        epService.destroy();
+    }
+
+    public void testPartitionedOrderPerKeyBatch() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().addThreadPoolInboundPartitionKey("SupportBean", "theString");
+        config.addEventType("SupportBean", SupportBean.class);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+
+        MyOrderSubscriber subscriber = new MyOrderSubscriber();
+        epService.getEPAdministrator().createEPL("select theString, intPrimitive from SupportBean").setSubscriber(subscriber);
+
+        // each batch is submitted as one unit per shard, keeping the order per key
+        int numKeys = 20;
+        int numBatches = 100;
+        int numEventsPerKeyPerBatch = 5;
+        for (int batch = 0; batch < numBatches; batch++) {
+            List<Object> events = new ArrayList<Object>();
+            for (int i = 0; i < numEventsPerKeyPerBatch; i++) {
+                for (int key = 0; key < numKeys; key++) {
+                    events.add(new SupportBean("K" + key, batch * numEventsPerKeyPerBatch + i));
+                }
+            }
+            epService.getEPRuntime().sendEvents(events);
+        }
+
+        int expected = numKeys * numBatches * numEventsPerKeyPerBatch;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (subscriber.getCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, subscriber.getCount());
+        assertTrue(subscriber.isInOrder());
+        for (Set<Thread> keyThreads : subscriber.getThreadsPerKey().values()) {
+            assertEquals(1, keyThreads.size());
+        }
+
+        epService.destroy();
+    }
+
+    public static class MyOrderSubscriber {
+        private final Map<String, Integer> lastPerKey = new HashMap<String, Integer>();
+        private final Map<String, Set<Thread>> threadsPerKey = new HashMap<String, Set<Thread>>();
+        private boolean inOrder = true;
+        private int count;
+
+        public synchronized void update(String theString, int intPrimitive) {
+            Integer last = lastPerKey.put(theString, intPrimitive);
+            if (last != null && last + 1 != intPrimitive) {
+                inOrder = false;
+            }
+            Set<Thread> threads = threadsPerKey.get(theString);
+            if (threads == null) {
+                threads = new HashSet<Thread>();
+                threadsPerKey.put(theString, threads);
+            }
+            threads.add(Thread.currentThread());
+            count++;
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized boolean isInOrder() {
+            return inOrder;
+        }
+
+        public synchronized Map<String, Set<Thread>> getThreadsPerKey() {
+            return threadsPerKey;
+        }
+    }
+
+    public static class MyCountListener implements UpdateListener {
+        private int count;
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            count += newEvents.length;
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+    }
+}
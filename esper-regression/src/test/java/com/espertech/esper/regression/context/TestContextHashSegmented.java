@@ -161,7 +161,7 @@ public class TestContextHashSegmented extends TestCase {
 
         // invalid hash code function
         epl = "create context ACtx coalesce hash_code_xyz(intPrimitive) from SupportBean granularity 10";
-        tryInvalid(epl, "Error starting statement: For context 'ACtx' expected a hash function that is any of {consistent_hash_crc32, hash_code} or a plug-in single-row function or script but received 'hash_code_xyz' [");
+        tryInvalid(epl, "Error starting statement: For context 'ACtx' expected a hash function that is any of {consistent_hash_crc32, hash_code, murmur3} or a plug-in single-row function or script but received 'hash_code_xyz' [");
 
         // invalid no-param hash code function
         epl = "create context ACtx coalesce hash_code() from SupportBean granularity 10";
@@ -227,6 +227,9 @@ public class TestContextHashSegmented extends TestCase {
     public void testHashSegmentedManyArg() {
         tryHash("consistent_hash_crc32(theString, intPrimitive)");
         tryHash("hash_code(theString, intPrimitive)");
+        tryHash("murmur3(theString, intPrimitive)");
+        tryHash("murmur3(theString)");
+        tryHash("consistent_hash_crc32(intPrimitive, theString, boolPrimitive, doublePrimitive)");
     }
 
     private void tryHash(String hashFunc) {
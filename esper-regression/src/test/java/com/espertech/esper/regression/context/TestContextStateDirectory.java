@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.context;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.context.ContextPartitionDescriptor;
+import com.espertech.esper.client.context.ContextPartitionIdentifierPartitioned;
+import com.espertech.esper.client.context.ContextPartitionSelectorAll;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class TestContextStateDirectory extends TestCase {
+
+    private static final String EPL_CONTEXT = "create context SegmentedByString partition by theString from SupportBean";
+    private static final String EPL_STATEMENT = "@Name('s0') context SegmentedByString select theString, count(*) as cnt from SupportBean";
+
+    private File directory;
+    private Configuration configuration;
+
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("esper-context-state").toFile();
+        configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.getEngineDefaults().getExecution().setContextStateDirectory(directory.getAbsolutePath());
+    }
+
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testRestorePartitions() {
+        EPServiceProvider epService = startEngine();
+        for (String key : new String[] {"E1", "E2", "E3"}) {
+            epService.getEPRuntime().sendEvent(new SupportBean(key, 0));
+        }
+        assertPartitionKeys(epService, "E1", "E2", "E3");
+        epService.destroy();
+
+        // the partitions exist before any event arrives; statement state such as the count is not restored
+        epService = startEngine();
+        assertPartitionKeys(epService, "E1", "E2", "E3");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().getStatement("s0").addListener(listener);
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "theString,cnt".split(","), new Object[] {"E2", 1L});
+        epService.getEPRuntime().sendEvent(new SupportBean("E4", 0));
+        assertPartitionKeys(epService, "E1", "E2", "E3", "E4");
+        epService.destroy();
+
+        // destroying the context while the engine runs removes its state
+        epService = startEngine();
+        assertPartitionKeys(epService, "E1", "E2", "E3", "E4");
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.destroy();
+
+        epService = startEngine();
+        assertPartitionKeys(epService);
+        epService.destroy();
+    }
+
+    public void testInitializeRetainsPartitions() {
+        EPServiceProvider epService = startEngine();
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 0));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+
+        // initializing behaves like a restart: the context partitions return when the context is created again
+        epService.initialize();
+        assertNull(epService.getEPAdministrator().getStatement("s0"));
+        epService.getEPAdministrator().createEPL(EPL_CONTEXT);
+        epService.getEPAdministrator().createEPL(EPL_STATEMENT);
+        assertPartitionKeys(epService, "E1", "E2");
+
+        // destroying the context discards the context partitions
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.initialize();
+        epService.getEPAdministrator().createEPL(EPL_CONTEXT);
+        epService.getEPAdministrator().createEPL(EPL_STATEMENT);
+        assertPartitionKeys(epService);
+        epService.destroy();
+    }
+
+    private EPServiceProvider startEngine() {
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestContextStateDirectory.class.getName(), configuration);
+        epService.getEPAdministrator().createEPL(EPL_CONTEXT);
+        epService.getEPAdministrator().createEPL(EPL_STATEMENT);
+        return epService;
+    }
+
+    private static void assertPartitionKeys(EPServiceProvider epService, String... expected) {
+        Map<Integer, ContextPartitionDescriptor> descriptors = epService.getEPAdministrator().getContextPartitionAdmin().getContextPartitions("SegmentedByString", ContextPartitionSelectorAll.INSTANCE).getDescriptors();
+        Set<Object> keys = new HashSet<Object>();
+        for (ContextPartitionDescriptor descriptor : descriptors.values()) {
+            keys.add(((ContextPartitionIdentifierPartitioned) descriptor.getIdentifier()).getKeys()[0]);
+        }
+        EPAssertionUtil.assertEqualsAnyOrder(expected, keys.toArray());
+    }
+}
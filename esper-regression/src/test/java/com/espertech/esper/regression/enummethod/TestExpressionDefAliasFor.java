@@ -11,12 +11,14 @@ package com.espertech.esper.regression.enummethod;/*
 import com.espertech.esper.client.*;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.client.scopetest.SupportUpdateListener;
-import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.client.soda.*;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.supportregression.bean.SupportBean;
 import com.espertech.esper.supportregression.client.SupportConfigFactory;
 import junit.framework.TestCase;
 
+import java.util.Collections;
+
 public class TestExpressionDefAliasFor extends TestCase {
 
     private EPServiceProvider epService;
@@ -105,6 +107,41 @@ public class TestExpressionDefAliasFor extends TestCase {
         assertEquals(2, listener.assertOneGetNewAndReset().get("myaliastwo"));
     }
 
+    public void testAliasSODAMatchesEPL() {
+        epService.getEPAdministrator().createEPL("create expression myglobalalias alias for {intPrimitive * 10}");
+        String[] fields = "c0,c1,c2,c3".split(",");
+        String epl = "expression total alias for {sum(intPrimitive)} " +
+                "select total as c0, myglobalalias as c1, theString as c2, total+myglobalalias as c3 from SupportBean";
+        EPStatement stmtEPL = epService.getEPAdministrator().createEPL(epl);
+        stmtEPL.addListener(listener);
+
+        // an object model built by an application refers to aliases as plain property names
+        EPStatementObjectModel model = new EPStatementObjectModel();
+        model.setExpressionDeclarations(Collections.singletonList(new ExpressionDeclaration("total", Collections.<String>emptyList(), Expressions.sum("intPrimitive"), true)));
+        model.setSelectClause(SelectClause.create()
+                .add(Expressions.property("total"), "c0")
+                .add(Expressions.property("myglobalalias"), "c1")
+                .add(Expressions.property("theString"), "c2")
+                .add(Expressions.plus("total", "myglobalalias"), "c3"));
+        model.setFromClause(FromClause.create(FilterStream.create("SupportBean")));
+        assertEquals(epl, model.toEPL());
+        SupportUpdateListener listenerSODA = new SupportUpdateListener();
+        EPStatement stmtSODA = epService.getEPAdministrator().create(model);
+        stmtSODA.addListener(listenerSODA);
+
+        for (String field : fields) {
+            assertEquals(stmtEPL.getEventType().getPropertyType(field), stmtSODA.getEventType().getPropertyType(field));
+        }
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 2));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {2, 20, "E1", 22});
+        EPAssertionUtil.assertProps(listenerSODA.assertOneGetNewAndReset(), fields, new Object[] {2, 20, "E1", 22});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 3));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {5, 30, "E2", 35});
+        EPAssertionUtil.assertProps(listenerSODA.assertOneGetNewAndReset(), fields, new Object[] {5, 30, "E2", 35});
+    }
+
     public void testInvalid() {
         tryInvalid("expression total alias for {sum(xxx)} select total+1 from SupportBean",
                 "Error starting statement: Failed to validate select-clause expression 'total+1': Error validating expression alias 'total': Failed to validate alias expression body expression 'sum(xxx)': Property named 'xxx' is not valid in any stream [expression total alias for {sum(xxx)} select total+1 from SupportBean]");
@@ -0,0 +1,102 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.event;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.event.arr.ObjectArrayColumnarEventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestObjectArrayEventColumnar extends TestCase {
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    protected void setUp() {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("MyColumnarEvent", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, Long.class});
+        configuration.addEventType(SupportBean.class);
+
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.startTest(epService, this.getClass(), getName());
+        }
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.endTest();
+        }
+        listener = null;
+    }
+
+    public void testSendColumnar() {
+        String[] fields = "symbol,price,volume".split(",");
+        epService.getEPAdministrator().createEPL("select * from MyColumnarEvent(price > 10)").addListener(listener);
+        SupportUpdateListener listenerSum = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select sum(volume) as total from MyColumnarEvent").addListener(listenerSum);
+        SupportUpdateListener listenerInsert = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("insert into MyStream select symbol from MyColumnarEvent");
+        epService.getEPAdministrator().createEPL("select * from MyStream").addListener(listenerInsert);
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("create window MyWindow#keepall as MyColumnarEvent");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from MyColumnarEvent");
+
+        String[] symbols = new String[]{"E1", "E2", "E3", "E4"};
+        double[] prices = new double[]{5, 11, 12, 13};
+        long[] volumes = new long[]{100, 200, 300, 400};
+        epService.getEPRuntime().sendEventColumnar(new Object[]{symbols, prices, volumes}, 3, "MyColumnarEvent");
+
+        // the output of the rows of the batch is delivered together
+        assertEquals(1, listener.getNewDataList().size());
+        EventBean[] received = listener.getAndResetLastNewData();
+        EPAssertionUtil.assertPropsPerRow(received, fields, new Object[][]{{"E2", 11d, 200L}, {"E3", 12d, 300L}});
+        assertTrue(received[0] instanceof ObjectArrayColumnarEventBean);
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{"E2", 11d, 200L}, (Object[]) received[0].getUnderlying());
+
+        assertEquals(1, listenerSum.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listenerSum.getAndResetLastNewData(), "total".split(","), new Object[][]{{100L}, {300L}, {600L}});
+        EPAssertionUtil.assertPropsPerRow(listenerInsert.getNewDataListFlattened(), "symbol".split(","), new Object[][]{{"E1"}, {"E2"}, {"E3"}});
+        listenerInsert.reset();
+        EPAssertionUtil.assertPropsPerRow(stmtWindow.iterator(), fields, new Object[][]{{"E1", 5d, 100L}, {"E2", 11d, 200L}, {"E3", 12d, 300L}});
+
+        // interleave with regular sends
+        epService.getEPRuntime().sendEvent(new Object[]{"E5", 20d, 500L}, "MyColumnarEvent");
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E5", 20d, 500L});
+        epService.getEPRuntime().sendEventColumnar(new Object[]{new String[]{"E6"}, new double[]{21}, new Long[]{null}}, 1, "MyColumnarEvent");
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E6", 21d, null});
+        assertEquals(1100L, listenerSum.getLastNewData()[0].get("total"));
+
+        // empty batch
+        epService.getEPRuntime().sendEventColumnar(new Object[]{new String[0], new double[0], new long[0]}, 0, "MyColumnarEvent");
+        assertFalse(listener.isInvoked());
+    }
+
+    public void testInvalid() {
+        try {
+            epService.getEPRuntime().sendEventColumnar(new Object[0], 0, "SupportBean");
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Event type named 'SupportBean' has not been defined or is not a Object-array event type, the name 'SupportBean' refers to a " + SupportBean.class.getName() + " event type", ex.getMessage());
+        }
+
+        try {
+            epService.getEPRuntime().sendEventColumnar(new Object[]{new String[1], new long[1], new long[1]}, 1, "MyColumnarEvent");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Column 1 of type 'long(Array)' does not match property 'price' of type 'double'", ex.getMessage());
+        }
+    }
+}
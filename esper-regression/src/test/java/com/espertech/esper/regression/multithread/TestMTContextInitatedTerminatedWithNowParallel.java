@@ -17,6 +17,12 @@ import com.espertech.esper.supportregression.bean.SupportBean;
 import com.espertech.esper.supportregression.client.SupportConfigFactory;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TestMTContextInitatedTerminatedWithNowParallel extends TestCase {
@@ -65,6 +71,50 @@ public class TestMTContextInitatedTerminatedWithNowParallel extends TestCase {
         assertEquals(numEvents, total);
     }
 
+    public void testStartNowCountReliablyLockFreeRead() throws Exception {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.getEngineDefaults().getExecution().setFilterServiceProfile(ConfigurationEngineDefaults.FilterServiceProfile.LOCKFREEREAD);
+        EPServiceProvider epServiceLockFree = EPServiceProviderManager.getProvider(TestMTContextInitatedTerminatedWithNowParallel.class.getName(), configuration);
+        epServiceLockFree.initialize();
+        epServiceLockFree.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epServiceLockFree.getEPAdministrator().createEPL("create context MyCtx start @now end after 1 second");
+        EPStatement stmt = epServiceLockFree.getEPAdministrator().createEPL("context MyCtx select count(*) as cnt from SupportBean output last when terminated");
+        stmt.addListener(listener);
+
+        // events sent by multiple threads must each be counted once while partitions terminate and restart
+        AtomicBoolean latch = new AtomicBoolean(true);
+        Thread t = new Thread(new MyTimeAdvancingRunnable(epServiceLockFree, latch, 10, -1));
+        t.start();
+
+        final int numThreads = 3;
+        final int numEvents = 5000;
+        final EPRuntime runtime = epServiceLockFree.getEPRuntime();
+        ExecutorService threadPool = Executors.newFixedThreadPool(numThreads);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < numThreads; i++) {
+            futures.add(threadPool.submit(() -> {
+                for (int j = 0; j < numEvents; j++) {
+                    runtime.sendEvent(new SupportBean());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        threadPool.shutdown();
+        latch.set(false);
+        t.join();
+        runtime.sendEvent(new CurrentTimeEvent(Integer.MAX_VALUE));
+
+        long total = 0;
+        for (EventBean event : listener.getNewDataListFlattened()) {
+            total += (Long) event.get("cnt");
+        }
+        assertEquals(numThreads * numEvents, total);
+        epServiceLockFree.destroy();
+    }
+
     public static class MyTimeAdvancingRunnable implements Runnable {
         private final EPServiceProvider epService;
         private final AtomicBoolean latch;
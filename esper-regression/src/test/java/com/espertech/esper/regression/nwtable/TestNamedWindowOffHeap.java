@@ -0,0 +1,149 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.event.offheap.OffHeapEventBean;
+import com.espertech.esper.event.offheap.OffHeapRowStore;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.bean.SupportBean_S1;
+import com.espertech.esper.supportregression.bean.SupportBean_S2;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+import com.espertech.esper.util.EventRepresentationChoice;
+import junit.framework.TestCase;
+
+public class TestNamedWindowOffHeap extends TestCase {
+    private EPServiceProviderSPI epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.addEventType(SupportBean_S0.class);
+        config.addEventType(SupportBean_S1.class);
+        config.addEventType(SupportBean_S2.class);
+        epService = (EPServiceProviderSPI) EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.startTest(epService, this.getClass(), getName());
+        }
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.endTest();
+        }
+        listener = null;
+    }
+
+    public void testOnActions() {
+        runAssertionOnActions(EventRepresentationChoice.ARRAY);
+        runAssertionOnActions(EventRepresentationChoice.MAP);
+    }
+
+    public void testDiscardedByDataWindow() {
+        epService.getEPAdministrator().createEPL("@Hint('offheap_storage') " + EventRepresentationChoice.ARRAY.getAnnotationText() +
+                " create window MyWindow#firstunique(a) as (a string, b int)");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select theString as a, intPrimitive as b from SupportBean");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 11));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        assertEquals(2, getStore().getRowCount());
+    }
+
+    public void testBatchingDataWindowDelete() {
+        epService.getEPAdministrator().createEPL("@Hint('offheap_storage') " + EventRepresentationChoice.ARRAY.getAnnotationText() +
+                " create window MyWindow#length_batch(3) as (a string, b int)");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select theString as a, intPrimitive as b from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_S1 as s1 delete from MyWindow where a = s1.p10");
+
+        // the batch does not post rows deleted from the current batch, the remove stream of the named window releases them
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        assertEquals(2, getStore().getRowCount());
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E1"));
+        assertEquals(1, getStore().getRowCount());
+    }
+
+    public void testInvalid() {
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('offheap_storage') create window MyWindow#keepall as SupportBean",
+                "Error starting statement: Off-heap storage requires an object-array or map event type for named window 'MyWindow'");
+    }
+
+    private void runAssertionOnActions(EventRepresentationChoice eventRepresentationEnum) {
+        String[] fields = "a,b".split(",");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@Hint('offheap_storage') " + eventRepresentationEnum.getAnnotationText() +
+                " create window MyWindow#keepall as (a string, b int)");
+        epService.getEPAdministrator().createEPL("create index MyIndex on MyWindow(b)");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select theString as a, intPrimitive as b from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 update MyWindow set b = s0.id where a = s0.p00");
+        epService.getEPAdministrator().createEPL("on SupportBean_S1 as s1 delete from MyWindow where a = s1.p10");
+        epService.getEPAdministrator().createEPL("on SupportBean_S2 as s2 merge MyWindow where a = s2.p20 " +
+                "when matched then update set b = -1 " +
+                "when not matched then insert select s2.p20 as a, s2.id as b");
+        epService.getEPAdministrator().createEPL("select irstream * from MyWindow").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 30));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10}, {"E2", 20}, {"E3", 30}});
+        assertTrue(stmtWindow.iterator().next() instanceof OffHeapEventBean);
+        assertEquals(3, getStore().getRowCount());
+        listener.reset();
+
+        // update
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(21, "E2"));
+        EPAssertionUtil.assertProps(listener.assertPairGetIRAndReset(), fields, new Object[]{"E2", 21}, new Object[]{"E2", 20});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10}, {"E2", 21}, {"E3", 30}});
+        assertEquals(3, getStore().getRowCount());
+
+        // delete, the removed row remains readable
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E1"));
+        EventBean removed = listener.assertOneGetOldAndReset();
+        EPAssertionUtil.assertProps(removed, fields, new Object[]{"E1", 10});
+        assertFalse(((OffHeapEventBean) removed).isOffHeap());
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E2", 21}, {"E3", 30}});
+        assertEquals(2, getStore().getRowCount());
+
+        // merge
+        epService.getEPRuntime().sendEvent(new SupportBean_S2(40, "E4"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S2(0, "E3"));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E2", 21}, {"E3", -1}, {"E4", 40}});
+        assertEquals(3, getStore().getRowCount());
+
+        // index lookup
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyWindow where b = 21").getArray(), fields, new Object[][]{{"E2", 21}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyWindow where b = -1").getArray(), fields, new Object[][]{{"E3", -1}});
+
+        // fire-and-forget delete
+        epService.getEPRuntime().executeQuery("delete from MyWindow where a = 'E4'");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E2", 21}, {"E3", -1}});
+        assertEquals(2, getStore().getRowCount());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyWindow", false);
+    }
+
+    private OffHeapRowStore getStore() {
+        return epService.getNamedWindowMgmtService().getProcessor("MyWindow").getProcessorInstanceNoContext().getRootViewInstance().getOffHeapRowStore();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.start.EPStatementStartMethod;
+import com.espertech.esper.epl.table.mgmt.TableStateInstanceGroupedImpl;
+import com.espertech.esper.event.offheap.OffHeapEventBean;
+import com.espertech.esper.event.offheap.OffHeapRowStore;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.bean.SupportBean_S1;
+import com.espertech.esper.supportregression.bean.SupportBean_S2;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+import junit.framework.TestCase;
+
+public class TestTableOffHeap extends TestCase {
+    private EPServiceProviderSPI epService;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.addEventType(SupportBean_S0.class);
+        config.addEventType(SupportBean_S1.class);
+        config.addEventType(SupportBean_S2.class);
+        epService = (EPServiceProviderSPI) EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.startTest(epService, this.getClass(), getName());
+        }
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.endTest();
+        }
+    }
+
+    public void testOnActions() {
+        String[] fields = "k,v,total".split(",");
+        epService.getEPAdministrator().createEPL("@Hint('offheap_storage') create table MyTable(k string primary key, v int, total sum(int))");
+        epService.getEPAdministrator().createEPL("create index MyIndex on MyTable(v)");
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(intPrimitive) as total from SupportBean group by theString");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 update MyTable set v = s0.id where k = s0.p00");
+        epService.getEPAdministrator().createEPL("on SupportBean_S1 as s1 merge MyTable where k = s1.p10 " +
+                "when matched then update set v = -1 " +
+                "when not matched then insert select s1.p10 as k, s1.id as v");
+        epService.getEPAdministrator().createEPL("on SupportBean_S2 as s2 delete from MyTable where k = s2.p20");
+
+        // into-table creates rows and aggregates into the on-heap aggregation state
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 11));
+        assertRows(fields, new Object[][]{{"E1", null, 21}, {"E2", null, 20}});
+        assertTrue(getState().getRowForGroupKey("E1") instanceof OffHeapEventBean);
+        assertEquals(2, getStore().getRowCount());
+
+        // update
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(5, "E1"));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertRows(fields, new Object[][]{{"E1", 5, 22}, {"E2", null, 20}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select k from MyTable where v = 5").getArray(), "k".split(","), new Object[][]{{"E1"}});
+        assertEquals(2, getStore().getRowCount());
+
+        // merge
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(30, "E3"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E2"));
+        assertRows(fields, new Object[][]{{"E1", 5, 22}, {"E2", -1, 20}, {"E3", 30, null}});
+        assertEquals(3, getStore().getRowCount());
+
+        // delete
+        epService.getEPRuntime().sendEvent(new SupportBean_S2(0, "E1"));
+        assertRows(fields, new Object[][]{{"E2", -1, 20}, {"E3", 30, null}});
+        assertEquals(2, getStore().getRowCount());
+
+        // fire-and-forget delete of all rows
+        epService.getEPRuntime().executeQuery("delete from MyTable");
+        assertRows(fields, new Object[0][]);
+        assertEquals(0, getStore().getRowCount());
+    }
+
+    public void testInvalid() {
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('offheap_storage') create table MyTable(total sum(int))",
+                "Error starting statement: Off-heap storage requires primary key columns for table 'MyTable'");
+    }
+
+    private void assertRows(String[] fields, Object[][] expected) {
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), fields, expected);
+    }
+
+    private TableStateInstanceGroupedImpl getState() {
+        return (TableStateInstanceGroupedImpl) epService.getServicesContext().getTableService().getTableMetadata("MyTable").getState(EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID);
+    }
+
+    private OffHeapRowStore getStore() {
+        return getState().getOffHeapRowStore();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.epl.approx.HyperLogLog;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+
+public class TestAggregateExtApproxCountDistinct extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SketchEvent", Collections.<String, Object>singletonMap("sketch", HyperLogLog.class));
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testGroupBy() {
+        String[] fields = "theString,cnt".split(",");
+        String epl = "select theString, approxCountDistinct(intPrimitive,filter:intPrimitive>0) as cnt from SupportBean group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        assertEquals(Long.class, stmt.getEventType().getPropertyType("cnt"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G2", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G2", 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 11));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 2L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", -1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 2L});
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+    }
+
+    public void testTableAndMerge() {
+        epService.getEPAdministrator().createEPL("create table Visitors(page string primary key, cnt approxCountDistinct(int, 14))");
+        epService.getEPAdministrator().createEPL("into table Visitors select approxCountDistinct(intPrimitive, 14) as cnt from SupportBean group by theString");
+        for (int i = 0; i < 10000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("P1", i % 2000));
+            epService.getEPRuntime().sendEvent(new SupportBean("P2", i % 3));
+        }
+        assertEquals(2000, (Long) epService.getEPRuntime().executeQuery("select cnt from Visitors where page = 'P1'").getArray()[0].get("cnt"), 40);
+        assertEquals(3L, epService.getEPRuntime().executeQuery("select cnt from Visitors where page = 'P2'").getArray()[0].get("cnt"));
+
+        // sketches computed elsewhere, such as by other partitions, merge into the aggregation
+        epService.getEPAdministrator().createEPL("select approxCountDistinct(sketch) as cnt from SketchEvent").addListener(listener);
+        HyperLogLog sketchOne = new HyperLogLog();
+        HyperLogLog sketchTwo = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            sketchOne.add(i);
+            sketchTwo.add(i + 50);
+        }
+        epService.getEPRuntime().sendEvent(Collections.<String, Object>singletonMap("sketch", sketchOne), "SketchEvent");
+        epService.getEPRuntime().sendEvent(Collections.<String, Object>singletonMap("sketch", sketchTwo), "SketchEvent");
+        assertEquals(150, (Long) listener.getLastNewData()[0].get("cnt"), 3);
+    }
+
+    public void testSketchAcrossGroups() {
+        String epl = "select approxCountDistinctSketch(intPrimitive,14) as sketch from SupportBean group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        assertEquals(HyperLogLog.class, stmt.getEventType().getPropertyType("sketch"));
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+        stmt.destroy();
+
+        epService.getEPAdministrator().createEPL("create table PageSketch(page string primary key, sketch approxCountDistinctSketch(int, 14))");
+        epService.getEPAdministrator().createEPL("into table PageSketch select approxCountDistinctSketch(intPrimitive, 14) as sketch from SupportBean group by theString");
+        for (int i = 0; i < 1000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("P1", i));
+            epService.getEPRuntime().sendEvent(new SupportBean("P2", i + 500));
+        }
+
+        // merging the per-page sketches counts values seen by both pages once, at the lower default precision
+        epService.getEPAdministrator().createEPL("select approxCountDistinct(sketch) as cnt from SketchEvent").addListener(listener);
+        for (EventBean row : epService.getEPRuntime().executeQuery("select sketch from PageSketch").getArray()) {
+            HyperLogLog sketch = (HyperLogLog) row.get("sketch");
+            assertEquals(14, sketch.getPrecision());
+            epService.getEPRuntime().sendEvent(Collections.<String, Object>singletonMap("sketch", sketch), "SketchEvent");
+        }
+        assertEquals(1500, (Long) listener.getLastNewData()[0].get("cnt"), 1500 * 0.05);
+    }
+
+    public void testInvalid() {
+        tryInvalid("select approxCountDistinct() from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(*)': The 'approxCountDistinct' function expects at least 1 and up to 2 parameters [select approxCountDistinct() from SupportBean]");
+        tryInvalid("select approxCountDistinct(intPrimitive, 20) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive,20)': The approxCountDistinct aggregation function requires a constant precision value between 4 and 16 [select approxCountDistinct(intPrimitive, 20) from SupportBean]");
+        tryInvalid("select approxCountDistinct(distinct intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(distinct intPri...(42 chars)': Aggregation function 'approxCountDistinct' does not allow distinct [select approxCountDistinct(distinct intPrimitive) from SupportBean]");
+
+        epService.getEPAdministrator().createEPL("create table Estimates(cnt approxCountDistinct(int))");
+        tryInvalid("into table Estimates select approxCountDistinctSketch(intPrimitive) as cnt from SupportBean",
+                "Error starting statement: Incompatible aggregation function for table 'Estimates' column 'cnt', expecting 'approxCountDistinct(int)' and received 'approxCountDistinctSketch(intPrimitive)': Not a 'approxCountDistinct' aggregation [into table Estimates select approxCountDistinctSketch(intPrimitive) as cnt from SupportBean]");
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        } catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
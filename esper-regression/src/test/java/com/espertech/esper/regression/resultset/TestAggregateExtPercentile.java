@@ -0,0 +1,165 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregateExtPercentile extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testPercentile() {
+        String epl = "select " +
+                "percentile(intPrimitive,50) as p50, " +
+                "percentile(intPrimitive,95) as p95, " +
+                "median(intPrimitive) as med, " +
+                "percentiles(intPrimitive,0,25,100) as pall " +
+                "from SupportBean#length(5)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("p50"));
+        assertEquals(Double[].class, stmt.getEventType().getPropertyType("pall"));
+
+        runAssertion();
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+        assertEquals(epl, model.toEPL());
+
+        runAssertion();
+        stmt.destroy();
+    }
+
+    public void testFilterAndGroupBy() {
+        String[] fields = "theString,p90".split(",");
+        epService.getEPAdministrator().createEPL("select theString, percentile(intPrimitive, 90, filter:intPrimitive > 0) as p90 " +
+                "from SupportBean#keepall group by theString").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 10d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", -100));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 10d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G2", -1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G2", null});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 19d});
+    }
+
+    public void testApproximate() {
+        String[] fields = "p50,pall".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select approxPercentile(intPrimitive,50) as p50, approxPercentiles(intPrimitive,0,100) as pall " +
+                "from SupportBean#length(1000)");
+        stmt.addListener(listener);
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("p50"));
+        assertEquals(Double[].class, stmt.getEventType().getPropertyType("pall"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{10d, new Double[]{10d, 10d}});
+
+        for (int i = 0; i < 5000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E1", i));
+        }
+        // window holds 4000 to 4999
+        EventBean theEvent = listener.getLastNewData()[0];
+        assertEquals(4500, (Double) theEvent.get("p50"), 20);
+        Double[] pall = (Double[]) theEvent.get("pall");
+        assertEquals(4000, pall[0], 20);
+        assertEquals(4999, pall[1], 20);
+        stmt.destroy();
+    }
+
+    public void testApproximateTable() {
+        epService.getEPAdministrator().createEPL("create table MyTable(key string primary key, p99 approxPercentile(int, 99))");
+        epService.getEPAdministrator().createEPL("into table MyTable select approxPercentile(intPrimitive, 99) as p99 from SupportBean group by theString");
+        for (int i = 1; i <= 1000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("G1", i));
+            epService.getEPRuntime().sendEvent(new SupportBean("G2", -i));
+        }
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select key, p99 from MyTable order by key");
+        assertEquals("G1", result.getArray()[0].get("key"));
+        assertEquals(990, (Double) result.getArray()[0].get("p99"), 2);
+        assertEquals(-10, (Double) result.getArray()[1].get("p99"), 2);
+
+        tryInvalid("into table MyTable select percentile(intPrimitive, 99) as p99 from SupportBean group by theString",
+                "Error starting statement: Incompatible aggregation function for table 'MyTable' column 'p99', expecting 'approxPercentile(int,99)' and received 'percentile(intPrimitive,99)': Not a 'approxPercentile' aggregation [into table MyTable select percentile(intPrimitive, 99) as p99 from SupportBean group by theString]");
+    }
+
+    public void testInvalid() {
+        tryInvalid("select percentile(intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive)': The percentile aggregation function requires two parameters, an expression returning aggregation values and a constant percentage value between 0 and 100 [select percentile(intPrimitive) from SupportBean]");
+        tryInvalid("select percentile(intPrimitive, 101) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive,101)': The percentile aggregation function requires two parameters, an expression returning aggregation values and a constant percentage value between 0 and 100 [select percentile(intPrimitive, 101) from SupportBean]");
+        tryInvalid("select percentiles(intPrimitive, intBoxed) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentiles(intPrimitive,intBoxed)': The percentiles aggregation function requires an expression returning aggregation values and one or more constant percentage values between 0 and 100 [select percentiles(intPrimitive, intBoxed) from SupportBean]");
+        tryInvalid("select percentile(theString, 50) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(theString,50)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'percentile' [select percentile(theString, 50) from SupportBean]");
+    }
+
+    private void runAssertion() {
+        String[] fields = "p50,p95,med".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        EPAssertionUtil.assertProps(listener.getLastNewData()[0], fields, new Object[]{10d, 10d, 10d});
+        assertPall(10d, 10d, 10d);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        EPAssertionUtil.assertProps(listener.getLastNewData()[0], fields, new Object[]{15d, 19.5d, 15d});
+        assertPall(10d, 12.5d, 20d);
+
+        for (int i = 3; i <= 6; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i * 10));
+        }
+        // window holds 20, 30, 40, 50, 60
+        EPAssertionUtil.assertProps(listener.getLastNewData()[0], fields, new Object[]{40d, 58d, 40d});
+        assertPall(20d, 30d, 60d);
+    }
+
+    private void assertPall(Double... expected) {
+        EPAssertionUtil.assertEqualsExactOrder(expected, (Double[]) listener.getLastNewData()[0].get("pall"));
+        listener.reset();
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        } catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
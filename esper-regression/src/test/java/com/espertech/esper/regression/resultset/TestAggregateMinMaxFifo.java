@@ -0,0 +1,127 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestAggregateMinMaxFifo extends TestCase {
+
+    private final static String[] FIELDS = "theString,mx,mn,mxb,mnb".split(",");
+    private final static String SELECT = "select theString, max(intPrimitive) as mx, min(intPrimitive) as mn, " +
+            "maxby(intPrimitive).longPrimitive as mxb, minby(intPrimitive).longPrimitive as mnb from SupportBean";
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+    private SupportUpdateListener listenerReference;
+
+    public void setUp() {
+        listener = new SupportUpdateListener();
+        listenerReference = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+        listenerReference = null;
+    }
+
+    public void testLengthWindowVersusExpressionWindow() {
+        runAssertionCompare(SELECT + "#length(5)", SELECT + "#expr(current_count <= 5)");
+        runAssertionCompare(SELECT + "#length(4) group by theString", SELECT + "#expr(current_count <= 4) group by theString");
+        runAssertionCompare(SELECT + "#length_batch(3)", SELECT + "#expr_batch(current_count >= 3)");
+    }
+
+    public void testTimeWindow() {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL(SELECT + "#time(10 sec)").addListener(listener);
+
+        sendEvent("E1", 5, 1);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), FIELDS, new Object[]{"E1", 5, 5, 1L, 1L});
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(2000));
+        sendEvent("E2", 3, 2);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), FIELDS, new Object[]{"E2", 5, 3, 1L, 2L});
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(4000));
+        sendEvent("E3", 5, 3);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), FIELDS, new Object[]{"E3", 5, 3, 1L, 2L});
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(10000));
+        listener.reset();
+
+        // E1 expires, the max remains 5 from E3
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(10001));
+        sendEvent("E4", 4, 4);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), FIELDS, new Object[]{"E4", 5, 3, 3L, 2L});
+
+        // E2 expires
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(12001));
+        listener.reset();
+        sendEvent("E5", 6, 5);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), FIELDS, new Object[]{"E5", 6, 4, 5L, 4L});
+
+        // all expire
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(30000));
+        listener.reset();
+        sendEvent("E6", 1, 6);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), FIELDS, new Object[]{"E6", 1, 1, 6L, 6L});
+    }
+
+    private void runAssertionCompare(String epl, String eplReference) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        EPStatement stmtReference = epService.getEPAdministrator().createEPL(eplReference);
+        stmtReference.addListener(listenerReference);
+
+        Random random = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            sendEvent(random.nextBoolean() ? "A" : "B", random.nextInt(10), i);
+            assertEquals(listenerReference.isInvoked(), listener.isInvoked());
+            if (listenerReference.isInvoked()) {
+                EventBean[] expected = listenerReference.getLastNewData();
+                Object[][] rows = new Object[expected.length][];
+                for (int row = 0; row < expected.length; row++) {
+                    rows[row] = new Object[FIELDS.length];
+                    for (int field = 0; field < FIELDS.length; field++) {
+                        rows[row][field] = expected[row].get(FIELDS[field]);
+                    }
+                }
+                EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getLastNewData(), FIELDS, rows);
+            }
+            listener.reset();
+            listenerReference.reset();
+        }
+
+        stmt.destroy();
+        stmtReference.destroy();
+    }
+
+    private void sendEvent(String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregatePrimitive extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testUngroupedWindow() {
+        String[] fields = "si,sl,sd,ai,sdv,sx".split(",");
+        String epl = "select sum(intPrimitive) as si, sum(longPrimitive) as sl, sum(doublePrimitive) as sd, avg(intBoxed) as ai, " +
+                "stddev(doubleBoxed) as sdv, sum(intPrimitive * 2) as sx from SupportBean#length(2)";
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+
+        sendEvent("E1", 10, 1, 100L, 1.5d, 4d);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{10, 100L, 1.5d, 1d, null, 20});
+
+        sendEvent("E2", 20, null, 200L, 2.5d, null);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{30, 300L, 4d, 1d, null, 60});
+
+        sendEvent("E3", 30, 5, 300L, 3.5d, 8d);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{50, 500L, 6d, 5d, null, 100});
+
+        sendEvent("E4", -5, 7, Long.MIN_VALUE, Double.NaN, 10d);
+        EventBean out = listener.assertOneGetNewAndReset();
+        EPAssertionUtil.assertProps(out, "si,sl,ai,sdv,sx".split(","), new Object[]{25, 300L + Long.MIN_VALUE, 6d, Math.sqrt(2d), 50});
+        assertTrue(Double.isNaN((Double) out.get("sd")));
+    }
+
+    public void testGroupedAndTable() {
+        String[] fields = "theString,sl,ad".split(",");
+        epService.getEPAdministrator().createEPL("select theString, sum(longPrimitive) as sl, avg(doublePrimitive) as ad from SupportBean#length(3) group by theString").addListener(listener);
+
+        sendEvent("G1", 0, null, 10L, 1d, null);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 10L, 1d});
+
+        sendEvent("G2", 0, null, 20L, 2d, null);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G2", 20L, 2d});
+
+        sendEvent("G1", 0, null, 30L, 3d, null);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 40L, 2d});
+
+        sendEvent("G2", 0, null, 40L, 4d, null);
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getLastNewData(), fields, new Object[][]{{"G1", 30L, 3d}, {"G2", 60L, 3d}});
+        listener.reset();
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().createEPL("create table MyTable(total sum(double), cnt sum(int))");
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(doublePrimitive) as total, sum(intPrimitive) as cnt from SupportBean#length(2)");
+        epService.getEPAdministrator().createEPL("select MyTable.total as c0, MyTable.cnt as c1 from SupportBean_S0").addListener(listener);
+
+        sendEvent("E1", 1, null, 0L, 1.5d, null);
+        sendEvent("E2", 2, null, 0L, 2.5d, null);
+        sendEvent("E3", 3, null, 0L, 3.5d, null);
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{6d, 5});
+    }
+
+    private void sendEvent(String theString, int intPrimitive, Integer intBoxed, long longPrimitive, double doublePrimitive, Double doubleBoxed) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setIntBoxed(intBoxed);
+        bean.setLongPrimitive(longPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        bean.setDoubleBoxed(doubleBoxed);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.rowrecog;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TestRowPatternRecognitionPartitionThreads extends TestCase {
+    private static final Set<String> THREAD_NAMES = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private EPServiceProvider epServiceParallel;
+    private EPServiceProvider epServiceSingle;
+
+    public void setUp() {
+        THREAD_NAMES.clear();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.addEventType(ThreadRecordingBean.class);
+        config.addImport(TestRowPatternRecognitionPartitionThreads.class);
+        config.getEngineDefaults().getMatchRecognize().setPartitionThreads(4);
+        epServiceParallel = EPServiceProviderManager.getProvider(TestRowPatternRecognitionPartitionThreads.class.getSimpleName() + "_parallel", config);
+        epServiceParallel.initialize();
+
+        config.getEngineDefaults().getMatchRecognize().setPartitionThreads(0);
+        epServiceSingle = EPServiceProviderManager.getProvider(TestRowPatternRecognitionPartitionThreads.class.getSimpleName() + "_single", config);
+        epServiceSingle.initialize();
+    }
+
+    protected void tearDown() {
+        epServiceParallel.destroy();
+        epServiceSingle.destroy();
+    }
+
+    public void testSameOutputAsSingleThread() {
+        String epl = "select * from ThreadRecordingBean#length_batch(500) " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, A.intPrimitive as a1, B.intPrimitive as b1, C.intPrimitive as c1 " +
+                "  pattern (A B? C) " +
+                "  define " +
+                "    A as A.intPrimitive < 3," +
+                "    B as B.intPrimitive > A.intPrimitive," +
+                "    C as C.intPrimitive > 6" +
+                ")";
+        runAssertionCompare(epl, true);
+
+        epl = "select * from ThreadRecordingBean#time_batch(1 min) " +
+                "match_recognize (" +
+                "  partition by theString, boolPrimitive " +
+                "  measures A.theString as a0, B[0].intPrimitive as b0, count(B.intPrimitive) as cnt, C.intPrimitive as c1 " +
+                "  all matches after match skip to next row " +
+                "  pattern (A B* C) " +
+                "  define " +
+                "    A as A.intPrimitive < 2," +
+                "    B as B.intPrimitive between 2 and 7," +
+                "    C as C.intPrimitive > 7" +
+                ")";
+        runAssertionCompare(epl, true);
+    }
+
+    public void testFallbackSingleThread() {
+        // "prev" requires processing by the thread that processes the statement
+        String epl = "select * from ThreadRecordingBean#length_batch(500) " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, B.intPrimitive as b1 " +
+                "  pattern (A B) " +
+                "  define " +
+                "    A as A.intPrimitive < 5," +
+                "    B as B.intPrimitive > prev(B.intPrimitive, 1)" +
+                ")";
+        runAssertionCompare(epl, false);
+
+        // application code may not be thread-safe
+        epl = "select * from ThreadRecordingBean#length_batch(500) " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, B.intPrimitive as b1 " +
+                "  pattern (A B) " +
+                "  define " +
+                "    A as TestRowPatternRecognitionPartitionThreads.isSmall(A.intPrimitive)," +
+                "    B as B.intPrimitive > A.intPrimitive" +
+                ")";
+        runAssertionCompare(epl, false);
+
+        epl = "expression isSmallDecl { e => TestRowPatternRecognitionPartitionThreads.isSmall(e.intPrimitive) } " +
+                "select * from ThreadRecordingBean#length_batch(500) " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, B.intPrimitive as b1 " +
+                "  pattern (A B) " +
+                "  define " +
+                "    A as isSmallDecl(A)," +
+                "    B as B.intPrimitive > A.intPrimitive" +
+                ")";
+        runAssertionCompare(epl, false);
+
+        // expression declarations, enumeration methods and method calls on events share the expression result cache
+        epl = "expression isSmallDecl { e => e.intPrimitive < 5 } " +
+                "select * from ThreadRecordingBean#length_batch(500) " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, B.intPrimitive as b1 " +
+                "  pattern (A B) " +
+                "  define " +
+                "    A as isSmallDecl(A)," +
+                "    B as B.intPrimitive > A.intPrimitive" +
+                ")";
+        runAssertionCompare(epl, false);
+
+        epl = "select * from ThreadRecordingBean#length_batch(500) " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, B.intPrimitive as b1 " +
+                "  pattern (A B) " +
+                "  define " +
+                "    A as {1, 2, 3}.anyOf(v => v = A.intPrimitive)," +
+                "    B as B.intPrimitive > A.intPrimitive" +
+                ")";
+        runAssertionCompare(epl, false);
+
+        epl = "select * from ThreadRecordingBean#length_batch(500) " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, B.intPrimitive as b1 " +
+                "  pattern (A B) " +
+                "  define " +
+                "    A as A.getIntPrimitive() < 5," +
+                "    B as B.intPrimitive > A.intPrimitive" +
+                ")";
+        runAssertionCompare(epl, false);
+
+        // events that arrive one at a time are processed by the sending thread
+        epl = "select * from ThreadRecordingBean " +
+                "match_recognize (" +
+                "  partition by theString " +
+                "  measures A.theString as a0, B.intPrimitive as b1 " +
+                "  pattern (A B) " +
+                "  define " +
+                "    A as A.intPrimitive < 5," +
+                "    B as B.intPrimitive > A.intPrimitive" +
+                ")";
+        runAssertionCompare(epl, false);
+    }
+
+    public static boolean isSmall(int value) {
+        return value < 5;
+    }
+
+    private void runAssertionCompare(String epl, boolean expectPoolThreads) {
+        SupportUpdateListener listenerParallel = new SupportUpdateListener();
+        epServiceParallel.getEPAdministrator().createEPL(epl).addListener(listenerParallel);
+        SupportUpdateListener listenerSingle = new SupportUpdateListener();
+        epServiceSingle.getEPAdministrator().createEPL(epl).addListener(listenerSingle);
+
+        epServiceParallel.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epServiceSingle.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+
+        Random random = new Random(1);
+        THREAD_NAMES.clear();
+        for (int i = 0; i < 5000; i++) {
+            SupportBean bean = new ThreadRecordingBean("P" + random.nextInt(200), random.nextInt(10));
+            bean.setBoolPrimitive(random.nextBoolean());
+            epServiceParallel.getEPRuntime().sendEvent(bean);
+            epServiceSingle.getEPRuntime().sendEvent(bean);
+        }
+        epServiceParallel.getEPRuntime().sendEvent(new CurrentTimeEvent(60000));
+        epServiceSingle.getEPRuntime().sendEvent(new CurrentTimeEvent(60000));
+
+        List<EventBean[]> rowsParallel = listenerParallel.getNewDataList();
+        List<EventBean[]> rowsSingle = listenerSingle.getNewDataList();
+        assertFalse(rowsSingle.isEmpty());
+        assertEquals(rowsSingle.size(), rowsParallel.size());
+        for (int i = 0; i < rowsSingle.size(); i++) {
+            assertEquals(rowsSingle.get(i).length, rowsParallel.get(i).length);
+            for (int j = 0; j < rowsSingle.get(i).length; j++) {
+                assertEquals(rowsSingle.get(i)[j].getUnderlying(), rowsParallel.get(i)[j].getUnderlying());
+            }
+        }
+
+        boolean poolThreads = false;
+        for (String name : THREAD_NAMES) {
+            poolThreads |= name.contains("MatchRecognize");
+        }
+        assertEquals(expectPoolThreads, poolThreads);
+
+        epServiceParallel.getEPAdministrator().destroyAllStatements();
+        epServiceSingle.getEPAdministrator().destroyAllStatements();
+    }
+
+    // records the threads that evaluate define-clause expressions, which read the int property
+    public static class ThreadRecordingBean extends SupportBean {
+        public ThreadRecordingBean(String theString, int intPrimitive) {
+            super(theString, intPrimitive);
+        }
+
+        @Override
+        public int getIntPrimitive() {
+            THREAD_NAMES.add(Thread.currentThread().getName());
+            return super.getIntPrimitive();
+        }
+    }
+}
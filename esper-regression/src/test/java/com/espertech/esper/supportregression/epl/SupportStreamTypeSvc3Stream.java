@@ -83,6 +83,11 @@ public class SupportStreamTypeSvc3Stream implements StreamTypeService
         return new boolean[10]; 
     }
 
+    public boolean[] getFifoExpiry()
+    {
+        return new boolean[10];
+    }
+
     public int getStreamNumForStreamName(String streamName)
     {
         return impl.getStreamNumForStreamName(streamName);
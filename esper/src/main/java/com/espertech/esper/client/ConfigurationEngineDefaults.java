@@ -18,7 +18,9 @@ import com.espertech.esper.client.util.EventUnderlyingType;
 import java.io.Serializable;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
@@ -310,6 +312,10 @@ public class ConfigurationEngineDefaults implements Serializable {
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private Map<String, String> threadPoolInboundPartitionKeys;
+        private boolean isThreadPoolFanOut;
+        private int threadPoolFanOutNumThreads;
+        private int threadPoolAsyncDeliveryNumThreads;
 
         private boolean engineFairlock;
 
@@ -341,6 +347,10 @@ public class ConfigurationEngineDefaults implements Serializable {
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolInboundPartitionKeys = new LinkedHashMap<String, String>();
+            isThreadPoolFanOut = false;
+            threadPoolFanOutNumThreads = Runtime.getRuntime().availableProcessors();
+            threadPoolAsyncDeliveryNumThreads = Runtime.getRuntime().availableProcessors();
         }
 
         /**
@@ -726,6 +736,94 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns the partition key property name per event type name for inbound threading.
+         * <p>
+         * When not empty and inbound threading is enabled, the engine runs one single-threaded
+         * shard per inbound thread, each with its own queue, and assigns each event to a shard
+         * by the hash of its partition key property value. Events of the same key are therefore processed
+         * in the order they were sent. Events of event types that have no partition key are assigned a shard by event type name.
+         *
+         * @return map of event type name and partition key property name
+         */
+        public Map<String, String> getThreadPoolInboundPartitionKeys() {
+            return threadPoolInboundPartitionKeys;
+        }
+
+        /**
+         * Adds a partition key property for inbound threading, see {@link #getThreadPoolInboundPartitionKeys()}.
+         *
+         * @param eventTypeName event type name
+         * @param propertyName  name of the property providing the partition key
+         */
+        public void addThreadPoolInboundPartitionKey(String eventTypeName, String propertyName) {
+            threadPoolInboundPartitionKeys.put(eventTypeName, propertyName);
+        }
+
+        /**
+         * Returns true for statement fan-out threading enabled, the default is false for not enabled.
+         * <p>
+         * When enabled, and when an event matches multiple statements, the engine processes
+         * the statements in parallel using a fork-join pool and waits for all statements to complete before the send
+         * call returns. Each statement is processed by a single thread under its statement lock, and listeners of
+         * the statement are invoked by that thread. Statements that are prioritized, that can self-join
+         * or that have metrics reporting enabled are processed by the sending thread as before.
+         *
+         * @return indicator whether statement fan-out threading is enabled
+         */
+        public boolean isThreadPoolFanOut() {
+            return isThreadPoolFanOut;
+        }
+
+        /**
+         * Set to true for statement fan-out threading enabled, the default is false for not enabled.
+         *
+         * @param threadPoolFanOut indicator whether statement fan-out threading is enabled
+         */
+        public void setThreadPoolFanOut(boolean threadPoolFanOut) {
+            isThreadPoolFanOut = threadPoolFanOut;
+        }
+
+        /**
+         * Returns the parallelism of the statement fan-out fork-join pool, the default is the number of available processors.
+         *
+         * @return number of threads
+         */
+        public int getThreadPoolFanOutNumThreads() {
+            return threadPoolFanOutNumThreads;
+        }
+
+        /**
+         * Sets the parallelism of the statement fan-out fork-join pool.
+         *
+         * @param num number of threads
+         */
+        public void setThreadPoolFanOutNumThreads(int num) {
+            this.threadPoolFanOutNumThreads = num;
+        }
+
+        /**
+         * Returns the number of threads delivering results of statements with the
+         * {@link com.espertech.esper.client.annotation.AsyncDelivery} annotation, the default is the number of available processors.
+         * <p>
+         * The engine starts the delivery pool when the first result is queued for asynchronous delivery.
+         *
+         * @return number of threads
+         */
+        public int getThreadPoolAsyncDeliveryNumThreads() {
+            return threadPoolAsyncDeliveryNumThreads;
+        }
+
+        /**
+         * Sets the number of threads delivering results of statements with the
+         * {@link com.espertech.esper.client.annotation.AsyncDelivery} annotation.
+         *
+         * @param num number of threads
+         */
+        public void setThreadPoolAsyncDeliveryNumThreads(int num) {
+            this.threadPoolAsyncDeliveryNumThreads = num;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -1374,6 +1472,7 @@ public class ConfigurationEngineDefaults implements Serializable {
 
         private Long maxStates;
         private boolean maxStatesPreventStart = true;
+        private int partitionThreads;
 
         /**
          * Returns the maximum number of states
@@ -1412,6 +1511,36 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setMaxStatesPreventStart(boolean maxStatesPreventStart) {
             this.maxStatesPreventStart = maxStatesPreventStart;
         }
+
+        /**
+         * Returns the number of threads for processing match-recognize partitions in parallel, the default is zero
+         * for processing all partitions by the thread that processes the statement.
+         * <p>
+         * When set to two or more, and when a match-recognize with partition-by receives multiple events at once,
+         * the engine processes the events of different partitions in parallel using a fork-join pool.
+         * Only multi-event batches, such as from a batch data window, are processed in parallel: a single event,
+         * for example from a single sendEvent call, is always processed by the sending thread.
+         * Events of the same partition are always processed in order by the same thread.
+         * Match-recognize constructs that specify an interval, use the "prev" function, refer to multi-match
+         * variables, subqueries, tables or variables in the define-clause, use dot-expressions such as enumeration
+         * methods or method calls on events, or expression declarations in the define-clause, or that have a maximum
+         * number of states configured, are processed by the thread that processes the statement as before.
+         *
+         * @return number of threads
+         */
+        public int getPartitionThreads() {
+            return partitionThreads;
+        }
+
+        /**
+         * Sets the number of threads for processing match-recognize partitions in parallel,
+         * zero or one for processing all partitions by the thread that processes the statement.
+         *
+         * @param partitionThreads number of threads
+         */
+        public void setPartitionThreads(int partitionThreads) {
+            this.partitionThreads = partitionThreads;
+        }
     }
 
     /**
@@ -1562,6 +1691,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean selfSubselectPreeval;
         private boolean extendedAggregation;
         private boolean duckTyping;
+        private boolean compileExpressions;
         private MathContext mathContext;
         private TimeZone timeZone;
 
@@ -1704,6 +1834,29 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.duckTyping = duckTyping;
         }
 
+        /**
+         * Returns true to indicate that arithmetic and relational expressions are compiled into evaluators
+         * that compute on primitive values, or false (the default) for node-by-node evaluation.
+         *
+         * @return indicator
+         */
+        public boolean isCompileExpressions() {
+            return compileExpressions;
+        }
+
+        /**
+         * Set to true to indicate that arithmetic and relational expressions are compiled into evaluators
+         * that compute on primitive values, or false (the default) for node-by-node evaluation.
+         * <p>
+         * Compiled evaluation applies to numeric subtrees consisting of property, constant, arithmetic and
+         * relational operators, wherever such expressions occur, i.e. in select, where, group-by and filter expressions.
+         *
+         * @param compileExpressions indicator
+         */
+        public void setCompileExpressions(boolean compileExpressions) {
+            this.compileExpressions = compileExpressions;
+        }
+
         /**
          * Returns the math context for big decimal operations, or null to leave the math context undefined.
          *
@@ -1751,8 +1904,13 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean allowIsolatedService;
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
         private int filterServiceMaxFilterWidth = 16;
         private int declaredExprValueCacheSize = 1;
+        private String contextStateDirectory;
+        private long contextStateCheckpointIntervalMsec = 1000;
+        private String statementCacheDirectory;
+        private int statementCacheMaxEntries = 10000;
 
         private static final long serialVersionUID = 0L;
 
@@ -1877,6 +2035,24 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.filterServiceProfile = filterServiceProfile;
         }
 
+        /**
+         * Returns the scheduling service profile for tuning schedule operations.
+         *
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning schedule operations.
+         *
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
         /**
          * Returns the maximum width for breaking up "or" expression in filters to
          * subexpressions for reverse indexing.
@@ -1914,6 +2090,88 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setDeclaredExprValueCacheSize(int declaredExprValueCacheSize) {
             this.declaredExprValueCacheSize = declaredExprValueCacheSize;
         }
+
+        /**
+         * Returns the directory that the engine keeps context partition keys in, or null (the default)
+         * if context partition keys are not kept.
+         *
+         * @return directory or null
+         */
+        public String getContextStateDirectory() {
+            return contextStateDirectory;
+        }
+
+        /**
+         * Sets the directory that the engine keeps context partition keys in, so that context partitions
+         * are restored when an engine using the same directory restarts and creates the same contexts.
+         * <p>
+         * Only the context partition keys and the started or stopped state of each context partition are kept.
+         * The state of statements in a context partition, such as data windows, aggregations and patterns, is not kept
+         * and starts empty. Initializing an engine retains the context partition keys, as when the engine restarts.
+         *
+         * @param contextStateDirectory directory or null to not keep context partition keys
+         */
+        public void setContextStateDirectory(String contextStateDirectory) {
+            this.contextStateDirectory = contextStateDirectory;
+        }
+
+        /**
+         * Returns the number of milliseconds between forcing context partition state to disk by a background thread.
+         *
+         * @return checkpoint interval
+         */
+        public long getContextStateCheckpointIntervalMsec() {
+            return contextStateCheckpointIntervalMsec;
+        }
+
+        /**
+         * Sets the number of milliseconds between forcing context partition state to disk by a background thread,
+         * or zero to force after every change.
+         *
+         * @param contextStateCheckpointIntervalMsec checkpoint interval
+         */
+        public void setContextStateCheckpointIntervalMsec(long contextStateCheckpointIntervalMsec) {
+            this.contextStateCheckpointIntervalMsec = contextStateCheckpointIntervalMsec;
+        }
+
+        /**
+         * Returns the directory that the engine keeps compiled statements in, or null (the default)
+         * if compiled statements are not kept.
+         *
+         * @return directory or null
+         */
+        public String getStatementCacheDirectory() {
+            return statementCacheDirectory;
+        }
+
+        /**
+         * Sets the directory that the engine keeps compiled statements in, so that an engine with the same configuration
+         * that creates a statement with the same EPL text does not need to parse the EPL text again.
+         *
+         * @param statementCacheDirectory directory or null to not keep compiled statements
+         */
+        public void setStatementCacheDirectory(String statementCacheDirectory) {
+            this.statementCacheDirectory = statementCacheDirectory;
+        }
+
+        /**
+         * Returns the maximum number of compiled statements that the statement cache directory holds, defaults to 10000.
+         *
+         * @return maximum number of entries
+         */
+        public int getStatementCacheMaxEntries() {
+            return statementCacheMaxEntries;
+        }
+
+        /**
+         * Sets the maximum number of compiled statements that the statement cache directory holds.
+         * When the directory holds more entries the engine deletes the least recently used entries.
+         *
+         * @param statementCacheMaxEntries maximum number of entries
+         */
+        public void setStatementCacheMaxEntries(int statementCacheMaxEntries) {
+            this.statementCacheMaxEntries = statementCacheMaxEntries;
+        }
     }
 
     /**
@@ -1943,7 +2201,28 @@ public class ConfigurationEngineDefaults implements Serializable {
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * For highly threaded evaluation of events with filters that come and go, evaluates events without locking
+         * while filter changes are serialized.
+         */
+        LOCKFREEREAD
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile {
+        /**
+         * Schedules kept in a sorted map by time, the default.
+         */
+        SORTED,
+
+        /**
+         * Schedules kept in a hierarchical timer wheel, for a large number of schedules that are frequently added and removed.
+         */
+        TIMERWHEEL
     }
 
     /**
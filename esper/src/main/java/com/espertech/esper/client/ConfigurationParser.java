@@ -944,6 +944,15 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolInbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+                DOMElementIterator partitionKeyIterator = new DOMElementIterator(subElement.getChildNodes());
+                while (partitionKeyIterator.hasNext()) {
+                    Element partitionKeyElement = partitionKeyIterator.next();
+                    if (partitionKeyElement.getNodeName().equals("partition-key")) {
+                        String eventTypeName = getRequiredAttribute(partitionKeyElement, "event-type-name");
+                        String propertyName = getRequiredAttribute(partitionKeyElement, "property-name");
+                        configuration.getEngineDefaults().getThreading().addThreadPoolInboundPartitionKey(eventTypeName, propertyName);
+                    }
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
@@ -963,6 +972,15 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-fanout")) {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolFanOut(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolFanOutNumThreads(result.getNumThreads());
+            }
+            if (subElement.getNodeName().equals("threadpool-asyncdelivery")) {
+                String numThreadsStr = getRequiredAttribute(subElement, "num-threads");
+                configuration.getEngineDefaults().getThreading().setThreadPoolAsyncDeliveryNumThreads(Integer.parseInt(numThreadsStr));
+            }
         }
     }
 
@@ -1077,6 +1095,10 @@ class ConfigurationParser {
                     configuration.getEngineDefaults().getMatchRecognize().setMaxStatesPreventStart(Boolean.parseBoolean(preventText));
                 }
             }
+            if (subElement.getNodeName().equals("partition-threads")) {
+                String valueText = getRequiredAttribute(subElement, "value");
+                configuration.getEngineDefaults().getMatchRecognize().setPartitionThreads(Integer.parseInt(valueText));
+            }
         }
     }
 
@@ -1236,6 +1258,11 @@ class ConfigurationParser {
             boolean duckTyping = Boolean.parseBoolean(duckTypingStr);
             configuration.getEngineDefaults().getExpression().setDuckTyping(duckTyping);
         }
+        String compileExpressionsStr = getOptionalAttribute(parentElement, "compile-expressions");
+        if (compileExpressionsStr != null) {
+            boolean compileExpressions = Boolean.parseBoolean(compileExpressionsStr);
+            configuration.getEngineDefaults().getExpression().setCompileExpressions(compileExpressions);
+        }
         String mathContextStr = getOptionalAttribute(parentElement, "math-context");
         if (mathContextStr != null) {
             try {
@@ -1279,6 +1306,11 @@ class ConfigurationParser {
             ConfigurationEngineDefaults.FilterServiceProfile profile = ConfigurationEngineDefaults.FilterServiceProfile.valueOf(filterServiceProfileStr.toUpperCase(Locale.ENGLISH));
             configuration.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null) {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase(Locale.ENGLISH));
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String filterServiceMaxFilterWidthStr = getOptionalAttribute(parentElement, "filter-service-max-filter-width");
         if (filterServiceMaxFilterWidthStr != null) {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
@@ -1292,6 +1324,22 @@ class ConfigurationParser {
         if (declExprValueCacheSizeStr != null) {
             configuration.getEngineDefaults().getExecution().setDeclaredExprValueCacheSize(Integer.parseInt(declExprValueCacheSizeStr));
         }
+        String contextStateDirectoryStr = getOptionalAttribute(parentElement, "context-state-directory");
+        if (contextStateDirectoryStr != null) {
+            configuration.getEngineDefaults().getExecution().setContextStateDirectory(contextStateDirectoryStr);
+        }
+        String contextStateCheckpointIntervalStr = getOptionalAttribute(parentElement, "context-state-checkpoint-interval-msec");
+        if (contextStateCheckpointIntervalStr != null) {
+            configuration.getEngineDefaults().getExecution().setContextStateCheckpointIntervalMsec(Long.parseLong(contextStateCheckpointIntervalStr));
+        }
+        String statementCacheDirectoryStr = getOptionalAttribute(parentElement, "statement-cache-directory");
+        if (statementCacheDirectoryStr != null) {
+            configuration.getEngineDefaults().getExecution().setStatementCacheDirectory(statementCacheDirectoryStr);
+        }
+        String statementCacheMaxEntriesStr = getOptionalAttribute(parentElement, "statement-cache-max-entries");
+        if (statementCacheMaxEntriesStr != null) {
+            configuration.getEngineDefaults().getExecution().setStatementCacheMaxEntries(Integer.parseInt(statementCacheMaxEntriesStr));
+        }
     }
 
     private static void handleDefaultScriptConfig(Configuration configuration, Element parentElement) {
@@ -11,6 +11,7 @@
 package com.espertech.esper.client;
 
 import com.espertech.esper.client.context.EPContextPartitionAdmin;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
 import com.espertech.esper.client.deploy.EPDeploymentAdmin;
 import com.espertech.esper.client.soda.EPStatementObjectModel;
 
@@ -297,4 +298,11 @@ public interface EPAdministrator {
      * @return context partition administrative interface
      */
     public EPContextPartitionAdmin getContextPartitionAdmin();
+
+    /**
+     * Returns the administrative interface for snapshots of named windows, tables and variables.
+     *
+     * @return snapshot administrative interface
+     */
+    public EPSnapshotAdmin getSnapshotAdmin();
 }
@@ -17,6 +17,7 @@ import com.espertech.esper.client.soda.EPStatementObjectModel;
 import com.espertech.esper.client.util.EventRenderer;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -65,6 +66,57 @@ public interface EPRuntime {
      */
     public void sendEvent(Object[] objectarray, String objectArrayEventTypeName);
 
+    /**
+     * Send a batch of events to the event stream processing runtime.
+     * <p>
+     * Each element of the collection is either an {@link EventBean} or an event object as accepted by {@link #sendEvent(Object)}.
+     * The runtime processes the events in collection order under a single acquisition of the event processing lock.
+     * Listener delivery and the processing of events generated by insert-into or route takes place after the last event has been processed,
+     * such that a listener receives the output of the batch in a single invocation.
+     * Time events are processed in order, and the events preceding a time event are processed and delivered before the time event.
+     * With inbound threading the batch is submitted as one unit of work per inbound thread, or per shard when partitioned.
+     *
+     * @param events - events to process
+     * @throws EPException - when the processing of the events leads to an error
+     * @throws IllegalArgumentException - when the collection or any of its elements is null
+     */
+    public void sendEvents(Collection<?> events) throws EPException;
+
+    /**
+     * Send a batch of events to the event stream processing runtime.
+     * <p>
+     * The runtime processes the events in array order under a single acquisition of the event processing lock.
+     * Listener delivery and the processing of events generated by insert-into or route takes place after the last event has been processed,
+     * such that a listener receives the output of the batch in a single invocation.
+     * With inbound threading the batch is submitted as one unit of work per inbound thread, or per shard when partitioned.
+     *
+     * @param events - events to process
+     * @throws EPException - when the processing of the events leads to an error
+     * @throws IllegalArgumentException - when the array or any of its elements is null
+     */
+    public void sendEvents(EventBean[] events) throws EPException;
+
+    /**
+     * Send a batch of object-array events provided in columnar form to the event stream processing runtime.
+     * <p>
+     * Each column is an array holding the values of one property for all rows, and columns must be provided in the exact same
+     * order that the property names have been declared. Primitive arrays such as {@code long[]} or {@code double[]} must match
+     * the declared property type. Any other column must be an object array.
+     * <p>
+     * Column arrays are not copied and each row is presented as an event that reads from the column arrays.
+     * Your application must not modify the column arrays after sending.
+     * <p>
+     * The runtime processes all rows under a single acquisition of the event processing lock. Listener delivery and the processing
+     * of events generated by insert-into or route takes place after the last row has been processed, such that
+     * a listener may receive the output of multiple rows in a single invocation.
+     *
+     * @param columns                  - one array per event property that contains the property values for each row
+     * @param numRows                  - the number of rows to send, each column must hold at least this number of values
+     * @param objectArrayEventTypeName - the name for the Object-array event type that was previously configured
+     * @throws EPException - when the processing of the events leads to an error
+     */
+    public void sendEventColumnar(Object[] columns, int numRows, String objectArrayEventTypeName) throws EPException;
+
     /**
      * Send an event represented by a DOM node to the event stream processing runtime.
      * <p>
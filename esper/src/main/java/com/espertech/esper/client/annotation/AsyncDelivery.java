@@ -0,0 +1,34 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.annotation;
+
+/**
+ * An execution directive for use in an EPL statement, that causes statement results to be delivered to listeners and
+ * subscribers by a separate thread, decoupling slow listeners from event processing.
+ * <p>
+ * Results are queued in a bounded queue per statement and delivered in order. The policy determines the
+ * behavior when the queue is full.
+ */
+public @interface AsyncDelivery {
+    /**
+     * Returns the maximum number of results queued for delivery.
+     *
+     * @return capacity
+     */
+    int capacity() default 1024;
+
+    /**
+     * Returns the behavior when the queue is full.
+     *
+     * @return policy
+     */
+    AsyncDeliveryPolicy policy() default AsyncDeliveryPolicy.BLOCK;
+}
@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.annotation;
+
+/**
+ * Enumeration for the behavior of asynchronous delivery when the delivery queue of a statement is full,
+ * for use with {@link AsyncDelivery}.
+ */
+public enum AsyncDeliveryPolicy {
+    /**
+     * The engine thread waits until the delivery thread has made room in the queue.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued result is discarded to make room for the new result.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new result is merged into the newest queued result so that listeners receive both together.
+     */
+    COALESCE
+}
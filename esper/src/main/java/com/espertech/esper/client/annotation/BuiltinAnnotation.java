@@ -25,7 +25,7 @@ public class BuiltinAnnotation {
     public final static Map<String, Class> BUILTIN = new HashMap<String, Class>();
 
     static {
-        for (Class clazz : new Class[]{Audit.class, Description.class, Drop.class, Durable.class, EventRepresentation.class,
+        for (Class clazz : new Class[]{AsyncDelivery.class, Audit.class, Description.class, Drop.class, Durable.class, EventRepresentation.class,
             ExternalDW.class, ExternalDWKey.class, ExternalDWListener.class, ExternalDWQuery.class, ExternalDWSetting.class,
             ExternalDWValue.class, Hint.class, Hook.class, IterableUnbound.class, Name.class, NoLock.class, Overflow.class,
             Priority.class, Resilient.class, Tag.class, Transient.class
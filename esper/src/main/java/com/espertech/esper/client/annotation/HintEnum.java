@@ -61,6 +61,13 @@ public enum HintEnum {
      */
     DISABLE_WINDOW_SUBQUERY_INDEXSHARE("DISABLE_WINDOW_SUBQUERY_INDEXSHARE", false, false, false),
 
+    /**
+     * For use with create-named-window and create-table statements only, to indicate that the named window or table keeps its rows serialized
+     * in off-heap memory and materializes rows when read. Requires an object-array or map event type for named windows
+     * and primary key columns for tables.
+     */
+    OFFHEAP_STORAGE("OFFHEAP_STORAGE", false, false, false),
+
     /**
      * For use with subqueries and on-select, on-merge, on-update and on-delete to specify the query engine neither
      * build an implicit index nor use an existing index, always performing a full table scan.
@@ -28,6 +28,7 @@ public class DeploymentOptions implements Serializable {
     private StatementNameResolver statementNameResolver;
     private StatementUserObjectResolver statementUserObjectResolver;
     private DeploymentLockStrategy deploymentLockStrategy = DeploymentLockStrategyDefault.INSTANCE;
+    private int compileThreads = 1;
 
     /**
      * Returns true (the default) to indicate that the deploy operation first performs a compile step for
@@ -202,4 +203,26 @@ public class DeploymentOptions implements Serializable {
     public void setDeploymentLockStrategy(DeploymentLockStrategy deploymentLockStrategy) {
         this.deploymentLockStrategy = deploymentLockStrategy;
     }
+
+    /**
+     * Returns the number of threads that parse and compile the statements of the module, the default is 1.
+     *
+     * @return number of threads
+     */
+    public int getCompileThreads() {
+        return compileThreads;
+    }
+
+    /**
+     * Sets the number of threads that parse and compile the statements of the module, the default is 1.
+     * When more than one thread is set, the deploy operation parses statements and performs the compile step in parallel
+     * and then creates and starts statements one after the other in the order of the module, from the result of the compile step.
+     * Statements that follow a statement that creates a table, variable, named window, context or declared expression
+     * compile again when created, since compiling resolves such names.
+     *
+     * @param compileThreads number of threads
+     */
+    public void setCompileThreads(int compileThreads) {
+        this.compileThreads = compileThreads;
+    }
 }
@@ -23,6 +23,7 @@ public class StatementMetric extends MetricEvent {
     private AtomicLong numInput;
     private AtomicLong numOutputRStream;
     private AtomicLong numOutputIStream;
+    private AtomicLong asyncDeliveryQueueDepth;
 
     /**
      * Ctor.
@@ -38,6 +39,7 @@ public class StatementMetric extends MetricEvent {
         this.numOutputIStream = new AtomicLong();
         this.numOutputRStream = new AtomicLong();
         this.numInput = new AtomicLong();
+        this.asyncDeliveryQueueDepth = new AtomicLong();
     }
 
     /**
@@ -156,4 +158,28 @@ public class StatementMetric extends MetricEvent {
     public void addNumInput(long numInputAdd) {
         numInput.addAndGet(numInputAdd);
     }
+
+    /**
+     * Returns the maximum number of results queued for asynchronous delivery, for statements with asynchronous delivery.
+     *
+     * @return maximum queue depth
+     */
+    public long getAsyncDeliveryQueueDepth() {
+        return asyncDeliveryQueueDepth.get();
+    }
+
+    /**
+     * Accounts a queue depth for asynchronous delivery, retaining the maximum.
+     *
+     * @param queueDepth observed queue depth
+     */
+    public void addAsyncDeliveryQueueDepth(int queueDepth) {
+        long current = asyncDeliveryQueueDepth.get();
+        while (queueDepth > current) {
+            if (asyncDeliveryQueueDepth.compareAndSet(current, queueDepth)) {
+                return;
+            }
+            current = asyncDeliveryQueueDepth.get();
+        }
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.snapshot;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Service interface for taking a snapshot of engine state and for restoring engine state from a snapshot,
+ * for use in handing over state from one engine to another.
+ * <p>
+ * A snapshot contains the events held by named windows, the rows held by tables and the values
+ * of variables that are not constants, for each context partition.
+ * </p>
+ * <p>
+ * The snapshot does not contain the EPL statements themselves.
+ * The engine that restores the snapshot must first create the same named windows, tables, variables and contexts.
+ * </p>
+ */
+public interface EPSnapshotAdmin {
+    /**
+     * Writes a snapshot of the named windows, tables and variables of the engine to the output stream.
+     * <p>
+     * The engine takes the snapshot at an event boundary. Event and time processing wait while the snapshot is written.
+     * Do not call this method from within a listener or subscriber.
+     * </p>
+     * <p>
+     * Table aggregation columns are written for built-in aggregation functions that keep their state in values and
+     * reference-counted sets. The method fails before writing to the stream if any table has an access aggregation column,
+     * a plug-in aggregation column or a column of an aggregation function whose state is not supported, such as median.
+     * </p>
+     *
+     * @param output stream to write to, not closed by this method
+     * @return summary of the snapshot
+     * @throws EPSnapshotException if the snapshot failed, for example because an event cannot be serialized or a table aggregation column is not supported
+     */
+    public EPSnapshotSummary snapshot(OutputStream output) throws EPSnapshotException;
+
+    /**
+     * Restores named window events, table rows and variable values from a snapshot written by {@link #snapshot(OutputStream)}.
+     * <p>
+     * The named windows and tables must exist and be empty. Context-partitioned named windows, tables and variables are restored
+     * into the context partition with the same context partition id, which must exist.
+     * Event and time processing wait while the snapshot is restored.
+     * </p>
+     * <p>
+     * Named window events are loaded into the data window without output to listeners and without delivery to consuming statements.
+     * </p>
+     *
+     * @param input stream to read from, not closed by this method
+     * @return summary of the restored state
+     * @throws EPSnapshotException if the snapshot could not be read or does not match the engine
+     */
+    public EPSnapshotSummary restore(InputStream input) throws EPSnapshotException;
+}
@@ -0,0 +1,39 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.snapshot;
+
+import com.espertech.esper.client.EPException;
+
+/**
+ * Indicates a failure to take or restore a snapshot of engine state.
+ */
+public class EPSnapshotException extends EPException {
+    private static final long serialVersionUID = 4437291823472310457L;
+
+    /**
+     * Ctor.
+     *
+     * @param message exception message
+     */
+    public EPSnapshotException(String message) {
+        super(message);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param message exception message
+     * @param cause   inner exception
+     */
+    public EPSnapshotException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
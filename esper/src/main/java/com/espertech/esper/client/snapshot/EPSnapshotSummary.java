@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.snapshot;
+
+import java.io.Serializable;
+
+/**
+ * Counts of the state written to or restored from a snapshot.
+ */
+public class EPSnapshotSummary implements Serializable {
+    private static final long serialVersionUID = -2581166374826610452L;
+
+    private final int numNamedWindowEvents;
+    private final int numTableRows;
+    private final int numVariableValues;
+
+    /**
+     * Ctor.
+     *
+     * @param numNamedWindowEvents number of named window events
+     * @param numTableRows         number of table rows
+     * @param numVariableValues    number of variable values
+     */
+    public EPSnapshotSummary(int numNamedWindowEvents, int numTableRows, int numVariableValues) {
+        this.numNamedWindowEvents = numNamedWindowEvents;
+        this.numTableRows = numTableRows;
+        this.numVariableValues = numVariableValues;
+    }
+
+    /**
+     * Returns the number of named window events, summed over named windows and context partitions.
+     *
+     * @return count
+     */
+    public int getNumNamedWindowEvents() {
+        return numNamedWindowEvents;
+    }
+
+    /**
+     * Returns the number of table rows, summed over tables and context partitions.
+     *
+     * @return count
+     */
+    public int getNumTableRows() {
+        return numTableRows;
+    }
+
+    /**
+     * Returns the number of variable values, counting each context partition of a context-partitioned variable.
+     *
+     * @return count
+     */
+    public int getNumVariableValues() {
+        return numVariableValues;
+    }
+
+    public String toString() {
+        return "EPSnapshotSummary{" +
+                "numNamedWindowEvents=" + numNamedWindowEvents +
+                ", numTableRows=" + numTableRows +
+                ", numVariableValues=" + numVariableValues +
+                '}';
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Double-ended queue of keys and associated values that keeps keys in monotonic order, for computing the
+ * minimum or maximum of a first-in first-out window in amortized constant time.
+ * <p>
+ * Adding a key removes all keys at the tail that are less than the added key (for maximum) or greater
+ * than the added key (for minimum), so that the head holds the current minimum or maximum. Equal keys are retained
+ * and the head holds the oldest of the equal keys.
+ * </p>
+ * <p>
+ * Keys must be removed in the same order they were added. A key that leaves the window is either at the head or
+ * was removed already by a later key that compares as strictly greater (for maximum) or less (for minimum).
+ * </p>
+ */
+public class MonotonicDeque<K, V> {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Comparator<K> comparator;
+    private final boolean max;
+    private Object[] keys;
+    private Object[] values;
+    private int head;
+    private int size;
+
+    /**
+     * Ctor.
+     *
+     * @param comparator comparator for keys, or null for natural ordering
+     * @param max        true to retain the maximum, false to retain the minimum
+     */
+    public MonotonicDeque(Comparator<K> comparator, boolean max) {
+        this.comparator = comparator;
+        this.max = max;
+        this.keys = new Object[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add a key and value at the tail.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void add(K key, V value) {
+        int mask = keys.length - 1;
+        while (size > 0) {
+            int tail = (head + size - 1) & mask;
+            int compared = compare((K) keys[tail], key);
+            if (max ? compared >= 0 : compared <= 0) {
+                break;
+            }
+            keys[tail] = null;
+            values[tail] = null;
+            size--;
+        }
+        if (size == keys.length) {
+            grow();
+            mask = keys.length - 1;
+        }
+        int tail = (head + size) & mask;
+        keys[tail] = key;
+        values[tail] = value;
+        size++;
+    }
+
+    /**
+     * Remove the head if it holds the key leaving the window.
+     *
+     * @param key   key leaving the window
+     * @param value value leaving the window, or null to compare keys only
+     * @return indicator whether the head was removed
+     */
+    public boolean removeIfFirst(K key, V value) {
+        if (size == 0) {
+            return false;
+        }
+        if (compare((K) keys[head], key) != 0) {
+            return false;
+        }
+        if (value != null && !value.equals(values[head])) {
+            return false;
+        }
+        keys[head] = null;
+        values[head] = null;
+        head = (head + 1) & (keys.length - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the minimum or maximum key, or null if empty.
+     *
+     * @return key
+     */
+    public K getFirstKey() {
+        return size == 0 ? null : (K) keys[head];
+    }
+
+    /**
+     * Returns the value of the minimum or maximum key, or null if empty.
+     *
+     * @return value
+     */
+    public V getFirstValue() {
+        return size == 0 ? null : (V) values[head];
+    }
+
+    /**
+     * Returns the number of keys retained, which is at most the number of keys in the window.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        head = 0;
+        size = 0;
+    }
+
+    private int compare(K first, K second) {
+        if (comparator != null) {
+            return comparator.compare(first, second);
+        }
+        return ((Comparable) first).compareTo(second);
+    }
+
+    private void grow() {
+        Object[] newKeys = new Object[keys.length * 2];
+        Object[] newValues = new Object[keys.length * 2];
+        int firstPart = keys.length - head;
+        System.arraycopy(keys, head, newKeys, 0, firstPart);
+        System.arraycopy(keys, 0, newKeys, firstPart, head);
+        System.arraycopy(values, head, newValues, 0, firstPart);
+        System.arraycopy(values, 0, newValues, firstPart, head);
+        keys = newKeys;
+        values = newValues;
+        head = 0;
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.*;
+
+/**
+ * Hash map for keys of type long, int or double that keeps keys unboxed in a primitive array using open addressing
+ * with linear probing, and values inline in a parallel array.
+ * <p>
+ * Key equality is the same as for a HashMap with boxed keys: only keys of the boxed key type are kept in the
+ * primitive array, double keys compare by their bits as in {@link Double#equals(Object)}.
+ * A null key or a key of another type is kept in a regular HashMap so that lookups behave exactly as for a HashMap.
+ * </p>
+ * <p>
+ * Null values are not allowed. Iterators do not support removal.
+ * </p>
+ */
+public class PrimitiveKeyHashMap<V> extends AbstractMap<Object, V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final Class boxedKeyType;
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int shift;
+    private int resizeAt;
+    private Map<Object, V> otherKeys;
+
+    /**
+     * Ctor.
+     *
+     * @param keyType key type, one of long, int or double or their boxed type
+     */
+    public PrimitiveKeyHashMap(Class keyType) {
+        if (!isSupportedKeyType(keyType)) {
+            throw new IllegalArgumentException("Unsupported key type " + keyType);
+        }
+        this.boxedKeyType = JavaClassHelper.getBoxedType(keyType);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns indicator whether the key type can be kept unboxed.
+     *
+     * @param keyType type
+     * @return indicator
+     */
+    public static boolean isSupportedKeyType(Class keyType) {
+        Class boxed = JavaClassHelper.getBoxedType(keyType);
+        return boxed == Long.class || boxed == Integer.class || boxed == Double.class;
+    }
+
+    public V get(Object key) {
+        if (!isPrimitiveKey(key)) {
+            return otherKeys == null ? null : otherKeys.get(key);
+        }
+        int index = find(toLong(key));
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(Object key) {
+        if (!isPrimitiveKey(key)) {
+            return otherKeys != null && otherKeys.containsKey(key);
+        }
+        return find(toLong(key)) >= 0;
+    }
+
+    public V put(Object key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Collection does not allow null values");
+        }
+        if (!isPrimitiveKey(key)) {
+            if (otherKeys == null) {
+                otherKeys = new HashMap<Object, V>();
+            }
+            return otherKeys.put(key, value);
+        }
+
+        long k = toLong(key);
+        int index = slot(k);
+        while (values[index] != null) {
+            if (keys[index] == k) {
+                V existing = (V) values[index];
+                values[index] = value;
+                return existing;
+            }
+            index = (index + 1) & (keys.length - 1);
+        }
+        keys[index] = k;
+        values[index] = value;
+        size++;
+        if (size >= resizeAt) {
+            resize();
+        }
+        return null;
+    }
+
+    public V remove(Object key) {
+        if (!isPrimitiveKey(key)) {
+            return otherKeys == null ? null : otherKeys.remove(key);
+        }
+        int index = find(toLong(key));
+        if (index < 0) {
+            return null;
+        }
+        V existing = (V) values[index];
+        removeAt(index);
+        return existing;
+    }
+
+    public int size() {
+        return size + (otherKeys == null ? 0 : otherKeys.size());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+        otherKeys = null;
+    }
+
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new SlotIterator<V>() {
+                    protected V primitiveSlot(int index) {
+                        return (V) values[index];
+                    }
+
+                    protected V otherEntry(Map.Entry<Object, V> entry) {
+                        return entry.getValue();
+                    }
+                };
+            }
+
+            public int size() {
+                return PrimitiveKeyHashMap.this.size();
+            }
+        };
+    }
+
+    public Set<Map.Entry<Object, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, V>>() {
+            public Iterator<Map.Entry<Object, V>> iterator() {
+                return new SlotIterator<Map.Entry<Object, V>>() {
+                    protected Map.Entry<Object, V> primitiveSlot(int index) {
+                        return new AbstractMap.SimpleImmutableEntry<Object, V>(fromLong(keys[index]), (V) values[index]);
+                    }
+
+                    protected Map.Entry<Object, V> otherEntry(Map.Entry<Object, V> entry) {
+                        return entry;
+                    }
+                };
+            }
+
+            public int size() {
+                return PrimitiveKeyHashMap.this.size();
+            }
+        };
+    }
+
+    private boolean isPrimitiveKey(Object key) {
+        return key != null && key.getClass() == boxedKeyType;
+    }
+
+    private long toLong(Object key) {
+        if (boxedKeyType == Double.class) {
+            return Double.doubleToLongBits((Double) key);
+        }
+        return ((Number) key).longValue();
+    }
+
+    private Object fromLong(long key) {
+        if (boxedKeyType == Long.class) {
+            return key;
+        }
+        if (boxedKeyType == Integer.class) {
+            return (int) key;
+        }
+        return Double.longBitsToDouble(key);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * GOLDEN) >>> shift);
+    }
+
+    private int find(long key) {
+        int index = slot(key);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & (keys.length - 1);
+        }
+        return -1;
+    }
+
+    // backward-shift deletion keeps probe sequences intact without tombstones
+    private void removeAt(int index) {
+        int mask = keys.length - 1;
+        int free = index;
+        values[free] = null;
+        size--;
+        int next = free;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                return;
+            }
+            int home = slot(keys[next]);
+            boolean stays = free <= next ? (free < home && home <= next) : (free < home || home <= next);
+            if (!stays) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                values[next] = null;
+                free = next;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        resizeAt = capacity - (capacity >>> 2);
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            int index = slot(oldKeys[i]);
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int index = -1;
+        private Iterator<Map.Entry<Object, V>> otherIterator;
+
+        SlotIterator() {
+            advance();
+        }
+
+        protected abstract T primitiveSlot(int index);
+
+        protected abstract T otherEntry(Map.Entry<Object, V> entry);
+
+        public boolean hasNext() {
+            return index < values.length || (otherIterator != null && otherIterator.hasNext());
+        }
+
+        public T next() {
+            if (index < values.length) {
+                T result = primitiveSlot(index);
+                advance();
+                return result;
+            }
+            if (otherIterator == null) {
+                throw new NoSuchElementException();
+            }
+            return otherEntry(otherIterator.next());
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            index++;
+            while (index < values.length && values[index] == null) {
+                index++;
+            }
+            if (index == values.length && otherIterator == null && otherKeys != null) {
+                otherIterator = otherKeys.entrySet().iterator();
+            }
+        }
+    }
+}
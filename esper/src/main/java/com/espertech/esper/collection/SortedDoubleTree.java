@@ -0,0 +1,245 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, reference-counting collection of double values that supports lookup by rank,
+ * based on a treap kept in primitive arrays.
+ * <p>
+ * Add and remove are O(log n) and do not box values. Equal values share a single tree node.
+ * </p>
+ */
+public class SortedDoubleTree {
+    private static final int NIL = 0;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] keys;
+    private int[] counts;
+    private int[] sizes;
+    private int[] left;
+    private int[] right;
+    private int[] priorities;
+    private int root;
+    private int nextUnused;
+    private int freeList;
+    private int seed;
+
+    /**
+     * Ctor.
+     */
+    public SortedDoubleTree() {
+        keys = new double[INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+        sizes = new int[INITIAL_CAPACITY];
+        left = new int[INITIAL_CAPACITY];
+        right = new int[INITIAL_CAPACITY];
+        priorities = new int[INITIAL_CAPACITY];
+        seed = 0x2545F491;
+        clear();
+    }
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear() {
+        root = NIL;
+        nextUnused = 1;
+        freeList = NIL;
+    }
+
+    /**
+     * Returns the number of items in the collection, counting each duplicate value.
+     *
+     * @return size
+     */
+    public int size() {
+        return sizes[root];
+    }
+
+    /**
+     * Returns the value at a given index in ascending sort order.
+     *
+     * @param index for which to return value for
+     * @return value at index
+     * @throws IndexOutOfBoundsException if the index is negative or not less than size
+     */
+    public double getValue(int index) {
+        if (index < 0 || index >= sizes[root]) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + sizes[root]);
+        }
+        int node = root;
+        while (true) {
+            int sizeLeft = sizes[left[node]];
+            if (index < sizeLeft) {
+                node = left[node];
+            } else if (index < sizeLeft + counts[node]) {
+                return keys[node];
+            } else {
+                index -= sizeLeft + counts[node];
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Add a value to the collection.
+     *
+     * @param value is the double-type value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        root = insert(root, value);
+    }
+
+    /**
+     * Remove a value from the collection.
+     *
+     * @param value to remove
+     * @throws IllegalStateException if the value has not been added
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        root = delete(root, value);
+    }
+
+    private int insert(int node, double value) {
+        if (node == NIL) {
+            return allocate(value);
+        }
+        if (value < keys[node]) {
+            int child = insert(left[node], value);
+            left[node] = child;
+            sizes[node]++;
+            if (priorities[child] > priorities[node]) {
+                return rotateRight(node);
+            }
+        } else if (value > keys[node]) {
+            int child = insert(right[node], value);
+            right[node] = child;
+            sizes[node]++;
+            if (priorities[child] > priorities[node]) {
+                return rotateLeft(node);
+            }
+        } else {
+            counts[node]++;
+            sizes[node]++;
+        }
+        return node;
+    }
+
+    private int delete(int node, double value) {
+        if (node == NIL) {
+            throw new IllegalStateException("Value not found in collection");
+        }
+        if (value < keys[node]) {
+            left[node] = delete(left[node], value);
+        } else if (value > keys[node]) {
+            right[node] = delete(right[node], value);
+        } else if (counts[node] == 1) {
+            return deleteNode(node);
+        } else {
+            counts[node]--;
+        }
+        sizes[node]--;
+        return node;
+    }
+
+    private int deleteNode(int node) {
+        int nodeLeft = left[node];
+        int nodeRight = right[node];
+        if (nodeLeft == NIL) {
+            release(node);
+            return nodeRight;
+        }
+        if (nodeRight == NIL) {
+            release(node);
+            return nodeLeft;
+        }
+        // rotate the node down until it has at most one child
+        int top;
+        if (priorities[nodeLeft] > priorities[nodeRight]) {
+            top = rotateRight(node);
+            right[top] = deleteNode(node);
+        } else {
+            top = rotateLeft(node);
+            left[top] = deleteNode(node);
+        }
+        sizes[top]--;
+        return top;
+    }
+
+    private int rotateRight(int node) {
+        int top = left[node];
+        left[node] = right[top];
+        right[top] = node;
+        sizes[top] = sizes[node];
+        sizes[node] = counts[node] + sizes[left[node]] + sizes[right[node]];
+        return top;
+    }
+
+    private int rotateLeft(int node) {
+        int top = right[node];
+        right[node] = left[top];
+        left[top] = node;
+        sizes[top] = sizes[node];
+        sizes[node] = counts[node] + sizes[left[node]] + sizes[right[node]];
+        return top;
+    }
+
+    private int allocate(double value) {
+        int node;
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = left[node];
+        } else {
+            if (nextUnused == keys.length) {
+                grow();
+            }
+            node = nextUnused++;
+        }
+        keys[node] = value;
+        counts[node] = 1;
+        sizes[node] = 1;
+        left[node] = NIL;
+        right[node] = NIL;
+        priorities[node] = nextPriority();
+        return node;
+    }
+
+    private void release(int node) {
+        left[node] = freeList;
+        freeList = node;
+    }
+
+    private void grow() {
+        int capacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+
+    private int nextPriority() {
+        // xorshift random numbers, sufficient for keeping the tree balanced in expectation
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed >>> 1;
+    }
+}
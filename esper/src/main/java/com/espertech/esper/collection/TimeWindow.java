@@ -25,10 +25,17 @@ import java.util.*;
  * <p>
  * It is assumed that the timestamp passed to the add method is ascending. The window is backed by a
  * collection reflecting the timestamp order rather then any sorted map or linked hash map for performance reasons.
+ * <p>
+ * Events and their timestamps are kept in chunks of parallel arrays, with a primitive timestamp column, that
+ * grow in size along with the window. Removed events leave an empty slot in their chunk.
+ * Expiry of a whole chunk hands the chunk's event array to the caller without copying.
  */
 public final class TimeWindow implements Iterable {
-    private ArrayDeque<TimeWindowPair> window;
-    private Map<EventBean, TimeWindowPair> reverseIndex;
+    private static final int MIN_CHUNK_SIZE = 16;
+    private static final int MAX_CHUNK_SIZE = 4096;
+
+    private final ArrayDeque<TimeWindowChunk> chunks;
+    private Map<EventBean, TimeWindowSlot> reverseIndex;
     private int size;
 
     /**
@@ -38,10 +45,10 @@ public final class TimeWindow implements Iterable {
      *                              in the window based on the remove stream events received, or false to not accomodate removal at all
      */
     public TimeWindow(boolean isSupportRemoveStream) {
-        this.window = new ArrayDeque<TimeWindowPair>();
+        this.chunks = new ArrayDeque<TimeWindowChunk>();
 
         if (isSupportRemoveStream) {
-            reverseIndex = new HashMap<EventBean, TimeWindowPair>();
+            reverseIndex = new HashMap<EventBean, TimeWindowSlot>();
         }
     }
 
@@ -51,8 +58,10 @@ public final class TimeWindow implements Iterable {
      * @param delta delta to adjust for
      */
     public void adjust(long delta) {
-        for (TimeWindowPair data : window) {
-            data.setTimestamp(data.getTimestamp() + delta);
+        for (TimeWindowChunk chunk : chunks) {
+            for (int i = chunk.start; i < chunk.end; i++) {
+                chunk.timestamps[i] += delta;
+            }
         }
     }
 
@@ -63,47 +72,17 @@ public final class TimeWindow implements Iterable {
      * @param bean      - event to add
      */
     public final void add(long timestamp, EventBean bean) {
-        // Empty window
-        if (window.isEmpty()) {
-            TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
-            window.add(pair);
-
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, pair);
-            }
-            size = 1;
-            return;
-        }
-
-        TimeWindowPair lastPair = window.getLast();
-
-        // Windows last timestamp matches the one supplied
-        if (lastPair.getTimestamp() == timestamp) {
-            if (lastPair.getEventHolder() instanceof List) {
-                List<EventBean> list = (List<EventBean>) lastPair.getEventHolder();
-                list.add(bean);
-            } else if (lastPair.getEventHolder() == null) {
-                lastPair.setEventHolder(bean);
-            } else {
-                EventBean existing = (EventBean) lastPair.getEventHolder();
-                List<EventBean> list = new ArrayList<EventBean>(4);
-                list.add(existing);
-                list.add(bean);
-                lastPair.setEventHolder(list);
-            }
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, lastPair);
-            }
-            size++;
-            return;
+        TimeWindowChunk chunk = chunks.peekLast();
+        if (chunk == null || chunk.end == chunk.events.length) {
+            chunk = new TimeWindowChunk(Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, Integer.highestOneBit(size))));
+            chunks.add(chunk);
         }
-
-        // Append to window
-        TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
+        chunk.timestamps[chunk.end] = timestamp;
+        chunk.events[chunk.end] = bean;
         if (reverseIndex != null) {
-            reverseIndex.put(bean, pair);
+            reverseIndex.put(bean, new TimeWindowSlot(chunk, chunk.end));
         }
-        window.add(pair);
+        chunk.end++;
         size++;
     }
 
@@ -116,71 +95,100 @@ public final class TimeWindow implements Iterable {
         if (reverseIndex == null) {
             throw new UnsupportedOperationException("Time window does not accept event removal");
         }
-        TimeWindowPair pair = reverseIndex.get(theEvent);
-        if (pair != null) {
-            if (pair.getEventHolder() != null && pair.getEventHolder().equals(theEvent)) {
-                pair.setEventHolder(null);
-                size--;
-            } else if (pair.getEventHolder() != null) {
-                List<EventBean> list = (List<EventBean>) pair.getEventHolder();
-                boolean removed = list.remove(theEvent);
-                if (removed) {
-                    size--;
-                }
-            }
-            reverseIndex.remove(theEvent);
+        TimeWindowSlot slot = reverseIndex.remove(theEvent);
+        if (slot == null) {
+            return;
+        }
+        TimeWindowChunk chunk = slot.chunk;
+        chunk.events[slot.index] = null;
+        chunk.numRemoved++;
+        size--;
+        if (chunk == chunks.getFirst()) {
+            trimFirst();
         }
     }
 
     /**
      * Return and remove events in time-slots earlier (less) then the timestamp passed in,
-     * returning the list of events expired.
+     * returning the events expired.
+     * <p>
+     * When the events expired are exactly one full chunk, the array returned is the chunk's array.
      *
      * @param expireBefore is the timestamp from which on to keep events in the window
-     * @return a list of events expired and removed from the window, or null if none expired
+     * @return events expired and removed from the window, or null if none expired
      */
-    public final ArrayDeque<EventBean> expireEvents(long expireBefore) {
-        if (window.isEmpty()) {
+    public final EventBean[] expireEvents(long expireBefore) {
+        TimeWindowChunk first = chunks.peekFirst();
+        if (first == null || first.timestamps[first.start] >= expireBefore) {
             return null;
         }
 
-        TimeWindowPair pair = window.getFirst();
-
-        // If the first entry's timestamp is after the expiry date, nothing to expire
-        if (pair.getTimestamp() >= expireBefore) {
-            return null;
+        // determine the number of events expiring, ending at the first timestamp that is not before the expiry time
+        int count = 0;
+        TimeWindowChunk lastChunk = null;
+        int lastChunkEnd = 0;
+        for (TimeWindowChunk chunk : chunks) {
+            int index = chunk.start;
+            while (index < chunk.end && chunk.timestamps[index] < expireBefore) {
+                index++;
+            }
+            count += index - chunk.start;
+            lastChunk = chunk;
+            lastChunkEnd = index;
+            if (index < chunk.end) {
+                break;
+            }
         }
 
-        ArrayDeque<EventBean> resultBeans = new ArrayDeque<EventBean>();
+        // a single full chunk without removed events is handed over as-is
+        if (lastChunk == first && lastChunkEnd == first.end && first.start == 0 && first.end == first.events.length && first.numRemoved == 0) {
+            chunks.removeFirst();
+            removeReverseIndex(first.events, first.events.length);
+            size -= first.events.length;
+            trimFirst();
+            return first.events;
+        }
 
-        // Repeat until the window is empty or the timestamp is above the expiry time
-        do {
-            if (pair.getEventHolder() != null) {
-                if (pair.getEventHolder() instanceof EventBean) {
-                    resultBeans.add((EventBean) pair.getEventHolder());
-                } else {
-                    resultBeans.addAll((List<EventBean>) pair.getEventHolder());
+        EventBean[] expired = new EventBean[count];
+        int numExpired = 0;
+        while (true) {
+            TimeWindowChunk chunk = chunks.getFirst();
+            int end = chunk == lastChunk ? lastChunkEnd : chunk.end;
+            if (chunk.numRemoved == 0) {
+                System.arraycopy(chunk.events, chunk.start, expired, numExpired, end - chunk.start);
+                numExpired += end - chunk.start;
+            } else {
+                for (int i = chunk.start; i < end; i++) {
+                    if (chunk.events[i] != null) {
+                        expired[numExpired++] = chunk.events[i];
+                    } else {
+                        chunk.numRemoved--;
+                    }
                 }
             }
 
-            window.removeFirst();
-
-            if (window.isEmpty()) {
+            if (end == chunk.end) {
+                chunks.removeFirst();
+            } else {
+                Arrays.fill(chunk.events, chunk.start, end, null);
+                chunk.start = end;
+            }
+            if (chunk == lastChunk) {
                 break;
             }
-
-            pair = window.getFirst();
         }
-        while (pair.getTimestamp() < expireBefore);
 
-        if (reverseIndex != null) {
-            for (EventBean expired : resultBeans) {
-                reverseIndex.remove(expired);
-            }
-        }
+        removeReverseIndex(expired, numExpired);
+        size -= numExpired;
+        trimFirst();
 
-        size -= resultBeans.size();
-        return resultBeans;
+        if (numExpired == 0) {
+            return null;
+        }
+        if (numExpired < expired.length) {
+            return Arrays.copyOf(expired, numExpired);
+        }
+        return expired;
     }
 
     /**
@@ -189,7 +197,7 @@ public final class TimeWindow implements Iterable {
      * @return iterator over events currently in window
      */
     public final Iterator<EventBean> iterator() {
-        return new TimeWindowIterator(window);
+        return new TimeWindowChunkIterator(chunks.iterator());
     }
 
     /**
@@ -199,18 +207,29 @@ public final class TimeWindow implements Iterable {
      * @return null if empty, oldest timestamp if not empty
      */
     public final Long getOldestTimestamp() {
-        if (window.isEmpty()) {
+        TimeWindowChunk first = chunks.peekFirst();
+        if (first == null) {
             return null;
         }
-        if (window.getFirst().getEventHolder() != null) {
-            return window.getFirst().getTimestamp();
-        }
-        for (TimeWindowPair pair : window) {
-            if (pair.getEventHolder() != null) {
-                return pair.getTimestamp();
+        return first.timestamps[first.start];
+    }
+
+    /**
+     * Returns the timestamps of the events in the window, in the order of the event iterator.
+     *
+     * @return timestamps
+     */
+    public final long[] getTimestamps() {
+        long[] timestamps = new long[size];
+        int count = 0;
+        for (TimeWindowChunk chunk : chunks) {
+            for (int i = chunk.start; i < chunk.end; i++) {
+                if (chunk.events[i] != null) {
+                    timestamps[count++] = chunk.timestamps[i];
+                }
             }
         }
-        return null;
+        return timestamps;
     }
 
     /**
@@ -219,7 +238,16 @@ public final class TimeWindow implements Iterable {
      * @return true if empty, false if not
      */
     public final boolean isEmpty() {
-        return getOldestTimestamp() == null;
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the window.
+     *
+     * @return number of events
+     */
+    public int size() {
+        return size;
     }
 
     /**
@@ -227,24 +255,107 @@ public final class TimeWindow implements Iterable {
      *
      * @return reverse index
      */
-    public Map<EventBean, TimeWindowPair> getReverseIndex() {
+    public Map<EventBean, ?> getReverseIndex() {
         return reverseIndex;
     }
 
-    public ArrayDeque<TimeWindowPair> getWindow() {
-        return window;
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        viewDataVisitor.visitPrimary(chunks, false, viewFactory.getViewName(), size);
     }
 
-    public void setWindow(ArrayDeque<TimeWindowPair> window, int size) {
-        this.window = window;
-        this.size = size;
+    private void removeReverseIndex(EventBean[] expired, int numExpired) {
+        if (reverseIndex == null) {
+            return;
+        }
+        for (int i = 0; i < numExpired; i++) {
+            reverseIndex.remove(expired[i]);
+        }
     }
 
-    public void setReverseIndex(Map<EventBean, TimeWindowPair> reverseIndex) {
-        this.reverseIndex = reverseIndex;
+    // Keeps the first chunk starting with an event that is not removed, so that the oldest timestamp is readily available
+    private void trimFirst() {
+        while (!chunks.isEmpty()) {
+            TimeWindowChunk first = chunks.getFirst();
+            while (first.start < first.end && first.events[first.start] == null) {
+                first.start++;
+                first.numRemoved--;
+            }
+            if (first.start < first.end) {
+                return;
+            }
+            chunks.removeFirst();
+        }
     }
 
-    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
-        viewDataVisitor.visitPrimary(window, false, viewFactory.getViewName(), size);
+    private static class TimeWindowChunk {
+        private final long[] timestamps;
+        private final EventBean[] events;
+        private int start;
+        private int end;
+        private int numRemoved;
+
+        private TimeWindowChunk(int capacity) {
+            this.timestamps = new long[capacity];
+            this.events = new EventBean[capacity];
+        }
+    }
+
+    private static class TimeWindowSlot {
+        private final TimeWindowChunk chunk;
+        private final int index;
+
+        private TimeWindowSlot(TimeWindowChunk chunk, int index) {
+            this.chunk = chunk;
+            this.index = index;
+        }
+    }
+
+    private static class TimeWindowChunkIterator implements Iterator<EventBean> {
+        private final Iterator<TimeWindowChunk> chunkIterator;
+        private TimeWindowChunk chunk;
+        private int index;
+        private EventBean next;
+
+        private TimeWindowChunkIterator(Iterator<TimeWindowChunk> chunkIterator) {
+            this.chunkIterator = chunkIterator;
+            advance();
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public EventBean next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            EventBean result = next;
+            advance();
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            while (true) {
+                if (chunk != null) {
+                    while (index < chunk.end) {
+                        EventBean event = chunk.events[index++];
+                        if (event != null) {
+                            next = event;
+                            return;
+                        }
+                    }
+                }
+                if (!chunkIterator.hasNext()) {
+                    next = null;
+                    return;
+                }
+                chunk = chunkIterator.next();
+                index = chunk.start;
+            }
+        }
     }
 }
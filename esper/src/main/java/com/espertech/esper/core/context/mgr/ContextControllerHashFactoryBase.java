@@ -171,10 +171,16 @@ public abstract class ContextControllerHashFactoryBase extends ContextController
 
             if (hashFunction == HashFunctionEnum.CONSISTENT_HASH_CRC32) {
                 if (item.getFunction().getParameters().size() > 1 || paramType != String.class) {
-                    getter = new ContextControllerHashedGetterCRC32Serialized(factoryContext.getAgentInstanceContextCreate().getStatementContext().getStatementName(), item.getFunction().getParameters(), hashedSpec.getGranularity());
+                    if (ContextControllerHashedGetterCRC32Streaming.isSupported(item.getFunction().getParameters())) {
+                        getter = new ContextControllerHashedGetterCRC32Streaming(factoryContext.getAgentInstanceContextCreate().getStatementContext().getStatementName(), item.getFunction().getParameters(), hashedSpec.getGranularity());
+                    } else {
+                        getter = new ContextControllerHashedGetterCRC32Serialized(factoryContext.getAgentInstanceContextCreate().getStatementContext().getStatementName(), item.getFunction().getParameters(), hashedSpec.getGranularity());
+                    }
                 } else {
                     getter = new ContextControllerHashedGetterCRC32Single(eval, hashedSpec.getGranularity());
                 }
+            } else if (hashFunction == HashFunctionEnum.MURMUR3) {
+                getter = new ContextControllerHashedGetterMurmur3(item.getFunction().getParameters(), hashedSpec.getGranularity());
             } else if (hashFunction == HashFunctionEnum.HASH_CODE) {
                 if (item.getFunction().getParameters().size() > 1) {
                     getter = new ContextControllerHashedGetterHashMultiple(item.getFunction().getParameters(), hashedSpec.getGranularity());
@@ -266,7 +272,8 @@ public abstract class ContextControllerHashFactoryBase extends ContextController
 
     public static enum HashFunctionEnum {
         CONSISTENT_HASH_CRC32,
-        HASH_CODE;
+        HASH_CODE,
+        MURMUR3;
         private static String stringList;
 
         public static HashFunctionEnum determine(String contextName, String name) throws ExprValidationException {
@@ -0,0 +1,175 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.util.HashUtil;
+import com.espertech.esper.util.JavaClassHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Consistent hash using CRC-32 that feeds parameter values directly into the checksum.
+ * <p>
+ * Computes the same hash as {@link ContextControllerHashedGetterCRC32Serialized} but without serializing the parameter
+ * values to a byte array, for parameters that are of a primitive or string type.
+ * </p>
+ */
+public class ContextControllerHashedGetterCRC32Streaming implements EventPropertyGetter {
+    private static final Logger log = LoggerFactory.getLogger(ContextControllerHashedGetterCRC32Streaming.class);
+
+    private static final int TYPE_NULL = 0;
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_LONG = 2;
+    private static final int TYPE_FLOAT = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_BYTE = 5;
+    private static final int TYPE_SHORT = 6;
+    private static final int TYPE_STRING = 7;
+    private static final int TYPE_BOOLEAN = 8;
+    private static final int TYPE_UNSUPPORTED = -1;
+    private static final int MAX_UTF_LENGTH = 65535;
+
+    private final String statementName;
+    private final ExprEvaluator[] evaluators;
+    private final EventPropertyGetter[] getters;
+    private final int[] types;
+    private final int granularity;
+
+    public ContextControllerHashedGetterCRC32Streaming(String statementName, List<ExprNode> nodes, int granularity) {
+        this.statementName = statementName;
+        evaluators = new ExprEvaluator[nodes.size()];
+        types = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            evaluators[i] = nodes.get(i).getExprEvaluator();
+            types[i] = getType(evaluators[i].getType());
+        }
+        getters = ContextControllerHashedGetterUtil.getPropertyGetters(nodes);
+        this.granularity = granularity;
+    }
+
+    /**
+     * Returns indicator whether the parameter types can be hashed without serialization.
+     *
+     * @param nodes hash function parameters
+     * @return indicator
+     */
+    public static boolean isSupported(List<ExprNode> nodes) {
+        for (ExprNode node : nodes) {
+            if (getType(node.getExprEvaluator().getType()) == TYPE_UNSUPPORTED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Object get(EventBean eventBean) throws PropertyAccessException {
+        EventBean[] events = null;
+        int crc = HashUtil.CRC32_INITIAL;
+        for (int i = 0; i < evaluators.length; i++) {
+            Object value;
+            if (getters[i] != null) {
+                value = getters[i].get(eventBean);
+            } else {
+                if (events == null) {
+                    events = new EventBean[]{eventBean};
+                }
+                value = evaluators[i].evaluate(events, true, null);
+            }
+            if (value == null) {
+                continue;
+            }
+
+            switch (types[i]) {
+                case TYPE_INT:
+                    crc = HashUtil.crc32Int(crc, ((Number) value).intValue());
+                    break;
+                case TYPE_LONG:
+                    crc = HashUtil.crc32Long(crc, ((Number) value).longValue());
+                    break;
+                case TYPE_FLOAT:
+                    crc = HashUtil.crc32Int(crc, Float.floatToIntBits(((Number) value).floatValue()));
+                    break;
+                case TYPE_DOUBLE:
+                    crc = HashUtil.crc32Long(crc, Double.doubleToLongBits(((Number) value).doubleValue()));
+                    break;
+                case TYPE_BYTE:
+                    crc = HashUtil.crc32Byte(crc, ((Number) value).byteValue());
+                    break;
+                case TYPE_SHORT:
+                    crc = HashUtil.crc32Short(crc, ((Number) value).shortValue());
+                    break;
+                case TYPE_STRING:
+                    String text = (String) value;
+                    int utfLength = HashUtil.utfLength(text);
+                    if (utfLength > MAX_UTF_LENGTH) {
+                        // same as an empty serialized value
+                        log.error("Exception serializing parameters for computing consistent hash for statement '" + statementName + "': encoded string too long: " + utfLength + " bytes");
+                        return 0;
+                    }
+                    crc = HashUtil.crc32UTF(crc, text, utfLength);
+                    break;
+                case TYPE_BOOLEAN:
+                    crc = HashUtil.crc32Byte(crc, (Boolean) value ? 1 : 0);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        long value = HashUtil.crc32Value(crc) % granularity;
+
+        int result = (int) value;
+        if (result >= 0) {
+            return result;
+        }
+        return -result;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return false;
+    }
+
+    public Object getFragment(EventBean eventBean) throws PropertyAccessException {
+        return null;
+    }
+
+    private static int getType(Class clazz) {
+        if (clazz == null) {
+            return TYPE_NULL;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(clazz);
+        if (boxed == Integer.class) {
+            return TYPE_INT;
+        } else if (boxed == Long.class) {
+            return TYPE_LONG;
+        } else if (boxed == Float.class) {
+            return TYPE_FLOAT;
+        } else if (boxed == Double.class) {
+            return TYPE_DOUBLE;
+        } else if (boxed == Byte.class) {
+            return TYPE_BYTE;
+        } else if (boxed == Short.class) {
+            return TYPE_SHORT;
+        } else if (boxed == String.class) {
+            return TYPE_STRING;
+        } else if (boxed == Boolean.class) {
+            return TYPE_BOOLEAN;
+        }
+        return TYPE_UNSUPPORTED;
+    }
+}
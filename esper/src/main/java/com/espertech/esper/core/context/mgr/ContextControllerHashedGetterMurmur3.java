@@ -0,0 +1,104 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.util.HashUtil;
+
+import java.util.List;
+
+/**
+ * Hash using Murmur3 (32-bit) that feeds parameter values directly into the hash.
+ * <p>
+ * Numeric, boolean and character values are hashed as one 4-byte block, or two blocks for long and double values.
+ * String values are hashed by their characters. Null values are skipped. For other values the hash uses the object hash code.
+ * </p>
+ */
+public class ContextControllerHashedGetterMurmur3 implements EventPropertyGetter {
+
+    private final ExprEvaluator[] evaluators;
+    private final EventPropertyGetter[] getters;
+    private final int granularity;
+
+    public ContextControllerHashedGetterMurmur3(List<ExprNode> nodes, int granularity) {
+        evaluators = new ExprEvaluator[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            evaluators[i] = nodes.get(i).getExprEvaluator();
+        }
+        getters = ContextControllerHashedGetterUtil.getPropertyGetters(nodes);
+        this.granularity = granularity;
+    }
+
+    public Object get(EventBean eventBean) throws PropertyAccessException {
+        EventBean[] events = null;
+        int hash = HashUtil.MURMUR3_INITIAL;
+        int length = 0;
+        for (int i = 0; i < evaluators.length; i++) {
+            Object value;
+            if (getters[i] != null) {
+                value = getters[i].get(eventBean);
+            } else {
+                if (events == null) {
+                    events = new EventBean[]{eventBean};
+                }
+                value = evaluators[i].evaluate(events, true, null);
+            }
+            if (value == null) {
+                continue;
+            }
+
+            if (value instanceof String) {
+                String text = (String) value;
+                hash = HashUtil.murmur3String(hash, text);
+                length += HashUtil.murmur3StringLength(text);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                hash = HashUtil.murmur3Block(hash, ((Number) value).intValue());
+                length += 4;
+            } else if (value instanceof Long) {
+                hash = HashUtil.murmur3Long(hash, (Long) value);
+                length += 8;
+            } else if (value instanceof Double) {
+                hash = HashUtil.murmur3Long(hash, Double.doubleToLongBits((Double) value));
+                length += 8;
+            } else if (value instanceof Float) {
+                hash = HashUtil.murmur3Block(hash, Float.floatToIntBits((Float) value));
+                length += 4;
+            } else if (value instanceof Boolean) {
+                hash = HashUtil.murmur3Block(hash, (Boolean) value ? 1 : 0);
+                length += 4;
+            } else if (value instanceof Character) {
+                hash = HashUtil.murmur3Block(hash, (Character) value);
+                length += 4;
+            } else {
+                hash = HashUtil.murmur3Block(hash, value.hashCode());
+                length += 4;
+            }
+        }
+
+        int result = HashUtil.murmur3Finish(hash, length) % granularity;
+        if (result >= 0) {
+            return result;
+        }
+        return -result;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return false;
+    }
+
+    public Object getFragment(EventBean eventBean) throws PropertyAccessException {
+        return null;
+    }
+}
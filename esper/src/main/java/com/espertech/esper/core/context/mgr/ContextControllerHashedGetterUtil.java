@@ -0,0 +1,42 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.expression.core.ExprIdentNode;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+
+import java.util.List;
+
+public class ContextControllerHashedGetterUtil {
+
+    /**
+     * Returns, for each hash function parameter that is an event property, the property getter so that the property value can be
+     * obtained from the event without the events-per-stream array that expression evaluation takes.
+     *
+     * @param nodes hash function parameters
+     * @return property getters, with null entries for parameters that must be evaluated as expressions
+     */
+    public static EventPropertyGetter[] getPropertyGetters(List<ExprNode> nodes) {
+        EventPropertyGetter[] getters = new EventPropertyGetter[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            if (!(nodes.get(i) instanceof ExprIdentNode)) {
+                continue;
+            }
+            ExprIdentNodeEvaluator evaluator = ((ExprIdentNode) nodes.get(i)).getExprEvaluatorIdent();
+            if (evaluator.getStreamNum() == 0 && !evaluator.isContextEvaluated()) {
+                getters[i] = evaluator.getGetter();
+            }
+        }
+        return getters;
+    }
+}
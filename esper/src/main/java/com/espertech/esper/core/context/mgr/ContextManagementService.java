@@ -38,4 +38,8 @@ public interface ContextManagementService {
     public Map<String, ContextManagerEntry> getContexts();
 
     public ContextManager getContextManager(String contextName);
+
+    public ContextControllerFactoryService getDefaultContextControllerFactoryService();
+
+    public void destroy();
 }
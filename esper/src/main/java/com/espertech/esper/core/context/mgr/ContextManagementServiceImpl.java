@@ -31,9 +31,23 @@ public class ContextManagementServiceImpl implements ContextManagementService {
 
     private final Map<String, ContextManagerEntry> contexts;
     private final Set<String> destroyedContexts = new HashSet<String>();
+    private final ContextStateCacheFile optionalStateCacheFile;
+    private final ContextControllerFactoryService defaultFactoryService;
 
-    public ContextManagementServiceImpl() {
+    public ContextManagementServiceImpl(ContextStateCacheFile optionalStateCacheFile) {
         contexts = new HashMap<String, ContextManagerEntry>();
+        this.optionalStateCacheFile = optionalStateCacheFile;
+        this.defaultFactoryService = optionalStateCacheFile == null ? ContextControllerFactoryServiceImpl.DEFAULT_FACTORY : new ContextControllerFactoryServiceImpl(optionalStateCacheFile);
+    }
+
+    public ContextControllerFactoryService getDefaultContextControllerFactoryService() {
+        return defaultFactoryService;
+    }
+
+    public void destroy() {
+        if (optionalStateCacheFile != null) {
+            optionalStateCacheFile.close();
+        }
     }
 
     public void addContextSpec(EPServicesContext servicesContext, AgentInstanceContext agentInstanceContext, CreateContextDesc contextDesc, boolean isRecoveringResilient, EventType statementResultEventType) throws ExprValidationException {
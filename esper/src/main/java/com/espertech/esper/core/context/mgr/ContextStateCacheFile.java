@@ -0,0 +1,513 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.context.ContextPartitionState;
+import com.espertech.esper.epl.spec.ContextDetailInitiatedTerminated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Context state cache that keeps context partition paths in memory and records each change to append-only,
+ * memory-mapped segment files in a directory, so that context partitions are restored when the engine restarts.
+ * A path holds the context partition key, id and started or stopped state only: the state of statements
+ * in the context partition is not kept.
+ * <p>
+ * Each change is appended as a record to the current segment, which is an incremental checkpoint.
+ * A background thread forces the segments written to since the last checkpoint to disk at the checkpoint interval,
+ * so that the thread making the change does not wait for the disk and the log tail is forced even when no further
+ * changes follow. A checkpoint interval of zero instead forces each change by the thread making it.
+ * When the number of records in the log grows well beyond the number of live context partition paths, the cache
+ * writes a compacted snapshot to new segments and deletes the older segments, by the background thread if there is one.
+ * On startup the segments are read and verified in parallel and applied in order.
+ * </p>
+ * <p>
+ * Once closed, the cache ignores further changes so that destroying statements during engine shutdown retains the state.
+ * Initializing the engine closes the cache and restores a new cache from the same directory, so that the context partition keys
+ * survive initialization as they survive a restart.
+ * </p>
+ */
+public class ContextStateCacheFile implements ContextStateCache {
+    private static final Logger log = LoggerFactory.getLogger(ContextStateCacheFile.class);
+
+    /**
+     * Default segment size in bytes.
+     */
+    public final static int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private final static String SEGMENT_PREFIX = "context-state-";
+    private final static String SEGMENT_SUFFIX = ".seg";
+    private final static int RECORD_HEADER_SIZE = 8;
+    private final static int COMPACT_MIN_RECORDS = 1024;
+
+    private final static byte RECORD_PUT = 1;
+    private final static byte RECORD_REMOVE_PATH = 2;
+    private final static byte RECORD_REMOVE_PARENT_PATH = 3;
+    private final static byte RECORD_REMOVE_CONTEXT = 4;
+
+    private final File directory;
+    private final int segmentSize;
+    private final Map<String, TreeMap<ContextStatePathKey, ContextStatePathValue>> contexts = new HashMap<String, TreeMap<ContextStatePathKey, ContextStatePathValue>>();
+    private final ArrayDeque<File> segmentFiles = new ArrayDeque<File>();
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream recordOutput = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+    private final List<MappedByteBuffer> unforcedSegments = new ArrayList<MappedByteBuffer>();
+    private final ScheduledExecutorService checkpointExecutor;
+
+    private MappedByteBuffer segment;
+    private boolean segmentUnforced;
+    private boolean compactRequested;
+    private long segmentSequence;
+    private int numLogRecords;
+    private int numLivePaths;
+    private boolean closed;
+
+    /**
+     * Ctor.
+     *
+     * @param directory              directory for segment files, created if it does not exist
+     * @param segmentSize            segment size in bytes
+     * @param checkpointIntervalMsec time between forcing segments to disk by a background thread, or zero to force after every change
+     */
+    public ContextStateCacheFile(File directory, int segmentSize, long checkpointIntervalMsec) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new EPException("Failed to create context state directory '" + directory + "'");
+        }
+        try {
+            restore();
+        } catch (IOException e) {
+            throw new EPException("Failed to restore context state from directory '" + directory + "': " + e.getMessage(), e);
+        }
+        if (checkpointIntervalMsec > 0) {
+            checkpointExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "com.espertech.esper.ContextStateCheckpoint-" + directory.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            checkpointExecutor.scheduleWithFixedDelay(this::runCheckpoint, checkpointIntervalMsec, checkpointIntervalMsec, TimeUnit.MILLISECONDS);
+        } else {
+            checkpointExecutor = null;
+        }
+    }
+
+    public ContextStatePathValueBinding getBinding(Object bindingInfo) {
+        if (bindingInfo instanceof ContextDetailInitiatedTerminated) {
+            return new ContextStateCacheNoSave.ContextStateCacheNoSaveInitTermBinding();
+        }
+        return ContextStateCacheNoSave.DEFAULT_SPI_TEST_BINDING;
+    }
+
+    public synchronized void addContextPath(String contextName, int level, int parentPath, int subPath, Integer optionalContextPartitionId, Object additionalInfo, ContextStatePathValueBinding binding) {
+        if (closed) {
+            return;
+        }
+        ContextStatePathKey key = new ContextStatePathKey(level, parentPath, subPath);
+        ContextStatePathValue value = new ContextStatePathValue(optionalContextPartitionId, binding.toByteArray(additionalInfo), ContextPartitionState.STARTED);
+        applyPut(contextName, key, value);
+        writePut(contextName, key, value);
+    }
+
+    public synchronized void updateContextPath(String contextName, ContextStatePathKey key, ContextStatePathValue value) {
+        if (closed) {
+            return;
+        }
+        ContextStatePathValue copy = new ContextStatePathValue(value.getOptionalContextPartitionId(), value.getBlob(), value.getState());
+        applyPut(contextName, key, copy);
+        writePut(contextName, key, copy);
+    }
+
+    public synchronized void removeContextParentPath(String contextName, int level, int parentPath) {
+        if (closed) {
+            return;
+        }
+        applyRemoveParentPath(contextName, level, parentPath);
+        writeRecordStart(RECORD_REMOVE_PARENT_PATH, contextName);
+        try {
+            recordOutput.writeInt(level);
+            recordOutput.writeInt(parentPath);
+        } catch (IOException e) {
+            throw new EPException(e);
+        }
+        writeRecordEnd();
+    }
+
+    public synchronized void removeContextPath(String contextName, int level, int parentPath, int subPath) {
+        if (closed) {
+            return;
+        }
+        applyRemovePath(contextName, new ContextStatePathKey(level, parentPath, subPath));
+        writeRecordStart(RECORD_REMOVE_PATH, contextName);
+        try {
+            recordOutput.writeInt(level);
+            recordOutput.writeInt(parentPath);
+            recordOutput.writeInt(subPath);
+        } catch (IOException e) {
+            throw new EPException(e);
+        }
+        writeRecordEnd();
+    }
+
+    public synchronized void removeContext(String contextName) {
+        if (closed) {
+            return;
+        }
+        applyRemoveContext(contextName);
+        writeRecordStart(RECORD_REMOVE_CONTEXT, contextName);
+        writeRecordEnd();
+    }
+
+    public synchronized TreeMap<ContextStatePathKey, ContextStatePathValue> getContextPaths(String contextName) {
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = contexts.get(contextName);
+        if (closed || paths == null || paths.isEmpty()) {
+            return null;
+        }
+        TreeMap<ContextStatePathKey, ContextStatePathValue> copy = new TreeMap<ContextStatePathKey, ContextStatePathValue>();
+        for (Map.Entry<ContextStatePathKey, ContextStatePathValue> entry : paths.entrySet()) {
+            ContextStatePathValue value = entry.getValue();
+            copy.put(entry.getKey(), new ContextStatePathValue(value.getOptionalContextPartitionId(), value.getBlob(), value.getState()));
+        }
+        return copy;
+    }
+
+    /**
+     * Forces the segments written to since the last checkpoint to disk.
+     */
+    public void checkpoint() {
+        List<MappedByteBuffer> segments;
+        synchronized (this) {
+            segments = new ArrayList<MappedByteBuffer>(unforcedSegments);
+            unforcedSegments.clear();
+            if (segmentUnforced) {
+                segments.add(segment);
+                segmentUnforced = false;
+            }
+        }
+        // forcing concurrently with appends to the same segment is fine, appended records are forced by the next checkpoint
+        for (MappedByteBuffer unforced : segments) {
+            unforced.force();
+        }
+    }
+
+    /**
+     * Writes a compacted snapshot of the current state to new segments and deletes the older segments.
+     */
+    public synchronized void compact() {
+        if (closed) {
+            return;
+        }
+        compactRequested = false;
+        List<File> obsolete = new ArrayList<File>(segmentFiles);
+        segmentFiles.clear();
+        openSegment(segmentSize);
+        numLogRecords = 0;
+        for (Map.Entry<String, TreeMap<ContextStatePathKey, ContextStatePathValue>> context : contexts.entrySet()) {
+            for (Map.Entry<ContextStatePathKey, ContextStatePathValue> entry : context.getValue().entrySet()) {
+                writePut(context.getKey(), entry.getKey(), entry.getValue());
+            }
+        }
+        // the snapshot must be on disk before the older segments are deleted
+        checkpoint();
+        for (File file : obsolete) {
+            if (!file.delete()) {
+                log.warn("Failed to delete context state segment '" + file + "'");
+            }
+        }
+    }
+
+    /**
+     * Checkpoints and compacts the state, after which the cache ignores all changes.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        if (checkpointExecutor != null) {
+            checkpointExecutor.shutdown();
+        }
+        compact();
+        closed = true;
+        segment = null;
+    }
+
+    /**
+     * Returns the number of segment files.
+     *
+     * @return segment count
+     */
+    public synchronized int getNumSegments() {
+        return segmentFiles.size();
+    }
+
+    private void writePut(String contextName, ContextStatePathKey key, ContextStatePathValue value) {
+        writeRecordStart(RECORD_PUT, contextName);
+        try {
+            recordOutput.writeInt(key.getLevel());
+            recordOutput.writeInt(key.getParentPath());
+            recordOutput.writeInt(key.getSubPath());
+            recordOutput.writeBoolean(value.getOptionalContextPartitionId() != null);
+            if (value.getOptionalContextPartitionId() != null) {
+                recordOutput.writeInt(value.getOptionalContextPartitionId());
+            }
+            recordOutput.writeBoolean(value.getState() == ContextPartitionState.STARTED);
+            byte[] blob = value.getBlob();
+            recordOutput.writeInt(blob == null ? -1 : blob.length);
+            if (blob != null) {
+                recordOutput.write(blob);
+            }
+        } catch (IOException e) {
+            throw new EPException(e);
+        }
+        writeRecordEnd();
+    }
+
+    private void writeRecordStart(byte type, String contextName) {
+        recordBytes.reset();
+        try {
+            recordOutput.writeByte(type);
+            recordOutput.writeUTF(contextName);
+        } catch (IOException e) {
+            throw new EPException(e);
+        }
+    }
+
+    private void writeRecordEnd() {
+        byte[] payload = recordBytes.toByteArray();
+        int required = RECORD_HEADER_SIZE + payload.length;
+        if (segment == null || segment.remaining() < required) {
+            openSegment(Math.max(segmentSize, required));
+        }
+        crc.reset();
+        crc.update(payload);
+        segment.putInt(payload.length);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        numLogRecords++;
+
+        if (checkpointExecutor == null) {
+            segment.force();
+        } else {
+            segmentUnforced = true;
+        }
+        if (numLogRecords > COMPACT_MIN_RECORDS && numLogRecords > 2 * numLivePaths) {
+            if (checkpointExecutor == null) {
+                compact();
+            } else {
+                compactRequested = true;
+            }
+        }
+    }
+
+    private void runCheckpoint() {
+        try {
+            boolean compact;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                compact = compactRequested;
+            }
+            if (compact) {
+                compact();
+            } else {
+                checkpoint();
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to checkpoint context state in directory '" + directory + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    private void openSegment(int size) {
+        if (segment != null && segmentUnforced) {
+            unforcedSegments.add(segment);
+            segmentUnforced = false;
+        }
+        segmentSequence++;
+        File file = new File(directory, SEGMENT_PREFIX + String.format("%019d", segmentSequence) + SEGMENT_SUFFIX);
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                segment = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } finally {
+                raf.close();
+            }
+        } catch (IOException e) {
+            throw new EPException("Failed to create context state segment '" + file + "': " + e.getMessage(), e);
+        }
+        segmentFiles.add(file);
+    }
+
+    private void restore() throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> segmentsFound = new ArrayList<File>();
+        for (File file : files) {
+            if (file.getName().startsWith(SEGMENT_PREFIX) && file.getName().endsWith(SEGMENT_SUFFIX)) {
+                segmentsFound.add(file);
+            }
+        }
+        if (segmentsFound.isEmpty()) {
+            return;
+        }
+        Collections.sort(segmentsFound);
+
+        // read and verify segments in parallel, then apply records in order
+        int numThreads = Math.min(segmentsFound.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<List<ByteBuffer>>> futures = new ArrayList<Future<List<ByteBuffer>>>();
+            for (final File file : segmentsFound) {
+                futures.add(executor.submit(() -> readSegment(file)));
+            }
+            for (Future<List<ByteBuffer>> future : futures) {
+                for (ByteBuffer record : future.get()) {
+                    applyRecord(record);
+                    numLogRecords++;
+                }
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed to read segment: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+        }
+
+        segmentFiles.addAll(segmentsFound);
+        String last = segmentsFound.get(segmentsFound.size() - 1).getName();
+        segmentSequence = Long.parseLong(last.substring(SEGMENT_PREFIX.length(), last.length() - SEGMENT_SUFFIX.length()));
+        log.info("Restored " + numLivePaths + " context partition paths from " + segmentsFound.size() + " segments in directory '" + directory + "'");
+    }
+
+    private static List<ByteBuffer> readSegment(File file) throws IOException {
+        MappedByteBuffer buffer;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        } finally {
+            raf.close();
+        }
+
+        List<ByteBuffer> records = new ArrayList<ByteBuffer>();
+        CRC32 checksum = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            checksum.reset();
+            checksum.update(payload);
+            if ((int) checksum.getValue() != expected) {
+                log.warn("Context state segment '" + file + "' has an incomplete record, ignoring the remainder of the segment");
+                break;
+            }
+            records.add(ByteBuffer.wrap(payload));
+        }
+        return records;
+    }
+
+    private void applyRecord(ByteBuffer record) {
+        byte type = record.get();
+        String contextName = readUTF(record);
+        if (type == RECORD_PUT) {
+            ContextStatePathKey key = new ContextStatePathKey(record.getInt(), record.getInt(), record.getInt());
+            Integer optionalContextPartitionId = record.get() != 0 ? record.getInt() : null;
+            ContextPartitionState state = record.get() != 0 ? ContextPartitionState.STARTED : ContextPartitionState.STOPPED;
+            int blobLength = record.getInt();
+            byte[] blob = null;
+            if (blobLength >= 0) {
+                blob = new byte[blobLength];
+                record.get(blob);
+            }
+            applyPut(contextName, key, new ContextStatePathValue(optionalContextPartitionId, blob, state));
+        } else if (type == RECORD_REMOVE_PATH) {
+            applyRemovePath(contextName, new ContextStatePathKey(record.getInt(), record.getInt(), record.getInt()));
+        } else if (type == RECORD_REMOVE_PARENT_PATH) {
+            applyRemoveParentPath(contextName, record.getInt(), record.getInt());
+        } else if (type == RECORD_REMOVE_CONTEXT) {
+            applyRemoveContext(contextName);
+        } else {
+            throw new IllegalStateException("Unrecognized context state record type " + type);
+        }
+    }
+
+    private static String readUTF(ByteBuffer record) {
+        int length = record.getShort() & 0xffff;
+        byte[] bytes = new byte[length + 2];
+        bytes[0] = (byte) (length >>> 8);
+        bytes[1] = (byte) length;
+        record.get(bytes, 2, length);
+        try {
+            return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+        } catch (IOException e) {
+            throw new EPException(e);
+        }
+    }
+
+    private void applyPut(String contextName, ContextStatePathKey key, ContextStatePathValue value) {
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = contexts.get(contextName);
+        if (paths == null) {
+            paths = new TreeMap<ContextStatePathKey, ContextStatePathValue>();
+            contexts.put(contextName, paths);
+        }
+        if (paths.put(key, value) == null) {
+            numLivePaths++;
+        }
+    }
+
+    private void applyRemovePath(String contextName, ContextStatePathKey key) {
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = contexts.get(contextName);
+        if (paths != null && paths.remove(key) != null) {
+            numLivePaths--;
+        }
+    }
+
+    private void applyRemoveParentPath(String contextName, int level, int parentPath) {
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = contexts.get(contextName);
+        if (paths == null) {
+            return;
+        }
+        SortedMap<ContextStatePathKey, ContextStatePathValue> children = paths.subMap(new ContextStatePathKey(level, parentPath, Integer.MIN_VALUE), true, new ContextStatePathKey(level, parentPath, Integer.MAX_VALUE), true);
+        numLivePaths -= children.size();
+        children.clear();
+    }
+
+    private void applyRemoveContext(String contextName) {
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = contexts.remove(contextName);
+        if (paths != null) {
+            numLivePaths -= paths.size();
+        }
+    }
+}
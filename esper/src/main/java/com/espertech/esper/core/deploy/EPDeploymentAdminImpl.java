@@ -18,6 +18,8 @@ import com.espertech.esper.client.deploy.*;
 import com.espertech.esper.core.service.EPAdministratorSPI;
 import com.espertech.esper.core.service.StatementEventTypeRef;
 import com.espertech.esper.core.service.StatementIsolationService;
+import com.espertech.esper.epl.parse.ParseResult;
+import com.espertech.esper.epl.spec.StatementSpecRaw;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.filter.FilterService;
 import com.espertech.esper.util.DependencyGraph;
@@ -30,6 +32,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Deployment administrative implementation.
@@ -112,7 +118,7 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
         }
     }
 
-    private DeploymentResult deployInternalLockTaken(Module module, DeploymentOptions options, String deploymentId, Calendar addedDate) throws DeploymentActionException {
+    private DeploymentResult deployInternalLockTaken(Module module, DeploymentOptions options, String deploymentId, Calendar addedDate) throws DeploymentActionException, InterruptedException {
 
         if (log.isDebugEnabled()) {
             log.debug("Deploying module " + module);
@@ -130,7 +136,10 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
             imports = Collections.emptyList();
         }
 
-        if (options.isCompile()) {
+        Map<ModuleItem, CompiledItem> compiled = Collections.emptyMap();
+        if (options.getCompileThreads() > 1) {
+            compiled = compileParallel(module, options);
+        } else if (options.isCompile()) {
             List<DeploymentItemException> exceptions = new ArrayList<DeploymentItemException>();
             for (ModuleItem item : module.getItems()) {
                 if (item.isCommentOnly()) {
@@ -174,7 +183,14 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
             try {
                 EPStatement stmt;
                 if (options.getIsolatedServiceProvider() == null) {
-                    stmt = epService.createEPL(item.getExpression(), statementName, userObject);
+                    CompiledItem compiledItem = compiled.get(item);
+                    if (compiledItem == null) {
+                        stmt = epService.createEPL(item.getExpression(), statementName, userObject, (ParseResult) null);
+                    } else if (compiledItem.statementSpec != null) {
+                        stmt = epService.createEPL(item.getExpression(), statementName, userObject, compiledItem.statementSpec);
+                    } else {
+                        stmt = epService.createEPL(item.getExpression(), statementName, userObject, compiledItem.parseResult);
+                    }
                 } else {
                     EPServiceProviderIsolated unit = statementIsolationService.getIsolationUnit(options.getIsolatedServiceProvider(), -1);
                     stmt = unit.getEPAdministrator().createEPL(item.getExpression(), statementName, userObject);
@@ -236,6 +252,73 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
         return new DeploymentResult(desc.getDeploymentId(), Collections.unmodifiableList(statements), imports);
     }
 
+    private Map<ModuleItem, CompiledItem> compileParallel(Module module, final DeploymentOptions options) throws DeploymentActionException, InterruptedException {
+        List<ModuleItem> items = new ArrayList<ModuleItem>();
+        for (ModuleItem item : module.getItems()) {
+            if (!item.isCommentOnly()) {
+                items.add(item);
+            }
+        }
+        if (items.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // parsing does not depend on engine state and the compile step does not change engine state, so both can run in parallel
+        int numThreads = Math.min(options.getCompileThreads(), items.size());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<CompiledItem>> futures = new ArrayList<Future<CompiledItem>>(items.size());
+        try {
+            for (final ModuleItem item : items) {
+                futures.add(executor.submit(() -> {
+                    // a statement in the statement cache compiles from the cached entry without a parse result
+                    ParseResult parseResult = epService.isStatementCached(item.getExpression()) ? null : epService.parseEPL(item.getExpression());
+                    StatementSpecRaw statementSpec = null;
+                    if (options.isCompile()) {
+                        statementSpec = epService.compileEPLToRaw(item.getExpression(), parseResult);
+                    }
+                    return new CompiledItem(parseResult, statementSpec);
+                }));
+            }
+
+            // compiling resolves names of tables, variables, named windows, contexts and declared expressions,
+            // so statements that follow a statement defining such a name compile again when created, from their parse result
+            Map<ModuleItem, CompiledItem> compiled = new IdentityHashMap<ModuleItem, CompiledItem>();
+            List<DeploymentItemException> exceptions = new ArrayList<DeploymentItemException>();
+            boolean definesNames = false;
+            for (int i = 0; i < items.size(); i++) {
+                ModuleItem item = items.get(i);
+                try {
+                    CompiledItem compiledItem = futures.get(i).get();
+                    if (compiledItem.statementSpec != null) {
+                        boolean defines = isDefinesNames(compiledItem.statementSpec);
+                        if (definesNames) {
+                            compiledItem = new CompiledItem(compiledItem.parseResult, null);
+                        }
+                        definesNames |= defines;
+                    }
+                    compiled.put(item, compiledItem);
+                } catch (ExecutionException ex) {
+                    // without the compile step a statement that does not parse reports its error when it is created
+                    if (options.isCompile()) {
+                        RuntimeException cause = ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : new EPException(ex.getCause());
+                        exceptions.add(new DeploymentItemException(cause.getMessage(), item.getExpression(), cause, item.getLineNumber()));
+                    }
+                }
+            }
+            if (!exceptions.isEmpty()) {
+                throw buildException("Compilation failed", module, exceptions);
+            }
+            return compiled;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isDefinesNames(StatementSpecRaw statementSpec) {
+        return statementSpec.getCreateTableDesc() != null || statementSpec.getCreateVariableDesc() != null || statementSpec.getCreateWindowDesc() != null ||
+                statementSpec.getCreateContextDesc() != null || statementSpec.getCreateExpressionDesc() != null;
+    }
+
     private DeploymentActionException buildException(String msg, Module module, List<DeploymentItemException> exceptions) {
         String message = msg;
         if (module.getName() != null) {
@@ -606,4 +689,14 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
         getDeploymentOrder(Collections.singletonList(module), null);
         return deploy(module, null);
     }
+
+    private static class CompiledItem {
+        private final ParseResult parseResult;
+        private final StatementSpecRaw statementSpec;
+
+        private CompiledItem(ParseResult parseResult, StatementSpecRaw statementSpec) {
+            this.parseResult = parseResult;
+            this.statementSpec = statementSpec;
+        }
+    }
 }
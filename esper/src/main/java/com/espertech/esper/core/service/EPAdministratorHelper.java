@@ -21,16 +21,21 @@ import com.espertech.esper.epl.parse.*;
 import com.espertech.esper.epl.spec.PatternStreamSpecRaw;
 import com.espertech.esper.epl.spec.SelectClauseElementWildcard;
 import com.espertech.esper.epl.spec.SelectClauseStreamSelectorEnum;
+import com.espertech.esper.epl.spec.StatementSpecMapper;
 import com.espertech.esper.epl.spec.StatementSpecRaw;
+import com.espertech.esper.epl.spec.StatementSpecUnMapResult;
 import com.espertech.esper.epl.table.mgmt.TableService;
 import com.espertech.esper.epl.variable.VariableService;
 import com.espertech.esper.pattern.PatternNodeFactory;
 import com.espertech.esper.schedule.SchedulingService;
+import com.espertech.esper.util.SerializerUtil;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.tree.Tree;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /**
  * Helper class for administrative interface.
  */
@@ -65,8 +70,105 @@ public class EPAdministratorHelper {
      * @return compiled statement
      */
     public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, EPServicesContext services, SelectClauseStreamSelectorEnum defaultStreamSelector) {
-        return compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, defaultStreamSelector,
-                services.getEngineImportService(), services.getVariableService(), services.getSchedulingService(), services.getEngineURI(), services.getConfigSnapshot(), services.getPatternNodeFactory(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService());
+        return compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, services, defaultStreamSelector, null);
+    }
+
+    /**
+     * Compile an EPL statement, walking the parse result if one is provided.
+     *
+     * @param eplStatement            to compile
+     * @param eplStatementForErrorMsg the statement to use for indicating error messages
+     * @param addPleaseCheck          true to add please-check message text
+     * @param statementName           the name of statement
+     * @param services                engine services
+     * @param defaultStreamSelector   stream selector
+     * @param optionalParseResult     result of parsing the statement, or null to parse the statement
+     * @return compiled statement
+     */
+    public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, EPServicesContext services, SelectClauseStreamSelectorEnum defaultStreamSelector, ParseResult optionalParseResult) {
+        StatementSpecCacheFile cache = services.getStatementSpecCache();
+        if (cache == null) {
+            return compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, defaultStreamSelector,
+                    services.getEngineImportService(), services.getVariableService(), services.getSchedulingService(), services.getEngineURI(), services.getConfigSnapshot(), services.getPatternNodeFactory(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService(), optionalParseResult);
+        }
+
+        // a cached object model maps to the same specification without parsing and walking the EPL text
+        String key = getStatementCacheKey(eplStatement, defaultStreamSelector);
+        StatementSpecCacheEntry entry = cache.get(key);
+        if (entry != null && !entry.isUncacheable()) {
+            try {
+                return mapCached(entry, services);
+            } catch (RuntimeException ex) {
+                log.debug("Failed to map cached statement, compiling statement: " + ex.getMessage(), ex);
+            }
+        }
+
+        StatementSpecRaw raw = compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, defaultStreamSelector,
+                services.getEngineImportService(), services.getVariableService(), services.getSchedulingService(), services.getEngineURI(), services.getConfigSnapshot(), services.getPatternNodeFactory(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService(), optionalParseResult);
+        if (entry != null && entry.isUncacheable()) {
+            return raw;
+        }
+
+        // the object model does not represent every construct, cache only if the model maps back to the same specification,
+        // and otherwise record that the statement cannot be cached so that later engines do not check again
+        StatementSpecCacheEntry compiled = StatementSpecCacheEntry.UNCACHEABLE;
+        try {
+            StatementSpecUnMapResult unmapped = StatementSpecMapper.unmap(raw);
+            if (unmapped.getSubstitutionParams().isEmpty()) {
+                StatementSpecCacheEntry candidate = new StatementSpecCacheEntry(raw.getExpressionNoAnnotations(), unmapped.getObjectModel());
+                if (Arrays.equals(toComparable(raw), toComparable(mapCached(candidate, services)))) {
+                    compiled = candidate;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Statement cannot be represented as an object model and is not cached: " + ex.getMessage(), ex);
+        }
+        cache.put(key, compiled);
+        return raw;
+    }
+
+    /**
+     * Returns indicator whether the statement cache, if configured, has a compiled statement for the EPL statement.
+     *
+     * @param eplStatement          EPL statement
+     * @param services              engine services
+     * @param defaultStreamSelector stream selector
+     * @return true if cached
+     */
+    public static boolean isCached(String eplStatement, EPServicesContext services, SelectClauseStreamSelectorEnum defaultStreamSelector) {
+        StatementSpecCacheFile cache = services.getStatementSpecCache();
+        return cache != null && cache.contains(getStatementCacheKey(eplStatement, defaultStreamSelector));
+    }
+
+    private static String getStatementCacheKey(String eplStatement, SelectClauseStreamSelectorEnum defaultStreamSelector) {
+        return defaultStreamSelector.name() + "\n" + eplStatement;
+    }
+
+    private static StatementSpecRaw mapCached(StatementSpecCacheEntry entry, EPServicesContext services) {
+        StatementSpecRaw raw = StatementSpecMapper.map(entry.getModel(), services.getEngineImportService(), services.getVariableService(), services.getConfigSnapshot(), services.getSchedulingService(), services.getEngineURI(), services.getPatternNodeFactory(), services.getNamedWindowMgmtService(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService());
+        raw.setExpressionNoAnnotations(entry.getExpressionNoAnnotations());
+        return raw;
+    }
+
+    private static byte[] toComparable(StatementSpecRaw raw) {
+        StatementSpecRaw copy = (StatementSpecRaw) SerializerUtil.byteArrToObject(SerializerUtil.objectToByteArr(raw));
+        // the walker and the mapper differ in providing empty or absent collections
+        if (copy.getExpressionDeclDesc() != null && copy.getExpressionDeclDesc().getExpressions().isEmpty()) {
+            copy.setExpressionDeclDesc(null);
+        }
+        if (copy.getReferencedVariables() != null && copy.getReferencedVariables().isEmpty()) {
+            copy.setReferencedVariables(null);
+        }
+        if (copy.getSubstitutionParameters() != null && copy.getSubstitutionParameters().isEmpty()) {
+            copy.setSubstitutionParameters(null);
+        }
+        if (copy.getScriptExpressions() != null && copy.getScriptExpressions().isEmpty()) {
+            copy.setScriptExpressions(null);
+        }
+        if (copy.getTableExpressions() != null && copy.getTableExpressions().isEmpty()) {
+            copy.setTableExpressions(null);
+        }
+        return SerializerUtil.objectToByteArr(copy);
     }
 
     public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, SelectClauseStreamSelectorEnum defaultStreamSelector,
@@ -79,11 +181,25 @@ public class EPAdministratorHelper {
                                               ContextManagementService contextManagementService,
                                               ExprDeclaredService exprDeclaredService,
                                               TableService tableService) {
+        return compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, defaultStreamSelector, engineImportService, variableService, schedulingService, engineURI, configSnapshot, patternNodeFactory, contextManagementService, exprDeclaredService, tableService, null);
+    }
+
+    private static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, SelectClauseStreamSelectorEnum defaultStreamSelector,
+                                               EngineImportService engineImportService,
+                                               VariableService variableService,
+                                               SchedulingService schedulingService,
+                                               String engineURI,
+                                               ConfigurationInformation configSnapshot,
+                                               PatternNodeFactory patternNodeFactory,
+                                               ContextManagementService contextManagementService,
+                                               ExprDeclaredService exprDeclaredService,
+                                               TableService tableService,
+                                               ParseResult optionalParseResult) {
         if (log.isDebugEnabled()) {
             log.debug(".createEPLStmt statementName=" + statementName + " eplStatement=" + eplStatement);
         }
 
-        ParseResult parseResult = ParseHelper.parse(eplStatement, eplStatementForErrorMsg, addPleaseCheck, eplParseRule, true);
+        ParseResult parseResult = optionalParseResult != null ? optionalParseResult : parseEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck);
         Tree ast = parseResult.getTree();
 
         EPLTreeWalkerListener walker = new EPLTreeWalkerListener(parseResult.getTokenStream(), engineImportService, variableService, schedulingService, defaultStreamSelector, engineURI, configSnapshot, patternNodeFactory, contextManagementService, parseResult.getScripts(), exprDeclaredService, tableService);
@@ -110,6 +226,19 @@ public class EPAdministratorHelper {
         return raw;
     }
 
+    /**
+     * Parse an EPL statement without walking the parse tree. Parsing does not depend on engine state
+     * and the parse result can be walked by a later compile of the same statement.
+     *
+     * @param eplStatement            to parse
+     * @param eplStatementForErrorMsg the statement to use for indicating error messages
+     * @param addPleaseCheck          true to add please-check message text
+     * @return parse result
+     */
+    public static ParseResult parseEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck) {
+        return ParseHelper.parse(eplStatement, eplStatementForErrorMsg, addPleaseCheck, eplParseRule, true);
+    }
+
     public static StatementSpecRaw compilePattern(String expression, String expressionForErrorMessage, boolean addPleaseCheck, EPServicesContext services, SelectClauseStreamSelectorEnum defaultStreamSelector) {
         // Parse
         ParseResult parseResult = ParseHelper.parse(expression, expressionForErrorMessage, addPleaseCheck, patternParseRule, true);
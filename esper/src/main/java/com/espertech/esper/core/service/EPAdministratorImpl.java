@@ -15,10 +15,12 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPPreparedStatement;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.context.EPContextPartitionAdmin;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
 import com.espertech.esper.client.deploy.EPDeploymentAdmin;
 import com.espertech.esper.client.soda.*;
 import com.espertech.esper.core.deploy.EPDeploymentAdminImpl;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.parse.ParseResult;
 import com.espertech.esper.epl.spec.*;
 import com.espertech.esper.pattern.EvalFactoryNode;
 import org.slf4j.Logger;
@@ -98,8 +100,23 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
         return services.getStatementLifecycleSvc().createAndStart(rawPattern, expression, true, statementName, userObject, null, optionalStatementId, null);
     }
 
+    public EPStatement createEPL(String eplStatement, String statementName, Object userObject, ParseResult parseResult) throws EPException {
+        return createEPLStmt(eplStatement, statementName, userObject, null, parseResult);
+    }
+
+    public EPStatement createEPL(String eplStatement, String statementName, Object userObject, StatementSpecRaw statementSpec) throws EPException {
+        EPStatement statement = services.getStatementLifecycleSvc().createAndStart(statementSpec, eplStatement, false, statementName, userObject, null, null, null);
+
+        log.debug(".createEPLStmt Statement created and started");
+        return statement;
+    }
+
     private EPStatement createEPLStmt(String eplStatement, String statementName, Object userObject, Integer optionalStatementId) throws EPException {
-        StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(eplStatement, eplStatement, true, statementName, services, defaultStreamSelector);
+        return createEPLStmt(eplStatement, statementName, userObject, optionalStatementId, null);
+    }
+
+    private EPStatement createEPLStmt(String eplStatement, String statementName, Object userObject, Integer optionalStatementId, ParseResult optionalParseResult) throws EPException {
+        StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(eplStatement, eplStatement, true, statementName, services, defaultStreamSelector, optionalParseResult);
         EPStatement statement = services.getStatementLifecycleSvc().createAndStart(statementSpec, eplStatement, false, statementName, userObject, null, optionalStatementId, null);
 
         log.debug(".createEPLStmt Statement created and started");
@@ -189,12 +206,34 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
     }
 
     public EPStatementObjectModel compileEPL(String eplStatement) throws EPException {
-        StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(eplStatement, eplStatement, true, null, services, defaultStreamSelector);
+        return compileEPL(eplStatement, null);
+    }
+
+    public ParseResult parseEPL(String eplStatement) throws EPException {
+        return EPAdministratorHelper.parseEPL(eplStatement, eplStatement, true);
+    }
+
+    public boolean isStatementCached(String eplStatement) {
+        return EPAdministratorHelper.isCached(eplStatement, services, defaultStreamSelector);
+    }
+
+    public EPStatementObjectModel compileEPL(String eplStatement, ParseResult parseResult) throws EPException {
+        StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(eplStatement, eplStatement, true, null, services, defaultStreamSelector, parseResult);
+        return unmapNoSubstitutionParams(statementSpec).getObjectModel();
+    }
+
+    public StatementSpecRaw compileEPLToRaw(String eplStatement, ParseResult parseResult) throws EPException {
+        StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(eplStatement, eplStatement, true, null, services, defaultStreamSelector, parseResult);
+        unmapNoSubstitutionParams(statementSpec);
+        return statementSpec;
+    }
+
+    private static StatementSpecUnMapResult unmapNoSubstitutionParams(StatementSpecRaw statementSpec) {
         StatementSpecUnMapResult unmapped = StatementSpecMapper.unmap(statementSpec);
         if (unmapped.getSubstitutionParams().size() != 0) {
             throw new EPException(SUBS_PARAM_INVALID_USE);
         }
-        return unmapped.getObjectModel();
+        return unmapped;
     }
 
     public EPStatement getStatement(String name) {
@@ -291,5 +330,9 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
         return new EPContextPartitionAdminImpl(services);
     }
 
+    public EPSnapshotAdmin getSnapshotAdmin() {
+        return new EPSnapshotAdminImpl(services);
+    }
+
     private static Logger log = LoggerFactory.getLogger(EPAdministratorImpl.class);
 }
@@ -15,6 +15,7 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.soda.*;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.parse.ParseResult;
 import com.espertech.esper.epl.spec.StatementSpecRaw;
 import com.espertech.esper.pattern.EvalFactoryNode;
 
@@ -103,4 +104,67 @@ public interface EPAdministratorSPI extends EPAdministrator {
     public EPStatement createPreparedEPLStatementId(EPPreparedStatementImpl prepared, String statementName, Object userObject, int statementId) throws EPException;
 
     public String getStatementNameForId(int statementId);
+
+    /**
+     * Parse an EPL statement without compiling it, for use with the compile and create methods that take a parse result.
+     *
+     * @param eplStatement to parse
+     * @return parse result
+     * @throws EPException if the statement has a syntax error
+     */
+    public ParseResult parseEPL(String eplStatement) throws EPException;
+
+    /**
+     * Returns indicator whether the statement cache has an entry for the EPL statement, in which case
+     * compiling or creating the statement does not need a parse result.
+     *
+     * @param eplStatement EPL statement
+     * @return true if cached
+     */
+    public boolean isStatementCached(String eplStatement);
+
+    /**
+     * Compile an EPL statement that was parsed before.
+     *
+     * @param eplStatement to compile
+     * @param parseResult  result of parsing the statement
+     * @return model representation
+     * @throws EPException if compile failed
+     */
+    public EPStatementObjectModel compileEPL(String eplStatement, ParseResult parseResult) throws EPException;
+
+    /**
+     * Compile an EPL statement that was parsed before, validating it the same as {@link #compileEPL(String, ParseResult)},
+     * for use with the create method that takes a compiled statement.
+     *
+     * @param eplStatement to compile
+     * @param parseResult  result of parsing the statement, or null to parse the statement
+     * @return compiled statement
+     * @throws EPException if compile failed
+     */
+    public StatementSpecRaw compileEPLToRaw(String eplStatement, ParseResult parseResult) throws EPException;
+
+    /**
+     * Create and start an EPL statement that was parsed before.
+     *
+     * @param eplStatement  to create
+     * @param statementName statement name or null
+     * @param userObject    user object or null
+     * @param parseResult   result of parsing the statement, or null to parse the statement
+     * @return statement
+     * @throws EPException if the statement failed to create or start
+     */
+    public EPStatement createEPL(String eplStatement, String statementName, Object userObject, ParseResult parseResult) throws EPException;
+
+    /**
+     * Create and start an EPL statement that was compiled before. The compiled statement is consumed by this call.
+     *
+     * @param eplStatement  to create
+     * @param statementName statement name or null
+     * @param userObject    user object or null
+     * @param statementSpec compiled statement, as returned by {@link #compileEPLToRaw(String, ParseResult)}
+     * @return statement
+     * @throws EPException if the statement failed to create or start
+     */
+    public EPStatement createEPL(String eplStatement, String statementName, Object userObject, StatementSpecRaw statementSpec) throws EPException;
 }
@@ -43,6 +43,9 @@ import com.espertech.esper.epl.spec.util.StatementSpecRawAnalyzer;
 import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
 import com.espertech.esper.epl.variable.VariableMetaData;
 import com.espertech.esper.epl.variable.VariableReader;
+import com.espertech.esper.event.EventAdapterServiceHelper;
+import com.espertech.esper.event.arr.ObjectArrayColumnarBatch;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
 import com.espertech.esper.event.util.EventRendererImpl;
 import com.espertech.esper.filter.FilterHandle;
 import com.espertech.esper.filter.FilterHandleCallback;
@@ -194,7 +197,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             log.debug(".sendMap Processing event " + avroGenericDataDotRecord.toString());
         }
 
-        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreadingPartitioned())) {
+            submitInboundWrapped(wrapEventAvro(avroGenericDataDotRecord, avroEventTypeName));
+        } else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
             services.getThreadingService().submitInbound(new InboundUnitSendAvro(avroGenericDataDotRecord, avroEventTypeName, services, this));
         } else {
             // Process event
@@ -216,7 +221,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         // Process event
-        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreadingPartitioned()) && (!(theEvent instanceof TimerEvent))) {
+            submitInboundWrapped(theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent));
+        } else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
             services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
         } else {
             processEvent(theEvent);
@@ -234,7 +241,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         // Process event
-        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreadingPartitioned())) {
+            submitInboundWrapped(wrapEvent(document));
+        } else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
             services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
         } else {
             // Get it wrapped up, process event
@@ -286,7 +295,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             log.debug(".sendMap Processing event " + map);
         }
 
-        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreadingPartitioned())) {
+            submitInboundWrapped(wrapEvent(map, mapEventTypeName));
+        } else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
             services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
         } else {
             // Process event
@@ -304,7 +315,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             log.debug(".sendMap Processing event " + Arrays.toString(propertyValues));
         }
 
-        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreadingPartitioned())) {
+            submitInboundWrapped(wrapEvent(propertyValues, objectArrayEventTypeName));
+        } else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
             services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
         } else {
             // Process event
@@ -313,6 +326,82 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEventColumnar(Object[] columns, int numRows, String objectArrayEventTypeName) throws EPException {
+        EventType eventType = services.getEventAdapterService().getExistsTypeByName(objectArrayEventTypeName);
+        if (!(eventType instanceof ObjectArrayEventType)) {
+            throw new EPException(EventAdapterServiceHelper.getMessageExpecting(objectArrayEventTypeName, eventType, "Object-array"));
+        }
+        ObjectArrayColumnarBatch batch = new ObjectArrayColumnarBatch((ObjectArrayEventType) eventType, columns, numRows);
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEventColumnar Processing " + numRows + " events");
+        }
+
+        sendWrappedEvents(batch.getEvents(), numRows);
+    }
+
+    public void sendEvents(Collection<?> events) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event collection");
+        }
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing " + events.size() + " events");
+        }
+
+        EventBean[] batch = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events) {
+            if (theEvent instanceof TimerEvent) {
+                // events preceding a time event are processed first
+                sendWrappedEvents(batch, count);
+                count = 0;
+                sendEvent(theEvent);
+                continue;
+            }
+            batch[count++] = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+        }
+        sendWrappedEvents(batch, count);
+    }
+
+    public void sendEvents(EventBean[] events) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event array");
+        }
+        for (EventBean theEvent : events) {
+            if (theEvent == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing " + events.length + " events");
+        }
+
+        sendWrappedEvents(events, events.length);
+    }
+
+    private void sendWrappedEvents(EventBean[] events, int count) {
+        if (count == 0) {
+            return;
+        }
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            services.getThreadingService().submitInboundWrapped(events, count, this);
+        } else {
+            processWrappedEvents(events, count);
+        }
+    }
+
+    private void submitInboundWrapped(EventBean eventBean) {
+        // partitioned inbound threading assigns the shard by partition key, therefore wrap on the sending thread
+        services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this));
+    }
+
     public EventBean wrapEvent(Map map, String eventTypeName) {
         return services.getEventAdapterService().adapterForMap(map, eventTypeName);
     }
@@ -442,6 +531,60 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         processWrappedEvent(eventBean);
     }
 
+    /**
+     * Process a batch of wrapped events under a single acquisition of the event processing lock.
+     * Results are dispatched, and the thread work queue is worked off, after the last event.
+     *
+     * @param events to process
+     * @param count  number of events to process, starting at the first array element
+     */
+    public void processWrappedEvents(EventBean[] events, int count) {
+        EventBean[] stimulants = events;
+        if (internalEventRouter.isHasPreprocessing()) {
+            EventBean[] preprocessed = new EventBean[count];
+            for (int i = 0; i < count; i++) {
+                preprocessed[i] = internalEventRouter.preprocess(events[i], engineFilterAndDispatchTimeContext);
+            }
+            events = preprocessed;
+        }
+
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        services.getEventProcessingRWLock().acquireReadLock();
+        try {
+            for (int i = 0; i < count; i++) {
+                EventBean eventBean = events[i];
+                if (eventBean == null) {
+                    continue;
+                }
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qStimulantEvent(stimulants[i], services.getEngineURI());
+                    InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), true);
+                }
+                try {
+                    processMatches(eventBean, matches, stmtCallbacks);
+                } finally {
+                    if (InstrumentationHelper.ENABLED) {
+                        InstrumentationHelper.get().aEvent();
+                        InstrumentationHelper.get().aStimulantEvent();
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            matches.clear();
+            stmtCallbacks.clear();
+            throw new EPException(ex);
+        } finally {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+
+        // Dispatch results to listeners, outside of the read-lock as listeners may create statements
+        dispatch();
+
+        // Work off the event queue if any events accumulated in there via a route() or insert-into
+        processThreadWorkQueue();
+    }
+
     public EventBean wrapEvent(Object theEvent) {
         return services.getEventAdapterService().adapterForBean(theEvent);
     }
@@ -876,8 +1019,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     protected void processMatches(EventBean theEvent) {
+        processMatches(theEvent, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    private void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks) {
         // get matching filters
-        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
         long version = services.getFilterService().evaluate(theEvent, matches);
 
         if (ThreadLogUtil.ENABLED_TRACE) {
@@ -899,10 +1045,16 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
+        // Statement fan-out collects the statements that may process in parallel; not applicable to fan-out threads themselves
+        List<EPStatementHandleCallback> fanOutCallbacks = null;
+        if (entryCount > 1 && ThreadingOption.isThreadingEnabled && services.getThreadingService().isFanOutThreading() &&
+                !services.getThreadingService().isRouteThreading() && !services.getThreadingService().isFanOutThread()) {
+            fanOutCallbacks = new ArrayList<EPStatementHandleCallback>(entryCount);
+        }
+
         for (int i = 0; i < entryCount; i++) {
             EPStatementHandleCallback handleCallback = (EPStatementHandleCallback) matchArray[i];
             EPStatementAgentInstanceHandle handle = handleCallback.getAgentInstanceHandle();
@@ -939,12 +1091,17 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             } else {
                 if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading())) {
                     services.getThreadingService().submitRoute(new RouteUnitSingle(this, handleCallback, theEvent, version));
+                } else if (fanOutCallbacks != null) {
+                    fanOutCallbacks.add(handleCallback);
                 } else {
                     processStatementFilterSingle(handle, handleCallback, theEvent, version);
                 }
             }
         }
         matches.clear();
+        if (fanOutCallbacks != null && !fanOutCallbacks.isEmpty()) {
+            processFanOut(fanOutCallbacks, theEvent, version);
+        }
         if (stmtCallbacks.isEmpty()) {
             return;
         }
@@ -983,6 +1140,22 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         stmtCallbacks.clear();
     }
 
+    private void processFanOut(List<EPStatementHandleCallback> fanOutCallbacks, EventBean theEvent, long version) {
+        if (fanOutCallbacks.size() == 1) {
+            EPStatementHandleCallback handleCallback = fanOutCallbacks.get(0);
+            processStatementFilterSingle(handleCallback.getAgentInstanceHandle(), handleCallback, theEvent, version);
+            return;
+        }
+
+        List<FanOutUnit> fanOutUnits = new ArrayList<FanOutUnit>(fanOutCallbacks.size());
+        for (EPStatementHandleCallback handleCallback : fanOutCallbacks) {
+            fanOutUnits.add(new FanOutUnit(this, services, handleCallback, theEvent, version));
+        }
+
+        // The sending thread keeps holding the read lock so that statement management cannot interleave with processing the event
+        services.getThreadingService().invokeFanOut(fanOutUnits);
+    }
+
     /**
      * Processing multiple schedule matches for a statement.
      *
@@ -96,6 +96,7 @@ public final class EPServicesContext {
     private PatternNodeFactory patternNodeFactory;
     private StatementMetadataFactory statementMetadataFactory;
     private ContextManagementService contextManagementService;
+    private StatementSpecCacheFile statementSpecCache;
     private PatternSubexpressionPoolEngineSvc patternSubexpressionPoolSvc;
     private MatchRecognizeStatePoolEngineSvc matchRecognizeStatePoolEngineSvc;
     private TableService tableService;
@@ -451,6 +452,10 @@ public final class EPServicesContext {
         if (threadingService != null) {
             threadingService.destroy();
         }
+        if (contextManagementService != null) {
+            // closes any context state cache before destroying statements, so that context state outlives the engine
+            contextManagementService.destroy();
+        }
         if (statementLifecycleSvc != null) {
             statementLifecycleSvc.destroy();
         }
@@ -634,6 +639,24 @@ public final class EPServicesContext {
         return statementIsolationService;
     }
 
+    /**
+     * Returns the cache of compiled statements, or null if not configured.
+     *
+     * @return statement cache
+     */
+    public StatementSpecCacheFile getStatementSpecCache() {
+        return statementSpecCache;
+    }
+
+    /**
+     * Sets the cache of compiled statements.
+     *
+     * @param statementSpecCache statement cache
+     */
+    public void setStatementSpecCache(StatementSpecCacheFile statementSpecCache) {
+        this.statementSpecCache = statementSpecCache;
+    }
+
     /**
      * Sets the service for maintaining statement isolation information.
      *
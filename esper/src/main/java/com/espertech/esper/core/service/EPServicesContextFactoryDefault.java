@@ -17,6 +17,7 @@ import com.espertech.esper.core.context.activator.ViewableActivatorFactoryDefaul
 import com.espertech.esper.core.context.mgr.ContextControllerFactoryFactorySvcImpl;
 import com.espertech.esper.core.context.mgr.ContextManagementService;
 import com.espertech.esper.core.context.mgr.ContextManagementServiceImpl;
+import com.espertech.esper.core.context.mgr.ContextStateCacheFile;
 import com.espertech.esper.core.context.mgr.ContextManagerFactoryServiceImpl;
 import com.espertech.esper.core.deploy.DeploymentStateService;
 import com.espertech.esper.core.deploy.DeploymentStateServiceImpl;
@@ -78,6 +79,7 @@ import com.espertech.esper.view.stream.StreamFactoryServiceProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.net.URI;
@@ -127,7 +129,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceProfile(), timeSourceService);
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
         DatabaseConfigService databaseConfigService = makeDatabaseRefService(configSnapshot, schedulingService, schedulingMgmtService, engineImportService);
@@ -193,7 +195,12 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
             stmtMetadataFactory = (StatementMetadataFactory) JavaClassHelper.instantiate(StatementMetadataFactory.class, configSnapshot.getEngineDefaults().getAlternativeContext().getStatementMetadataFactory(), engineImportService.getClassForNameProvider());
         }
 
-        ContextManagementService contextManagementService = new ContextManagementServiceImpl();
+        ContextStateCacheFile contextStateCacheFile = null;
+        if (configSnapshot.getEngineDefaults().getExecution().getContextStateDirectory() != null) {
+            File contextStateDirectory = new File(configSnapshot.getEngineDefaults().getExecution().getContextStateDirectory());
+            contextStateCacheFile = new ContextStateCacheFile(contextStateDirectory, ContextStateCacheFile.DEFAULT_SEGMENT_SIZE, configSnapshot.getEngineDefaults().getExecution().getContextStateCheckpointIntervalMsec());
+        }
+        ContextManagementService contextManagementService = new ContextManagementServiceImpl(contextStateCacheFile);
 
         PatternSubexpressionPoolEngineSvc patternSubexpressionPoolSvc = null;
         if (configSnapshot.getEngineDefaults().getPatterns().getMaxSubexpressions() != null) {
@@ -238,6 +245,14 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         // Circular dependency
         statementIsolationService.setEpServicesContext(services);
 
+        if (configSnapshot.getEngineDefaults().getExecution().getStatementCacheDirectory() != null) {
+            String configHash = StatementSpecCacheFile.getConfigurationHash(configSnapshot);
+            if (configHash != null) {
+                ConfigurationEngineDefaults.Execution execution = configSnapshot.getEngineDefaults().getExecution();
+                services.setStatementSpecCache(new StatementSpecCacheFile(new File(execution.getStatementCacheDirectory()), configHash, execution.getStatementCacheMaxEntries()));
+            }
+        }
+
         return services;
     }
 
@@ -526,7 +541,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
 
         ConfigurationEngineDefaults.Expression expression = configSnapshot.getEngineDefaults().getExpression();
         EngineImportServiceImpl engineImportService = new EngineImportServiceImpl(expression.isExtendedAggregation(),
-                expression.isUdfCache(), expression.isDuckTyping(),
+                expression.isUdfCache(), expression.isDuckTyping(), expression.isCompileExpressions(),
                 configSnapshot.getEngineDefaults().getLanguage().isSortUsingCollator(),
                 configSnapshot.getEngineDefaults().getExpression().getMathContext(),
                 configSnapshot.getEngineDefaults().getExpression().getTimeZone(), timeAbacus,
@@ -0,0 +1,532 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
+import com.espertech.esper.client.snapshot.EPSnapshotException;
+import com.espertech.esper.client.snapshot.EPSnapshotSummary;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.start.EPStatementStartMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.service.AggregationRowPair;
+import com.espertech.esper.epl.named.NamedWindowProcessor;
+import com.espertech.esper.epl.named.NamedWindowProcessorInstance;
+import com.espertech.esper.epl.named.NamedWindowTailViewInstance;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnAggregation;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnPlain;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.epl.variable.VariableMetaData;
+import com.espertech.esper.epl.variable.VariableReader;
+import com.espertech.esper.epl.variable.VariableService;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.view.View;
+import com.espertech.esper.view.window.TimeWindowView;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes and restores snapshots of named window events, table rows and variable values.
+ * <p>
+ * A snapshot is a header followed by length-prefixed sections, one section for each named window and table context partition
+ * and one for each variable. Restore reads all sections, decodes and validates them in parallel and then applies them in order,
+ * so that a snapshot that does not match the engine leaves the engine unchanged.
+ * </p>
+ * <p>
+ * Named window events are loaded into the data window directly: they are neither output to listeners nor dispatched to
+ * consuming statements. Events of a named window with a single time window keep their original timestamps.
+ * Table rows carry plain column values and the state of built-in aggregation functions.
+ * </p>
+ */
+public class EPSnapshotAdminImpl implements EPSnapshotAdmin {
+    private final static int MAGIC = 0x45534e50;
+    private final static int VERSION = 2;
+
+    private final static byte SECTION_END = 0;
+    private final static byte SECTION_NAMED_WINDOW = 1;
+    private final static byte SECTION_TABLE = 2;
+    private final static byte SECTION_VARIABLE = 3;
+
+    private final EPServicesContext services;
+
+    public EPSnapshotAdminImpl(EPServicesContext services) {
+        this.services = services;
+    }
+
+    public EPSnapshotSummary snapshot(OutputStream output) throws EPSnapshotException {
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            Map<String, TableColumns> tableColumns = new LinkedHashMap<String, TableColumns>();
+            for (String name : services.getTableService().getTables()) {
+                tableColumns.put(name, getTableColumns(services.getTableService().getTableMetadata(name)));
+            }
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            ByteArrayOutputStream sectionBytes = new ByteArrayOutputStream();
+            DataOutputStream section = new DataOutputStream(sectionBytes);
+
+            int numNamedWindowEvents = 0;
+            for (String name : services.getNamedWindowMgmtService().getNamedWindows()) {
+                NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(name);
+                if (processor == null || processor.isVirtualDataWindow()) {
+                    continue;
+                }
+                for (Map.Entry<Integer, NamedWindowProcessorInstance> entry : getNamedWindowInstances(processor).entrySet()) {
+                    List<EventBean> events = new ArrayList<EventBean>();
+                    for (EventBean event : entry.getValue().getTailViewInstance()) {
+                        events.add(event);
+                    }
+                    TimeWindowView timeWindowView = getTimeWindowView(entry.getValue());
+                    long[] timestamps = timeWindowView == null ? null : timeWindowView.getTimestamps();
+                    if (timestamps != null && timestamps.length != events.size()) {
+                        timestamps = null;
+                    }
+                    sectionBytes.reset();
+                    EPSnapshotValueCodec.writeString(section, name);
+                    section.writeInt(entry.getKey());
+                    section.writeInt(events.size());
+                    for (EventBean event : events) {
+                        EPSnapshotValueCodec.write(section, event.getUnderlying());
+                    }
+                    section.writeBoolean(timestamps != null);
+                    if (timestamps != null) {
+                        for (long timestamp : timestamps) {
+                            section.writeLong(timestamp);
+                        }
+                    }
+                    writeSection(out, SECTION_NAMED_WINDOW, sectionBytes);
+                    numNamedWindowEvents += events.size();
+                }
+            }
+
+            int numTableRows = 0;
+            for (Map.Entry<String, TableColumns> table : tableColumns.entrySet()) {
+                String name = table.getKey();
+                TableMetadata metadata = services.getTableService().getTableMetadata(name);
+                TableColumns columns = table.getValue();
+                for (int agentInstanceId : metadata.getAgentInstanceIds()) {
+                    TableStateInstance state = metadata.getState(agentInstanceId);
+                    if (state == null) {
+                        continue;
+                    }
+                    Collection<EventBean> rows = state.getEventCollection();
+                    sectionBytes.reset();
+                    EPSnapshotValueCodec.writeString(section, name);
+                    section.writeInt(agentInstanceId);
+                    section.writeInt(columns.plain.size());
+                    for (TableMetadataColumnPlain column : columns.plain) {
+                        EPSnapshotValueCodec.writeString(section, column.getColumnName());
+                    }
+                    section.writeInt(columns.aggregation.size());
+                    for (TableMetadataColumnAggregation column : columns.aggregation) {
+                        EPSnapshotValueCodec.writeString(section, column.getColumnName());
+                    }
+                    section.writeInt(rows.size());
+                    for (EventBean row : rows) {
+                        Object[] data = (Object[]) row.getUnderlying();
+                        for (TableMetadataColumnPlain column : columns.plain) {
+                            EPSnapshotValueCodec.write(section, data[column.getIndexPlain()]);
+                        }
+                        AggregationMethod[] methods = ((AggregationRowPair) data[0]).getMethods();
+                        for (TableMetadataColumnAggregation column : columns.aggregation) {
+                            EPSnapshotAggregationCodec.write(section, methods[column.getMethodOffset()]);
+                        }
+                    }
+                    writeSection(out, SECTION_TABLE, sectionBytes);
+                    numTableRows += rows.size();
+                }
+            }
+
+            int numVariableValues = 0;
+            VariableService variableService = services.getVariableService();
+            variableService.setLocalVersion();
+            for (String name : variableService.getVariableNames()) {
+                VariableMetaData metaData = variableService.getVariableMetaData(name);
+                if (metaData == null || metaData.isConstant()) {
+                    continue;
+                }
+                Map<Integer, VariableReader> readers = new TreeMap<Integer, VariableReader>(variableService.getReadersPerCP(name));
+                sectionBytes.reset();
+                EPSnapshotValueCodec.writeString(section, name);
+                section.writeInt(readers.size());
+                for (Map.Entry<Integer, VariableReader> entry : readers.entrySet()) {
+                    Object value = entry.getValue().getValue();
+                    if (value instanceof EventBean && metaData.getEventType() != null) {
+                        value = ((EventBean) value).getUnderlying();
+                    }
+                    section.writeInt(entry.getKey());
+                    EPSnapshotValueCodec.write(section, value);
+                }
+                writeSection(out, SECTION_VARIABLE, sectionBytes);
+                numVariableValues += readers.size();
+            }
+
+            out.writeByte(SECTION_END);
+            out.flush();
+            return new EPSnapshotSummary(numNamedWindowEvents, numTableRows, numVariableValues);
+        } catch (IOException ex) {
+            throw new EPSnapshotException("Failed to write snapshot: " + ex.getMessage(), ex);
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+    }
+
+    public EPSnapshotSummary restore(InputStream input) throws EPSnapshotException {
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            List<Section> sections = readSections(input);
+            decode(sections);
+
+            int numNamedWindowEvents = 0;
+            int numTableRows = 0;
+            int numVariableValues = 0;
+            for (Section section : sections) {
+                if (section.kind == SECTION_NAMED_WINDOW) {
+                    numNamedWindowEvents += applyNamedWindow((NamedWindowSection) section.decoded);
+                } else if (section.kind == SECTION_TABLE) {
+                    numTableRows += applyTable((TableSection) section.decoded);
+                }
+            }
+            numVariableValues += applyVariables(sections);
+            return new EPSnapshotSummary(numNamedWindowEvents, numTableRows, numVariableValues);
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+    }
+
+    private List<Section> readSections(InputStream input) {
+        List<Section> sections = new ArrayList<Section>();
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+            if (in.readInt() != MAGIC) {
+                throw new EPSnapshotException("Input is not a snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new EPSnapshotException("Unsupported snapshot version " + version);
+            }
+            while (true) {
+                byte kind = in.readByte();
+                if (kind == SECTION_END) {
+                    break;
+                }
+                if (kind != SECTION_NAMED_WINDOW && kind != SECTION_TABLE && kind != SECTION_VARIABLE) {
+                    throw new EPSnapshotException("Unrecognized snapshot section " + kind);
+                }
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                sections.add(new Section(kind, bytes));
+            }
+        } catch (IOException ex) {
+            throw new EPSnapshotException("Failed to read snapshot: " + ex.getMessage(), ex);
+        }
+        return sections;
+    }
+
+    private void decode(List<Section> sections) {
+        if (sections.isEmpty()) {
+            return;
+        }
+        int numThreads = Math.min(sections.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>(sections.size());
+            for (final Section section : sections) {
+                futures.add(executor.submit(() -> decodeSection(section)));
+            }
+            for (int i = 0; i < sections.size(); i++) {
+                sections.get(i).decoded = futures.get(i).get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EPSnapshotException("Interrupted decoding snapshot", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof EPSnapshotException) {
+                throw (EPSnapshotException) ex.getCause();
+            }
+            throw new EPSnapshotException("Failed to decode snapshot: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Object decodeSection(Section section) throws IOException {
+        EventAdapterService eventAdapterService = services.getEventAdapterService();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(section.bytes));
+        String name = EPSnapshotValueCodec.readString(in);
+
+        if (section.kind == SECTION_NAMED_WINDOW) {
+            int agentInstanceId = in.readInt();
+            NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(name);
+            if (processor == null) {
+                throw new EPSnapshotException("Named window by name '" + name + "' does not exist");
+            }
+            NamedWindowProcessorInstance instance = getNamedWindowInstances(processor).get(agentInstanceId);
+            if (instance == null) {
+                throw new EPSnapshotException("Named window by name '" + name + "' does not have context partition " + agentInstanceId);
+            }
+            if (instance.getTailViewInstance().iterator().hasNext()) {
+                throw new EPSnapshotException("Named window by name '" + name + "' is not empty");
+            }
+            EventBean[] events = new EventBean[in.readInt()];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = eventAdapterService.adapterForType(EPSnapshotValueCodec.read(in, eventAdapterService), processor.getNamedWindowType());
+            }
+            long[] timestamps = null;
+            if (in.readBoolean()) {
+                timestamps = new long[events.length];
+                for (int i = 0; i < timestamps.length; i++) {
+                    timestamps[i] = in.readLong();
+                }
+            }
+            return new NamedWindowSection(instance, events, timestamps);
+        }
+
+        if (section.kind == SECTION_TABLE) {
+            int agentInstanceId = in.readInt();
+            TableMetadata metadata = services.getTableService().getTableMetadata(name);
+            if (metadata == null) {
+                throw new EPSnapshotException("Table by name '" + name + "' does not exist");
+            }
+            TableStateInstance state = metadata.getState(agentInstanceId);
+            if (state == null) {
+                throw new EPSnapshotException("Table by name '" + name + "' does not have context partition " + agentInstanceId);
+            }
+            if (state.getRowCount() != 0) {
+                throw new EPSnapshotException("Table by name '" + name + "' is not empty");
+            }
+            int[] indexes = new int[in.readInt()];
+            for (int i = 0; i < indexes.length; i++) {
+                String columnName = EPSnapshotValueCodec.readString(in);
+                TableMetadataColumn column = metadata.getTableColumns().get(columnName);
+                if (!(column instanceof TableMetadataColumnPlain)) {
+                    throw new EPSnapshotException("Table by name '" + name + "' does not have a column '" + columnName + "'");
+                }
+                indexes[i] = ((TableMetadataColumnPlain) column).getIndexPlain();
+            }
+            int[] methodOffsets = new int[in.readInt()];
+            for (int i = 0; i < methodOffsets.length; i++) {
+                String columnName = EPSnapshotValueCodec.readString(in);
+                TableMetadataColumn column = metadata.getTableColumns().get(columnName);
+                if (!(column instanceof TableMetadataColumnAggregation) || ((TableMetadataColumnAggregation) column).getAccessAccessorSlotPair() != null) {
+                    throw new EPSnapshotException("Table by name '" + name + "' does not have an aggregation column '" + columnName + "'");
+                }
+                methodOffsets[i] = ((TableMetadataColumnAggregation) column).getMethodOffset();
+            }
+            int numProperties = metadata.getInternalEventType().getPropertyNames().length;
+            EventBean[] rows = new EventBean[in.readInt()];
+            for (int i = 0; i < rows.length; i++) {
+                Object[] data = new Object[numProperties];
+                for (int index : indexes) {
+                    data[index] = EPSnapshotValueCodec.read(in, eventAdapterService);
+                }
+                AggregationRowPair aggs = metadata.getRowFactory().makeAggs(agentInstanceId, null, null, state.getAggregationServicePassThru());
+                for (int methodOffset : methodOffsets) {
+                    EPSnapshotAggregationCodec.read(in, aggs.getMethods()[methodOffset], eventAdapterService);
+                }
+                data[0] = aggs;
+                rows[i] = eventAdapterService.adapterForType(data, metadata.getInternalEventType());
+            }
+            return new TableSection(state, rows);
+        }
+
+        VariableMetaData metaData = services.getVariableService().getVariableMetaData(name);
+        if (metaData == null) {
+            throw new EPSnapshotException("Variable by name '" + name + "' does not exist");
+        }
+        Map<Integer, VariableReader> readers = services.getVariableService().getReadersPerCP(name);
+        Map<Integer, Object> values = new LinkedHashMap<Integer, Object>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int agentInstanceId = in.readInt();
+            if (!readers.containsKey(agentInstanceId)) {
+                throw new EPSnapshotException("Variable by name '" + name + "' does not have context partition " + agentInstanceId);
+            }
+            values.put(agentInstanceId, EPSnapshotValueCodec.read(in, eventAdapterService));
+        }
+        return new VariableSection(name, values);
+    }
+
+    private int applyNamedWindow(NamedWindowSection section) {
+        if (section.events.length == 0) {
+            return 0;
+        }
+        NamedWindowTailViewInstance tailViewInstance = section.instance.getTailViewInstance();
+        AgentInstanceContext agentInstanceContext = tailViewInstance.getAgentInstanceContext();
+        StatementAgentInstanceLock lock = agentInstanceContext.getAgentInstanceLock();
+        lock.acquireWriteLock();
+        try {
+            tailViewInstance.setLoading(true);
+            try {
+                section.instance.getRootViewInstance().update(section.events, null);
+            } finally {
+                tailViewInstance.setLoading(false);
+            }
+            TimeWindowView timeWindowView = getTimeWindowView(section.instance);
+            if (section.timestamps != null && timeWindowView != null) {
+                timeWindowView.restoreTimestamps(section.timestamps);
+            }
+        } finally {
+            lock.releaseWriteLock();
+        }
+        return section.events.length;
+    }
+
+    private int applyTable(TableSection section) {
+        section.state.getTableLevelRWLock().writeLock().lock();
+        try {
+            for (EventBean row : section.rows) {
+                section.state.addEvent(row);
+            }
+        } finally {
+            section.state.getTableLevelRWLock().writeLock().unlock();
+        }
+        return section.rows.length;
+    }
+
+    private int applyVariables(List<Section> sections) {
+        VariableService variableService = services.getVariableService();
+        int count = 0;
+        variableService.getReadWriteLock().writeLock().lock();
+        try {
+            for (Section section : sections) {
+                if (section.kind != SECTION_VARIABLE) {
+                    continue;
+                }
+                VariableSection variable = (VariableSection) section.decoded;
+                for (Map.Entry<Integer, Object> entry : variable.values.entrySet()) {
+                    try {
+                        variableService.checkAndWrite(variable.name, entry.getKey(), entry.getValue());
+                    } catch (RuntimeException ex) {
+                        variableService.rollback();
+                        throw new EPSnapshotException("Failed to restore variable '" + variable.name + "': " + ex.getMessage(), ex);
+                    }
+                    count++;
+                }
+            }
+            variableService.commit();
+        } finally {
+            variableService.getReadWriteLock().writeLock().unlock();
+        }
+        return count;
+    }
+
+    private static Map<Integer, NamedWindowProcessorInstance> getNamedWindowInstances(NamedWindowProcessor processor) {
+        Map<Integer, NamedWindowProcessorInstance> instances = new TreeMap<Integer, NamedWindowProcessorInstance>();
+        if (processor.getContextName() == null) {
+            NamedWindowProcessorInstance instance = processor.getProcessorInstanceNoContext();
+            if (instance != null) {
+                instances.put(EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID, instance);
+            }
+            return instances;
+        }
+        for (int agentInstanceId : processor.getProcessorInstancesAll()) {
+            NamedWindowProcessorInstance instance = processor.getProcessorInstance(agentInstanceId);
+            if (instance != null) {
+                instances.put(agentInstanceId, instance);
+            }
+        }
+        return instances;
+    }
+
+    private static TimeWindowView getTimeWindowView(NamedWindowProcessorInstance instance) {
+        View[] views = instance.getRootViewInstance().getViews();
+        if (views.length == 1 && views[0] instanceof TimeWindowView) {
+            return (TimeWindowView) views[0];
+        }
+        return null;
+    }
+
+    private static TableColumns getTableColumns(TableMetadata metadata) {
+        TableColumns columns = new TableColumns();
+        for (TableMetadataColumn column : metadata.getTableColumns().values()) {
+            if (column instanceof TableMetadataColumnPlain) {
+                columns.plain.add((TableMetadataColumnPlain) column);
+                continue;
+            }
+            TableMetadataColumnAggregation aggregation = (TableMetadataColumnAggregation) column;
+            String prefix = "Table by name '" + metadata.getTableName() + "' column '" + column.getColumnName() + "'";
+            if (aggregation.getAccessAccessorSlotPair() != null) {
+                throw new EPSnapshotException(prefix + " is an access aggregation column, snapshot does not support access aggregation state");
+            }
+            try {
+                EPSnapshotAggregationCodec.validate(aggregation.getFactory().make());
+            } catch (EPSnapshotException ex) {
+                throw new EPSnapshotException(prefix + " cannot be written: " + ex.getMessage(), ex);
+            }
+            columns.aggregation.add(aggregation);
+        }
+        return columns;
+    }
+
+    private static void writeSection(DataOutputStream out, byte kind, ByteArrayOutputStream sectionBytes) throws IOException {
+        out.writeByte(kind);
+        out.writeInt(sectionBytes.size());
+        sectionBytes.writeTo(out);
+    }
+
+    private static class Section {
+        private final byte kind;
+        private final byte[] bytes;
+        private Object decoded;
+
+        private Section(byte kind, byte[] bytes) {
+            this.kind = kind;
+            this.bytes = bytes;
+        }
+    }
+
+    private static class NamedWindowSection {
+        private final NamedWindowProcessorInstance instance;
+        private final EventBean[] events;
+        private final long[] timestamps;
+
+        private NamedWindowSection(NamedWindowProcessorInstance instance, EventBean[] events, long[] timestamps) {
+            this.instance = instance;
+            this.events = events;
+            this.timestamps = timestamps;
+        }
+    }
+
+    private static class TableColumns {
+        private final List<TableMetadataColumnPlain> plain = new ArrayList<TableMetadataColumnPlain>();
+        private final List<TableMetadataColumnAggregation> aggregation = new ArrayList<TableMetadataColumnAggregation>();
+    }
+
+    private static class TableSection {
+        private final TableStateInstance state;
+        private final EventBean[] rows;
+
+        private TableSection(TableStateInstance state, EventBean[] rows) {
+            this.state = state;
+            this.rows = rows;
+        }
+    }
+
+    private static class VariableSection {
+        private final String name;
+        private final Map<Integer, Object> values;
+
+        private VariableSection(String name, Map<Integer, Object> values) {
+            this.name = name;
+            this.values = values;
+        }
+    }
+}
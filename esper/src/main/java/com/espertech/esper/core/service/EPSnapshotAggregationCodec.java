@@ -0,0 +1,193 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.snapshot.EPSnapshotException;
+import com.espertech.esper.collection.RefCountedSet;
+import com.espertech.esper.collection.SortedRefCountedSet;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.schedule.TimeProvider;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary encoding of the state of built-in aggregation functions for engine state snapshots.
+ * <p>
+ * The state of an aggregator is the set of its non-final fields and of its final fields that hold nested aggregators or
+ * collections. Final fields of primitive, enumeration, string and time provider type are configuration provided by the
+ * aggregation factory and are not written. Aggregators that keep state in other structures, such as median, percentile,
+ * approximate aggregations and plug-in aggregation functions, are not supported.
+ * </p>
+ */
+public class EPSnapshotAggregationCodec {
+    private final static Set<Class> VALUE_TYPES = new HashSet<Class>(Arrays.<Class>asList(Object.class, Object[].class, Comparable.class, Number.class,
+            Boolean.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, Character.class, String.class,
+            BigDecimal.class, BigInteger.class, MathContext.class));
+
+    private final static Map<Class, Field[]> STATE_FIELDS = new ConcurrentHashMap<Class, Field[]>();
+
+    /**
+     * Validates that the aggregator's state can be written.
+     *
+     * @param method aggregator
+     * @throws EPSnapshotException when the aggregator is not supported
+     */
+    public static void validate(AggregationMethod method) throws EPSnapshotException {
+        getStateFields(method.getClass());
+    }
+
+    /**
+     * Writes the aggregator's state.
+     *
+     * @param output output
+     * @param method aggregator
+     * @throws IOException          when the output fails
+     * @throws EPSnapshotException when the aggregator is not supported
+     */
+    public static void write(DataOutput output, AggregationMethod method) throws IOException {
+        try {
+            for (Field field : getStateFields(method.getClass())) {
+                Object value = field.get(method);
+                if (AggregationMethod.class.isAssignableFrom(field.getType())) {
+                    write(output, (AggregationMethod) value);
+                } else if (field.getType() == RefCountedSet.class) {
+                    RefCountedSet<Object> set = (RefCountedSet<Object>) value;
+                    writeRefCounts(output, set.getRefSet());
+                    output.writeInt(set.getNumValues());
+                } else if (field.getType() == SortedRefCountedSet.class) {
+                    SortedRefCountedSet<Object> set = (SortedRefCountedSet<Object>) value;
+                    writeRefCounts(output, set.getRefSet());
+                    output.writeLong(set.getCountPoints());
+                } else if (Collection.class.isAssignableFrom(field.getType())) {
+                    EPSnapshotValueCodec.write(output, ((Collection) value).toArray());
+                } else {
+                    EPSnapshotValueCodec.write(output, value);
+                }
+            }
+        } catch (IllegalAccessException ex) {
+            throw new EPSnapshotException("Failed to access aggregation state: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Reads state written by {@link #write(DataOutput, AggregationMethod)} into a new aggregator of the same type.
+     *
+     * @param input               input
+     * @param method              new aggregator made by the aggregation factory
+     * @param eventAdapterService for reading events
+     * @throws IOException          when the input fails
+     * @throws EPSnapshotException when the aggregator is not supported
+     */
+    public static void read(DataInput input, AggregationMethod method, EventAdapterService eventAdapterService) throws IOException {
+        try {
+            for (Field field : getStateFields(method.getClass())) {
+                if (AggregationMethod.class.isAssignableFrom(field.getType())) {
+                    read(input, (AggregationMethod) field.get(method), eventAdapterService);
+                } else if (field.getType() == RefCountedSet.class) {
+                    RefCountedSet<Object> set = (RefCountedSet<Object>) field.get(method);
+                    if (set == null) {
+                        set = new RefCountedSet<Object>();
+                        field.set(method, set);
+                    } else {
+                        set.clear();
+                    }
+                    int size = input.readInt();
+                    for (int i = 0; i < size; i++) {
+                        Object key = EPSnapshotValueCodec.read(input, eventAdapterService);
+                        set.add(key, input.readInt());
+                    }
+                    set.setNumValues(input.readInt());
+                } else if (field.getType() == SortedRefCountedSet.class) {
+                    SortedRefCountedSet<Object> set = (SortedRefCountedSet<Object>) field.get(method);
+                    if (set == null) {
+                        set = new SortedRefCountedSet<Object>();
+                        field.set(method, set);
+                    } else {
+                        set.clear();
+                    }
+                    int size = input.readInt();
+                    for (int i = 0; i < size; i++) {
+                        Object key = EPSnapshotValueCodec.read(input, eventAdapterService);
+                        set.add(key, input.readInt());
+                    }
+                    set.setCountPoints(input.readLong());
+                } else if (Collection.class.isAssignableFrom(field.getType())) {
+                    Collection<Object> collection = (Collection<Object>) field.get(method);
+                    collection.clear();
+                    collection.addAll(Arrays.asList((Object[]) EPSnapshotValueCodec.read(input, eventAdapterService)));
+                } else {
+                    field.set(method, EPSnapshotValueCodec.read(input, eventAdapterService));
+                }
+            }
+        } catch (IllegalAccessException ex) {
+            throw new EPSnapshotException("Failed to access aggregation state: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void writeRefCounts(DataOutput output, Map<Object, Integer> refCounts) throws IOException {
+        output.writeInt(refCounts.size());
+        for (Map.Entry<Object, Integer> entry : refCounts.entrySet()) {
+            EPSnapshotValueCodec.write(output, entry.getKey());
+            output.writeInt(entry.getValue());
+        }
+    }
+
+    private static Field[] getStateFields(Class clazz) throws EPSnapshotException {
+        Field[] fields = STATE_FIELDS.get(clazz);
+        if (fields != null) {
+            return fields;
+        }
+        if (clazz.getPackage() != AggregationMethod.class.getPackage()) {
+            throw new EPSnapshotException("Aggregation '" + clazz.getName() + "' is not a built-in aggregation function and does not support snapshots");
+        }
+
+        List<Field> state = new ArrayList<Field>();
+        for (Class current = clazz; current != Object.class; current = current.getSuperclass()) {
+            Field[] declared = current.getDeclaredFields();
+            Arrays.sort(declared, (first, second) -> first.getName().compareTo(second.getName()));
+            for (Field field : declared) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                Class type = field.getType();
+                boolean isFinal = Modifier.isFinal(modifiers);
+                boolean isStructure = AggregationMethod.class.isAssignableFrom(type) || type == RefCountedSet.class || type == SortedRefCountedSet.class;
+                if (isStructure || (isFinal && Collection.class.isAssignableFrom(type))) {
+                    state.add(field);
+                } else if (isFinal && (type.isPrimitive() || (type.isArray() && type.getComponentType().isPrimitive()) || type.isEnum() || type == String.class || type == TimeProvider.class)) {
+                    continue;
+                } else if (!isFinal && (type.isPrimitive() || VALUE_TYPES.contains(type))) {
+                    state.add(field);
+                } else {
+                    throw new EPSnapshotException("Aggregation '" + clazz.getSimpleName() + "' keeps state of type '" + type.getSimpleName() + "' that is not supported by snapshots");
+                }
+            }
+        }
+
+        fields = state.toArray(new Field[state.size()]);
+        for (Field field : fields) {
+            field.setAccessible(true);
+        }
+        STATE_FIELDS.put(clazz, fields);
+        return fields;
+    }
+}
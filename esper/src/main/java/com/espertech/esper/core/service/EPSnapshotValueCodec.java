@@ -0,0 +1,214 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.snapshot.EPSnapshotException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.util.SerializerUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of values for engine state snapshots.
+ * <p>
+ * Boxed primitives, strings, object arrays, maps and events are written with a one-byte type tag and their value.
+ * Other values must be serializable and are written using Java serialization.
+ * </p>
+ */
+public class EPSnapshotValueCodec {
+    private final static byte NULL = 0;
+    private final static byte BOOLEAN = 1;
+    private final static byte BYTE = 2;
+    private final static byte SHORT = 3;
+    private final static byte INTEGER = 4;
+    private final static byte LONG = 5;
+    private final static byte FLOAT = 6;
+    private final static byte DOUBLE = 7;
+    private final static byte CHARACTER = 8;
+    private final static byte STRING = 9;
+    private final static byte OBJECT_ARRAY = 10;
+    private final static byte MAP = 11;
+    private final static byte EVENT = 12;
+    private final static byte SERIALIZED = 13;
+
+    /**
+     * Writes a value.
+     *
+     * @param output output
+     * @param value  value to write, may be null
+     * @throws IOException          when the output fails
+     * @throws EPSnapshotException when the value cannot be encoded
+     */
+    public static void write(DataOutput output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            output.writeByte(CHARACTER);
+            output.writeChar((Character) value);
+        } else if (value.getClass() == Object[].class) {
+            Object[] array = (Object[]) value;
+            output.writeByte(OBJECT_ARRAY);
+            output.writeInt(array.length);
+            for (Object item : array) {
+                write(output, item);
+            }
+        } else if (value instanceof HashMap) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(MAP);
+            output.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(output, entry.getKey());
+                write(output, entry.getValue());
+            }
+        } else if (value instanceof EventBean) {
+            EventBean event = (EventBean) value;
+            if (event.getEventType().getName() == null) {
+                throw new EPSnapshotException("Event of anonymous event type '" + event.getEventType() + "' cannot be encoded");
+            }
+            output.writeByte(EVENT);
+            writeString(output, event.getEventType().getName());
+            write(output, event.getUnderlying());
+        } else if (value instanceof Serializable) {
+            byte[] bytes;
+            try {
+                bytes = SerializerUtil.objectToByteArr(value);
+            } catch (RuntimeException ex) {
+                throw new EPSnapshotException("Value of type '" + value.getClass().getName() + "' cannot be serialized: " + ex.getMessage(), ex);
+            }
+            output.writeByte(SERIALIZED);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        } else {
+            throw new EPSnapshotException("Value of type '" + value.getClass().getName() + "' is not serializable");
+        }
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @param input               input
+     * @param eventAdapterService for reading events
+     * @return value
+     * @throws IOException          when the input fails
+     * @throws EPSnapshotException when the value cannot be decoded
+     */
+    public static Object read(DataInput input, EventAdapterService eventAdapterService) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case BOOLEAN:
+                return input.readBoolean();
+            case BYTE:
+                return input.readByte();
+            case SHORT:
+                return input.readShort();
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case FLOAT:
+                return input.readFloat();
+            case DOUBLE:
+                return input.readDouble();
+            case CHARACTER:
+                return input.readChar();
+            case STRING:
+                return readString(input);
+            case OBJECT_ARRAY:
+                Object[] array = new Object[input.readInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = read(input, eventAdapterService);
+                }
+                return array;
+            case MAP:
+                int size = input.readInt();
+                Map<Object, Object> map = new LinkedHashMap<Object, Object>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    Object key = read(input, eventAdapterService);
+                    map.put(key, read(input, eventAdapterService));
+                }
+                return map;
+            case EVENT:
+                String typeName = readString(input);
+                EventType type = eventAdapterService.getExistsTypeByName(typeName);
+                if (type == null) {
+                    throw new EPSnapshotException("Event type by name '" + typeName + "' could not be found");
+                }
+                return eventAdapterService.adapterForType(read(input, eventAdapterService), type);
+            case SERIALIZED:
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                return SerializerUtil.byteArrToObject(bytes);
+            default:
+                throw new EPSnapshotException("Unrecognized value tag " + tag);
+        }
+    }
+
+    /**
+     * Writes a string of any length as its UTF-8 bytes.
+     *
+     * @param output output
+     * @param value  string
+     * @throws IOException when the output fails
+     */
+    public static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param input input
+     * @return string
+     * @throws IOException when the input fails
+     */
+    public static String readString(DataInput input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -87,11 +87,7 @@ public class EPStatementImpl implements EPStatementSPI {
         this.nameProvided = nameProvided;
         statementListenerSet = new EPStatementListenerSet();
         if (isBlockingDispatch) {
-            if (isSpinBlockingDispatch) {
-                this.dispatchChildView = new UpdateDispatchViewBlockingSpin(statementContext.getStatementResultService(), dispatchService, msecBlockingTimeout, timeSourceService);
-            } else {
-                this.dispatchChildView = new UpdateDispatchViewBlockingWait(statementContext.getStatementResultService(), dispatchService, msecBlockingTimeout);
-            }
+            this.dispatchChildView = new UpdateDispatchViewBlockingRingBuffer(statementContext.getStatementResultService(), dispatchService, msecBlockingTimeout, isSpinBlockingDispatch, timeSourceService);
         } else {
             this.dispatchChildView = new UpdateDispatchViewNonBlocking(statementContext.getStatementResultService(), dispatchService);
         }
@@ -16,6 +16,7 @@ import com.espertech.esper.core.context.mgr.ContextControllerFactoryService;
 import com.espertech.esper.core.context.mgr.ContextManagementService;
 import com.espertech.esper.core.context.stmt.StatementAIResourceRegistry;
 import com.espertech.esper.core.context.util.ContextDescriptor;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.agg.service.AggregationServiceFactoryService;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.core.EngineSettingsService;
@@ -562,6 +563,10 @@ public final class StatementContext {
         return stmtEngineServices.getExprDeclaredService();
     }
 
+    public ThreadingService getThreadingService() {
+        return stmtEngineServices.getThreadingService();
+    }
+
     public int getPriority() {
         return priority;
     }
@@ -24,7 +24,6 @@ import com.espertech.esper.core.service.resource.StatementResourceHolderUtil;
 import com.espertech.esper.core.service.resource.StatementResourceService;
 import com.espertech.esper.core.start.EPStatementStartMethodSelectDesc;
 import com.espertech.esper.epl.agg.service.AggregationServiceFactoryServiceImpl;
-import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.subquery.ExprSubselectNode;
 import com.espertech.esper.epl.metric.StatementMetricHandle;
@@ -108,7 +107,8 @@ public class StatementContextFactoryDefault implements StatementContextFactory {
                 services.getEngineImportService(),
                 services.getAggregationFactoryFactory(),
                 services.getSchedulingService(),
-                services.getExprDeclaredService()
+                services.getExprDeclaredService(),
+                services.getThreadingService()
         );
     }
 
@@ -219,7 +219,7 @@ public class StatementContextFactoryDefault implements StatementContextFactory {
         }
 
         // allow a special context controller factory for testing
-        ContextControllerFactoryService contextControllerFactoryService = getContextControllerFactoryService(annotations, engineServices.getEngineImportService());
+        ContextControllerFactoryService contextControllerFactoryService = getContextControllerFactoryService(annotations, engineServices);
 
         // may use resource tracking
         final StatementResourceService statementResourceService = new StatementResourceService(optionalContextName != null);
@@ -271,16 +271,16 @@ public class StatementContextFactoryDefault implements StatementContextFactory {
                 annotationData.getPriority());
     }
 
-    private ContextControllerFactoryService getContextControllerFactoryService(Annotation[] annotations, EngineImportService engineImportService) {
+    private ContextControllerFactoryService getContextControllerFactoryService(Annotation[] annotations, EPServicesContext engineServices) {
         try {
-            ContextStateCache replacementCache = (ContextStateCache) JavaClassHelper.getAnnotationHook(annotations, HookType.CONTEXT_STATE_CACHE, ContextStateCache.class, engineImportService);
+            ContextStateCache replacementCache = (ContextStateCache) JavaClassHelper.getAnnotationHook(annotations, HookType.CONTEXT_STATE_CACHE, ContextStateCache.class, engineServices.getEngineImportService());
             if (replacementCache != null) {
                 return new ContextControllerFactoryServiceImpl(replacementCache);
             }
         } catch (ExprValidationException e) {
             throw new EPException("Failed to obtain hook for " + HookType.CONTEXT_STATE_CACHE);
         }
-        return ContextControllerFactoryServiceImpl.DEFAULT_FACTORY;
+        return engineServices.getContextManagementService().getDefaultContextControllerFactoryService();
     }
 
     /**
@@ -11,6 +11,7 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.*;
+import com.espertech.esper.client.annotation.AsyncDelivery;
 import com.espertech.esper.client.annotation.Hint;
 import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.annotation.Name;
@@ -58,6 +59,7 @@ import com.espertech.esper.pattern.EvalNodeUtil;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.util.EventRepresentationUtil;
 import com.espertech.esper.util.ManagedReadWriteLock;
+import com.espertech.esper.view.StatementStopCallback;
 import com.espertech.esper.view.ViewProcessingException;
 import com.espertech.esper.view.Viewable;
 import org.slf4j.Logger;
@@ -242,6 +244,12 @@ public class StatementLifecycleSvcImpl implements StatementLifecycleSvc {
             }
         }
 
+        // Asynchronous delivery
+        AsyncDelivery asyncDelivery = (AsyncDelivery) AnnotationUtil.findAnnotation(annotations, AsyncDelivery.class);
+        if (asyncDelivery != null && asyncDelivery.capacity() < 1) {
+            throw new EPStatementException("Invalid @AsyncDelivery annotation, expected a capacity of at least 1 but received " + asyncDelivery.capacity(), expression);
+        }
+
         // walk subselects, alias expressions, declared expressions, dot-expressions
         ExprNodeSubselectDeclaredDotVisitor visitor;
         try {
@@ -389,6 +397,15 @@ public class StatementLifecycleSvcImpl implements StatementLifecycleSvc {
             boolean isForClause = statementSpec.getForClauseSpec() != null;
             statementContext.getStatementResultService().setContext(statement, epServiceProvider,
                     isInsertInto, isPattern, isDistinct, isForClause, statementContext.getEpStatementHandle().getMetricsHandle());
+            if (asyncDelivery != null) {
+                statementContext.getStatementResultService().setAsyncDelivery(asyncDelivery.capacity(), asyncDelivery.policy());
+                final StatementResultAsyncDelivery delivery = statementContext.getStatementResultService().getAsyncDelivery();
+                statementContext.getStatementStopService().addSubscriber(new StatementStopCallback() {
+                    public void statementStopped() {
+                        delivery.cancel();
+                    }
+                });
+            }
 
             // create start method
             startMethod = EPStatementStartMethodFactory.makeStartMethod(compiledSpec);
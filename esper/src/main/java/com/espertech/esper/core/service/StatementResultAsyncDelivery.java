@@ -0,0 +1,248 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.annotation.AsyncDeliveryPolicy;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.core.thread.ThreadingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous delivery of statement results to listeners and subscribers, for statements with the
+ * {@link com.espertech.esper.client.annotation.AsyncDelivery} annotation.
+ * <p>
+ * Results are kept in a bounded ring buffer. At most one delivery task per statement is scheduled at a time
+ * on the engine's delivery pool and that task delivers the buffer in order, yielding the delivery thread to other statements
+ * after delivering up to capacity results. When the buffer is full the policy decides whether the engine thread
+ * waits, the oldest result is dropped or the new result is merged into the newest queued result.
+ * A delivery thread never waits for a full buffer, as the pool is bounded: results produced by a listener on a delivery thread coalesce instead.
+ * <p>
+ * Stopping or destroying the statement cancels the results that are queued and not yet delivered.
+ */
+public class StatementResultAsyncDelivery implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(StatementResultAsyncDelivery.class);
+    private static final ThreadLocal<Boolean> IS_DELIVERY_THREAD = new ThreadLocal<Boolean>();
+
+    private final StatementResultServiceImpl resultService;
+    private final ThreadingService threadingService;
+    private final AsyncDeliveryPolicy policy;
+    private final UniformPair<EventBean[]>[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int count;
+    private boolean scheduled;
+    private volatile long numDropped;
+
+    /**
+     * Ctor.
+     *
+     * @param resultService    result service performing the delivery
+     * @param threadingService threading service providing delivery threads
+     * @param capacity         maximum number of queued results
+     * @param policy           policy when full
+     */
+    public StatementResultAsyncDelivery(StatementResultServiceImpl resultService, ThreadingService threadingService, int capacity, AsyncDeliveryPolicy policy) {
+        this.resultService = resultService;
+        this.threadingService = threadingService;
+        this.policy = policy;
+        this.ring = new UniformPair[capacity];
+    }
+
+    /**
+     * Queues results for delivery.
+     *
+     * @param events results
+     * @return number of queued results including the added results
+     */
+    public int add(UniformPair<EventBean[]> events) {
+        boolean submit = false;
+        int depth;
+        lock.lock();
+        try {
+            if (count == ring.length) {
+                if (policy == AsyncDeliveryPolicy.DROP_OLDEST) {
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    count--;
+                    numDropped++;
+                } else if (policy == AsyncDeliveryPolicy.BLOCK && IS_DELIVERY_THREAD.get() == null) {
+                    while (count == ring.length) {
+                        notFull.awaitUninterruptibly();
+                    }
+                } else {
+                    int newest = (head + count - 1) % ring.length;
+                    ring[newest] = coalesce(ring[newest], events);
+                    return count;
+                }
+            }
+            ring[(head + count) % ring.length] = events;
+            count++;
+            depth = count;
+            if (!scheduled) {
+                scheduled = true;
+                submit = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (submit) {
+            submit();
+        }
+        return depth;
+    }
+
+    public void run() {
+        IS_DELIVERY_THREAD.set(Boolean.TRUE);
+        try {
+            for (int i = 0; i < ring.length; i++) {
+                UniformPair<EventBean[]> events;
+                lock.lock();
+                try {
+                    if (count == 0) {
+                        scheduled = false;
+                        return;
+                    }
+                    events = ring[head];
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    count--;
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    resultService.processDispatch(events);
+                } catch (RuntimeException ex) {
+                    log.error("Unexpected exception in asynchronous delivery for statement '" + resultService.getStatementName() + "': " + ex.getMessage(), ex);
+                }
+            }
+        } finally {
+            IS_DELIVERY_THREAD.remove();
+        }
+
+        // yield the delivery thread and continue behind the other statements' deliveries
+        lock.lock();
+        try {
+            if (count == 0) {
+                scheduled = false;
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        submit();
+    }
+
+    /**
+     * Discards the results that are queued and not yet delivered, for use when the statement stops or is destroyed.
+     * A delivery in progress completes.
+     */
+    public void cancel() {
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                ring[(head + i) % ring.length] = null;
+            }
+            numDropped += count;
+            head = 0;
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void submit() {
+        if (!threadingService.submitAsyncDelivery(this)) {
+            // the engine is destroyed
+            lock.lock();
+            try {
+                cancel();
+                scheduled = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of results currently queued.
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of results dropped by the drop-oldest policy.
+     *
+     * @return number dropped
+     */
+    public long getNumDropped() {
+        return numDropped;
+    }
+
+    /**
+     * Returns the capacity.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Returns the policy.
+     *
+     * @return policy
+     */
+    public AsyncDeliveryPolicy getPolicy() {
+        return policy;
+    }
+
+    private static UniformPair<EventBean[]> coalesce(UniformPair<EventBean[]> existing, UniformPair<EventBean[]> added) {
+        if (added == null) {
+            return existing;
+        }
+        if (existing == null) {
+            return added;
+        }
+        return new UniformPair<EventBean[]>(concat(existing.getFirst(), added.getFirst()), concat(existing.getSecond(), added.getSecond()));
+    }
+
+    private static EventBean[] concat(EventBean[] first, EventBean[] second) {
+        if (first == null || first.length == 0) {
+            return second;
+        }
+        if (second == null || second.length == 0) {
+            return first;
+        }
+        EventBean[] result = new EventBean[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
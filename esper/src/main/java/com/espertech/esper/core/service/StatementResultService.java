@@ -11,6 +11,7 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.annotation.AsyncDeliveryPolicy;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -88,6 +89,35 @@ public interface StatementResultService {
      */
     public void execute();
 
+    /**
+     * Returns the results indicated by the current thread, flattened, and clears them.
+     *
+     * @return results or null if none indicated
+     */
+    public UniformPair<EventBean[]> takeIndicated();
+
+    /**
+     * Execution of results that were taken from a thread using {@link #takeIndicated()}.
+     *
+     * @param events results to dispatch
+     */
+    public void execute(UniformPair<EventBean[]> events);
+
+    /**
+     * Enables asynchronous delivery of results to listeners and subscribers.
+     *
+     * @param capacity maximum number of results queued for delivery
+     * @param policy   behavior when the queue is full
+     */
+    public void setAsyncDelivery(int capacity, AsyncDeliveryPolicy policy);
+
+    /**
+     * Returns the asynchronous delivery, if enabled.
+     *
+     * @return asynchronous delivery or null if results are delivered synchronously
+     */
+    public StatementResultAsyncDelivery getAsyncDelivery();
+
     public String getStatementName();
 
     public int getStatementId();
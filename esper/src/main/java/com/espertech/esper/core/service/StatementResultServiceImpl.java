@@ -13,6 +13,7 @@ package com.espertech.esper.core.service;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.StatementAwareUpdateListener;
 import com.espertech.esper.client.UpdateListener;
+import com.espertech.esper.client.annotation.AsyncDeliveryPolicy;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.core.thread.OutboundUnitRunnable;
@@ -72,6 +73,7 @@ public class StatementResultServiceImpl implements StatementResultService {
     private ResultDeliveryStrategy statementResultNaturalStrategy;
 
     private Set<StatementResultListener> statementOutputHooks;
+    private StatementResultAsyncDelivery asyncDelivery;
 
     /**
      * Buffer for holding dispatchable events.
@@ -202,6 +204,19 @@ public class StatementResultServiceImpl implements StatementResultService {
 
         UniformPair<EventBean[]> events = EventBeanUtility.flattenList(dispatches);
 
+        execute(events);
+
+        dispatches.clear();
+    }
+
+    public UniformPair<EventBean[]> takeIndicated() {
+        ArrayDeque<UniformPair<EventBean[]>> dispatches = lastResults.get();
+        UniformPair<EventBean[]> events = EventBeanUtility.flattenList(dispatches);
+        dispatches.clear();
+        return events;
+    }
+
+    public void execute(UniformPair<EventBean[]> events) {
         if (ExecutionPathDebugLog.isDebugEnabled && log.isDebugEnabled()) {
             ViewSupport.dumpUpdateParams(".execute", events);
         }
@@ -210,13 +225,24 @@ public class StatementResultServiceImpl implements StatementResultService {
             InstrumentationHelper.get().qaStatementResultExecute(events, epStatement.getStatementId(), epStatement.getName(), exprEvaluatorContext.getAgentInstanceId(), Thread.currentThread().getId());
         }
 
-        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isOutboundThreading())) {
+        if (asyncDelivery != null) {
+            int queueDepth = asyncDelivery.add(events);
+            if ((MetricReportingPath.isMetricsEnabled) && (statementMetricHandle.isEnabled())) {
+                metricReportingService.accountAsyncDeliveryQueueDepth(statementMetricHandle, queueDepth);
+            }
+        } else if ((ThreadingOption.isThreadingEnabled) && (threadingService.isOutboundThreading())) {
             threadingService.submitOutbound(new OutboundUnitRunnable(events, this));
         } else {
             processDispatch(events);
         }
+    }
 
-        dispatches.clear();
+    public void setAsyncDelivery(int capacity, AsyncDeliveryPolicy policy) {
+        this.asyncDelivery = new StatementResultAsyncDelivery(this, threadingService, capacity, policy);
+    }
+
+    public StatementResultAsyncDelivery getAsyncDelivery() {
+        return asyncDelivery;
     }
 
     /**
@@ -0,0 +1,54 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+
+/**
+ * Compiled statement held by the statement cache.
+ */
+public class StatementSpecCacheEntry {
+    /**
+     * Entry recording that a statement cannot be cached, so that the engine compiles it without checking again.
+     */
+    public final static StatementSpecCacheEntry UNCACHEABLE = new StatementSpecCacheEntry(null, null);
+
+    private final String expressionNoAnnotations;
+    private final EPStatementObjectModel model;
+
+    /**
+     * Ctor.
+     *
+     * @param expressionNoAnnotations expression text without annotations
+     * @param model                   statement object model
+     */
+    public StatementSpecCacheEntry(String expressionNoAnnotations, EPStatementObjectModel model) {
+        this.expressionNoAnnotations = expressionNoAnnotations;
+        this.model = model;
+    }
+
+    public String getExpressionNoAnnotations() {
+        return expressionNoAnnotations;
+    }
+
+    public EPStatementObjectModel getModel() {
+        return model;
+    }
+
+    /**
+     * Returns indicator whether the entry records that the statement cannot be cached.
+     *
+     * @return true for uncacheable
+     */
+    public boolean isUncacheable() {
+        return model == null;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.ConfigurationInformation;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.util.HashUtil;
+import com.espertech.esper.util.SerializerUtil;
+import com.espertech.esper.util.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps compiled statements in a directory, as the statement object model of each EPL text, so that an engine
+ * of the same version and with the same configuration that creates a statement with the same EPL text can skip parsing and walking the EPL text.
+ * <p>
+ * Each entry is a file named for the engine version, the configuration hash and a hash of the EPL text. The file holds the engine version
+ * and the EPL text, which must match on lookup, and either the expression text without annotations and the serialized statement object model
+ * or a marker that the statement cannot be cached.
+ * Entries are written to a temporary file and renamed, so concurrent engines sharing a directory never see a partial entry.
+ * </p>
+ * <p>
+ * When the number of entries exceeds the maximum the least recently used entries are deleted, down to three quarters of the maximum.
+ * A lookup that finds an entry marks the entry as recently used.
+ * </p>
+ */
+public class StatementSpecCacheFile {
+    private static final Logger log = LoggerFactory.getLogger(StatementSpecCacheFile.class);
+
+    private final static String SUFFIX = ".stmt";
+    private final static int SEED_ONE = 0x5bd1e995;
+    private final static int SEED_TWO = 0x1b873593;
+
+    private final File directory;
+    private final String filePrefix;
+    private final int maxEntries;
+    private final AtomicInteger numEntries;
+    private final AtomicLong numHits = new AtomicLong();
+    private final AtomicLong numMisses = new AtomicLong();
+    private final AtomicLong numUncacheableHits = new AtomicLong();
+
+    /**
+     * Ctor.
+     *
+     * @param directory  directory for entries, created if it does not exist
+     * @param configHash hash of the engine configuration, entries with a different configuration hash are not used
+     * @param maxEntries maximum number of entries in the directory
+     */
+    public StatementSpecCacheFile(File directory, String configHash, int maxEntries) {
+        this.directory = directory;
+        this.filePrefix = Version.VERSION + "-" + configHash + "-";
+        this.maxEntries = maxEntries;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new EPException("Failed to create statement cache directory '" + directory + "'");
+        }
+        this.numEntries = new AtomicInteger(listEntries().length);
+    }
+    /**
+     * Returns the hash of a configuration, or null if the configuration cannot be serialized.
+     *
+     * @param configuration configuration
+     * @return hash or null
+     */
+    public static String getConfigurationHash(ConfigurationInformation configuration) {
+        byte[] bytes;
+        try {
+            bytes = SerializerUtil.objectToByteArr(configuration);
+        } catch (RuntimeException ex) {
+            log.warn("Configuration cannot be serialized, statement cache is disabled: " + ex.getMessage());
+            return null;
+        }
+        return toHex(HashUtil.murmur3(bytes, 0, bytes.length, SEED_ONE), HashUtil.murmur3(bytes, 0, bytes.length, SEED_TWO));
+    }
+
+    /**
+     * Returns the cached statement for the key, or null if there is no entry or the entry cannot be read.
+     * The entry returned for a statement that cannot be cached is {@link StatementSpecCacheEntry#isUncacheable() uncacheable}.
+     *
+     * @param key key that identifies the EPL text and compile settings
+     * @return entry or null
+     */
+    public StatementSpecCacheEntry get(String key) {
+        File file = getFile(key);
+        if (!file.exists()) {
+            numMisses.incrementAndGet();
+            return null;
+        }
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            StatementSpecCacheEntry entry;
+            try {
+                if (!readHeader(input, key)) {
+                    numMisses.incrementAndGet();
+                    return null;
+                }
+                if (!input.readBoolean()) {
+                    entry = StatementSpecCacheEntry.UNCACHEABLE;
+                } else {
+                    String expressionNoAnnotations = readString(input);
+                    byte[] model = new byte[input.readInt()];
+                    input.readFully(model);
+                    entry = new StatementSpecCacheEntry(expressionNoAnnotations, (EPStatementObjectModel) SerializerUtil.byteArrToObject(model));
+                }
+            } finally {
+                input.close();
+            }
+            if (entry.isUncacheable()) {
+                numUncacheableHits.incrementAndGet();
+            } else {
+                numHits.incrementAndGet();
+            }
+            file.setLastModified(System.currentTimeMillis());
+            return entry;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to read statement cache entry '" + file + "', ignoring entry: " + ex.getMessage());
+            numMisses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Returns indicator whether a compiled statement exists for the key, without reading the statement object model.
+     *
+     * @param key key that identifies the EPL text and compile settings
+     * @return true if a compiled statement exists
+     */
+    public boolean contains(String key) {
+        File file = getFile(key);
+        if (!file.exists()) {
+            return false;
+        }
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                return readHeader(input, key) && input.readBoolean();
+            } finally {
+                input.close();
+            }
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes an entry, replacing any existing entry for the key. Pass {@link StatementSpecCacheEntry#UNCACHEABLE}
+     * to record that the statement cannot be cached.
+     *
+     * @param key   key that identifies the EPL text and compile settings
+     * @param entry entry
+     */
+    public void put(String key, StatementSpecCacheEntry entry) {
+        File file = getFile(key);
+        File temp = null;
+        try {
+            byte[] model = entry.isUncacheable() ? null : SerializerUtil.objectToByteArr(entry.getModel());
+            temp = File.createTempFile(file.getName(), ".tmp", directory);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                writeString(output, Version.VERSION);
+                writeString(output, key);
+                output.writeBoolean(model != null);
+                if (model != null) {
+                    writeString(output, entry.getExpressionNoAnnotations());
+                    output.writeInt(model.length);
+                    output.write(model);
+                }
+            } finally {
+                output.close();
+            }
+            boolean isNew = !file.exists();
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (isNew && numEntries.incrementAndGet() > maxEntries) {
+                evict();
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to write statement cache entry '" + file + "': " + ex.getMessage());
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found a compiled statement.
+     *
+     * @return hits
+     */
+    public long getNumHits() {
+        return numHits.get();
+    }
+
+    /**
+     * Returns the number of lookups that found an entry recording that the statement cannot be cached.
+     *
+     * @return hits of uncacheable entries
+     */
+    public long getNumUncacheableHits() {
+        return numUncacheableHits.get();
+    }
+
+    /**
+     * Returns the number of lookups that did not find an entry.
+     *
+     * @return misses
+     */
+    public long getNumMisses() {
+        return numMisses.get();
+    }
+
+    private synchronized void evict() {
+        File[] files = listEntries();
+        if (files.length <= maxEntries) {
+            numEntries.set(files.length);
+            return;
+        }
+        final long[] lastModified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            lastModified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(index -> lastModified[index]));
+        int remaining = files.length;
+        int target = maxEntries - maxEntries / 4;
+        for (int i = 0; i < order.length && remaining > target; i++) {
+            if (files[order[i]].delete()) {
+                remaining--;
+            }
+        }
+        numEntries.set(remaining);
+    }
+
+    private File[] listEntries() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        return files == null ? new File[0] : files;
+    }
+
+    private boolean readHeader(DataInput input, String key) throws IOException {
+        return Version.VERSION.equals(readString(input)) && key.equals(readString(input));
+    }
+
+    private File getFile(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        String keyHash = toHex(HashUtil.murmur3(bytes, 0, bytes.length, SEED_ONE), HashUtil.murmur3(bytes, 0, bytes.length, SEED_TWO));
+        return new File(directory, filePrefix + keyHash + SUFFIX);
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String toHex(int one, int two) {
+        return String.format("%08x%08x", one, two);
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.dispatch.DispatchService;
+import com.espertech.esper.dispatch.Dispatchable;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Convenience view for dispatching view updates received from a parent view to update listeners
+ * via the dispatch service, preserving the order in which threads produced results for the statement.
+ * <p>
+ * The first result a thread produces in a dispatch cycle claims a sequence number in a ring buffer of slots,
+ * which happens while the statement lock is held. When the thread dispatches, it publishes its results into the slot and
+ * attempts to become the single drainer, which delivers published slots to listeners in sequence order.
+ * A thread that cannot deliver its own results waits, either spinning or parking, until another thread has delivered them
+ * or until the timeout passes.
+ * <p>
+ * A thread that times out marks the earlier slots that are not yet published as skipped, so that later results
+ * are not held back by them, and leaves its own results to the drainer. A thread that finds its slot skipped when
+ * it publishes delivers its results itself.
+ * <p>
+ * Each thread reuses a single claim object per statement, so dispatching does not allocate.
+ */
+public class UpdateDispatchViewBlockingRingBuffer extends UpdateDispatchViewBase {
+    private static final Logger log = LoggerFactory.getLogger(UpdateDispatchViewBlockingRingBuffer.class);
+
+    private static final int CAPACITY = 128;
+    private static final int MASK = CAPACITY - 1;
+    private static final long NO_SEQUENCE = -1;
+    private static final long UNORDERED = -2;
+    private static final long PARK_NANOS = 50000;
+
+    private static final int STATE_WRITING = 1;
+    private static final int STATE_PUBLISHED = 2;
+    private static final int STATE_SKIPPED = 3;
+
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final AtomicLongArray slotState = new AtomicLongArray(CAPACITY);
+    private final UniformPair<EventBean[]>[] slotEvents = new UniformPair[CAPACITY];
+    private final AtomicReference<Thread> drainer = new AtomicReference<Thread>();
+    private volatile long deliveredSequence;
+
+    private final boolean isSpin;
+    private final long msecTimeout;
+    private final TimeSourceService timeSourceService;
+
+    private final ThreadLocal<DispatchClaim> claims = new ThreadLocal<DispatchClaim>() {
+        protected synchronized DispatchClaim initialValue() {
+            return new DispatchClaim();
+        }
+    };
+
+    /**
+     * Ctor.
+     *
+     * @param statementResultService - handles result delivery
+     * @param dispatchService        - for performing the dispatch
+     * @param msecTimeout            - timeout for preserving dispatch order through blocking
+     * @param isSpin                 - true to spin while waiting, false to park the waiting thread
+     * @param timeSourceService      - time source provider
+     */
+    public UpdateDispatchViewBlockingRingBuffer(StatementResultService statementResultService, DispatchService dispatchService, long msecTimeout, boolean isSpin, TimeSourceService timeSourceService) {
+        super(statementResultService, dispatchService);
+        this.msecTimeout = msecTimeout;
+        this.isSpin = isSpin;
+        this.timeSourceService = timeSourceService;
+        for (int i = 0; i < CAPACITY; i++) {
+            slotState.set(i, NO_SEQUENCE);
+        }
+    }
+
+    public void update(EventBean[] newData, EventBean[] oldData) {
+        newResult(new UniformPair<EventBean[]>(newData, oldData));
+    }
+
+    public void newResult(UniformPair<EventBean[]> result) {
+        statementResultService.indicate(result);
+
+        DispatchClaim claim = claims.get();
+        if (claim.sequence == NO_SEQUENCE) {
+            claim.sequence = claim();
+            claim.view = this;
+            dispatchService.addExternal(claim);
+        }
+    }
+
+    private long claim() {
+        long spinStartTime = 0;
+        while (true) {
+            long sequence = claimSequence.get();
+            if (sequence - deliveredSequence < CAPACITY) {
+                if (claimSequence.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+                continue;
+            }
+
+            // ring buffer is full, as the thread holding the oldest claim has not dispatched yet
+            if (spinStartTime == 0) {
+                spinStartTime = timeSourceService.getTimeMillis();
+            } else if (timeSourceService.getTimeMillis() - spinStartTime > msecTimeout) {
+                log.info("Wait timeout exceeded in listener dispatch for statement '" + statementResultService.getStatementName() + "'");
+                return UNORDERED;
+            }
+            await();
+        }
+    }
+
+    private void dispatch(long sequence) {
+        UniformPair<EventBean[]> events = statementResultService.takeIndicated();
+        if (sequence == UNORDERED || !publish(sequence, events)) {
+            statementResultService.execute(events);
+            return;
+        }
+
+        long spinStartTime = 0;
+        while (true) {
+            drain();
+
+            // results of a listener reentering while this thread drains are delivered by the drain loop
+            if (deliveredSequence > sequence || drainer.get() == Thread.currentThread()) {
+                return;
+            }
+
+            if (spinStartTime == 0) {
+                spinStartTime = timeSourceService.getTimeMillis();
+            } else if (timeSourceService.getTimeMillis() - spinStartTime > msecTimeout) {
+                log.info("Wait timeout exceeded in listener dispatch for statement '" + statementResultService.getStatementName() + "'");
+                skipUnpublished(sequence);
+                drain();
+                return;
+            }
+            await();
+        }
+    }
+
+    private boolean publish(long sequence, UniformPair<EventBean[]> events) {
+        int index = (int) sequence & MASK;
+        long skipped = state(sequence, STATE_SKIPPED);
+        while (true) {
+            long current = slotState.get(index);
+            if (current == skipped) {
+                return false;
+            }
+            if (slotState.compareAndSet(index, current, state(sequence, STATE_WRITING))) {
+                break;
+            }
+        }
+        slotEvents[index] = events;
+        slotState.set(index, state(sequence, STATE_PUBLISHED));
+        return true;
+    }
+
+    private void skipUnpublished(long sequence) {
+        for (long earlier = deliveredSequence; earlier < sequence; earlier++) {
+            int index = (int) earlier & MASK;
+            long current = slotState.get(index);
+            if (current != state(earlier, STATE_WRITING) && current != state(earlier, STATE_PUBLISHED)) {
+                // fails only when the owner starts publishing, which it then completes without waiting
+                slotState.compareAndSet(index, current, state(earlier, STATE_SKIPPED));
+            }
+        }
+    }
+
+    private void drain() {
+        Thread current = Thread.currentThread();
+        while (drainer.compareAndSet(null, current)) {
+            try {
+                long next = deliveredSequence;
+                while (true) {
+                    int index = (int) next & MASK;
+                    long state = slotState.get(index);
+                    if (state == state(next, STATE_PUBLISHED)) {
+                        UniformPair<EventBean[]> events = slotEvents[index];
+                        slotEvents[index] = null;
+                        try {
+                            statementResultService.execute(events);
+                        } finally {
+                            deliveredSequence = ++next;
+                        }
+                    } else if (state == state(next, STATE_SKIPPED)) {
+                        deliveredSequence = ++next;
+                    } else {
+                        break;
+                    }
+                }
+            } finally {
+                drainer.set(null);
+            }
+
+            // drain again if a slot got published or skipped after the check and before releasing
+            long next = deliveredSequence;
+            long state = slotState.get((int) next & MASK);
+            if (state != state(next, STATE_PUBLISHED) && state != state(next, STATE_SKIPPED)) {
+                return;
+            }
+        }
+    }
+
+    private void await() {
+        if (isSpin) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    private static long state(long sequence, int state) {
+        return sequence << 2 | state;
+    }
+
+    /**
+     * Per-thread claim, referencing the view only while dispatch is pending so that the thread-local value
+     * does not keep a destroyed statement reachable.
+     */
+    private static class DispatchClaim implements Dispatchable {
+        private long sequence = NO_SEQUENCE;
+        private UpdateDispatchViewBlockingRingBuffer view;
+
+        public void execute() {
+            long current = sequence;
+            UpdateDispatchViewBlockingRingBuffer dispatchView = view;
+            sequence = NO_SEQUENCE;
+            view = null;
+            dispatchView.dispatch(current);
+        }
+    }
+}
@@ -12,6 +12,7 @@ package com.espertech.esper.core.start;
 
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryCreateTable;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryCreateTableResult;
 import com.espertech.esper.core.context.mgr.ContextManagedStatementCreateAggregationVariableDesc;
@@ -85,10 +86,16 @@ public class EPStatementStartMethodCreateTable extends EPStatementStartMethodBas
             TableAccessAnalysisResult plan = analyzePlanAggregations(createDesc.getTableName(), statementContext, columnDescs, services, internalTypeName, publicTypeName);
             final TableStateRowFactory tableStateRowFactory = plan.getStateRowFactory();
 
+            // determine off-heap storage
+            boolean isOffHeap = HintEnum.OFFHEAP_STORAGE.getHint(statementSpec.getAnnotations()) != null;
+            if (isOffHeap && keyTypes.length == 0) {
+                throw new ExprValidationException("Off-heap storage requires primary key columns for table '" + createDesc.getTableName() + "'");
+            }
+
             // register new table
             boolean queryPlanLogging = services.getConfigSnapshot().getEngineDefaults().getLogging().isEnableQueryPlan();
             metadata = services.getTableService().addTable(createDesc.getTableName(), statementContext.getExpression(), statementContext.getStatementName(), keyTypes, plan.getTableColumns(), tableStateRowFactory, plan.getNumberMethodAggregations(), statementContext, plan.getInternalEventType(),
-                    plan.getPublicEventType(), plan.getEventToPublic(), queryPlanLogging);
+                    plan.getPublicEventType(), plan.getEventToPublic(), queryPlanLogging, isOffHeap);
         } catch (ExprValidationException ex) {
             services.getEventAdapterService().removeType(internalTypeName);
             services.getEventAdapterService().removeType(publicTypeName);
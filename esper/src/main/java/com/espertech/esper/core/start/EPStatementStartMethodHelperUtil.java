@@ -73,6 +73,17 @@ public class EPStatementStartMethodHelperUtil {
         return result;
     }
 
+    protected static boolean[] getFifoExpiry(boolean[] isNamedWindow, ViewFactoryChain[] unmaterializedViewChain) {
+        boolean[] result = new boolean[unmaterializedViewChain.length];
+        for (int i = 0; i < unmaterializedViewChain.length; i++) {
+            if (isNamedWindow[i]) {
+                continue;
+            }
+            result[i] = unmaterializedViewChain[i].isFifoExpiry();
+        }
+        return result;
+    }
+
     protected static boolean determineSubquerySameStream(StatementSpecCompiled statementSpec, FilterStreamSpecCompiled filterStreamSpec) {
         for (ExprSubselectNode subselect : statementSpec.getSubSelectExpressions()) {
             StreamSpecCompiled streamSpec = subselect.getStatementSpecCompiled().getStreamSpecs()[0];
@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.hook.ExceptionHandlerExceptionType;
+import com.espertech.esper.core.service.EPRuntimeImpl;
+import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fan-out unit for processing a single statement match as part of a parallel evaluation of the statements matching an event.
+ * <p>
+ * The unit processes the statement, dispatches to the statement's listeners and processes any events routed
+ * as a result, all on the fork-join pool thread. The sending thread holds the engine read lock until all units complete,
+ * and the unit itself acquires the engine read lock only to process routed events.
+ * </p>
+ */
+public class FanOutUnit extends RecursiveAction {
+    private final transient EPRuntimeImpl epRuntime;
+    private final transient EPServicesContext services;
+    private final transient EPStatementHandleCallback handleCallback;
+    private final transient EventBean theEvent;
+    private final long filterVersion;
+
+    /**
+     * Ctor.
+     *
+     * @param epRuntime      runtime to process
+     * @param services       engine services
+     * @param handleCallback callback
+     * @param theEvent       event
+     * @param filterVersion  version of filter
+     */
+    public FanOutUnit(EPRuntimeImpl epRuntime, EPServicesContext services, EPStatementHandleCallback handleCallback, EventBean theEvent, long filterVersion) {
+        this.epRuntime = epRuntime;
+        this.services = services;
+        this.handleCallback = handleCallback;
+        this.theEvent = theEvent;
+        this.filterVersion = filterVersion;
+    }
+
+    protected void compute() {
+        try {
+            epRuntime.processStatementFilterSingle(handleCallback.getAgentInstanceHandle(), handleCallback, theEvent, filterVersion);
+
+            epRuntime.dispatch();
+
+            services.getEventProcessingRWLock().acquireReadLockOnBehalf();
+            try {
+                epRuntime.processThreadWorkQueue();
+            } finally {
+                services.getEventProcessingRWLock().releaseReadLock();
+            }
+        } catch (RuntimeException ex) {
+            services.getExceptionHandlingService().handleException(ex, handleCallback.getAgentInstanceHandle(), ExceptionHandlerExceptionType.PROCESS, theEvent);
+        }
+    }
+}
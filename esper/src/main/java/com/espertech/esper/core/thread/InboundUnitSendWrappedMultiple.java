@@ -0,0 +1,53 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPRuntimeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inbound unit for multiple wrapped events, processed in order under a single acquisition of the engine lock.
+ */
+public class InboundUnitSendWrappedMultiple implements InboundUnitRunnable {
+    private static final Logger log = LoggerFactory.getLogger(InboundUnitSendWrappedMultiple.class);
+    private final EventBean[] events;
+    private final EPRuntimeImpl runtime;
+
+    /**
+     * Ctor.
+     *
+     * @param events  inbound events, wrapped
+     * @param runtime to process
+     */
+    public InboundUnitSendWrappedMultiple(EventBean[] events, EPRuntimeImpl runtime) {
+        this.events = events;
+        this.runtime = runtime;
+    }
+
+    /**
+     * Returns the wrapped events.
+     *
+     * @return events
+     */
+    public EventBean[] getEvents() {
+        return events;
+    }
+
+    public void run() {
+        try {
+            runtime.processWrappedEvents(events, events.length);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error processing wrapped events: " + e.getMessage(), e);
+        }
+    }
+}
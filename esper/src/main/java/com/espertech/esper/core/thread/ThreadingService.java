@@ -10,10 +10,13 @@
  */
 package com.espertech.esper.core.thread;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -54,6 +57,13 @@ public interface ThreadingService {
      */
     public boolean isInboundThreading();
 
+    /**
+     * Returns true for inbound threading enabled with partition keys, so that events of the same key are processed in order.
+     *
+     * @return indicator
+     */
+    public boolean isInboundThreadingPartitioned();
+
     /**
      * Submit inbound work unit.
      *
@@ -61,6 +71,16 @@ public interface ThreadingService {
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Submit inbound wrapped events as one unit of work per inbound thread or, when partitioned, per shard,
+     * retaining the order of events of the same shard.
+     *
+     * @param events  wrapped events
+     * @param count   number of events to submit, starting at the first element
+     * @param runtime to process
+     */
+    public void submitInboundWrapped(EventBean[] events, int count, EPRuntimeImpl runtime);
+
     /**
      * Returns true for route execution threading enabled.
      *
@@ -75,6 +95,41 @@ public interface ThreadingService {
      */
     public void submitRoute(RouteUnitRunnable unit);
 
+    /**
+     * Returns true for statement fan-out threading enabled.
+     *
+     * @return indicator
+     */
+    public boolean isFanOutThreading();
+
+    /**
+     * Returns true when the current thread is a statement fan-out thread.
+     *
+     * @return indicator
+     */
+    public boolean isFanOutThread();
+
+    /**
+     * Execute fan-out work units in parallel and wait for all units to complete.
+     *
+     * @param units units of work
+     */
+    public void invokeFanOut(List<FanOutUnit> units);
+
+    /**
+     * Returns true for match-recognize partition threading enabled.
+     *
+     * @return indicator
+     */
+    public boolean isMatchRecognizeThreading();
+
+    /**
+     * Execute match-recognize partition work units in parallel and wait for all units to complete.
+     *
+     * @param units units of work
+     */
+    public void invokeMatchRecognize(List<? extends ForkJoinTask<?>> units);
+
     /**
      * Returns true for outbound threading enabled.
      *
@@ -89,6 +144,14 @@ public interface ThreadingService {
      */
     public void submitOutbound(OutboundUnitRunnable unit);
 
+    /**
+     * Submit a statement's asynchronous delivery task to the delivery pool, starting the pool on first use.
+     *
+     * @param delivery delivery task
+     * @return false if the engine is destroyed and the task was not accepted
+     */
+    public boolean submitAsyncDelivery(Runnable delivery);
+
     /**
      * Returns the outbound queue.
      *
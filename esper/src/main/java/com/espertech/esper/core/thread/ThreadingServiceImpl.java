@@ -11,11 +11,17 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -27,8 +33,10 @@ public class ThreadingServiceImpl implements ThreadingService {
     private final ConfigurationEngineDefaults.Threading config;
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
+    private final boolean isInboundThreadingPartitioned;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isFanOutThreading;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
@@ -39,6 +47,15 @@ public class ThreadingServiceImpl implements ThreadingService {
     private ThreadPoolExecutor inboundThreadPool;
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
+    private ForkJoinPool fanOutPool;
+    private ForkJoinPool matchRecognizePool;
+    private volatile ThreadPoolExecutor asyncDeliveryPool;
+    private String engineURI;
+    private boolean isDestroyed;
+
+    private BlockingQueue<Runnable>[] inboundShardQueues;
+    private ThreadPoolExecutor[] inboundShardThreadPools;
+    private final ConcurrentHashMap<EventType, EventPropertyGetter> inboundPartitionGetters = new ConcurrentHashMap<EventType, EventPropertyGetter>();
 
     /**
      * Ctor.
@@ -52,11 +69,15 @@ public class ThreadingServiceImpl implements ThreadingService {
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isInboundThreadingPartitioned = isInboundThreading && !threadingConfig.getThreadPoolInboundPartitionKeys().isEmpty();
+            isFanOutThreading = threadingConfig.isThreadPoolFanOut();
         } else {
             isTimerThreading = false;
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isInboundThreadingPartitioned = false;
+            isFanOutThreading = false;
         }
     }
 
@@ -64,10 +85,26 @@ public class ThreadingServiceImpl implements ThreadingService {
         return isRouteThreading;
     }
 
+    public boolean isFanOutThreading() {
+        return isFanOutThreading;
+    }
+
+    public boolean isFanOutThread() {
+        return fanOutPool != null && ForkJoinTask.getPool() == fanOutPool;
+    }
+
+    public boolean isMatchRecognizeThreading() {
+        return matchRecognizePool != null;
+    }
+
     public boolean isInboundThreading() {
         return isInboundThreading;
     }
 
+    public boolean isInboundThreadingPartitioned() {
+        return isInboundThreadingPartitioned;
+    }
+
     public boolean isTimerThreading() {
         return isTimerThreading;
     }
@@ -77,7 +114,15 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime) {
-        if (isInboundThreading) {
+        if (isInboundThreadingPartitioned) {
+            int numShards = Math.max(1, config.getThreadPoolInboundNumThreads());
+            inboundShardQueues = new BlockingQueue[numShards];
+            inboundShardThreadPools = new ThreadPoolExecutor[numShards];
+            for (int i = 0; i < numShards; i++) {
+                inboundShardQueues[i] = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundShardThreadPools[i] = getThreadPool(services.getEngineURI(), "Inbound-" + i, inboundShardQueues[i], 1);
+            }
+        } else if (isInboundThreading) {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
             inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
         }
@@ -96,6 +141,18 @@ public class ThreadingServiceImpl implements ThreadingService {
             outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
             outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
         }
+
+        if (isFanOutThreading) {
+            fanOutPool = getForkJoinPool(services.getEngineURI(), "FanOut", config.getThreadPoolFanOutNumThreads());
+        }
+
+        int matchRecognizeThreads = services.getConfigSnapshot().getEngineDefaults().getMatchRecognize().getPartitionThreads();
+        if (matchRecognizeThreads > 1) {
+            matchRecognizePool = getForkJoinPool(services.getEngineURI(), "MatchRecognize", matchRecognizeThreads);
+        }
+
+        // the asynchronous delivery pool is started when the first result is queued for asynchronous delivery
+        engineURI = services.getEngineURI();
     }
 
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity) {
@@ -116,14 +173,107 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
     }
 
+    public void invokeFanOut(List<FanOutUnit> units) {
+        for (FanOutUnit unit : units) {
+            fanOutPool.execute(unit);
+        }
+        RuntimeException exception = null;
+        for (FanOutUnit unit : units) {
+            try {
+                unit.join();
+            } catch (RuntimeException ex) {
+                if (exception == null) {
+                    exception = ex;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    public boolean submitAsyncDelivery(Runnable delivery) {
+        ThreadPoolExecutor pool = asyncDeliveryPool;
+        if (pool == null) {
+            pool = getAsyncDeliveryPool();
+            if (pool == null) {
+                return false;
+            }
+        }
+        try {
+            pool.execute(delivery);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            log.debug("Asynchronous delivery pool is shut down, discarding delivery");
+            return false;
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getAsyncDeliveryPool() {
+        if (asyncDeliveryPool == null && !isDestroyed) {
+            asyncDeliveryPool = getThreadPool(engineURI, "AsyncDelivery", new LinkedBlockingQueue<Runnable>(), Math.max(1, config.getThreadPoolAsyncDeliveryNumThreads()));
+        }
+        return asyncDeliveryPool;
+    }
+
+    public void invokeMatchRecognize(List<? extends ForkJoinTask<?>> units) {
+        for (ForkJoinTask<?> unit : units) {
+            matchRecognizePool.execute(unit);
+        }
+        // wait for all units before rethrowing, so that no unit continues to run once the caller returns
+        RuntimeException exception = null;
+        for (ForkJoinTask<?> unit : units) {
+            try {
+                unit.join();
+            } catch (RuntimeException ex) {
+                if (exception == null) {
+                    exception = ex;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
     public void submitInbound(InboundUnitRunnable unit) {
         try {
+            if (isInboundThreadingPartitioned) {
+                inboundShardQueues[getInboundShard(unit)].put(unit);
+                return;
+            }
             inboundQueue.put(unit);
         } catch (InterruptedException e) {
             log.info("Submit interrupted:" + e);
         }
     }
 
+    public void submitInboundWrapped(EventBean[] events, int count, EPRuntimeImpl runtime) {
+        if (isInboundThreadingPartitioned) {
+            List<EventBean>[] perShard = new List[inboundShardQueues.length];
+            for (int i = 0; i < count; i++) {
+                int shard = getInboundShard(events[i]);
+                if (perShard[shard] == null) {
+                    perShard[shard] = new ArrayList<EventBean>();
+                }
+                perShard[shard].add(events[i]);
+            }
+            for (List<EventBean> shardEvents : perShard) {
+                if (shardEvents != null) {
+                    submitInbound(new InboundUnitSendWrappedMultiple(shardEvents.toArray(new EventBean[shardEvents.size()]), runtime));
+                }
+            }
+            return;
+        }
+
+        // split into contiguous chunks, one per inbound thread
+        int numChunks = Math.max(1, Math.min(count, config.getThreadPoolInboundNumThreads()));
+        int chunkSize = (count + numChunks - 1) / numChunks;
+        for (int start = 0; start < count; start += chunkSize) {
+            submitInbound(new InboundUnitSendWrappedMultiple(Arrays.copyOfRange(events, start, Math.min(count, start + chunkSize)), runtime));
+        }
+    }
+
     public void submitOutbound(OutboundUnitRunnable unit) {
         try {
             outboundQueue.put(unit);
@@ -185,11 +335,79 @@ public class ThreadingServiceImpl implements ThreadingService {
         if (inboundThreadPool != null) {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (fanOutPool != null) {
+            stopForkJoinPool(fanOutPool, "FanOut");
+        }
+        if (matchRecognizePool != null) {
+            stopForkJoinPool(matchRecognizePool, "MatchRecognize");
+        }
+        isDestroyed = true;
+        if (asyncDeliveryPool != null) {
+            // deliveries already queued complete before the pool terminates
+            asyncDeliveryPool.shutdown();
+            try {
+                asyncDeliveryPool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                log.error("Interruped awaiting termination", e);
+            }
+        }
+        if (inboundShardThreadPools != null) {
+            for (int i = 0; i < inboundShardThreadPools.length; i++) {
+                stopPool(inboundShardThreadPools[i], inboundShardQueues[i], "Inbound-" + i);
+            }
+        }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        inboundShardThreadPools = null;
+        fanOutPool = null;
+        matchRecognizePool = null;
+        asyncDeliveryPool = null;
+    }
+
+    /**
+     * Returns the shard for an inbound unit: wrapped events go by the hash of their partition key,
+     * or of their event type name when the type has no partition key, and other units (i.e. time events) go to the first shard.
+     *
+     * @param unit inbound unit
+     * @return shard number
+     */
+    private int getInboundShard(InboundUnitRunnable unit) {
+        if (unit instanceof InboundUnitSendWrapped) {
+            return getInboundShard(((InboundUnitSendWrapped) unit).getEventBean());
+        }
+        if (unit instanceof InboundUnitSendWrappedMultiple) {
+            // the events of the unit are of the same shard
+            return getInboundShard(((InboundUnitSendWrappedMultiple) unit).getEvents()[0]);
+        }
+        return 0;
+    }
+
+    private int getInboundShard(EventBean theEvent) {
+        EventType eventType = theEvent.getEventType();
+        EventPropertyGetter getter = inboundPartitionGetters.get(eventType);
+        if (getter == null) {
+            getter = resolveInboundPartitionGetter(eventType);
+            inboundPartitionGetters.put(eventType, getter);
+        }
+        Object key = getter.get(theEvent);
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % inboundShardQueues.length;
+    }
+
+    private EventPropertyGetter resolveInboundPartitionGetter(EventType eventType) {
+        String propertyName = eventType.getName() == null ? null : config.getThreadPoolInboundPartitionKeys().get(eventType.getName());
+        if (propertyName != null) {
+            EventPropertyGetter getter = eventType.getGetter(propertyName);
+            if (getter != null) {
+                return getter;
+            }
+            log.warn("Partition key property '" + propertyName + "' not found for event type '" + eventType.getName() + "', partitioning by event type name instead");
+        }
+        return new ConstantKeyGetter(eventType.getName());
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads) {
@@ -209,6 +427,26 @@ public class ThreadingServiceImpl implements ThreadingService {
         return pool;
     }
 
+    private ForkJoinPool getForkJoinPool(String engineURI, String name, int numThreads) {
+        if (log.isInfoEnabled()) {
+            log.info("Starting fork-join pool " + name + " with " + numThreads + " threads");
+        }
+
+        if (engineURI == null) {
+            engineURI = "default";
+        }
+
+        final String threadNamePrefix = "com.espertech.esper." + name + "-" + engineURI + "-";
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName(threadNamePrefix + thread.getPoolIndex());
+                return thread;
+            }
+        };
+        return new ForkJoinPool(Math.max(1, numThreads), factory, null, false);
+    }
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable) {
         if (engineURI == null) {
             engineURI = "default";
@@ -233,4 +471,37 @@ public class ThreadingServiceImpl implements ThreadingService {
             log.error("Interruped awaiting termination", e);
         }
     }
+
+    private void stopForkJoinPool(ForkJoinPool pool, String name) {
+        if (log.isInfoEnabled()) {
+            log.info("Shutting down fork-join pool " + name);
+        }
+
+        pool.shutdown();
+        try {
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            log.error("Interruped awaiting termination", e);
+        }
+    }
+
+    private static class ConstantKeyGetter implements EventPropertyGetter {
+        private final Object key;
+
+        private ConstantKeyGetter(Object key) {
+            this.key = key;
+        }
+
+        public Object get(EventBean eventBean) {
+            return key;
+        }
+
+        public boolean isExistsProperty(EventBean eventBean) {
+            return true;
+        }
+
+        public Object getFragment(EventBean eventBean) {
+            return null;
+        }
+    }
 }
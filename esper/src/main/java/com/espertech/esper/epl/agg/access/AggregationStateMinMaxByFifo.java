@@ -0,0 +1,89 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.access;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MonotonicDeque;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Implementation of access function for single-stream (not joins) for a data window that removes events
+ * in the same order they were added, retaining only the events that can become the minimum or maximum.
+ */
+public class AggregationStateMinMaxByFifo implements AggregationState, AggregationStateSorted {
+    protected final AggregationStateMinMaxByEverSpec spec;
+    protected final MonotonicDeque<Object, EventBean> deque;
+
+    public AggregationStateMinMaxByFifo(AggregationStateMinMaxByEverSpec spec) {
+        this.spec = spec;
+        this.deque = new MonotonicDeque<Object, EventBean>(spec.getComparator(), spec.isMax());
+    }
+
+    public void clear() {
+        deque.clear();
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        EventBean theEvent = eventsPerStream[spec.getStreamId()];
+        if (theEvent == null) {
+            return;
+        }
+        Object comparable = AggregationStateSortedImpl.getComparable(spec.getCriteria(), eventsPerStream, true, exprEvaluatorContext);
+        deque.add(comparable, theEvent);
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        EventBean theEvent = eventsPerStream[spec.getStreamId()];
+        if (theEvent == null) {
+            return;
+        }
+        Object comparable = AggregationStateSortedImpl.getComparable(spec.getCriteria(), eventsPerStream, false, exprEvaluatorContext);
+        deque.removeIfFirst(comparable, theEvent);
+    }
+
+    public EventBean getFirstValue() {
+        if (spec.isMax()) {
+            throw new UnsupportedOperationException("Only accepts max-value queries");
+        }
+        return deque.getFirstValue();
+    }
+
+    public EventBean getLastValue() {
+        if (!spec.isMax()) {
+            throw new UnsupportedOperationException("Only accepts min-value queries");
+        }
+        return deque.getFirstValue();
+    }
+
+    public Iterator<EventBean> iterator() {
+        throw new UnsupportedOperationException();
+    }
+
+    public Iterator<EventBean> getReverseIterator() {
+        throw new UnsupportedOperationException();
+    }
+
+    public Collection<EventBean> collectionReadOnly() {
+        EventBean minMaxBean = deque.getFirstValue();
+        if (minMaxBean != null) {
+            return Collections.singletonList(minMaxBean);
+        }
+        return null;
+    }
+
+    public int size() {
+        return deque.size() == 0 ? 0 : 1;
+    }
+}
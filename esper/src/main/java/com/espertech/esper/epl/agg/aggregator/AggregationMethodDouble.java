@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method that can receive double values without boxing.
+ * <p>
+ * Used only for aggregations of a single non-distinct and unfiltered parameter, the value is never null.
+ */
+public interface AggregationMethodDouble extends AggregationMethod {
+    /**
+     * Apply the value as entering aggregation (entering window).
+     *
+     * @param value to add to aggregate
+     */
+    public void enterDouble(double value);
+
+    /**
+     * Apply the value as leaving aggregation (leaving window).
+     *
+     * @param value to remove from aggregate
+     */
+    public void leaveDouble(double value);
+}
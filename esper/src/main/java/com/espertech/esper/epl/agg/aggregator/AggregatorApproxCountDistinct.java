@@ -0,0 +1,55 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.HyperLogLog;
+
+/**
+ * Approximate distinct-count aggregation based on a HyperLogLog sketch, providing either the estimate or a copy of the sketch.
+ * <p>
+ * Values that are themselves sketches are merged. Values leaving a data window are not removed from the sketch.
+ * </p>
+ */
+public class AggregatorApproxCountDistinct implements AggregationMethod {
+    protected final HyperLogLog sketch;
+    protected final boolean sketchResult;
+
+    /**
+     * Ctor.
+     *
+     * @param precision    sketch precision
+     * @param sketchResult true to return a copy of the sketch, false to return the estimate
+     */
+    public AggregatorApproxCountDistinct(int precision, boolean sketchResult) {
+        this.sketch = new HyperLogLog(precision);
+        this.sketchResult = sketchResult;
+    }
+
+    public void clear() {
+        sketch.clear();
+    }
+
+    public void enter(Object value) {
+        if (value instanceof HyperLogLog) {
+            sketch.merge((HyperLogLog) value);
+        } else {
+            sketch.add(value);
+        }
+    }
+
+    public void leave(Object value) {
+        // a sketch cannot remove values
+    }
+
+    public Object getValue() {
+        return sketchResult ? sketch.copy() : sketch.estimate();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.agg.service.AggregatorUtil;
+
+/**
+ * Approximate distinct-count aggregation with filter.
+ */
+public class AggregatorApproxCountDistinctFilter extends AggregatorApproxCountDistinct {
+    /**
+     * Ctor.
+     *
+     * @param precision    sketch precision
+     * @param sketchResult true to return a copy of the sketch, false to return the estimate
+     */
+    public AggregatorApproxCountDistinctFilter(int precision, boolean sketchResult) {
+        super(precision, sketchResult);
+    }
+
+    @Override
+    public void enter(Object parameters) {
+        Object[] paramArray = (Object[]) parameters;
+        if (!AggregatorUtil.checkFilter(paramArray)) {
+            return;
+        }
+        super.enter(paramArray[0]);
+    }
+}
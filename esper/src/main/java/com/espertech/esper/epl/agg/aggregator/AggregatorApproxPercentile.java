@@ -0,0 +1,75 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.TDigest;
+
+/**
+ * Approximate percentile aggregation based on a t-digest, returning a single percentile value or an array of percentile values.
+ */
+public class AggregatorApproxPercentile implements AggregationMethod {
+    protected final double[] percents;
+    protected final boolean multiple;
+    protected final TDigest digest;
+
+    /**
+     * Ctor.
+     *
+     * @param percents percentages, each between zero and 100
+     * @param multiple true to return an array of values, false to return the value for the single percentage
+     */
+    public AggregatorApproxPercentile(double[] percents, boolean multiple) {
+        this.percents = percents;
+        this.multiple = multiple;
+        this.digest = new TDigest();
+    }
+
+    public void clear() {
+        digest.clear();
+    }
+
+    public void enter(Object object) {
+        if (object == null) {
+            return;
+        }
+        digest.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object) {
+        if (object == null) {
+            return;
+        }
+        digest.remove(((Number) object).doubleValue());
+    }
+
+    public Object getValue() {
+        if (!multiple) {
+            return digest.quantile(percents[0] / 100d);
+        }
+        if (digest.size() == 0) {
+            return null;
+        }
+        Double[] result = new Double[percents.length];
+        for (int i = 0; i < percents.length; i++) {
+            result[i] = digest.quantile(percents[i] / 100d);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the digest.
+     *
+     * @return digest
+     */
+    public TDigest getDigest() {
+        return digest;
+    }
+}
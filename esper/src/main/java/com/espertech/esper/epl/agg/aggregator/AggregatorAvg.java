@@ -13,32 +13,44 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Average that generates double-typed numbers.
  */
-public class AggregatorAvg implements AggregationMethod {
+public class AggregatorAvg implements AggregationMethodDouble {
     protected double sum;
     protected long numDataPoints;
+    private Double value;
 
     public void clear() {
         sum = 0;
         numDataPoints = 0;
+        value = null;
     }
 
     public void enter(Object object) {
         if (object == null) {
             return;
         }
-        numDataPoints++;
-        sum += ((Number) object).doubleValue();
+        enterDouble(((Number) object).doubleValue());
     }
 
     public void leave(Object object) {
         if (object == null) {
             return;
         }
+        leaveDouble(((Number) object).doubleValue());
+    }
+
+    public void enterDouble(double object) {
+        numDataPoints++;
+        sum += object;
+        value = null;
+    }
+
+    public void leaveDouble(double object) {
         if (numDataPoints <= 1) {
             clear();
         } else {
             numDataPoints--;
-            sum -= ((Number) object).doubleValue();
+            sum -= object;
+            value = null;
         }
     }
 
@@ -46,6 +58,9 @@ public class AggregatorAvg implements AggregationMethod {
         if (numDataPoints == 0) {
             return null;
         }
-        return sum / numDataPoints;
+        if (value == null) {
+            value = sum / numDataPoints;
+        }
+        return value;
     }
 }
@@ -10,23 +10,23 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
-import com.espertech.esper.collection.SortedDoubleVector;
+import com.espertech.esper.collection.SortedDoubleTree;
 
 /**
  * Median aggregation.
  */
 public class AggregatorMedian implements AggregationMethod {
-    protected SortedDoubleVector vector;
+    protected SortedDoubleTree values;
 
     public void clear() {
-        vector.clear();
+        values.clear();
     }
 
     /**
      * Ctor.
      */
     public AggregatorMedian() {
-        this.vector = new SortedDoubleVector();
+        this.values = new SortedDoubleTree();
     }
 
     public void enter(Object object) {
@@ -34,7 +34,7 @@ public class AggregatorMedian implements AggregationMethod {
             return;
         }
         double value = ((Number) object).doubleValue();
-        vector.add(value);
+        values.add(value);
     }
 
     public void leave(Object object) {
@@ -42,22 +42,22 @@ public class AggregatorMedian implements AggregationMethod {
             return;
         }
         double value = ((Number) object).doubleValue();
-        vector.remove(value);
+        values.remove(value);
     }
 
     public Object getValue() {
-        if (vector.size() == 0) {
+        if (values.size() == 0) {
             return null;
         }
-        if (vector.size() == 1) {
-            return vector.getValue(0);
+        if (values.size() == 1) {
+            return values.getValue(0);
         }
 
-        int middle = vector.size() >> 1;
-        if (vector.size() % 2 == 0) {
-            return (vector.getValue(middle - 1) + vector.getValue(middle)) / 2;
+        int middle = values.size() >> 1;
+        if (values.size() % 2 == 0) {
+            return (values.getValue(middle - 1) + values.getValue(middle)) / 2;
         } else {
-            return vector.getValue(middle);
+            return values.getValue(middle);
         }
     }
 
@@ -0,0 +1,56 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.MonotonicDeque;
+import com.espertech.esper.type.MinMaxTypeEnum;
+
+/**
+ * Min/max aggregator for values of a data window that removes values in the same order they were added,
+ * retaining only the values that can become the minimum or maximum.
+ */
+public class AggregatorMinMaxFifo implements AggregationMethod {
+    protected final MinMaxTypeEnum minMaxTypeEnum;
+
+    protected MonotonicDeque<Object, Object> deque;
+
+    /**
+     * Ctor.
+     *
+     * @param minMaxTypeEnum - enum indicating to return minimum or maximum values
+     */
+    public AggregatorMinMaxFifo(MinMaxTypeEnum minMaxTypeEnum) {
+        this.minMaxTypeEnum = minMaxTypeEnum;
+        this.deque = new MonotonicDeque<Object, Object>(null, minMaxTypeEnum == MinMaxTypeEnum.MAX);
+    }
+
+    public void clear() {
+        deque.clear();
+    }
+
+    public void enter(Object object) {
+        if (object == null) {
+            return;
+        }
+        deque.add(object, null);
+    }
+
+    public void leave(Object object) {
+        if (object == null) {
+            return;
+        }
+        deque.removeIfFirst(object, null);
+    }
+
+    public Object getValue() {
+        return deque.getFirstKey();
+    }
+}
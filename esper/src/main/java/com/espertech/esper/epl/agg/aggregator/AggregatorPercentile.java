@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.SortedDoubleTree;
+
+/**
+ * Percentile aggregation, returning a single percentile value or an array of percentile values.
+ * <p>
+ * Percentiles interpolate linearly between the two closest ranks, so that the 50th percentile is the median.
+ * </p>
+ */
+public class AggregatorPercentile implements AggregationMethod {
+    protected final double[] percents;
+    protected final boolean multiple;
+    protected SortedDoubleTree values;
+
+    /**
+     * Ctor.
+     *
+     * @param percents percentages, each between zero and 100
+     * @param multiple true to return an array of values, false to return the value for the single percentage
+     */
+    public AggregatorPercentile(double[] percents, boolean multiple) {
+        this.percents = percents;
+        this.multiple = multiple;
+        this.values = new SortedDoubleTree();
+    }
+
+    public void clear() {
+        values.clear();
+    }
+
+    public void enter(Object object) {
+        if (object == null) {
+            return;
+        }
+        values.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object) {
+        if (object == null) {
+            return;
+        }
+        values.remove(((Number) object).doubleValue());
+    }
+
+    public Object getValue() {
+        if (!multiple) {
+            return computePercentile(values, percents[0]);
+        }
+        if (values.size() == 0) {
+            return null;
+        }
+        Double[] result = new Double[percents.length];
+        for (int i = 0; i < percents.length; i++) {
+            result[i] = computePercentile(values, percents[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Compute a percentile value.
+     *
+     * @param values sorted values
+     * @param percent percentage between zero and 100
+     * @return percentile value or null when there are no values
+     */
+    public static Double computePercentile(SortedDoubleTree values, double percent) {
+        int size = values.size();
+        if (size == 0) {
+            return null;
+        }
+        double position = percent / 100d * (size - 1);
+        int lower = (int) position;
+        double fraction = position - lower;
+        double lowerValue = values.getValue(lower);
+        if (fraction == 0 || lower + 1 >= size) {
+            return lowerValue;
+        }
+        return lowerValue + (values.getValue(lower + 1) - lowerValue) * fraction;
+    }
+}
@@ -13,24 +13,34 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Standard deviation always generates double-typed numbers.
  */
-public class AggregatorStddev implements AggregationMethod {
+public class AggregatorStddev implements AggregationMethodDouble {
     protected double mean;
     protected double qn;
     protected long numDataPoints;
+    private Double value;
 
     public void clear() {
         mean = 0;
         numDataPoints = 0;
         qn = 0;
+        value = null;
     }
 
     public void enter(Object object) {
         if (object == null) {
             return;
         }
+        enterDouble(((Number) object).doubleValue());
+    }
 
-        double p = ((Number) object).doubleValue();
+    public void leave(Object object) {
+        if (object == null) {
+            return;
+        }
+        leaveDouble(((Number) object).doubleValue());
+    }
 
+    public void enterDouble(double p) {
         // compute running variance per Knuth's method
         if (numDataPoints == 0) {
             mean = p;
@@ -42,15 +52,10 @@ public class AggregatorStddev implements AggregationMethod {
             mean += (p - mean) / numDataPoints;
             qn += (p - oldmean) * (p - mean);
         }
+        value = null;
     }
 
-    public void leave(Object object) {
-        if (object == null) {
-            return;
-        }
-
-        double p = ((Number) object).doubleValue();
-
+    public void leaveDouble(double p) {
         // compute running variance per Knuth's method
         if (numDataPoints <= 1) {
             clear();
@@ -59,6 +64,7 @@ public class AggregatorStddev implements AggregationMethod {
             double oldmean = mean;
             mean -= (p - mean) / numDataPoints;
             qn -= (p - oldmean) * (p - mean);
+            value = null;
         }
     }
 
@@ -66,7 +72,10 @@ public class AggregatorStddev implements AggregationMethod {
         if (numDataPoints < 2) {
             return null;
         }
-        return Math.sqrt(qn / (numDataPoints - 1));
+        if (value == null) {
+            value = Math.sqrt(qn / (numDataPoints - 1));
+        }
+        return value;
     }
 
 }
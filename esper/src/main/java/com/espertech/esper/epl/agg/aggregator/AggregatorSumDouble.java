@@ -13,32 +13,44 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for double values.
  */
-public class AggregatorSumDouble implements AggregationMethod {
+public class AggregatorSumDouble implements AggregationMethodDouble {
     protected double sum;
     protected long numDataPoints;
+    private Double value;
 
     public void clear() {
         sum = 0;
         numDataPoints = 0;
+        value = null;
     }
 
     public void enter(Object object) {
         if (object == null) {
             return;
         }
-        numDataPoints++;
-        sum += (Double) object;
+        enterDouble((Double) object);
     }
 
     public void leave(Object object) {
         if (object == null) {
             return;
         }
+        leaveDouble((Double) object);
+    }
+
+    public void enterDouble(double object) {
+        numDataPoints++;
+        sum += object;
+        value = null;
+    }
+
+    public void leaveDouble(double object) {
         if (numDataPoints <= 1) {
             clear();
         } else {
             numDataPoints--;
-            sum -= (Double) object;
+            sum -= object;
+            value = null;
         }
     }
 
@@ -46,9 +58,10 @@ public class AggregatorSumDouble implements AggregationMethod {
         if (numDataPoints == 0) {
             return null;
         }
-        return sum;
+        if (value == null) {
+            value = sum;
+        }
+        return value;
     }
 
 }
-
-
@@ -13,41 +13,55 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for integer values.
  */
-public class AggregatorSumInteger implements AggregationMethod {
+public class AggregatorSumInteger implements AggregationMethodLong {
     protected int sum;
     protected long numDataPoints;
+    private Integer value;
 
     public void clear() {
         sum = 0;
         numDataPoints = 0;
+        value = null;
     }
 
     public void enter(Object object) {
         if (object == null) {
             return;
         }
-        numDataPoints++;
-        sum += (Integer) object;
+        enterLong((Integer) object);
     }
 
     public void leave(Object object) {
         if (object == null) {
             return;
         }
+        leaveLong((Integer) object);
+    }
+
+    public void enterLong(long object) {
+        numDataPoints++;
+        sum += (int) object;
+        value = null;
+    }
+
+    public void leaveLong(long object) {
         if (numDataPoints <= 1) {
             clear();
         } else {
             numDataPoints--;
-            sum -= (Integer) object;
+            sum -= (int) object;
+            value = null;
         }
     }
 
-
     public Object getValue() {
         if (numDataPoints == 0) {
             return null;
         }
-        return sum;
+        if (value == null) {
+            value = sum;
+        }
+        return value;
     }
 
 }
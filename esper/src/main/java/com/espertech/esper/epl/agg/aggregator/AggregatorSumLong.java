@@ -13,32 +13,44 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for long values.
  */
-public class AggregatorSumLong implements AggregationMethod {
+public class AggregatorSumLong implements AggregationMethodLong {
     protected long sum;
     protected long numDataPoints;
+    private Long value;
 
     public void clear() {
         sum = 0;
         numDataPoints = 0;
+        value = null;
     }
 
     public void enter(Object object) {
         if (object == null) {
             return;
         }
-        numDataPoints++;
-        sum += (Long) object;
+        enterLong((Long) object);
     }
 
     public void leave(Object object) {
         if (object == null) {
             return;
         }
+        leaveLong((Long) object);
+    }
+
+    public void enterLong(long object) {
+        numDataPoints++;
+        sum += object;
+        value = null;
+    }
+
+    public void leaveLong(long object) {
         if (numDataPoints <= 1) {
             clear();
         } else {
             numDataPoints--;
-            sum -= (Long) object;
+            sum -= object;
+            value = null;
         }
     }
 
@@ -46,9 +58,10 @@ public class AggregatorSumLong implements AggregationMethod {
         if (numDataPoints == 0) {
             return null;
         }
-        return sum;
+        if (value == null) {
+            value = sum;
+        }
+        return value;
     }
 
 }
-
-
@@ -95,6 +95,9 @@ public class AggregationMethodFactoryMinMax implements AggregationMethodFactory
             if (!isHasDataWindows) {
                 return new AggregatorMinMaxEver(minMaxTypeEnum);
             }
+            if (parent.isFifoExpiry()) {
+                return new AggregatorMinMaxFifo(minMaxTypeEnum);
+            }
             return new AggregatorMinMax(minMaxTypeEnum);
         } else {
             if (!isHasDataWindows) {
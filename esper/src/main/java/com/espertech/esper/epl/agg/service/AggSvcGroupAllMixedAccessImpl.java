@@ -41,8 +41,7 @@ public class AggSvcGroupAllMixedAccessImpl extends AggregationServiceBaseUngroup
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, aggregators[i], aggregatorFactories[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[i].enter(columnResult);
+            AggregatorUtil.enter(evaluators[i], aggregators[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, aggregators[i]);
             }
@@ -72,8 +71,7 @@ public class AggSvcGroupAllMixedAccessImpl extends AggregationServiceBaseUngroup
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, aggregators[i], aggregatorFactories[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[i].leave(columnResult);
+            AggregatorUtil.leave(evaluators[i], aggregators[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, aggregators[i]);
             }
@@ -62,8 +62,7 @@ public class AggSvcGroupAllMixedAccessWTableImpl implements AggregationService {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, method, methodPair.getAggregationNode());
             }
-            Object columnResult = methodPair.getEvaluator().evaluate(eventsPerStream, true, exprEvaluatorContext);
-            method.enter(columnResult);
+            AggregatorUtil.enter(methodPair.getEvaluator(), method, eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, method);
             }
@@ -102,8 +101,7 @@ public class AggSvcGroupAllMixedAccessWTableImpl implements AggregationService {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, method, methodPair.getAggregationNode());
             }
-            Object columnResult = methodPair.getEvaluator().evaluate(eventsPerStream, false, exprEvaluatorContext);
-            method.leave(columnResult);
+            AggregatorUtil.leave(methodPair.getEvaluator(), method, eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, method);
             }
@@ -41,8 +41,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());
             }
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[j].enter(columnResult);
+            AggregatorUtil.enter(evaluators[j], aggregators[j], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, aggregators[j]);
             }
@@ -60,8 +59,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());
             }
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[j].leave(columnResult);
+            AggregatorUtil.leave(evaluators[j], aggregators[j], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, aggregators[j]);
             }
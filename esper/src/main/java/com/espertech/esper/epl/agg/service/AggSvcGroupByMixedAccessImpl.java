@@ -85,8 +85,7 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggMethods[i], aggregators[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggMethods[i].enter(columnResult);
+            AggregatorUtil.enter(evaluators[i], groupAggMethods[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggMethods[i]);
             }
@@ -130,8 +129,7 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggMethods[i], aggregators[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggMethods[i].leave(columnResult);
+            AggregatorUtil.leave(evaluators[i], groupAggMethods[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggMethods[i]);
             }
@@ -95,8 +95,7 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, groupAggregators[j], aggregators[j].getAggregationExpression());
             }
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[j].enter(columnResult);
+            AggregatorUtil.enter(evaluators[j], groupAggregators[j], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, groupAggregators[j]);
             }
@@ -144,8 +143,7 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, groupAggregators[j], aggregators[j].getAggregationExpression());
             }
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[j].leave(columnResult);
+            AggregatorUtil.leave(evaluators[j], groupAggregators[j], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, groupAggregators[j]);
             }
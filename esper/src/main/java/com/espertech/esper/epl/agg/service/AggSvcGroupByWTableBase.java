@@ -89,8 +89,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, method, methodPair.getAggregationNode());
             }
-            Object columnResult = methodPair.getEvaluator().evaluate(eventsPerStream, true, exprEvaluatorContext);
-            method.enter(columnResult);
+            AggregatorUtil.enter(methodPair.getEvaluator(), method, eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, method);
             }
@@ -130,8 +129,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, method, methodPair.getAggregationNode());
             }
-            Object columnResult = methodPair.getEvaluator().evaluate(eventsPerStream, false, exprEvaluatorContext);
-            method.leave(columnResult);
+            AggregatorUtil.leave(methodPair.getEvaluator(), method, eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, method);
             }
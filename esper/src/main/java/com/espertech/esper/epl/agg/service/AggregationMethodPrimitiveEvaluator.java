@@ -0,0 +1,165 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDouble;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodLong;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Evaluator for the parameter of a method aggregation that hands primitive values to aggregation methods
+ * accepting them, so that entering and leaving values does not box per event.
+ * <p>
+ * Evaluation falls back to the boxed evaluator when the primitive evaluator cannot determine a value
+ * or the aggregation method does not accept primitive values.
+ */
+public abstract class AggregationMethodPrimitiveEvaluator implements ExprEvaluator {
+    protected final ExprEvaluator evaluator;
+
+    /**
+     * Ctor.
+     *
+     * @param evaluator boxed evaluator
+     */
+    protected AggregationMethodPrimitiveEvaluator(ExprEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Apply the parameter value as entering aggregation.
+     *
+     * @param method               aggregation method
+     * @param eventsPerStream      events
+     * @param exprEvaluatorContext context for expression evaluation
+     */
+    public abstract void enter(AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext);
+
+    /**
+     * Apply the parameter value as leaving aggregation.
+     *
+     * @param method               aggregation method
+     * @param eventsPerStream      events
+     * @param exprEvaluatorContext context for expression evaluation
+     */
+    public abstract void leave(AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext);
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return evaluator.evaluate(eventsPerStream, isNewData, context);
+    }
+
+    public Class getType() {
+        return evaluator.getType();
+    }
+
+    /**
+     * Returns a primitive evaluator for the aggregation parameter if the aggregation has a single non-distinct and unfiltered
+     * parameter that is compilable and the aggregation method accepts primitive values, or the boxed evaluator otherwise.
+     *
+     * @param aggregateNode aggregation node
+     * @param evaluator     boxed evaluator for the aggregation parameter
+     * @return evaluator
+     */
+    public static ExprEvaluator make(ExprAggregateNode aggregateNode, ExprEvaluator evaluator) {
+        ExprNode[] params = aggregateNode.getPositionalParams();
+        if (aggregateNode.isDistinct() || params.length != 1 || params[0].getExprEvaluator() != evaluator) {
+            return evaluator;
+        }
+        if (aggregateNode instanceof ExprAggregateNodeBase && ((ExprAggregateNodeBase) aggregateNode).getOptionalFilter() != null) {
+            return evaluator;
+        }
+        Class type = JavaClassHelper.getBoxedType(evaluator.getType());
+        if (type == null || !JavaClassHelper.isNumeric(type) || JavaClassHelper.isBigNumberType(type)) {
+            return evaluator;
+        }
+
+        AggregationMethod prototype = aggregateNode.getFactory().make();
+        if (prototype instanceof AggregationMethodLong && (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class)) {
+            ExprEvaluatorLong longEvaluator = ExprNodeCompileUtil.getLongEvaluator(params[0]);
+            if (longEvaluator != null) {
+                return new LongValued(evaluator, longEvaluator);
+            }
+        }
+        if (prototype instanceof AggregationMethodDouble) {
+            ExprEvaluatorDouble doubleEvaluator = ExprNodeCompileUtil.getDoubleEvaluator(params[0]);
+            if (doubleEvaluator != null) {
+                return new DoubleValued(evaluator, doubleEvaluator);
+            }
+        }
+        return evaluator;
+    }
+
+    private static class DoubleValued extends AggregationMethodPrimitiveEvaluator {
+        private final ExprEvaluatorDouble doubleEvaluator;
+
+        DoubleValued(ExprEvaluator evaluator, ExprEvaluatorDouble doubleEvaluator) {
+            super(evaluator);
+            this.doubleEvaluator = doubleEvaluator;
+        }
+
+        public void enter(AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+            if (method instanceof AggregationMethodDouble) {
+                double value = doubleEvaluator.evaluateDouble(eventsPerStream, true, exprEvaluatorContext);
+                if (!Double.isNaN(value)) {
+                    ((AggregationMethodDouble) method).enterDouble(value);
+                    return;
+                }
+            }
+            method.enter(evaluator.evaluate(eventsPerStream, true, exprEvaluatorContext));
+        }
+
+        public void leave(AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+            if (method instanceof AggregationMethodDouble) {
+                double value = doubleEvaluator.evaluateDouble(eventsPerStream, false, exprEvaluatorContext);
+                if (!Double.isNaN(value)) {
+                    ((AggregationMethodDouble) method).leaveDouble(value);
+                    return;
+                }
+            }
+            method.leave(evaluator.evaluate(eventsPerStream, false, exprEvaluatorContext));
+        }
+    }
+
+    private static class LongValued extends AggregationMethodPrimitiveEvaluator {
+        private final ExprEvaluatorLong longEvaluator;
+
+        LongValued(ExprEvaluator evaluator, ExprEvaluatorLong longEvaluator) {
+            super(evaluator);
+            this.longEvaluator = longEvaluator;
+        }
+
+        public void enter(AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+            if (method instanceof AggregationMethodLong) {
+                long value = longEvaluator.evaluateLong(eventsPerStream, true, exprEvaluatorContext);
+                if (value != ExprEvaluatorLong.UNDETERMINED) {
+                    ((AggregationMethodLong) method).enterLong(value);
+                    return;
+                }
+            }
+            method.enter(evaluator.evaluate(eventsPerStream, true, exprEvaluatorContext));
+        }
+
+        public void leave(AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+            if (method instanceof AggregationMethodLong) {
+                long value = longEvaluator.evaluateLong(eventsPerStream, false, exprEvaluatorContext);
+                if (value != ExprEvaluatorLong.UNDETERMINED) {
+                    ((AggregationMethodLong) method).leaveLong(value);
+                    return;
+                }
+            }
+            method.leave(evaluator.evaluate(eventsPerStream, false, exprEvaluatorContext));
+        }
+    }
+}
@@ -194,7 +194,7 @@ public class AggregationServiceFactoryFactory {
             ExprAggregateNode aggregateNode = aggregation.getAggregationNode();
             if (!aggregateNode.getFactory().isAccessAggregation()) {
                 ExprEvaluator evaluator = aggregateNode.getFactory().getMethodAggregationEvaluator(typesPerStream.length > 1, typesPerStream);
-                methodAggEvaluatorsList.add(evaluator);
+                methodAggEvaluatorsList.add(AggregationMethodPrimitiveEvaluator.make(aggregateNode, evaluator));
             }
         }
 
@@ -14,5 +14,7 @@ public enum AggregationStateTypeWStream {
     DATAWINDOWACCESS_LINEAR,
     SORTED,
     MAXEVER,
-    MINEVER
+    MINEVER,
+    MAXFIFO,
+    MINFIFO
 }
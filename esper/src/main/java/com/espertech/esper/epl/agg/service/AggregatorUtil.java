@@ -10,9 +10,50 @@
  */
 package com.espertech.esper.epl.agg.service;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
 public class AggregatorUtil {
     public static boolean checkFilter(Object[] object) {
         Boolean pass = (Boolean) object[1];
         return pass != null && pass;
     }
+
+    /**
+     * Evaluate the aggregation parameter and apply the value as entering aggregation, without boxing
+     * if the evaluator is a {@link AggregationMethodPrimitiveEvaluator}.
+     *
+     * @param evaluator            parameter evaluator
+     * @param method               aggregation method
+     * @param eventsPerStream      events
+     * @param exprEvaluatorContext context for expression evaluation
+     */
+    public static void enter(ExprEvaluator evaluator, AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        if (evaluator instanceof AggregationMethodPrimitiveEvaluator) {
+            ((AggregationMethodPrimitiveEvaluator) evaluator).enter(method, eventsPerStream, exprEvaluatorContext);
+            return;
+        }
+        Object columnResult = evaluator.evaluate(eventsPerStream, true, exprEvaluatorContext);
+        method.enter(columnResult);
+    }
+
+    /**
+     * Evaluate the aggregation parameter and apply the value as leaving aggregation, without boxing
+     * if the evaluator is a {@link AggregationMethodPrimitiveEvaluator}.
+     *
+     * @param evaluator            parameter evaluator
+     * @param method               aggregation method
+     * @param eventsPerStream      events
+     * @param exprEvaluatorContext context for expression evaluation
+     */
+    public static void leave(ExprEvaluator evaluator, AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        if (evaluator instanceof AggregationMethodPrimitiveEvaluator) {
+            ((AggregationMethodPrimitiveEvaluator) evaluator).leave(method, eventsPerStream, exprEvaluatorContext);
+            return;
+        }
+        Object columnResult = evaluator.evaluate(eventsPerStream, false, exprEvaluatorContext);
+        method.leave(columnResult);
+    }
 }
@@ -0,0 +1,274 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch for estimating the number of distinct values.
+ * <p>
+ * The sketch starts out sparse, keeping a sorted array of the non-zero registers, and changes to dense
+ * registers in a byte array when the sparse array would use more memory. Sketches can be merged, and merging sketches
+ * of different precision reduces the result to the lower precision. Values cannot be removed.
+ * </p>
+ */
+public class HyperLogLog {
+    /**
+     * Default precision, providing a standard error of about 1.6 percent using 4096 registers.
+     */
+    public final static int DEFAULT_PRECISION = 12;
+
+    /**
+     * Minimum precision.
+     */
+    public final static int MIN_PRECISION = 4;
+
+    /**
+     * Maximum precision.
+     */
+    public final static int MAX_PRECISION = 16;
+
+    private int precision;
+    private int numRegisters;
+    private int maxSparse;
+    private int[] sparse;
+    private int sparseCount;
+    private byte[] registers;
+
+    /**
+     * Ctor.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param precision number of bits for selecting a register, between 4 and 16
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + " but was " + precision);
+        }
+        this.precision = precision;
+        this.numRegisters = 1 << precision;
+        this.maxSparse = numRegisters >> 2;
+        this.sparse = new int[4];
+    }
+
+    /**
+     * Add a value, ignoring null values.
+     *
+     * @param value to add
+     */
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        addHash(hash(value));
+    }
+
+    /**
+     * Add a 64-bit hash value.
+     *
+     * @param hash to add
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        update(index, rank);
+    }
+
+    /**
+     * Merge the registers of another sketch into this sketch.
+     * When the other sketch has a lower precision this sketch is first reduced to that precision,
+     * and when it has a higher precision its registers are reduced to the precision of this sketch.
+     *
+     * @param other sketch to merge
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision < precision) {
+            reducePrecision(other.precision);
+        }
+        int shift = other.precision - precision;
+        if (other.registers != null) {
+            for (int i = 0; i < other.numRegisters; i++) {
+                if (other.registers[i] != 0) {
+                    update(i, other.registers[i], shift);
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseCount; i++) {
+                update(other.sparse[i] >>> 8, other.sparse[i] & 0xff, shift);
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the sketch.
+     *
+     * @return copy
+     */
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     *
+     * @return estimate
+     */
+    public long estimate() {
+        if (registers == null) {
+            return linearCounting(numRegisters - sparseCount);
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < numRegisters; i++) {
+            sum += 1d / (1L << registers[i]);
+            if (registers[i] == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / numRegisters);
+        double estimate = alpha * numRegisters * numRegisters / sum;
+        if (estimate <= 2.5 * numRegisters && zeros > 0) {
+            return linearCounting(zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Clear the sketch.
+     */
+    public void clear() {
+        sparse = new int[4];
+        sparseCount = 0;
+        registers = null;
+    }
+
+    /**
+     * Returns the precision.
+     *
+     * @return precision
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns true when registers are kept sparse.
+     *
+     * @return sparse indicator
+     */
+    public boolean isSparse() {
+        return registers == null;
+    }
+
+    /**
+     * Returns a 64-bit hash of a value, using all bits of numbers and strings.
+     *
+     * @param value to hash
+     * @return hash
+     */
+    public static long hash(Object value) {
+        long bits;
+        if (value instanceof String) {
+            String text = (String) value;
+            bits = 0xcbf29ce484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                bits ^= text.charAt(i);
+                bits *= 0x100000001b3L;
+            }
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            bits = ((Number) value).longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            bits = Double.doubleToLongBits(((Number) value).doubleValue());
+        } else {
+            bits = value.hashCode();
+        }
+        // finalization mix of MurmurHash3
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        bits *= 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+        return bits;
+    }
+
+    private void update(int index, int rank, int shift) {
+        if (shift == 0) {
+            update(index, rank);
+            return;
+        }
+        // the low bits of the higher-precision index are the leading bits that the lower precision ranks
+        int low = index & ((1 << shift) - 1);
+        int reducedRank = low == 0 ? shift + rank : Integer.numberOfLeadingZeros(low) - (32 - shift) + 1;
+        update(index >>> shift, reducedRank);
+    }
+
+    private void reducePrecision(int lower) {
+        HyperLogLog reduced = new HyperLogLog(lower);
+        reduced.merge(this);
+        precision = reduced.precision;
+        numRegisters = reduced.numRegisters;
+        maxSparse = reduced.maxSparse;
+        sparse = reduced.sparse;
+        sparseCount = reduced.sparseCount;
+        registers = reduced.registers;
+    }
+
+    private void update(int index, int rank) {
+        if (registers != null) {
+            if (registers[index] < rank) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+
+        // sparse entries hold the index in the upper bits and the rank, which is never zero, in the lowest 8 bits
+        int position = -(Arrays.binarySearch(sparse, 0, sparseCount, index << 8) + 1);
+        if (position < sparseCount && sparse[position] >>> 8 == index) {
+            if ((sparse[position] & 0xff) < rank) {
+                sparse[position] = index << 8 | rank;
+            }
+            return;
+        }
+
+        if (sparseCount == maxSparse) {
+            toDense();
+            registers[index] = (byte) rank;
+            return;
+        }
+        if (sparseCount == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(maxSparse, sparse.length << 1));
+        }
+        System.arraycopy(sparse, position, sparse, position + 1, sparseCount - position);
+        sparse[position] = index << 8 | rank;
+        sparseCount++;
+    }
+
+    private void toDense() {
+        registers = new byte[numRegisters];
+        for (int i = 0; i < sparseCount; i++) {
+            registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xff);
+        }
+        sparse = null;
+        sparseCount = 0;
+    }
+
+    private long linearCounting(int zeros) {
+        return Math.round(numRegisters * Math.log((double) numRegisters / zeros));
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable approximate quantile sketch following the merging t-digest of Dunning and Ertl.
+ * <p>
+ * Values are buffered and periodically merged into a sorted list of centroids, each a mean and a weight. The size of
+ * centroids is limited by the compression parameter such that centroids near the tails are small, giving good
+ * accuracy for extreme quantiles. The number of centroids is bounded by the compression and not by the number of values.
+ * </p>
+ * <p>
+ * Removing a value takes the value out of the centroid closest to it, keeping the total weight exact while
+ * the quantiles remain approximate.
+ * </p>
+ */
+public class TDigest {
+    /**
+     * Default compression.
+     */
+    public final static double DEFAULT_COMPRESSION = 100;
+
+    private final static int INITIAL_BUFFER_SIZE = 8;
+
+    private final double compression;
+    private final int maxBufferSize;
+    private double[] means;
+    private double[] weights;
+    private int numCentroids;
+    private double[] buffer;
+    private int bufferCount;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Ctor.
+     */
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param compression compression, larger values provide more accuracy and use more memory
+     */
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10 but was " + compression);
+        }
+        this.compression = compression;
+        this.maxBufferSize = (int) (5 * compression);
+        this.means = new double[0];
+        this.weights = new double[0];
+        this.buffer = new double[INITIAL_BUFFER_SIZE];
+    }
+
+    /**
+     * Add a value. Not-a-number values are ignored.
+     *
+     * @param value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferCount == buffer.length) {
+            if (buffer.length < maxBufferSize) {
+                buffer = Arrays.copyOf(buffer, Math.min(maxBufferSize, buffer.length << 1));
+            } else {
+                compress();
+            }
+        }
+        buffer[bufferCount++] = value;
+        totalWeight++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Remove a value that was previously added. Not-a-number values are ignored.
+     *
+     * @param value to remove
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value) || totalWeight == 0) {
+            return;
+        }
+        totalWeight--;
+
+        // values still buffered are removed exactly
+        boolean removed = false;
+        for (int i = bufferCount - 1; i >= 0; i--) {
+            if (buffer[i] == value) {
+                buffer[i] = buffer[--bufferCount];
+                removed = true;
+                break;
+            }
+        }
+
+        if (!removed) {
+            if (numCentroids == 0) {
+                compress();
+            }
+            int index = Arrays.binarySearch(means, 0, numCentroids, value);
+            if (index < 0) {
+                int insert = -(index + 1);
+                if (insert == numCentroids || (insert > 0 && value - means[insert - 1] < means[insert] - value)) {
+                    index = insert - 1;
+                } else {
+                    index = insert;
+                }
+            }
+            if (weights[index] <= 1) {
+                System.arraycopy(means, index + 1, means, index, numCentroids - index - 1);
+                System.arraycopy(weights, index + 1, weights, index, numCentroids - index - 1);
+                numCentroids--;
+            } else {
+                // keep centroids sorted by bounding the adjusted mean by the neighbors
+                double mean = (means[index] * weights[index] - value) / (weights[index] - 1);
+                if (index > 0) {
+                    mean = Math.max(mean, means[index - 1]);
+                }
+                if (index < numCentroids - 1) {
+                    mean = Math.min(mean, means[index + 1]);
+                }
+                means[index] = mean;
+                weights[index]--;
+            }
+        }
+
+        if (numCentroids == 0 && bufferCount == 0) {
+            clear();
+            return;
+        }
+        if (value <= min || value >= max) {
+            recomputeExtremes();
+        }
+    }
+
+    /**
+     * Merge the values of another digest into this digest.
+     *
+     * @param other digest to merge
+     */
+    public void merge(TDigest other) {
+        if (other.totalWeight == 0) {
+            return;
+        }
+        compress();
+        other.compress();
+        mergeSorted(other.means, other.weights, other.numCentroids);
+        totalWeight += other.totalWeight;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the approximate value at the given quantile.
+     *
+     * @param quantile between zero and one
+     * @return value or null if there are no values
+     */
+    public Double quantile(double quantile) {
+        if (totalWeight == 0) {
+            return null;
+        }
+        compress();
+        if (numCentroids == 1) {
+            return means[0];
+        }
+        double index = quantile * totalWeight;
+
+        // lower tail, interpolate between the minimum and the first centroid
+        double halfFirst = weights[0] / 2;
+        if (index < halfFirst) {
+            return min + (means[0] - min) * index / halfFirst;
+        }
+
+        double weightSoFar = halfFirst;
+        for (int i = 0; i < numCentroids - 1; i++) {
+            double delta = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + delta > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - weightSoFar) / delta;
+            }
+            weightSoFar += delta;
+        }
+
+        // upper tail, interpolate between the last centroid and the maximum
+        double halfLast = weights[numCentroids - 1] / 2;
+        double fraction = Math.min(1, (index - weightSoFar) / halfLast);
+        return means[numCentroids - 1] + (max - means[numCentroids - 1]) * fraction;
+    }
+
+    /**
+     * Clear the digest.
+     */
+    public void clear() {
+        means = new double[0];
+        weights = new double[0];
+        numCentroids = 0;
+        buffer = new double[INITIAL_BUFFER_SIZE];
+        bufferCount = 0;
+        totalWeight = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return size
+     */
+    public long size() {
+        return (long) totalWeight;
+    }
+
+    /**
+     * Returns the number of centroids after merging buffered values.
+     *
+     * @return number of centroids
+     */
+    public int getNumCentroids() {
+        compress();
+        return numCentroids;
+    }
+
+    /**
+     * Returns the compression.
+     *
+     * @return compression
+     */
+    public double getCompression() {
+        return compression;
+    }
+
+    private void compress() {
+        if (bufferCount == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferCount);
+        int count = bufferCount;
+        bufferCount = 0;
+        mergeSorted(buffer, null, count);
+    }
+
+    private void mergeSorted(double[] otherMeans, double[] otherWeights, int otherCount) {
+        // merge-sort the centroids with the other values, a null weights array meaning unit weights
+        int count = numCentroids + otherCount;
+        double[] sortedMeans = new double[count];
+        double[] sortedWeights = new double[count];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < count; k++) {
+            if (j == otherCount || (i < numCentroids && means[i] <= otherMeans[j])) {
+                sortedMeans[k] = means[i];
+                sortedWeights[k] = weights[i];
+                i++;
+            } else {
+                sortedMeans[k] = otherMeans[j];
+                sortedWeights[k] = otherWeights == null ? 1 : otherWeights[j];
+                j++;
+            }
+        }
+
+        double total = 0;
+        for (int k = 0; k < count; k++) {
+            total += sortedWeights[k];
+        }
+
+        // combine neighbors as long as the scale function allows
+        int out = 0;
+        double weightSoFar = 0;
+        double kLower = scale(0);
+        for (int k = 1; k < count; k++) {
+            double proposed = sortedWeights[out] + sortedWeights[k];
+            if (scale((weightSoFar + proposed) / total) - kLower <= 1) {
+                sortedMeans[out] += (sortedMeans[k] - sortedMeans[out]) * sortedWeights[k] / proposed;
+                sortedWeights[out] = proposed;
+            } else {
+                weightSoFar += sortedWeights[out];
+                kLower = scale(weightSoFar / total);
+                out++;
+                sortedMeans[out] = sortedMeans[k];
+                sortedWeights[out] = sortedWeights[k];
+            }
+        }
+        numCentroids = count == 0 ? 0 : out + 1;
+        means = Arrays.copyOf(sortedMeans, numCentroids);
+        weights = Arrays.copyOf(sortedWeights, numCentroids);
+    }
+
+    private void recomputeExtremes() {
+        // the exact extremes are unknown after removal from a centroid, the centroid means and buffered values bound them
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        if (numCentroids > 0) {
+            min = means[0];
+            max = means[numCentroids - 1];
+        }
+        for (int i = 0; i < bufferCount; i++) {
+            min = Math.min(min, buffer[i]);
+            max = Math.max(max, buffer[i]);
+        }
+    }
+
+    private double scale(double quantile) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, quantile) - 1);
+    }
+}
@@ -202,6 +202,8 @@ public interface EngineImportService {
 
     public boolean isUdfCache();
 
+    public boolean isCompileExpressions();
+
     public boolean isSortUsingCollator();
 
     void addAggregationMultiFunction(ConfigurationPlugInAggregationMultiFunction desc) throws EngineImportException;
@@ -53,6 +53,7 @@ public class EngineImportServiceImpl implements EngineImportService {
     private final boolean allowExtendedAggregationFunc;
     private final boolean isUdfCache;
     private final boolean isDuckType;
+    private final boolean isCompileExpressions;
     private final boolean sortUsingCollator;
     private final MathContext optionalDefaultMathContext;
     private final TimeZone timeZone;
@@ -61,7 +62,7 @@ public class EngineImportServiceImpl implements EngineImportService {
     private final Map<String, Object> transientConfiguration;
     private final AggregationFactoryFactory aggregationFactoryFactory;
 
-    public EngineImportServiceImpl(boolean allowExtendedAggregationFunc, boolean isUdfCache, boolean isDuckType, boolean sortUsingCollator, MathContext optionalDefaultMathContext, TimeZone timeZone, TimeAbacus timeAbacus, ConfigurationEngineDefaults.ThreadingProfile threadingProfile, Map<String, Object> transientConfiguration, AggregationFactoryFactory aggregationFactoryFactory) {
+    public EngineImportServiceImpl(boolean allowExtendedAggregationFunc, boolean isUdfCache, boolean isDuckType, boolean isCompileExpressions, boolean sortUsingCollator, MathContext optionalDefaultMathContext, TimeZone timeZone, TimeAbacus timeAbacus, ConfigurationEngineDefaults.ThreadingProfile threadingProfile, Map<String, Object> transientConfiguration, AggregationFactoryFactory aggregationFactoryFactory) {
         imports = new ArrayList<String>();
         annotationImports = new ArrayList<String>(2);
         aggregationFunctions = new HashMap<String, ConfigurationPlugInAggregationFunction>();
@@ -71,6 +72,7 @@ public class EngineImportServiceImpl implements EngineImportService {
         this.allowExtendedAggregationFunc = allowExtendedAggregationFunc;
         this.isUdfCache = isUdfCache;
         this.isDuckType = isDuckType;
+        this.isCompileExpressions = isCompileExpressions;
         this.sortUsingCollator = sortUsingCollator;
         this.optionalDefaultMathContext = optionalDefaultMathContext;
         this.timeZone = timeZone;
@@ -88,6 +90,10 @@ public class EngineImportServiceImpl implements EngineImportService {
         return isDuckType;
     }
 
+    public boolean isCompileExpressions() {
+        return isCompileExpressions;
+    }
+
     public ConfigurationMethodRef getConfigurationMethodRef(String className) {
         return methodInvocationRef.get(className);
     }
@@ -437,6 +443,24 @@ public class EngineImportServiceImpl implements EngineImportService {
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("percentile")) {
+            return new ExprPercentileNode(isDistinct, false, false);
+        }
+        if (nameLowerCase.equals("percentiles")) {
+            return new ExprPercentileNode(isDistinct, true, false);
+        }
+        if (nameLowerCase.equals("approxpercentile")) {
+            return new ExprPercentileNode(isDistinct, false, true);
+        }
+        if (nameLowerCase.equals("approxpercentiles")) {
+            return new ExprPercentileNode(isDistinct, true, true);
+        }
+        if (nameLowerCase.equals("approxcountdistinct")) {
+            return new ExprApproxCountDistinctNode(isDistinct, false);
+        }
+        if (nameLowerCase.equals("approxcountdistinctsketch")) {
+            return new ExprApproxCountDistinctNode(isDistinct, true);
+        }
         if (nameLowerCase.equals("maxby")) {
             return new ExprAggMultiFunctionSortedMinMaxByNode(true, false, false);
         }
@@ -116,6 +116,13 @@ public interface StreamTypeService {
      */
     public boolean[] getIStreamOnly();
 
+    /**
+     * Returns true for each stream with a data window that removes events in the same order they arrived.
+     *
+     * @return true for first-in first-out windowed streams.
+     */
+    public boolean[] getFifoExpiry();
+
     public int getStreamNumForStreamName(String streamWildcard);
 
     public boolean isOnDemandStreams();
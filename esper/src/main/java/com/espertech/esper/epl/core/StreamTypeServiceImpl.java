@@ -30,6 +30,7 @@ public class StreamTypeServiceImpl implements StreamTypeService {
     private final EventType[] eventTypes;
     private final String[] streamNames;
     private final boolean[] isIStreamOnly;
+    private boolean[] isFifoExpiry;
     private final String engineURIQualifier;
     private boolean isStreamZeroUnambigous;
     private boolean requireStreamNames;
@@ -71,6 +72,7 @@ public class StreamTypeServiceImpl implements StreamTypeService {
         this.eventTypes = eventTypes;
         this.streamNames = streamNames;
         this.isIStreamOnly = isIStreamOnly;
+        this.isFifoExpiry = new boolean[eventTypes.length];
         this.isOnDemandStreams = isOnDemandStreams;
 
         if (engineURI == null || EPServiceProviderSPI.DEFAULT_ENGINE_URI.equals(engineURI)) {
@@ -99,6 +101,7 @@ public class StreamTypeServiceImpl implements StreamTypeService {
         this.requireStreamNames = requireStreamNames;
         this.engineURIQualifier = engineURI;
         this.isIStreamOnly = new boolean[namesAndTypes.size()];
+        this.isFifoExpiry = new boolean[namesAndTypes.size()];
         eventTypes = new EventType[namesAndTypes.size()];
         streamNames = new String[namesAndTypes.size()];
         int count = 0;
@@ -142,6 +145,14 @@ public class StreamTypeServiceImpl implements StreamTypeService {
         return isIStreamOnly;
     }
 
+    public boolean[] getFifoExpiry() {
+        return isFifoExpiry;
+    }
+
+    public void setFifoExpiry(boolean[] isFifoExpiry) {
+        this.isFifoExpiry = isFifoExpiry;
+    }
+
     public int getStreamNumForStreamName(String streamWildcard) {
         for (int i = 0; i < streamNames.length; i++) {
             if (streamWildcard.equals(streamNames[i])) {
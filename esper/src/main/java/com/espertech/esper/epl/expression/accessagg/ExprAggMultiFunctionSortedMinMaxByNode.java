@@ -118,9 +118,15 @@ public class ExprAggMultiFunctionSortedMinMaxByNode extends ExprAggregateNodeBas
 
         Pair<ExprNode[], boolean[]> criteriaExpressions = getCriteriaExpressions();
 
+        // use an order-based state when events leave the data window in the same order they arrived
+        boolean fifo = !ever && !sortedwin && optionalFilter == null &&
+                ExprNodeUtility.isFifoExpiryForAggregations(validationContext.getStreamTypeService(), validationContext.isResettingAggregations());
+
         AggregationStateTypeWStream type;
         if (ever) {
             type = max ? AggregationStateTypeWStream.MAXEVER : AggregationStateTypeWStream.MINEVER;
+        } else if (fifo) {
+            type = max ? AggregationStateTypeWStream.MAXFIFO : AggregationStateTypeWStream.MINFIFO;
         } else {
             type = AggregationStateTypeWStream.SORTED;
         }
@@ -130,7 +136,7 @@ public class ExprAggMultiFunctionSortedMinMaxByNode extends ExprAggregateNodeBas
         SortedAggregationStateFactoryFactory stateFactoryFactory = new
                 SortedAggregationStateFactoryFactory(validationContext.getEngineImportService(), validationContext.getStatementExtensionSvcContext(),
                 ExprNodeUtility.getEvaluators(criteriaExpressions.getFirst()),
-                criteriaExpressions.getSecond(), ever, streamNum, this, optionalFilterEval);
+                criteriaExpressions.getSecond(), ever, fifo, streamNum, this, optionalFilterEval);
 
         return new ExprAggMultiFunctionSortedMinMaxByNodeFactory(this, accessor, accessorResultType, containedType, stateKey, stateFactoryFactory, AggregationAgentDefault.INSTANCE);
     }
@@ -192,7 +198,7 @@ public class ExprAggMultiFunctionSortedMinMaxByNode extends ExprAggregateNodeBas
         SortedAggregationStateFactoryFactory stateFactoryFactory = new
                 SortedAggregationStateFactoryFactory(validationContext.getEngineImportService(), validationContext.getStatementExtensionSvcContext(),
                 ExprNodeUtility.getEvaluators(criteriaExpressions.getFirst()),
-                criteriaExpressions.getSecond(), ever, 0, this, null);
+                criteriaExpressions.getSecond(), ever, false, 0, this, null);
         return new ExprAggMultiFunctionSortedMinMaxByNodeFactory(this, accessor, accessorResultType, containedType, null, stateFactoryFactory, null);
     }
 
@@ -27,16 +27,18 @@ public class SortedAggregationStateFactoryFactory {
     private final ExprEvaluator[] evaluators;
     private final boolean[] sortDescending;
     private final boolean ever;
+    private final boolean fifo;
     private final int streamNum;
     private final ExprAggMultiFunctionSortedMinMaxByNode parent;
     private final ExprEvaluator optionalFilter;
 
-    public SortedAggregationStateFactoryFactory(EngineImportService engineImportService, StatementExtensionSvcContext statementExtensionSvcContext, ExprEvaluator[] evaluators, boolean[] sortDescending, boolean ever, int streamNum, ExprAggMultiFunctionSortedMinMaxByNode parent, ExprEvaluator optionalFilter) {
+    public SortedAggregationStateFactoryFactory(EngineImportService engineImportService, StatementExtensionSvcContext statementExtensionSvcContext, ExprEvaluator[] evaluators, boolean[] sortDescending, boolean ever, boolean fifo, int streamNum, ExprAggMultiFunctionSortedMinMaxByNode parent, ExprEvaluator optionalFilter) {
         this.engineImportService = engineImportService;
         this.statementExtensionSvcContext = statementExtensionSvcContext;
         this.evaluators = evaluators;
         this.sortDescending = sortDescending;
         this.ever = ever;
+        this.fifo = fifo;
         this.streamNum = streamNum;
         this.parent = parent;
         this.optionalFilter = optionalFilter;
@@ -51,6 +53,11 @@ public class SortedAggregationStateFactoryFactory {
             return engineImportService.getAggregationFactoryFactory().makeMinMaxEver(statementExtensionSvcContext, parent, spec);
         }
 
+        if (fifo) {
+            AggregationStateMinMaxByEverSpec spec = new AggregationStateMinMaxByEverSpec(streamNum, evaluators, parent.isMax(), comparator, null, optionalFilter);
+            return engineImportService.getAggregationFactoryFactory().makeMinMaxFifo(statementExtensionSvcContext, parent, spec);
+        }
+
         AggregationStateSortedSpec spec = new AggregationStateSortedSpec(streamNum, evaluators, comparator, null, optionalFilter);
         return engineImportService.getAggregationFactoryFactory().makeSorted(statementExtensionSvcContext, parent, spec);
     }
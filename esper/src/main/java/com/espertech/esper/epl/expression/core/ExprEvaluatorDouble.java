@@ -0,0 +1,31 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Evaluator for compiled expressions that returns a primitive double value.
+ * <p>
+ * A result of {@link Double#NaN} represents a null value or a value that the caller must
+ * obtain through the boxed {@link ExprEvaluator#evaluate} method.
+ */
+public interface ExprEvaluatorDouble {
+    /**
+     * Evaluate event tuple and return the result as a primitive.
+     *
+     * @param eventsPerStream - event tuple
+     * @param isNewData       - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context         context for expression evaluation
+     * @return result, or NaN for null or undetermined
+     */
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context);
+}
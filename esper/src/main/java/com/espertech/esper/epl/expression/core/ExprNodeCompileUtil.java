@@ -0,0 +1,259 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.event.EventPropertyGetterPrimitive;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Helper for compiled expression evaluation, provides primitive evaluators for the operands of arithmetic
+ * and relational nodes.
+ * <p>
+ * Operands are compilable when they are free of side effects and cheap to evaluate a second time,
+ * since a compiled node that cannot determine a result re-evaluates using boxed evaluation.
+ */
+public class ExprNodeCompileUtil {
+
+    /**
+     * Returns a double-value evaluator for the node, or null if the node is not compilable.
+     *
+     * @param node validated node
+     * @return evaluator or null
+     */
+    public static ExprEvaluatorDouble getDoubleEvaluator(ExprNode node) {
+        ExprEvaluator evaluator = node.getExprEvaluator();
+        if (evaluator instanceof ExprEvaluatorDouble) {
+            return (ExprEvaluatorDouble) evaluator;
+        }
+        if (evaluator instanceof ExprEvaluatorLong) {
+            return new LongAsDouble((ExprEvaluatorLong) evaluator);
+        }
+        if (!isNumericOperand(evaluator)) {
+            return null;
+        }
+        if (node instanceof ExprConstantNodeImpl) {
+            Object value = ((ExprConstantNodeImpl) node).getConstantValue(null);
+            return new DoubleConstant(value == null ? Double.NaN : ((Number) value).doubleValue());
+        }
+        ExprIdentNodeEvaluator identEvaluator = getIdentEvaluator(node);
+        if (identEvaluator == null) {
+            return null;
+        }
+        if (identEvaluator.getClass() == ExprIdentNodeEvaluatorImpl.class) {
+            if (identEvaluator.getGetter() instanceof EventPropertyGetterPrimitive) {
+                return new DoublePrimitiveGetter(identEvaluator.getStreamNum(), (EventPropertyGetterPrimitive) identEvaluator.getGetter());
+            }
+            return new DoubleGetter(identEvaluator.getStreamNum(), identEvaluator.getGetter());
+        }
+        return new DoubleIdent(identEvaluator);
+    }
+
+    /**
+     * Returns a long-value evaluator for the node, or null if the node is not compilable.
+     *
+     * @param node validated node
+     * @return evaluator or null
+     */
+    public static ExprEvaluatorLong getLongEvaluator(ExprNode node) {
+        ExprEvaluator evaluator = node.getExprEvaluator();
+        if (evaluator instanceof ExprEvaluatorLong) {
+            return (ExprEvaluatorLong) evaluator;
+        }
+        if (!isNumericOperand(evaluator)) {
+            return null;
+        }
+        if (node instanceof ExprConstantNodeImpl) {
+            Object value = ((ExprConstantNodeImpl) node).getConstantValue(null);
+            return new LongConstant(value == null ? ExprEvaluatorLong.UNDETERMINED : ((Number) value).longValue());
+        }
+        ExprIdentNodeEvaluator identEvaluator = getIdentEvaluator(node);
+        if (identEvaluator == null) {
+            return null;
+        }
+        if (identEvaluator.getClass() == ExprIdentNodeEvaluatorImpl.class) {
+            if (identEvaluator.getGetter() instanceof EventPropertyGetterPrimitive) {
+                return new LongPrimitiveGetter(identEvaluator.getStreamNum(), (EventPropertyGetterPrimitive) identEvaluator.getGetter());
+            }
+            return new LongGetter(identEvaluator.getStreamNum(), identEvaluator.getGetter());
+        }
+        return new LongIdent(identEvaluator);
+    }
+
+    private static boolean isNumericOperand(ExprEvaluator evaluator) {
+        Class type = evaluator.getType();
+        return type != null && JavaClassHelper.isNumeric(type) && !JavaClassHelper.isBigNumberType(type);
+    }
+
+    private static ExprIdentNodeEvaluator getIdentEvaluator(ExprNode node) {
+        if (!(node instanceof ExprIdentNode)) {
+            return null;
+        }
+        ExprIdentNodeEvaluator identEvaluator = ((ExprIdentNode) node).getExprEvaluatorIdent();
+        if (identEvaluator == null || identEvaluator.isContextEvaluated()) {
+            return null;
+        }
+        return identEvaluator;
+    }
+
+    private static class DoubleConstant implements ExprEvaluatorDouble {
+        private final double value;
+
+        DoubleConstant(double value) {
+            this.value = value;
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            return value;
+        }
+    }
+
+    private static class DoubleGetter implements ExprEvaluatorDouble {
+        private final int streamNum;
+        private final EventPropertyGetter getter;
+
+        DoubleGetter(int streamNum, EventPropertyGetter getter) {
+            this.streamNum = streamNum;
+            this.getter = getter;
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            EventBean theEvent = eventsPerStream[streamNum];
+            if (theEvent == null) {
+                return Double.NaN;
+            }
+            Object value = getter.get(theEvent);
+            if (value == null) {
+                return Double.NaN;
+            }
+            return ((Number) value).doubleValue();
+        }
+    }
+
+    private static class DoublePrimitiveGetter implements ExprEvaluatorDouble {
+        private final int streamNum;
+        private final EventPropertyGetterPrimitive getter;
+
+        DoublePrimitiveGetter(int streamNum, EventPropertyGetterPrimitive getter) {
+            this.streamNum = streamNum;
+            this.getter = getter;
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            EventBean theEvent = eventsPerStream[streamNum];
+            if (theEvent == null) {
+                return Double.NaN;
+            }
+            return getter.getDouble(theEvent);
+        }
+    }
+
+    private static class DoubleIdent implements ExprEvaluatorDouble {
+        private final ExprIdentNodeEvaluator evaluator;
+
+        DoubleIdent(ExprIdentNodeEvaluator evaluator) {
+            this.evaluator = evaluator;
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            Object value = evaluator.evaluate(eventsPerStream, isNewData, context);
+            if (value == null) {
+                return Double.NaN;
+            }
+            return ((Number) value).doubleValue();
+        }
+    }
+
+    private static class LongAsDouble implements ExprEvaluatorDouble {
+        private final ExprEvaluatorLong evaluator;
+
+        LongAsDouble(ExprEvaluatorLong evaluator) {
+            this.evaluator = evaluator;
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            long value = evaluator.evaluateLong(eventsPerStream, isNewData, context);
+            if (value == ExprEvaluatorLong.UNDETERMINED) {
+                return Double.NaN;
+            }
+            return value;
+        }
+    }
+
+    private static class LongConstant implements ExprEvaluatorLong {
+        private final long value;
+
+        LongConstant(long value) {
+            this.value = value;
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            return value;
+        }
+    }
+
+    private static class LongGetter implements ExprEvaluatorLong {
+        private final int streamNum;
+        private final EventPropertyGetter getter;
+
+        LongGetter(int streamNum, EventPropertyGetter getter) {
+            this.streamNum = streamNum;
+            this.getter = getter;
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            EventBean theEvent = eventsPerStream[streamNum];
+            if (theEvent == null) {
+                return UNDETERMINED;
+            }
+            Object value = getter.get(theEvent);
+            if (value == null) {
+                return UNDETERMINED;
+            }
+            return ((Number) value).longValue();
+        }
+    }
+
+    private static class LongPrimitiveGetter implements ExprEvaluatorLong {
+        private final int streamNum;
+        private final EventPropertyGetterPrimitive getter;
+
+        LongPrimitiveGetter(int streamNum, EventPropertyGetterPrimitive getter) {
+            this.streamNum = streamNum;
+            this.getter = getter;
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            EventBean theEvent = eventsPerStream[streamNum];
+            if (theEvent == null) {
+                return UNDETERMINED;
+            }
+            return getter.getLong(theEvent);
+        }
+    }
+
+    private static class LongIdent implements ExprEvaluatorLong {
+        private final ExprIdentNodeEvaluator evaluator;
+
+        LongIdent(ExprIdentNodeEvaluator evaluator) {
+            this.evaluator = evaluator;
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            Object value = evaluator.evaluate(eventsPerStream, isNewData, context);
+            if (value == null) {
+                return UNDETERMINED;
+            }
+            return ((Number) value).longValue();
+        }
+    }
+}
@@ -1258,6 +1258,21 @@ public class ExprNodeUtility {
         return hasDataWindows;
     }
 
+    /**
+     * Returns true if aggregations receive the events of a single stream with a data window that removes events
+     * in the same order the events were added.
+     *
+     * @param streamTypeService  streams
+     * @param unidirectionalJoin indicator unidirection join
+     * @return indicator
+     */
+    public static boolean isFifoExpiryForAggregations(StreamTypeService streamTypeService, boolean unidirectionalJoin) {
+        if (unidirectionalJoin || streamTypeService.getEventTypes().length != 1) {
+            return false;
+        }
+        return streamTypeService.getFifoExpiry()[0];
+    }
+
 
     /**
      * Apply a filter expression.
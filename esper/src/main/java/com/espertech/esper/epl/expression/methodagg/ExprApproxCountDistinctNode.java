@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.approx.HyperLogLog;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the approxCountDistinct(...) and approxCountDistinctSketch(...) aggregate functions is an expression tree.
+ */
+public class ExprApproxCountDistinctNode extends ExprAggregateNodeBase {
+    private static final long serialVersionUID = 6135483306457913371L;
+
+    private final boolean sketch;
+
+    /**
+     * Ctor.
+     *
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     * @param sketch   - true for returning the sketch rather than the estimate
+     */
+    public ExprApproxCountDistinctNode(boolean distinct, boolean sketch) {
+        super(distinct);
+        this.sketch = sketch;
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException {
+        if (positionalParams.length == 0 || positionalParams.length > 2) {
+            throw makeExceptionExpectedParamNum(1, 2);
+        }
+        if (isDistinct) {
+            throw new ExprValidationException("Aggregation function '" + getAggregationFunctionName() + "' does not allow distinct");
+        }
+
+        int precision = HyperLogLog.DEFAULT_PRECISION;
+        if (positionalParams.length == 2) {
+            String message = "The " + getAggregationFunctionName() + " aggregation function requires a constant precision value between " +
+                    HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION;
+            ExprNode node = positionalParams[1];
+            if (!node.isConstantResult() || !JavaClassHelper.isNumeric(node.getExprEvaluator().getType())) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) node.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || num.intValue() < HyperLogLog.MIN_PRECISION || num.intValue() > HyperLogLog.MAX_PRECISION) {
+                throw new ExprValidationException(message);
+            }
+            precision = num.intValue();
+        }
+
+        if (optionalFilter != null) {
+            validateFilter(optionalFilter.getExprEvaluator());
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxCountDistinct(validationContext.getStatementExtensionSvcContext(), this, positionalParams[0].getExprEvaluator().getType(), precision);
+    }
+
+    public String getAggregationFunctionName() {
+        return sketch ? "approxCountDistinctSketch" : "approxCountDistinct";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node) {
+        return node instanceof ExprApproxCountDistinctNode && ((ExprApproxCountDistinctNode) node).sketch == sketch;
+    }
+
+    /**
+     * Returns true for approxCountDistinctSketch(...) returning the sketch.
+     *
+     * @return indicator
+     */
+    public boolean isSketch() {
+        return sketch;
+    }
+
+    protected boolean isFilterExpressionAsLastParameter() {
+        return false;
+    }
+}
@@ -30,6 +30,7 @@ public class ExprMinMaxAggrNode extends ExprAggregateNodeBase {
     private final boolean isFFunc;
     private final boolean isEver;
     private boolean hasFilter;
+    private boolean fifoExpiry;
 
     public ExprMinMaxAggrNode(boolean distinct, MinMaxTypeEnum minMaxTypeEnum, boolean isFFunc, boolean isEver) {
         super(distinct);
@@ -63,6 +64,9 @@ public class ExprMinMaxAggrNode extends ExprAggregateNodeBase {
         }
 
         hasFilter = positionalParams.length == 2;
+        fifoExpiry = hasDataWindows && !hasFilter && !isDistinct() &&
+                validationContext.getExprEvaluatorContext().getStatementType() != StatementType.CREATE_TABLE &&
+                ExprNodeUtility.isFifoExpiryForAggregations(validationContext.getStreamTypeService(), validationContext.isResettingAggregations());
         return validationContext.getEngineImportService().getAggregationFactoryFactory().makeMinMax(validationContext.getStatementExtensionSvcContext(), this, child.getExprEvaluator().getType(), hasDataWindows);
     }
 
@@ -88,6 +92,15 @@ public class ExprMinMaxAggrNode extends ExprAggregateNodeBase {
         return hasFilter;
     }
 
+    /**
+     * Returns true if the aggregated values leave in the same order they entered.
+     *
+     * @return indicator for first-in first-out expiry
+     */
+    public boolean isFifoExpiry() {
+        return fifoExpiry;
+    }
+
     public String getAggregationFunctionName() {
         return minMaxTypeEnum.getExpressionText();
     }
@@ -0,0 +1,115 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the percentile(...) and percentiles(...) aggregate function is an expression tree,
+ * as well as the approxPercentile(...) and approxPercentiles(...) approximate aggregate functions.
+ */
+public class ExprPercentileNode extends ExprAggregateNodeBase {
+    private static final long serialVersionUID = -3291466311392837515L;
+
+    private final boolean multiple;
+    private final boolean approximate;
+
+    /**
+     * Ctor.
+     *
+     * @param distinct    - flag indicating unique or non-unique value aggregation
+     * @param multiple    - true for percentiles(...) returning an array of values
+     * @param approximate - true for approximate percentiles computed by a t-digest
+     */
+    public ExprPercentileNode(boolean distinct, boolean multiple, boolean approximate) {
+        super(distinct);
+        this.multiple = multiple;
+        this.approximate = approximate;
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException {
+        String message = multiple ?
+                "The " + getAggregationFunctionName() + " aggregation function requires an expression returning aggregation values and one or more constant percentage values between 0 and 100" :
+                "The " + getAggregationFunctionName() + " aggregation function requires two parameters, an expression returning aggregation values and a constant percentage value between 0 and 100";
+        if (positionalParams.length < 2 || (!multiple && positionalParams.length != 2)) {
+            throw new ExprValidationException(message);
+        }
+
+        Class childType = positionalParams[0].getExprEvaluator().getType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+
+        double[] percents = new double[positionalParams.length - 1];
+        for (int i = 1; i < positionalParams.length; i++) {
+            ExprNode node = positionalParams[i];
+            if (!node.isConstantResult() || !JavaClassHelper.isNumeric(node.getExprEvaluator().getType())) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) node.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || !(num.doubleValue() >= 0 && num.doubleValue() <= 100)) {
+                throw new ExprValidationException(message);
+            }
+            percents[i - 1] = num.doubleValue();
+        }
+
+        if (optionalFilter != null) {
+            validateFilter(optionalFilter.getExprEvaluator());
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makePercentile(validationContext.getStatementExtensionSvcContext(), this, childType, percents);
+    }
+
+    public String getAggregationFunctionName() {
+        if (approximate) {
+            return multiple ? "approxPercentiles" : "approxPercentile";
+        }
+        return multiple ? "percentiles" : "percentile";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node) {
+        if (!(node instanceof ExprPercentileNode)) {
+            return false;
+        }
+        ExprPercentileNode other = (ExprPercentileNode) node;
+        return other.multiple == multiple && other.approximate == approximate;
+    }
+
+    /**
+     * Returns true for percentiles(...) returning an array of values.
+     *
+     * @return indicator
+     */
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    /**
+     * Returns true for approximate percentiles computed by a t-digest.
+     *
+     * @return indicator
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    protected boolean isFilterExpressionAsLastParameter() {
+        return false;
+    }
+}
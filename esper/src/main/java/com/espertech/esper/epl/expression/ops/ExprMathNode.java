@@ -31,6 +31,7 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
     private Class resultType;
     private transient ExprEvaluator evaluatorLeft;
     private transient ExprEvaluator evaluatorRight;
+    private transient ExprEvaluator compiled;
     private static final long serialVersionUID = 6479683588602862158L;
 
     /**
@@ -47,7 +48,7 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
     }
 
     public ExprEvaluator getExprEvaluator() {
-        return this;
+        return compiled == null ? this : compiled;
     }
 
     public ExprNode validate(ExprValidationContext validationContext) throws ExprValidationException {
@@ -90,6 +91,11 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
         }
 
         arithTypeEnumComputer = mathArithTypeEnum.getComputer(resultType, childTypeOne, childTypeTwo, isIntegerDivision, isDivisionByZeroReturnsNull, validationContext.getEngineImportService().getDefaultMathContext());
+
+        compiled = null;
+        if (!InstrumentationHelper.ENABLED && validationContext.getEngineImportService() != null && validationContext.getEngineImportService().isCompileExpressions()) {
+            compiled = compile();
+        }
         return null;
     }
 
@@ -97,6 +103,23 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
         return resultType;
     }
 
+    private ExprEvaluator compile() {
+        if (resultType == Double.class) {
+            ExprEvaluatorDouble left = ExprNodeCompileUtil.getDoubleEvaluator(this.getChildNodes()[0]);
+            ExprEvaluatorDouble right = ExprNodeCompileUtil.getDoubleEvaluator(this.getChildNodes()[1]);
+            if (left != null && right != null) {
+                return ExprMathNodeCompiledDouble.make(mathArithTypeEnum, this, left, right, isDivisionByZeroReturnsNull);
+            }
+        } else if (resultType == Long.class) {
+            ExprEvaluatorLong left = ExprNodeCompileUtil.getLongEvaluator(this.getChildNodes()[0]);
+            ExprEvaluatorLong right = ExprNodeCompileUtil.getLongEvaluator(this.getChildNodes()[1]);
+            if (left != null && right != null) {
+                return ExprMathNodeCompiledLong.make(mathArithTypeEnum, this, left, right);
+            }
+        }
+        return null;
+    }
+
     public boolean isConstantResult() {
         return false;
     }
@@ -0,0 +1,146 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.ops;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorDouble;
+import com.espertech.esper.type.MathArithTypeEnum;
+
+/**
+ * Compiled evaluation for arithmetic nodes returning double, computes on primitive operands
+ * and boxes only the final result.
+ * <p>
+ * When the primitive result is NaN, which is the case for null operands, the boxed node evaluation determines the result.
+ */
+public abstract class ExprMathNodeCompiledDouble implements ExprEvaluator, ExprEvaluatorDouble {
+    protected final ExprEvaluator node;
+    protected final ExprEvaluatorDouble left;
+    protected final ExprEvaluatorDouble right;
+
+    /**
+     * Ctor.
+     *
+     * @param node  boxed evaluation of the math node
+     * @param left  left operand
+     * @param right right operand
+     */
+    protected ExprMathNodeCompiledDouble(ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right) {
+        this.node = node;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Returns the compiled evaluator for the arithmetic type.
+     *
+     * @param mathArithTypeEnum           arithmetic type
+     * @param node                        boxed evaluation of the math node
+     * @param left                        left operand
+     * @param right                       right operand
+     * @param isDivisionByZeroReturnsNull - false for division-by-zero returns infinity, true for null
+     * @return evaluator
+     */
+    public static ExprMathNodeCompiledDouble make(MathArithTypeEnum mathArithTypeEnum, ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right, boolean isDivisionByZeroReturnsNull) {
+        switch (mathArithTypeEnum) {
+            case ADD:
+                return new Add(node, left, right);
+            case SUBTRACT:
+                return new Subtract(node, left, right);
+            case MULTIPLY:
+                return new Multiply(node, left, right);
+            case DIVIDE:
+                return isDivisionByZeroReturnsNull ? new DivideZeroNull(node, left, right) : new Divide(node, left, right);
+            case MODULO:
+                return new Modulo(node, left, right);
+            default:
+                throw new IllegalArgumentException("Unrecognized math type " + mathArithTypeEnum);
+        }
+    }
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        double result = evaluateDouble(eventsPerStream, isNewData, context);
+        if (Double.isNaN(result)) {
+            return node.evaluate(eventsPerStream, isNewData, context);
+        }
+        return result;
+    }
+
+    public Class getType() {
+        return Double.class;
+    }
+
+    private static class Add extends ExprMathNodeCompiledDouble {
+        Add(ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right) {
+            super(node, left, right);
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            return left.evaluateDouble(eventsPerStream, isNewData, context) + right.evaluateDouble(eventsPerStream, isNewData, context);
+        }
+    }
+
+    private static class Subtract extends ExprMathNodeCompiledDouble {
+        Subtract(ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right) {
+            super(node, left, right);
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            return left.evaluateDouble(eventsPerStream, isNewData, context) - right.evaluateDouble(eventsPerStream, isNewData, context);
+        }
+    }
+
+    private static class Multiply extends ExprMathNodeCompiledDouble {
+        Multiply(ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right) {
+            super(node, left, right);
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            return left.evaluateDouble(eventsPerStream, isNewData, context) * right.evaluateDouble(eventsPerStream, isNewData, context);
+        }
+    }
+
+    private static class Divide extends ExprMathNodeCompiledDouble {
+        Divide(ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right) {
+            super(node, left, right);
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            return left.evaluateDouble(eventsPerStream, isNewData, context) / right.evaluateDouble(eventsPerStream, isNewData, context);
+        }
+    }
+
+    private static class DivideZeroNull extends ExprMathNodeCompiledDouble {
+        DivideZeroNull(ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right) {
+            super(node, left, right);
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            double dividend = left.evaluateDouble(eventsPerStream, isNewData, context);
+            double divisor = right.evaluateDouble(eventsPerStream, isNewData, context);
+            if (divisor == 0) {
+                return Double.NaN;
+            }
+            return dividend / divisor;
+        }
+    }
+
+    private static class Modulo extends ExprMathNodeCompiledDouble {
+        Modulo(ExprEvaluator node, ExprEvaluatorDouble left, ExprEvaluatorDouble right) {
+            super(node, left, right);
+        }
+
+        public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            return left.evaluateDouble(eventsPerStream, isNewData, context) % right.evaluateDouble(eventsPerStream, isNewData, context);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.ops;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorLong;
+import com.espertech.esper.type.MathArithTypeEnum;
+
+/**
+ * Compiled evaluation for arithmetic nodes returning long, computes on primitive operands
+ * and boxes only the final result.
+ * <p>
+ * When the primitive result is {@link ExprEvaluatorLong#UNDETERMINED}, which is the case for null operands,
+ * the boxed node evaluation determines the result.
+ */
+public abstract class ExprMathNodeCompiledLong implements ExprEvaluator, ExprEvaluatorLong {
+    protected final ExprEvaluator node;
+    protected final ExprEvaluatorLong left;
+    protected final ExprEvaluatorLong right;
+
+    /**
+     * Ctor.
+     *
+     * @param node  boxed evaluation of the math node
+     * @param left  left operand
+     * @param right right operand
+     */
+    protected ExprMathNodeCompiledLong(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+        this.node = node;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Returns the compiled evaluator for the arithmetic type.
+     *
+     * @param mathArithTypeEnum arithmetic type
+     * @param node              boxed evaluation of the math node
+     * @param left              left operand
+     * @param right             right operand
+     * @return evaluator
+     */
+    public static ExprMathNodeCompiledLong make(MathArithTypeEnum mathArithTypeEnum, ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+        switch (mathArithTypeEnum) {
+            case ADD:
+                return new Add(node, left, right);
+            case SUBTRACT:
+                return new Subtract(node, left, right);
+            case MULTIPLY:
+                return new Multiply(node, left, right);
+            case DIVIDE:
+                return new Divide(node, left, right);
+            case MODULO:
+                return new Modulo(node, left, right);
+            default:
+                throw new IllegalArgumentException("Unrecognized math type " + mathArithTypeEnum);
+        }
+    }
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        long result = evaluateLong(eventsPerStream, isNewData, context);
+        if (result == UNDETERMINED) {
+            return node.evaluate(eventsPerStream, isNewData, context);
+        }
+        return result;
+    }
+
+    public Class getType() {
+        return Long.class;
+    }
+
+    private static class Add extends ExprMathNodeCompiledLong {
+        Add(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            long valueLeft = left.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueLeft == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            long valueRight = right.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueRight == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            return valueLeft + valueRight;
+        }
+    }
+
+    private static class Subtract extends ExprMathNodeCompiledLong {
+        Subtract(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            long valueLeft = left.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueLeft == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            long valueRight = right.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueRight == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            return valueLeft - valueRight;
+        }
+    }
+
+    private static class Multiply extends ExprMathNodeCompiledLong {
+        Multiply(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            long valueLeft = left.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueLeft == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            long valueRight = right.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueRight == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            return valueLeft * valueRight;
+        }
+    }
+
+    private static class Divide extends ExprMathNodeCompiledLong {
+        Divide(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            long valueLeft = left.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueLeft == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            long valueRight = right.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueRight == UNDETERMINED || valueRight == 0) {
+                return UNDETERMINED;
+            }
+            return valueLeft / valueRight;
+        }
+    }
+
+    private static class Modulo extends ExprMathNodeCompiledLong {
+        Modulo(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+            long valueLeft = left.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueLeft == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            long valueRight = right.evaluateLong(eventsPerStream, isNewData, context);
+            if (valueRight == UNDETERMINED) {
+                return UNDETERMINED;
+            }
+            return valueLeft % valueRight;
+        }
+    }
+}
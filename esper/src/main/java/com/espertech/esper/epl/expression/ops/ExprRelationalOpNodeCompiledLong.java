@@ -0,0 +1,131 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.ops;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorLong;
+import com.espertech.esper.type.RelationalOpEnum;
+
+/**
+ * Compiled evaluation for relational nodes that compare long values, compares primitive operands
+ * without boxing.
+ * <p>
+ * When an operand is {@link ExprEvaluatorLong#UNDETERMINED}, the boxed node evaluation determines the result.
+ */
+public abstract class ExprRelationalOpNodeCompiledLong implements ExprEvaluator {
+    protected final ExprEvaluator node;
+    protected final ExprEvaluatorLong left;
+    protected final ExprEvaluatorLong right;
+
+    /**
+     * Ctor.
+     *
+     * @param node  boxed evaluation of the relational node
+     * @param left  left operand
+     * @param right right operand
+     */
+    protected ExprRelationalOpNodeCompiledLong(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+        this.node = node;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Returns the compiled evaluator for the relational operator.
+     *
+     * @param relationalOpEnum relational operator
+     * @param node             boxed evaluation of the relational node
+     * @param left             left operand
+     * @param right            right operand
+     * @return evaluator
+     */
+    public static ExprRelationalOpNodeCompiledLong make(RelationalOpEnum relationalOpEnum, ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+        switch (relationalOpEnum) {
+            case GT:
+                return new GT(node, left, right);
+            case GE:
+                return new GE(node, left, right);
+            case LT:
+                return new LT(node, left, right);
+            case LE:
+                return new LE(node, left, right);
+            default:
+                throw new IllegalArgumentException("Unrecognized relational operator " + relationalOpEnum);
+        }
+    }
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        long valueLeft = left.evaluateLong(eventsPerStream, isNewData, context);
+        if (valueLeft == ExprEvaluatorLong.UNDETERMINED) {
+            return node.evaluate(eventsPerStream, isNewData, context);
+        }
+        long valueRight = right.evaluateLong(eventsPerStream, isNewData, context);
+        if (valueRight == ExprEvaluatorLong.UNDETERMINED) {
+            return node.evaluate(eventsPerStream, isNewData, context);
+        }
+        return compare(valueLeft, valueRight) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    public Class getType() {
+        return Boolean.class;
+    }
+
+    /**
+     * Compare operands.
+     *
+     * @param valueLeft  left value
+     * @param valueRight right value
+     * @return comparison result
+     */
+    protected abstract boolean compare(long valueLeft, long valueRight);
+
+    private static class GT extends ExprRelationalOpNodeCompiledLong {
+        GT(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        protected boolean compare(long valueLeft, long valueRight) {
+            return valueLeft > valueRight;
+        }
+    }
+
+    private static class GE extends ExprRelationalOpNodeCompiledLong {
+        GE(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        protected boolean compare(long valueLeft, long valueRight) {
+            return valueLeft >= valueRight;
+        }
+    }
+
+    private static class LT extends ExprRelationalOpNodeCompiledLong {
+        LT(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        protected boolean compare(long valueLeft, long valueRight) {
+            return valueLeft < valueRight;
+        }
+    }
+
+    private static class LE extends ExprRelationalOpNodeCompiledLong {
+        LE(ExprEvaluator node, ExprEvaluatorLong left, ExprEvaluatorLong right) {
+            super(node, left, right);
+        }
+
+        protected boolean compare(long valueLeft, long valueRight) {
+            return valueLeft <= valueRight;
+        }
+    }
+}
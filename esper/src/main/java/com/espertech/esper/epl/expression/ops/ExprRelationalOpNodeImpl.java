@@ -25,6 +25,7 @@ public class ExprRelationalOpNodeImpl extends ExprNodeBase implements ExprEvalua
     private final RelationalOpEnum relationalOpEnum;
     private transient RelationalOpEnum.Computer computer;
     private transient ExprEvaluator[] evaluators;
+    private transient ExprEvaluator compiled;
     private static final long serialVersionUID = -6170161542681634598L;
 
     /**
@@ -37,7 +38,7 @@ public class ExprRelationalOpNodeImpl extends ExprNodeBase implements ExprEvalua
     }
 
     public ExprEvaluator getExprEvaluator() {
-        return this;
+        return compiled == null ? this : compiled;
     }
 
     public boolean isConstantResult() {
@@ -80,6 +81,28 @@ public class ExprRelationalOpNodeImpl extends ExprNodeBase implements ExprEvalua
         Class compareType = JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo);
 
         computer = relationalOpEnum.getComputer(compareType, typeOne, typeTwo);
+
+        compiled = null;
+        if (!InstrumentationHelper.ENABLED && validationContext.getEngineImportService() != null && validationContext.getEngineImportService().isCompileExpressions()) {
+            compiled = compile(compareType);
+        }
+        return null;
+    }
+
+    private ExprEvaluator compile(Class compareType) {
+        if (compareType == Double.class || compareType == Float.class) {
+            ExprEvaluatorDouble left = ExprNodeCompileUtil.getDoubleEvaluator(this.getChildNodes()[0]);
+            ExprEvaluatorDouble right = ExprNodeCompileUtil.getDoubleEvaluator(this.getChildNodes()[1]);
+            if (left != null && right != null) {
+                return ExprRelationalOpNodeCompiledDouble.make(relationalOpEnum, this, left, right);
+            }
+        } else if (compareType == Long.class || compareType == Integer.class || compareType == Short.class || compareType == Byte.class) {
+            ExprEvaluatorLong left = ExprNodeCompileUtil.getLongEvaluator(this.getChildNodes()[0]);
+            ExprEvaluatorLong right = ExprNodeCompileUtil.getLongEvaluator(this.getChildNodes()[1]);
+            if (left != null && right != null) {
+                return ExprRelationalOpNodeCompiledLong.make(relationalOpEnum, this, left, right);
+            }
+        }
         return null;
     }
 
@@ -0,0 +1,45 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.visitor;
+
+import com.espertech.esper.epl.declexpr.ExprDeclaredNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.dot.ExprDotEvalStaticMethod;
+import com.espertech.esper.epl.expression.dot.ExprDotNodeImpl;
+import com.espertech.esper.epl.expression.funcs.ExprPlugInSingleRowNode;
+import com.espertech.esper.epl.script.ExprNodeScript;
+
+/**
+ * Visitor that finds scripts, plug-in single-row functions and static method invocations,
+ * including those within the body of expression declarations, for expressions that call application code.
+ */
+public class ExprNodeUserCodeFinderVisitor implements ExprNodeVisitor {
+    private boolean hasUserCode;
+
+    public boolean isVisit(ExprNode exprNode) {
+        return !hasUserCode;
+    }
+
+    public void visit(ExprNode exprNode) {
+        if (exprNode instanceof ExprNodeScript || exprNode instanceof ExprPlugInSingleRowNode) {
+            hasUserCode = true;
+        } else if (exprNode instanceof ExprDotNodeImpl && ((ExprDotNodeImpl) exprNode).getExprEvaluator() instanceof ExprDotEvalStaticMethod) {
+            hasUserCode = true;
+        } else if (exprNode instanceof ExprDeclaredNodeImpl && exprNode.getChildNodes().length != 0) {
+            // the body of an expression declaration with parameters is not otherwise visited
+            ((ExprDeclaredNodeImpl) exprNode).getExpressionBodyCopy().accept(this);
+        }
+    }
+
+    public boolean isHasUserCode() {
+        return hasUserCode;
+    }
+}
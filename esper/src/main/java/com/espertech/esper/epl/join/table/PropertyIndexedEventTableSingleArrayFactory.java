@@ -29,6 +29,7 @@ public class PropertyIndexedEventTableSingleArrayFactory implements EventTableFa
     protected final String optionalIndexName;
 
     protected final EventPropertyGetter[] propertyGetters;
+    protected final Class[] propertyTypes;
 
     public PropertyIndexedEventTableSingleArrayFactory(int streamNum, EventType eventType, String[] propertyNames, boolean unique, String optionalIndexName) {
         this.streamNum = streamNum;
@@ -38,23 +39,18 @@ public class PropertyIndexedEventTableSingleArrayFactory implements EventTableFa
 
         // Init getters
         propertyGetters = new EventPropertyGetter[propertyNames.length];
+        propertyTypes = new Class[propertyNames.length];
         for (int i = 0; i < propertyNames.length; i++) {
             propertyGetters[i] = EventBeanUtility.getAssertPropertyGetter(eventType, propertyNames[i]);
+            propertyTypes[i] = eventType.getPropertyType(propertyNames[i]);
         }
     }
 
     public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
         EventTable[] tables = new EventTable[propertyGetters.length];
-        if (unique) {
-            for (int i = 0; i < tables.length; i++) {
-                EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[]{propertyNames[i]}, EventTableOrganizationType.HASH);
-                tables[i] = new PropertyIndexedEventTableSingleUnique(propertyGetters[i], organization);
-            }
-        } else {
-            for (int i = 0; i < tables.length; i++) {
-                EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[]{propertyNames[i]}, EventTableOrganizationType.HASH);
-                tables[i] = new PropertyIndexedEventTableSingleUnadorned(propertyGetters[i], organization);
-            }
+        for (int i = 0; i < tables.length; i++) {
+            EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[]{propertyNames[i]}, EventTableOrganizationType.HASH);
+            tables[i] = PropertyIndexedEventTableSingleFactory.makeTable(propertyGetters[i], propertyTypes[i], unique, organization);
         }
         return tables;
     }
@@ -10,12 +10,18 @@
  */
 package com.espertech.esper.epl.join.table;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.event.EventBeanUtility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Index factory that organizes events by the event property values into hash buckets. Based on a HashMap
  * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
@@ -27,6 +33,7 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
     protected final String optionalIndexName;
 
     protected final EventPropertyGetter propertyGetter;
+    protected final Class propertyType;
 
     public PropertyIndexedEventTableSingleFactory(int streamNum, EventType eventType, String propertyName, boolean unique, String optionalIndexName) {
         this.streamNum = streamNum;
@@ -36,15 +43,31 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
 
         // Init getters
         propertyGetter = EventBeanUtility.getAssertPropertyGetter(eventType, propertyName);
+        propertyType = eventType.getPropertyType(propertyName);
     }
 
     public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
         EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[]{propertyName}, EventTableOrganizationType.HASH);
+        return new EventTable[]{makeTable(propertyGetter, propertyType, unique, organization)};
+    }
+
+    /**
+     * Makes a single-property hash index, keeping long, int and double keys unboxed.
+     *
+     * @param propertyGetter getter
+     * @param propertyType   property type
+     * @param unique         unique indicator
+     * @param organization   organization
+     * @return index
+     */
+    protected static EventTable makeTable(EventPropertyGetter propertyGetter, Class propertyType, boolean unique, EventTableOrganization organization) {
+        boolean primitiveKey = PrimitiveKeyHashMap.isSupportedKeyType(propertyType);
         if (unique) {
-            return new EventTable[]{new PropertyIndexedEventTableSingleUnique(propertyGetter, organization)};
-        } else {
-            return new EventTable[]{new PropertyIndexedEventTableSingleUnadorned(propertyGetter, organization)};
+            Map<Object, EventBean> map = primitiveKey ? new PrimitiveKeyHashMap<EventBean>(propertyType) : new HashMap<Object, EventBean>();
+            return new PropertyIndexedEventTableSingleUnique(propertyGetter, organization, map, true);
         }
+        Map<Object, Set<EventBean>> map = primitiveKey ? new PrimitiveKeyHashMap<Set<EventBean>>(propertyType) : new HashMap<Object, Set<EventBean>>();
+        return new PropertyIndexedEventTableSingleUnadorned(propertyGetter, organization, map);
     }
 
     public Class getEventTableClass() {
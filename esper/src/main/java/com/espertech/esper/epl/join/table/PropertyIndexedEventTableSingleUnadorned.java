@@ -23,8 +23,12 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
     protected final Map<Object, Set<EventBean>> propertyIndex;
 
     public PropertyIndexedEventTableSingleUnadorned(EventPropertyGetter propertyGetter, EventTableOrganization organization) {
+        this(propertyGetter, organization, new HashMap<Object, Set<EventBean>>());
+    }
+
+    public PropertyIndexedEventTableSingleUnadorned(EventPropertyGetter propertyGetter, EventTableOrganization organization, Map<Object, Set<EventBean>> propertyIndex) {
         super(propertyGetter, organization);
-        propertyIndex = new HashMap<Object, Set<EventBean>>();
+        this.propertyIndex = propertyIndex;
     }
 
     /**
@@ -30,9 +30,13 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
     }
 
     public PropertyIndexedEventTableSingleUnique(EventPropertyGetter propertyGetter, EventTableOrganization organization, Map<Object, EventBean> propertyIndex) {
+        this(propertyGetter, organization, propertyIndex, false);
+    }
+
+    public PropertyIndexedEventTableSingleUnique(EventPropertyGetter propertyGetter, EventTableOrganization organization, Map<Object, EventBean> propertyIndex, boolean canClear) {
         super(propertyGetter, organization);
         this.propertyIndex = propertyIndex;
-        canClear = false;
+        this.canClear = canClear;
     }
 
     public Set<EventBean> lookup(Object key) {
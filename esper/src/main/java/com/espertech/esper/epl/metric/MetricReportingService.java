@@ -56,6 +56,14 @@ public interface MetricReportingService {
      */
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream);
 
+    /**
+     * Account for the queue depth of asynchronous delivery.
+     *
+     * @param handle     statement handle
+     * @param queueDepth number of results queued for delivery
+     */
+    public void accountAsyncDeliveryQueueDepth(StatementMetricHandle handle, int queueDepth);
+
     /**
      * Returns for a new statement a handle for later accounting.
      *
@@ -164,6 +164,10 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         stmtMetricRepository.accountOutput(handle, numIStream, numRStream);
     }
 
+    public void accountAsyncDeliveryQueueDepth(StatementMetricHandle handle, int queueDepth) {
+        stmtMetricRepository.accountAsyncDeliveryQueueDepth(handle, queueDepth);
+    }
+
     public StatementMetricHandle getStatementHandle(int statementId, String statementName) {
         if (!MetricReportingPath.isMetricsEnabled) {
             return null;
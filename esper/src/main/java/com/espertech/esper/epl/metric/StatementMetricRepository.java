@@ -145,6 +145,23 @@ public class StatementMetricRepository {
         }
     }
 
+    /**
+     * Account queue depth of asynchronous delivery.
+     *
+     * @param handle     statement handle
+     * @param queueDepth number of queued results
+     */
+    public void accountAsyncDeliveryQueueDepth(StatementMetricHandle handle, int queueDepth) {
+        StatementMetricArray array = groupMetrics[handle.getGroupNum()];
+        array.getRwLock().acquireReadLock();
+        try {
+            StatementMetric metric = array.getAddMetric(handle.getIndex());
+            metric.addAsyncDeliveryQueueDepth(queueDepth);
+        } finally {
+            array.getRwLock().releaseReadLock();
+        }
+    }
+
     /**
      * Report for a given statement group.
      *
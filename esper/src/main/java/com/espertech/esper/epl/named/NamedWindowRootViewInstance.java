@@ -21,6 +21,7 @@ import com.espertech.esper.epl.join.table.EventTableUtil;
 import com.espertech.esper.epl.lookup.*;
 import com.espertech.esper.epl.spec.CreateIndexItem;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.event.offheap.OffHeapRowStore;
 import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.ViewSupport;
@@ -40,8 +41,10 @@ public class NamedWindowRootViewInstance extends ViewSupport {
 
     private final EventTableIndexRepository indexRepository;
     private final Map<SubordWMatchExprLookupStrategy, EventTable[]> tablePerMultiLookup;
+    private final OffHeapRowStore offHeapRowStore;
 
     private Iterable<EventBean> dataWindowContents;
+    private EventBean[] offHeapPending;
 
     public NamedWindowRootViewInstance(NamedWindowRootView rootView, AgentInstanceContext agentInstanceContext, EventTableIndexMetadata eventTableIndexMetadata) {
         this.rootView = rootView;
@@ -56,6 +59,7 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         }
 
         this.tablePerMultiLookup = new HashMap<SubordWMatchExprLookupStrategy, EventTable[]>();
+        this.offHeapRowStore = rootView.isOffHeap() ? new OffHeapRowStore() : null;
     }
 
     public AgentInstanceContext getAgentInstanceContext() {
@@ -66,6 +70,15 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         return indexRepository;
     }
 
+    /**
+     * Returns the store holding rows off-heap, or null if the named window keeps rows on-heap.
+     *
+     * @return off-heap store
+     */
+    public OffHeapRowStore getOffHeapRowStore() {
+        return offHeapRowStore;
+    }
+
     public IndexMultiKey[] getIndexes() {
         return indexRepository.getIndexDescriptors();
     }
@@ -95,6 +108,9 @@ public class NamedWindowRootViewInstance extends ViewSupport {
             for (EventTable table : indexRepository.getTables()) {
                 table.remove(oldData);
             }
+            if (offHeapRowStore != null) {
+                offHeapRowStore.release(oldData);
+            }
         }
     }
 
@@ -104,6 +120,9 @@ public class NamedWindowRootViewInstance extends ViewSupport {
      * @param newData new event
      */
     public void addNewData(EventBean[] newData) {
+        if (offHeapPending != null) {
+            retainOffHeap(newData);
+        }
         if (rootView.getRevisionProcessor() == null) {
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables()) {
@@ -117,6 +136,14 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         if (rootView.getRevisionProcessor() != null) {
             rootView.getRevisionProcessor().onUpdate(newData, oldData, this, indexRepository);
         } else {
+            // Keep new rows off-heap, the data window and indexes hold the compact off-heap events
+            if (offHeapRowStore != null) {
+                newData = offHeapRowStore.add(newData);
+                if (newData != null && !rootView.isChildBatching()) {
+                    offHeapPending = newData.clone();
+                }
+            }
+
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables()) {
                 if (rootView.isChildBatching()) {
@@ -126,6 +153,32 @@ public class NamedWindowRootViewInstance extends ViewSupport {
 
             // Update child views
             updateChildren(newData, oldData);
+
+            if (offHeapRowStore != null) {
+                // Release rows that the data window did not retain, such as for first-unique
+                if (offHeapPending != null) {
+                    offHeapRowStore.release(offHeapPending);
+                    offHeapPending = null;
+                }
+                // Release removed rows, as a batching data window does not post rows removed from the current batch
+                offHeapRowStore.release(oldData);
+            }
+        }
+    }
+
+    private void retainOffHeap(EventBean[] newData) {
+        // new data is usually posted in the order received, so continue searching after the last match
+        EventBean[] pending = offHeapPending;
+        int start = 0;
+        for (EventBean theEvent : newData) {
+            for (int i = 0; i < pending.length; i++) {
+                int index = (start + i) % pending.length;
+                if (pending[index] == theEvent) {
+                    pending[index] = null;
+                    start = index + 1;
+                    break;
+                }
+            }
         }
     }
 
@@ -44,6 +44,7 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
 
     private volatile Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumersInContext;  // handles as copy-on-write
     private volatile long numberOfEvents;
+    private boolean loading;
 
     public NamedWindowTailViewInstance(NamedWindowRootViewInstance rootViewInstance, NamedWindowTailView tailView, NamedWindowProcessor namedWindowProcessor, AgentInstanceContext agentInstanceContext) {
         this.rootViewInstance = rootViewInstance;
@@ -69,6 +70,11 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             numberOfEvents += newData.length;
         }
 
+        // Events loaded from a snapshot are neither output nor dispatched to consuming statements
+        if (loading) {
+            return;
+        }
+
         // Post to child views, only if there are listeners or subscribers
         if (tailView.getStatementResultService().isMakeNatural() || tailView.getStatementResultService().isMakeSynthetic()) {
             updateChildren(newData, oldData);
@@ -78,6 +84,16 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
         tailView.addDispatches(latchFactory, consumersInContext, delta, agentInstanceContext);
     }
 
+    /**
+     * Sets loading mode, to be used under the agent instance write lock. While loading, events entering the named window
+     * are indexed but are not posted to listeners and subscribers and are not dispatched to consuming statements.
+     *
+     * @param loading indicator
+     */
+    public void setLoading(boolean loading) {
+        this.loading = loading;
+    }
+
     public NamedWindowConsumerView addConsumer(NamedWindowConsumerDesc consumerDesc, boolean isSubselect) {
         NamedWindowConsumerCallback consumerCallback = new NamedWindowConsumerCallback() {
             public Iterator<EventBean> getIterator() {
@@ -1661,6 +1661,12 @@ public class StatementSpecMapper {
                     return node;
                 }
 
+                // maybe declared expression alias
+                ExprDeclaredNodeImpl declared = ExprDeclaredHelper.getExistsDeclaredExpr(prop.getPropertyName(), Collections.<ExprNode>emptyList(), mapContext.getExpressionDeclarations().values(), mapContext.getExprDeclaredService(), mapContext.getContextDescriptor());
+                if (declared != null) {
+                    return declared;
+                }
+
                 return new ExprIdentNodeImpl(prop.getPropertyName());
             }
 
@@ -2170,6 +2176,11 @@ public class StatementSpecMapper {
             return new PlugInProjectionExpression("nth", false);
         } else if (expr instanceof ExprLeavingAggNode) {
             return new PlugInProjectionExpression("leaving", false);
+        } else if (expr instanceof ExprApproxCountDistinctNode) {
+            return new PlugInProjectionExpression(((ExprApproxCountDistinctNode) expr).getAggregationFunctionName(), false);
+        } else if (expr instanceof ExprPercentileNode) {
+            ExprPercentileNode node = (ExprPercentileNode) expr;
+            return new PlugInProjectionExpression(node.getAggregationFunctionName(), node.isDistinct());
         } else if (expr instanceof ExprAggCountMinSketchNode) {
             ExprAggCountMinSketchNode cmsNode = (ExprAggCountMinSketchNode) expr;
             return new PlugInProjectionExpression(cmsNode.getAggregationFunctionName(), false);
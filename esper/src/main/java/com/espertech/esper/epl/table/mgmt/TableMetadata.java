@@ -43,6 +43,7 @@ public class TableMetadata {
     private final ObjectArrayEventType publicEventType;
     private final TableMetadataInternalEventToPublic eventToPublic;
     private final boolean queryPlanLogging;
+    private final boolean offHeap;
 
     private final Map<String, List<TableUpdateStrategyReceiverDesc>> stmtNameToUpdateStrategyReceivers = new HashMap<String, List<TableUpdateStrategyReceiverDesc>>();
     private final EventTableIndexMetadata eventTableIndexMetadataRepo = new EventTableIndexMetadata();
@@ -51,7 +52,7 @@ public class TableMetadata {
     private TableMetadataContext tableMetadataContext;
     private TableRowKeyFactory tableRowKeyFactory;
 
-    public TableMetadata(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory rowFactory, int numberMethodAggregations, StatementContext createTableStatementContext, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging)
+    public TableMetadata(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory rowFactory, int numberMethodAggregations, StatementContext createTableStatementContext, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging, boolean offHeap)
             throws ExprValidationException {
         this.tableName = tableName;
         this.eplExpression = eplExpression;
@@ -65,6 +66,7 @@ public class TableMetadata {
         this.publicEventType = publicEventType;
         this.eventToPublic = eventToPublic;
         this.queryPlanLogging = queryPlanLogging;
+        this.offHeap = offHeap;
 
         if (keyTypes.length > 0) {
             Pair<int[], IndexMultiKey> pair = TableServiceUtil.getIndexMultikeyForKeys(tableColumns, internalEventType);
@@ -105,6 +107,15 @@ public class TableMetadata {
         return queryPlanLogging;
     }
 
+    /**
+     * Returns true if the table keeps the plain columns of its rows off-heap.
+     *
+     * @return indicator
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
     public Set<String> getUniqueKeyProps() {
         Set<String> keys = new LinkedHashSet<String>();
         for (Map.Entry<String, TableMetadataColumn> entry : tableColumns.entrySet()) {
@@ -25,6 +25,7 @@ import com.espertech.esper.epl.lookup.EventTableIndexRepositoryEntry;
 import com.espertech.esper.epl.lookup.IndexMultiKey;
 import com.espertech.esper.epl.spec.CreateIndexDesc;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.event.offheap.OffHeapRowStore;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.CollectionUtil;
 
@@ -34,9 +35,11 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
 
     private final Map<Object, ObjectArrayBackedEventBean> rows = new HashMap<Object, ObjectArrayBackedEventBean>();
     private final IndexMultiKey primaryIndexKey;
+    private final OffHeapRowStore offHeapRowStore;
 
     public TableStateInstanceGroupedImpl(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext) {
         super(tableMetadata, agentInstanceContext);
+        this.offHeapRowStore = tableMetadata.isOffHeap() ? new OffHeapRowStore() : null;
 
         List<EventPropertyGetter> indexGetters = new ArrayList<EventPropertyGetter>();
         List<String> keyNames = new ArrayList<String>();
@@ -76,17 +79,37 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
         return rows;
     }
 
+    /**
+     * Returns the store holding rows off-heap, or null if the table keeps rows on-heap.
+     *
+     * @return off-heap store
+     */
+    public OffHeapRowStore getOffHeapRowStore() {
+        return offHeapRowStore;
+    }
+
     public void addEvent(EventBean theEvent) {
+        addRow(theEvent);
+    }
+
+    private EventBean addRow(EventBean row) {
         if (InstrumentationHelper.ENABLED) {
-            InstrumentationHelper.get().qTableAddEvent(theEvent);
+            InstrumentationHelper.get().qTableAddEvent(row);
+        }
+        if (offHeapRowStore != null && row instanceof ObjectArrayBackedEventBean) {
+            row = offHeapRowStore.addTableRow((ObjectArrayBackedEventBean) row);
         }
         try {
             for (EventTable table : indexRepository.getTables()) {
-                table.add(theEvent);
+                table.add(row);
             }
+            return row;
         } catch (EPException ex) {
             for (EventTable table : indexRepository.getTables()) {
-                table.remove(theEvent);
+                table.remove(row);
+            }
+            if (offHeapRowStore != null) {
+                offHeapRowStore.release(row);
             }
             throw ex;
         } finally {
@@ -103,6 +126,9 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
         for (EventTable table : indexRepository.getTables()) {
             table.remove(matchingEvent);
         }
+        if (offHeapRowStore != null) {
+            offHeapRowStore.release(matchingEvent);
+        }
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aTableDeleteEvent();
         }
@@ -141,6 +167,9 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
     }
 
     public void clearInstance() {
+        if (offHeapRowStore != null) {
+            offHeapRowStore.release(rows.values());
+        }
         rows.clear();
         for (EventTable table : indexRepository.getTables()) {
             table.destroy();
@@ -157,8 +186,7 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
             return bean;
         }
         ObjectArrayBackedEventBean row = tableMetadata.getRowFactory().makeOA(exprEvaluatorContext.getAgentInstanceId(), groupByKey, null, getAggregationServicePassThru());
-        addEvent(row);
-        return row;
+        return (ObjectArrayBackedEventBean) addRow(row);
     }
 
     public int getRowCount() {
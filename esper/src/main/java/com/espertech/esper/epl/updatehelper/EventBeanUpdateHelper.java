@@ -13,6 +13,7 @@ package com.espertech.esper.epl.updatehelper;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.event.EventBeanCopyMethod;
+import com.espertech.esper.event.offheap.OffHeapEventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,7 +51,18 @@ public class EventBeanUpdateHelper {
             InstrumentationHelper.get().qInfraUpdate(matchingEvent, eventsPerStream, updateItems.length, false);
         }
 
-        updateInternal(eventsPerStream, exprEvaluatorContext, matchingEvent);
+        if (matchingEvent instanceof OffHeapEventBean) {
+            // change the row in place on-heap and write it back off-heap once
+            OffHeapEventBean offHeap = (OffHeapEventBean) matchingEvent;
+            offHeap.pin();
+            try {
+                updateInternal(eventsPerStream, exprEvaluatorContext, matchingEvent);
+            } finally {
+                offHeap.unpin();
+            }
+        } else {
+            updateInternal(eventsPerStream, exprEvaluatorContext, matchingEvent);
+        }
 
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aInfraUpdate(matchingEvent);
@@ -13,6 +13,7 @@ package com.espertech.esper.epl.variable;
 import com.espertech.esper.core.service.StatementExtensionSvcContext;
 import com.espertech.esper.epl.core.EngineImportService;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -106,6 +107,13 @@ public interface VariableService {
      */
     public Map<String, VariableReader> getVariableReadersNonCP();
 
+    /**
+     * Returns the names of all variables including context-partitioned variables, for thread-safe iteration.
+     *
+     * @return variable names
+     */
+    public Collection<String> getVariableNames();
+
     public VariableMetaData getVariableMetaData(String variableName);
 
     /**
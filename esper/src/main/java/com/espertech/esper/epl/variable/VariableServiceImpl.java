@@ -598,6 +598,10 @@ public class VariableServiceImpl implements VariableService {
         return result;
     }
 
+    public synchronized Collection<String> getVariableNames() {
+        return new ArrayList<String>(variables.keySet());
+    }
+
     public ConcurrentHashMap<Integer, VariableReader> getReadersPerCP(String variableName) {
         VariableMetaData metaData = variables.get(variableName);
         return variableVersionsPerCP.get(metaData.getVariableNumber());
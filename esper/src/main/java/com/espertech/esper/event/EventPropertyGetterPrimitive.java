@@ -0,0 +1,38 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+
+/**
+ * Getter for a property of a primitive numeric type that can return the value without boxing.
+ */
+public interface EventPropertyGetterPrimitive extends EventPropertyGetter {
+    /**
+     * Returns the property value as a long, narrowing floating-point values.
+     *
+     * @param eventBean to evaluate
+     * @return value
+     * @throws PropertyAccessException if access failed
+     */
+    public long getLong(EventBean eventBean) throws PropertyAccessException;
+
+    /**
+     * Returns the property value as a double.
+     *
+     * @param eventBean to evaluate
+     * @return value
+     * @throws PropertyAccessException if access failed
+     */
+    public double getDouble(EventBean eventBean) throws PropertyAccessException;
+}
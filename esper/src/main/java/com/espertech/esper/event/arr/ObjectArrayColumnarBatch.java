@@ -0,0 +1,185 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.Array;
+import java.util.Map;
+
+/**
+ * A batch of object-array events held in columnar form: one array per event property, with the row index
+ * selecting the event. Columns may be primitive arrays or object arrays and are not copied.
+ */
+public class ObjectArrayColumnarBatch {
+    private final static byte COLUMN_OBJECT = 0;
+    private final static byte COLUMN_LONG = 1;
+    private final static byte COLUMN_INT = 2;
+    private final static byte COLUMN_DOUBLE = 3;
+    private final static byte COLUMN_FLOAT = 4;
+    private final static byte COLUMN_SHORT = 5;
+    private final static byte COLUMN_BYTE = 6;
+    private final static byte COLUMN_BOOLEAN = 7;
+    private final static byte COLUMN_CHAR = 8;
+
+    private final ObjectArrayEventType eventType;
+    private final Object[] columns;
+    private final byte[] columnKinds;
+    private final int numRows;
+
+    /**
+     * Ctor.
+     *
+     * @param eventType object-array event type
+     * @param columns   one array per property in the order of property declaration
+     * @param numRows   number of rows
+     * @throws IllegalArgumentException if the columns do not match the event type or hold less than the number of rows
+     */
+    public ObjectArrayColumnarBatch(ObjectArrayEventType eventType, Object[] columns, int numRows) throws IllegalArgumentException {
+        if (columns == null) {
+            throw new IllegalArgumentException("Invalid null columns");
+        }
+        if (numRows < 0) {
+            throw new IllegalArgumentException("Invalid negative number of rows " + numRows);
+        }
+        Map<String, Integer> indexes = eventType.getPropertiesIndexes();
+        if (columns.length != indexes.size()) {
+            throw new IllegalArgumentException("Expected " + indexes.size() + " columns for event type '" + eventType.getName() + "' but received " + columns.length + " columns");
+        }
+
+        String[] propertyNames = new String[columns.length];
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            propertyNames[entry.getValue()] = entry.getKey();
+        }
+
+        this.eventType = eventType;
+        this.columns = columns;
+        this.numRows = numRows;
+        this.columnKinds = new byte[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Object column = columns[i];
+            if (column == null || !column.getClass().isArray()) {
+                throw new IllegalArgumentException("Column " + i + " for property '" + propertyNames[i] + "' is not an array");
+            }
+            if (Array.getLength(column) < numRows) {
+                throw new IllegalArgumentException("Column " + i + " for property '" + propertyNames[i] + "' has fewer than " + numRows + " rows");
+            }
+            Class componentType = column.getClass().getComponentType();
+            columnKinds[i] = getColumnKind(componentType);
+            if (columnKinds[i] == COLUMN_OBJECT) {
+                continue;
+            }
+            Class propertyType = eventType.getPropertyType(propertyNames[i]);
+            if (JavaClassHelper.getBoxedType(propertyType) != JavaClassHelper.getBoxedType(componentType)) {
+                throw new IllegalArgumentException("Column " + i + " of type '" + JavaClassHelper.getClassNameFullyQualPretty(column.getClass()) +
+                        "' does not match property '" + propertyNames[i] + "' of type '" + JavaClassHelper.getClassNameFullyQualPretty(propertyType) + "'");
+            }
+        }
+    }
+
+    /**
+     * Returns the event type.
+     *
+     * @return type
+     */
+    public ObjectArrayEventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return rows
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Returns an event for each row, each backed by the column arrays.
+     *
+     * @return events
+     */
+    public EventBean[] getEvents() {
+        EventBean[] events = new EventBean[numRows];
+        for (int i = 0; i < numRows; i++) {
+            events[i] = new ObjectArrayColumnarEventBean(this, i);
+        }
+        return events;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param row    row index
+     * @param column column index which is the property index
+     * @return value
+     */
+    public Object getValue(int row, int column) {
+        Object array = columns[column];
+        switch (columnKinds[column]) {
+            case COLUMN_LONG:
+                return ((long[]) array)[row];
+            case COLUMN_INT:
+                return ((int[]) array)[row];
+            case COLUMN_DOUBLE:
+                return ((double[]) array)[row];
+            case COLUMN_FLOAT:
+                return ((float[]) array)[row];
+            case COLUMN_SHORT:
+                return ((short[]) array)[row];
+            case COLUMN_BYTE:
+                return ((byte[]) array)[row];
+            case COLUMN_BOOLEAN:
+                return ((boolean[]) array)[row];
+            case COLUMN_CHAR:
+                return ((char[]) array)[row];
+            default:
+                return ((Object[]) array)[row];
+        }
+    }
+
+    /**
+     * Returns the values of a row as a new array.
+     *
+     * @param row row index
+     * @return values
+     */
+    public Object[] getRow(int row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getValue(row, i);
+        }
+        return values;
+    }
+
+    private static byte getColumnKind(Class componentType) {
+        if (componentType == long.class) {
+            return COLUMN_LONG;
+        } else if (componentType == int.class) {
+            return COLUMN_INT;
+        } else if (componentType == double.class) {
+            return COLUMN_DOUBLE;
+        } else if (componentType == float.class) {
+            return COLUMN_FLOAT;
+        } else if (componentType == short.class) {
+            return COLUMN_SHORT;
+        } else if (componentType == byte.class) {
+            return COLUMN_BYTE;
+        } else if (componentType == boolean.class) {
+            return COLUMN_BOOLEAN;
+        } else if (componentType == char.class) {
+            return COLUMN_CHAR;
+        }
+        return COLUMN_OBJECT;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventBeanSPI;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Object-array event that is a row of a columnar batch. Property values are read from the column arrays
+ * and the underlying object array is only allocated when requested.
+ */
+public class ObjectArrayColumnarEventBean implements EventBeanSPI, ObjectArrayBackedEventBean {
+
+    private final ObjectArrayColumnarBatch batch;
+    private final int row;
+    private Object[] propertyValues;
+
+    /**
+     * Ctor.
+     *
+     * @param batch columnar batch
+     * @param row   row index
+     */
+    public ObjectArrayColumnarEventBean(ObjectArrayColumnarBatch batch, int row) {
+        this.batch = batch;
+        this.row = row;
+    }
+
+    /**
+     * Returns a property value without allocating the underlying array.
+     *
+     * @param propertyIndex property index
+     * @return value
+     */
+    public Object getColumnValue(int propertyIndex) {
+        if (propertyValues != null) {
+            return propertyValues[propertyIndex];
+        }
+        return batch.getValue(row, propertyIndex);
+    }
+
+    public EventType getEventType() {
+        return batch.getEventType();
+    }
+
+    public Object[] getProperties() {
+        if (propertyValues == null) {
+            propertyValues = batch.getRow(row);
+        }
+        return propertyValues;
+    }
+
+    public void setPropertyValues(Object[] propertyValues) {
+        this.propertyValues = propertyValues;
+    }
+
+    public void setUnderlying(Object underlying) {
+        this.propertyValues = (Object[]) underlying;
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = batch.getEventType().getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getUnderlying() {
+        return getProperties();
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = batch.getEventType().getGetter(propertyExpression);
+        if (getter == null) {
+            throw PropertyAccessException.notAValidProperty(propertyExpression);
+        }
+        return getter.getFragment(this);
+    }
+}
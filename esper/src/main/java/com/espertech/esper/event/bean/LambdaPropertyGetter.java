@@ -0,0 +1,44 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Property getter calling the read method through a generated function.
+ */
+public class LambdaPropertyGetter extends LambdaPropertyGetterBase {
+    private final Function<Object, Object> function;
+
+    /**
+     * Ctor.
+     *
+     * @param method              the read method
+     * @param function            function calling the read method
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public LambdaPropertyGetter(Method method, Function<Object, Object> function, EventAdapterService eventAdapterService) {
+        super(method, eventAdapterService);
+        this.function = function;
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        try {
+            return function.apply(object);
+        } catch (Exception ex) {
+            throw handle(object, ex);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Base class for property getters that call the read method through a function generated by the lambda metafactory.
+ */
+public abstract class LambdaPropertyGetterBase extends BaseNativePropertyGetter implements BeanEventPropertyGetter {
+    /**
+     * The read method.
+     */
+    protected final Method method;
+
+    /**
+     * Ctor.
+     *
+     * @param method              the read method
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public LambdaPropertyGetterBase(Method method, EventAdapterService eventAdapterService) {
+        super(eventAdapterService, method.getReturnType(), JavaClassHelper.getGenericReturnType(method, true));
+        this.method = method;
+    }
+
+    public boolean isBeanExistsProperty(Object object) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException {
+        return getBeanProp(obj.getUnderlying());
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    /**
+     * Returns the exception to throw for an exception raised by the function.
+     *
+     * @param object the object the read method was invoked on
+     * @param ex     exception
+     * @return property access exception
+     */
+    protected PropertyAccessException handle(Object object, Exception ex) {
+        if (ex instanceof ClassCastException && !method.getDeclaringClass().isInstance(object)) {
+            return PropertyUtility.getMismatchException(method, object, (ClassCastException) ex);
+        }
+        return PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(ex));
+    }
+
+    public String toString() {
+        return this.getClass().getSimpleName() + " method=" + method.toString();
+    }
+}
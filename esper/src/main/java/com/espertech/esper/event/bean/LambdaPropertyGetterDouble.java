@@ -0,0 +1,65 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterPrimitive;
+
+import java.lang.reflect.Method;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Property getter for read methods returning double or float, calling the read method through a generated function
+ * that returns the primitive value.
+ */
+public class LambdaPropertyGetterDouble extends LambdaPropertyGetterBase implements EventPropertyGetterPrimitive {
+    private final ToDoubleFunction<Object> function;
+    private final boolean isFloat;
+
+    /**
+     * Ctor.
+     *
+     * @param method              the read method
+     * @param function            function calling the read method
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public LambdaPropertyGetterDouble(Method method, ToDoubleFunction<Object> function, EventAdapterService eventAdapterService) {
+        super(method, eventAdapterService);
+        this.function = function;
+        this.isFloat = method.getReturnType() == float.class;
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        double value = getDoubleBeanProp(object);
+        if (isFloat) {
+            return (float) value;
+        }
+        return value;
+    }
+
+    public long getLong(EventBean eventBean) throws PropertyAccessException {
+        return (long) getDoubleBeanProp(eventBean.getUnderlying());
+    }
+
+    public double getDouble(EventBean eventBean) throws PropertyAccessException {
+        return getDoubleBeanProp(eventBean.getUnderlying());
+    }
+
+    private double getDoubleBeanProp(Object object) {
+        try {
+            return function.applyAsDouble(object);
+        } catch (Exception ex) {
+            throw handle(object, ex);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.util.JavaClassHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Factory for property getters that call a read method directly through a class generated by the lambda metafactory.
+ * Read methods returning a primitive numeric type obtain a getter that also returns the unboxed value.
+ */
+public class LambdaPropertyGetterFactory {
+    private static final Logger log = LoggerFactory.getLogger(LambdaPropertyGetterFactory.class);
+
+    /**
+     * Returns a getter for the read method, or null if the read method is not accessible or its class is not visible
+     * to the engine class loader.
+     *
+     * @param method              read method taking no parameters
+     * @param eventAdapterService factory for event beans and event types
+     * @return getter or null if a getter could not be generated
+     */
+    public static EventPropertyGetter make(Method method, EventAdapterService eventAdapterService) {
+        Class declaringClass = method.getDeclaringClass();
+        if (method.getParameterTypes().length != 0 || Modifier.isStatic(method.getModifiers()) || !isVisible(declaringClass)) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            Class returnType = method.getReturnType();
+            if (returnType == long.class || returnType == int.class || returnType == short.class || returnType == byte.class) {
+                ToLongFunction<Object> function = (ToLongFunction<Object>) makeFunction(lookup, handle, ToLongFunction.class, "applyAsLong", long.class, long.class, declaringClass);
+                return new LambdaPropertyGetterLong(method, function, eventAdapterService);
+            }
+            if (returnType == double.class || returnType == float.class) {
+                ToDoubleFunction<Object> function = (ToDoubleFunction<Object>) makeFunction(lookup, handle, ToDoubleFunction.class, "applyAsDouble", double.class, double.class, declaringClass);
+                return new LambdaPropertyGetterDouble(method, function, eventAdapterService);
+            }
+            Function<Object, Object> function = (Function<Object, Object>) makeFunction(lookup, handle, Function.class, "apply", Object.class, JavaClassHelper.getBoxedType(returnType), declaringClass);
+            return new LambdaPropertyGetter(method, function, eventAdapterService);
+        } catch (Throwable t) {
+            log.debug("Unable to generate accessor for method " + method + ": " + t.getMessage());
+            return null;
+        }
+    }
+
+    private static Object makeFunction(MethodHandles.Lookup lookup, MethodHandle handle, Class functionalInterface, String methodName,
+                                       Class samReturnType, Class instantiatedReturnType, Class declaringClass) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, methodName, MethodType.methodType(functionalInterface),
+                MethodType.methodType(samReturnType, Object.class), handle, MethodType.methodType(instantiatedReturnType, declaringClass));
+        return site.getTarget().invoke();
+    }
+
+    private static boolean isVisible(Class clazz) {
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        // the generated class resolves the declaring class through the engine class loader
+        try {
+            return Class.forName(clazz.getName(), false, LambdaPropertyGetterFactory.class.getClassLoader()) == clazz;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+}
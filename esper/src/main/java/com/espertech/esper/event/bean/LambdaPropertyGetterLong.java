@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterPrimitive;
+
+import java.lang.reflect.Method;
+import java.util.function.ToLongFunction;
+
+/**
+ * Property getter for read methods returning long, int, short or byte, calling the read method through a generated function
+ * that returns the primitive value.
+ */
+public class LambdaPropertyGetterLong extends LambdaPropertyGetterBase implements EventPropertyGetterPrimitive {
+    private final ToLongFunction<Object> function;
+    private final Class returnType;
+
+    /**
+     * Ctor.
+     *
+     * @param method              the read method
+     * @param function            function calling the read method
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public LambdaPropertyGetterLong(Method method, ToLongFunction<Object> function, EventAdapterService eventAdapterService) {
+        super(method, eventAdapterService);
+        this.function = function;
+        this.returnType = method.getReturnType();
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        long value = getLongBeanProp(object);
+        if (returnType == int.class) {
+            return (int) value;
+        } else if (returnType == long.class) {
+            return value;
+        } else if (returnType == short.class) {
+            return (short) value;
+        }
+        return (byte) value;
+    }
+
+    public long getLong(EventBean eventBean) throws PropertyAccessException {
+        return getLongBeanProp(eventBean.getUnderlying());
+    }
+
+    public double getDouble(EventBean eventBean) throws PropertyAccessException {
+        return getLongBeanProp(eventBean.getUnderlying());
+    }
+
+    private long getLongBeanProp(Object object) {
+        try {
+            return function.applyAsLong(object);
+        } catch (Exception ex) {
+            throw handle(object, ex);
+        }
+    }
+}
@@ -30,6 +30,8 @@ import java.util.*;
 public class PropertyHelper {
     /**
      * Return getter for the given method and CGLIB FastClass.
+     * When code generation is enabled, which is when a fast class is provided, prefers a getter that calls the method directly through
+     * a generated accessor, and uses CGLIB if the accessor cannot be generated.
      *
      * @param method              to return getter for
      * @param fastClass           is the CGLIB fast classs to make FastMethod for
@@ -37,6 +39,13 @@ public class PropertyHelper {
      * @return property getter
      */
     public static EventPropertyGetter getGetter(Method method, FastClass fastClass, EventAdapterService eventAdapterService) {
+        if (fastClass != null) {
+            EventPropertyGetter lambdaGetter = LambdaPropertyGetterFactory.make(method, eventAdapterService);
+            if (lambdaGetter != null) {
+                return lambdaGetter;
+            }
+        }
+
         // Get CGLib fast method handle
         FastMethod fastMethod = null;
         try {
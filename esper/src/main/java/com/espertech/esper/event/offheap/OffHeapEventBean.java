@@ -0,0 +1,133 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+
+/**
+ * Event bean for a row kept by an {@link OffHeapRowStore}, materializing the underlying when it is read.
+ * <p>
+ * The bean only holds the slot number of its row in the store. Recently-read rows are cached by the store,
+ * so that reading several properties decodes the row once.
+ * Once released from the store the row values are retained on-heap.
+ * </p>
+ */
+public abstract class OffHeapEventBean implements EventBean {
+    private final EventType eventType;
+    private final OffHeapRowStore store;
+    private volatile int slot = -1;
+    private volatile int version;
+    private volatile Object onHeap;
+
+    protected OffHeapEventBean(EventType eventType, OffHeapRowStore store) {
+        this.eventType = eventType;
+        this.store = store;
+    }
+
+    /**
+     * Deserialize the underlying from its bytes.
+     *
+     * @param row bytes
+     * @return underlying
+     */
+    protected abstract Object decode(byte[] row);
+
+    /**
+     * Serialize the underlying into bytes.
+     *
+     * @param underlying values
+     * @return bytes
+     */
+    protected abstract byte[] encode(Object underlying);
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Object getUnderlying() {
+        Object values = onHeap;
+        if (values != null) {
+            return values;
+        }
+        return store.read(this);
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(propertyExpression);
+        if (getter == null) {
+            throw PropertyAccessException.notAValidProperty(propertyExpression);
+        }
+        return getter.getFragment(this);
+    }
+
+    /**
+     * Returns true if the row is held off-heap, or false if the row was released and is retained on-heap.
+     *
+     * @return indicator
+     */
+    public boolean isOffHeap() {
+        return slot != -1;
+    }
+
+    /**
+     * Materializes the row on-heap so that the values of the array returned by {@link #getUnderlying()}
+     * can be changed in place, until {@link #unpin()} writes the changed values back.
+     */
+    public void pin() {
+        store.pin(this);
+    }
+
+    /**
+     * Writes the values of a row materialized by {@link #pin()} back to the store.
+     */
+    public void unpin() {
+        store.unpin(this);
+    }
+
+    protected OffHeapRowStore getStore() {
+        return store;
+    }
+
+    protected int getSlot() {
+        return slot;
+    }
+
+    protected void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    protected int getVersion() {
+        return version;
+    }
+
+    protected void setVersion(int version) {
+        this.version = version;
+    }
+
+    protected Object getOnHeap() {
+        return onHeap;
+    }
+
+    protected void setOnHeap(Object onHeap) {
+        this.onHeap = onHeap;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.MappedEventBean;
+
+import java.util.Map;
+
+/**
+ * Off-heap row for map events.
+ * <p>
+ * The map returned by {@link #getProperties()} may be shared with other readers and must not be changed.
+ * </p>
+ */
+public class OffHeapMapEventBean extends OffHeapEventBean implements MappedEventBean {
+
+    public OffHeapMapEventBean(EventType eventType, OffHeapRowStore store) {
+        super(eventType, store);
+    }
+
+    public Map<String, Object> getProperties() {
+        return (Map<String, Object>) getUnderlying();
+    }
+
+    protected Object decode(byte[] row) {
+        return OffHeapRowCodec.decodeMap(row);
+    }
+
+    protected byte[] encode(Object underlying) {
+        return OffHeapRowCodec.encodeMap((Map<String, Object>) underlying);
+    }
+}
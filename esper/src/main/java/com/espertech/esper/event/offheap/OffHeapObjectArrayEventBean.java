@@ -0,0 +1,44 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Off-heap row for object-array events.
+ * <p>
+ * The array returned by {@link #getProperties()} may be shared with other readers and must not be changed,
+ * unless the row is pinned. Set new values via {@link #setPropertyValues(Object[])}.
+ * </p>
+ */
+public class OffHeapObjectArrayEventBean extends OffHeapEventBean implements ObjectArrayBackedEventBean {
+
+    public OffHeapObjectArrayEventBean(EventType eventType, OffHeapRowStore store) {
+        super(eventType, store);
+    }
+
+    public Object[] getProperties() {
+        return (Object[]) getUnderlying();
+    }
+
+    public void setPropertyValues(Object[] objects) {
+        getStore().replace(this, objects);
+    }
+
+    protected Object decode(byte[] row) {
+        return OffHeapRowCodec.decodeObjectArray(row);
+    }
+
+    protected byte[] encode(Object underlying) {
+        return OffHeapRowCodec.encodeObjectArray((Object[]) underlying);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.util.SerializerUtil;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serializes row values to bytes and back, using a compact encoding for boxed primitives and strings
+ * and Java serialization for any other value.
+ */
+public class OffHeapRowCodec {
+    private final static byte TYPE_NULL = 0;
+    private final static byte TYPE_INT = 1;
+    private final static byte TYPE_LONG = 2;
+    private final static byte TYPE_DOUBLE = 3;
+    private final static byte TYPE_FLOAT = 4;
+    private final static byte TYPE_SHORT = 5;
+    private final static byte TYPE_BYTE = 6;
+    private final static byte TYPE_TRUE = 7;
+    private final static byte TYPE_FALSE = 8;
+    private final static byte TYPE_CHAR = 9;
+    private final static byte TYPE_STRING = 10;
+    private final static byte TYPE_SERIALIZED = 11;
+
+    /**
+     * Encode object-array values.
+     *
+     * @param values to encode
+     * @return bytes
+     */
+    public static byte[] encodeObjectArray(Object[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + values.length * 8);
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeInt(values.length);
+            for (Object value : values) {
+                writeValue(output, value);
+            }
+        } catch (IOException e) {
+            throw new EPException("Failed to serialize row: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode object-array values.
+     *
+     * @param row bytes
+     * @return values
+     */
+    public static Object[] decodeObjectArray(byte[] row) {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(row));
+        try {
+            Object[] values = new Object[input.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(input);
+            }
+            return values;
+        } catch (IOException e) {
+            throw new EPException("Failed to deserialize row: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encode map values.
+     *
+     * @param values to encode
+     * @return bytes
+     */
+    public static byte[] encodeMap(Map<String, Object> values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + values.size() * 16);
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeInt(values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                output.writeUTF(entry.getKey());
+                writeValue(output, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new EPException("Failed to serialize row: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode map values.
+     *
+     * @param row bytes
+     * @return values
+     */
+    public static Map<String, Object> decodeMap(byte[] row) {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(row));
+        try {
+            int size = input.readInt();
+            Map<String, Object> values = new HashMap<String, Object>((int) (size / 0.75f) + 1);
+            for (int i = 0; i < size; i++) {
+                String key = input.readUTF();
+                values.put(key, readValue(input));
+            }
+            return values;
+        } catch (IOException e) {
+            throw new EPException("Failed to deserialize row: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TYPE_NULL);
+        } else if (value instanceof Integer) {
+            output.writeByte(TYPE_INT);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TYPE_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(TYPE_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            output.writeByte(TYPE_SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(TYPE_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof Character) {
+            output.writeByte(TYPE_CHAR);
+            output.writeChar((Character) value);
+        } else if (value instanceof String) {
+            // writeUTF is limited to 64k of encoded bytes, so write the length explicitly
+            byte[] utf8 = ((String) value).getBytes("UTF-8");
+            output.writeByte(TYPE_STRING);
+            output.writeInt(utf8.length);
+            output.write(utf8);
+        } else if (value instanceof Serializable) {
+            byte[] serialized = SerializerUtil.objectToByteArr(value);
+            output.writeByte(TYPE_SERIALIZED);
+            output.writeInt(serialized.length);
+            output.write(serialized);
+        } else {
+            throw new EPException("Off-heap storage requires serializable values but received value of type '" + value.getClass().getName() + "'");
+        }
+    }
+
+    private static Object readValue(DataInputStream input) throws IOException {
+        byte type = input.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_INT:
+                return input.readInt();
+            case TYPE_LONG:
+                return input.readLong();
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_FLOAT:
+                return input.readFloat();
+            case TYPE_SHORT:
+                return input.readShort();
+            case TYPE_BYTE:
+                return input.readByte();
+            case TYPE_TRUE:
+                return Boolean.TRUE;
+            case TYPE_FALSE:
+                return Boolean.FALSE;
+            case TYPE_CHAR:
+                return input.readChar();
+            case TYPE_STRING: {
+                byte[] utf8 = new byte[input.readInt()];
+                input.readFully(utf8);
+                return new String(utf8, "UTF-8");
+            }
+            case TYPE_SERIALIZED: {
+                byte[] serialized = new byte[input.readInt()];
+                input.readFully(serialized);
+                return SerializerUtil.byteArrToObject(serialized);
+            }
+            default:
+                throw new IOException("Unrecognized value type " + type);
+        }
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.MappedEventBean;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps serialized rows in direct (off-heap) memory segments, handing out compact on-heap event beans
+ * that deserialize the row when read.
+ * <p>
+ * Each row occupies a slot. The store tracks the location of each slot's row, and the slots in each segment,
+ * in primitive arrays, so that the on-heap footprint per row is the event bean and a few array entries.
+ * Recently-read rows are kept in a small cache of decoded rows that is shared by all rows.
+ * </p>
+ * <p>
+ * Rows are appended to the current segment. A segment is reused when all rows it holds have been released.
+ * When the live rows of a segment take up less than a quarter of it, the segment is compacted by moving its live rows
+ * to the current segment, so that the store does not fragment.
+ * A row that is larger than the segment size gets a segment of its own.
+ * </p>
+ * <p>
+ * Reads may occur concurrently with each other and with writes. Writes are expected to be serialized
+ * by the caller, as is the case for the named window or table that owns the store.
+ * </p>
+ */
+public class OffHeapRowStore {
+    public final static int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private final static int LENGTH_SIZE = 4;
+    private final static int COMPACT_DIVISOR = 4;
+    private final static int CACHE_SIZE = 1024;
+    private final static int INITIAL_SLOTS = 64;
+
+    private final int segmentSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ArrayList<ByteBuffer> segments = new ArrayList<ByteBuffer>();
+    private final ArrayList<SegmentSlots> segmentSlots = new ArrayList<SegmentSlots>();
+    private final ArrayDeque<Integer> freeSegments = new ArrayDeque<Integer>();
+    private final ArrayDeque<Integer> unusedSegmentNumbers = new ArrayDeque<Integer>();
+    private final DecodedRow[] cache = new DecodedRow[CACHE_SIZE];
+
+    // per slot: the segment number and offset of the row, and the position of the slot within the segment's slots
+    private long[] slotHandles = new long[INITIAL_SLOTS];
+    private int[] slotPositions = new int[INITIAL_SLOTS];
+    private int[] freeSlots = new int[INITIAL_SLOTS];
+    private int freeSlotCount;
+    private int slotCount;
+
+    private int currentSegment = -1;
+    private int nextVersion;
+    private long rowCount;
+    private long allocatedBytes;
+
+    public OffHeapRowStore() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    public OffHeapRowStore(int segmentSize) {
+        if (segmentSize <= LENGTH_SIZE) {
+            throw new IllegalArgumentException("Invalid segment size " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns true if rows of the event type can be kept off-heap.
+     *
+     * @param eventType type
+     * @return indicator
+     */
+    public static boolean isSupportedEventType(EventType eventType) {
+        return eventType instanceof ObjectArrayEventType || eventType instanceof MapEventType;
+    }
+
+    /**
+     * Serializes the event into off-heap memory and returns the event bean representing the stored row.
+     *
+     * @param theEvent event to store
+     * @return off-heap event bean
+     */
+    public EventBean add(EventBean theEvent) {
+        if (theEvent instanceof OffHeapEventBean && ((OffHeapEventBean) theEvent).getStore() == this) {
+            return theEvent;
+        }
+        if (theEvent instanceof ObjectArrayBackedEventBean) {
+            return write(new OffHeapObjectArrayEventBean(theEvent.getEventType(), this), ((ObjectArrayBackedEventBean) theEvent).getProperties());
+        }
+        if (theEvent instanceof MappedEventBean) {
+            return write(new OffHeapMapEventBean(theEvent.getEventType(), this), ((MappedEventBean) theEvent).getProperties());
+        }
+        throw new EPException("Off-heap storage requires object-array or map events but received event of type '" + theEvent.getEventType().getName() + "'");
+    }
+
+    /**
+     * Serializes the events into off-heap memory.
+     *
+     * @param events to store, or null
+     * @return new array of off-heap event beans, or null for null input
+     */
+    public EventBean[] add(EventBean[] events) {
+        if (events == null) {
+            return null;
+        }
+        EventBean[] stored = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            stored[i] = add(events[i]);
+        }
+        return stored;
+    }
+
+    /**
+     * Serializes a table row into off-heap memory, keeping the aggregation state in the first column on-heap.
+     *
+     * @param row table row
+     * @return off-heap event bean
+     */
+    public ObjectArrayBackedEventBean addTableRow(ObjectArrayBackedEventBean row) {
+        if (row instanceof OffHeapEventBean && ((OffHeapEventBean) row).getStore() == this) {
+            return row;
+        }
+        Object[] values = row.getProperties();
+        return (ObjectArrayBackedEventBean) write(new OffHeapTableRowEventBean(row.getEventType(), this, values[0]), values);
+    }
+
+    /**
+     * Releases the off-heap memory held by the event. The released event retains its values on-heap,
+     * so that it remains readable for the remove stream. Releasing an event that is not held off-heap has no effect.
+     *
+     * @param theEvent to release
+     */
+    public void release(EventBean theEvent) {
+        if (!isHeld(theEvent)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int segmentNum = detach((OffHeapEventBean) theEvent);
+            if (segmentNum != -1) {
+                releaseIfSparse(segmentNum);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the off-heap memory held by the events. Each released event retains its values on-heap,
+     * so that it remains readable for the remove stream.
+     *
+     * @param events to release, or null
+     */
+    public void release(EventBean[] events) {
+        if (events == null) {
+            return;
+        }
+        release(Arrays.asList(events));
+    }
+
+    /**
+     * Releases the off-heap memory held by the events. Each released event retains its values on-heap,
+     * so that it remains readable for the remove stream.
+     *
+     * @param events to release
+     */
+    public void release(Collection<? extends EventBean> events) {
+        lock.writeLock().lock();
+        try {
+            ArrayList<Integer> touched = new ArrayList<Integer>(2);
+            for (EventBean theEvent : events) {
+                if (isHeld(theEvent)) {
+                    int segmentNum = detach((OffHeapEventBean) theEvent);
+                    if (segmentNum != -1 && !touched.contains(segmentNum)) {
+                        touched.add(segmentNum);
+                    }
+                }
+            }
+            // compact after all rows are released so that rows released together are not moved
+            for (Integer segmentNum : touched) {
+                releaseIfSparse(segmentNum);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the row values, deserialized.
+     *
+     * @param bean to read
+     * @return values
+     */
+    protected Object read(OffHeapEventBean bean) {
+        int slot = bean.getSlot();
+        int version = bean.getVersion();
+        if (slot != -1) {
+            DecodedRow cached = cache[slot % CACHE_SIZE];
+            if (cached != null && cached.slot == slot && cached.version == version) {
+                return cached.underlying;
+            }
+        }
+
+        byte[] row;
+        lock.readLock().lock();
+        try {
+            Object onHeap = bean.getOnHeap();
+            if (onHeap != null) {
+                return onHeap;
+            }
+            slot = bean.getSlot();
+            version = bean.getVersion();
+            row = copy(slotHandles[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Object underlying = bean.decode(row);
+        cache[slot % CACHE_SIZE] = new DecodedRow(slot, version, underlying);
+        return underlying;
+    }
+
+    /**
+     * Replaces the row values.
+     *
+     * @param bean   to write
+     * @param values new values
+     */
+    protected void replace(OffHeapEventBean bean, Object values) {
+        byte[] row = bean.encode(values);
+        lock.writeLock().lock();
+        try {
+            int slot = bean.getSlot();
+            if (slot == -1) {
+                bean.setOnHeap(values);
+                return;
+            }
+            rewrite(bean, slot, row);
+            if (bean.getOnHeap() != null) {
+                bean.setOnHeap(values);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Materializes the row on-heap for in-place changes.
+     *
+     * @param bean to pin
+     */
+    protected void pin(OffHeapEventBean bean) {
+        lock.writeLock().lock();
+        try {
+            if (bean.getSlot() != -1 && bean.getOnHeap() == null) {
+                bean.setOnHeap(bean.decode(copy(slotHandles[bean.getSlot()])));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the values of a pinned row back off-heap.
+     *
+     * @param bean to unpin
+     */
+    protected void unpin(OffHeapEventBean bean) {
+        lock.writeLock().lock();
+        try {
+            Object values = bean.getOnHeap();
+            if (bean.getSlot() == -1 || values == null) {
+                return;
+            }
+            rewrite(bean, bean.getSlot(), bean.encode(values));
+            bean.setOnHeap(null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of rows held off-heap.
+     *
+     * @return rows
+     */
+    public long getRowCount() {
+        lock.readLock().lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of off-heap memory allocated for segments.
+     *
+     * @return bytes
+     */
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return allocatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isHeld(EventBean theEvent) {
+        return theEvent instanceof OffHeapEventBean && ((OffHeapEventBean) theEvent).getStore() == this;
+    }
+
+    private EventBean write(OffHeapEventBean bean, Object values) {
+        byte[] row = bean.encode(values);
+        lock.writeLock().lock();
+        try {
+            int slot = newSlot();
+            allocate(slot, row);
+            bean.setVersion(++nextVersion);
+            bean.setSlot(slot);
+            return bean;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rewrite(OffHeapEventBean bean, int slot, byte[] row) {
+        int segmentNum = free(slot);
+        allocate(slot, row);
+        bean.setVersion(++nextVersion);
+        releaseIfSparse(segmentNum);
+    }
+
+    private int detach(OffHeapEventBean bean) {
+        int slot = bean.getSlot();
+        if (slot == -1) {
+            return -1;
+        }
+        if (bean.getOnHeap() == null) {
+            bean.setOnHeap(bean.decode(copy(slotHandles[slot])));
+        }
+        bean.setSlot(-1);
+        int segmentNum = free(slot);
+        freeSlots[freeSlotCount++] = slot;
+        rowCount--;
+        return segmentNum;
+    }
+
+    private int newSlot() {
+        rowCount++;
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == slotHandles.length) {
+            int size = slotHandles.length * 2;
+            slotHandles = Arrays.copyOf(slotHandles, size);
+            slotPositions = Arrays.copyOf(slotPositions, size);
+            freeSlots = Arrays.copyOf(freeSlots, size);
+        }
+        return slotCount++;
+    }
+
+    private void allocate(int slot, byte[] row) {
+        int required = row.length + LENGTH_SIZE;
+        int segmentNum;
+        int previous = -1;
+        if (required > segmentSize) {
+            segmentNum = newSegment(required);
+        } else {
+            if (currentSegment == -1 || segments.get(currentSegment).remaining() < required) {
+                segmentNum = freeSegments.isEmpty() ? newSegment(segmentSize) : reuseSegment();
+                previous = currentSegment;
+                currentSegment = segmentNum;
+            } else {
+                segmentNum = currentSegment;
+            }
+        }
+
+        ByteBuffer segment = segments.get(segmentNum);
+        int offset = segment.position();
+        segment.putInt(row.length);
+        segment.put(row);
+        segmentSlots.get(segmentNum).add(slot, required);
+        slotHandles[slot] = ((long) segmentNum << 32) | offset;
+        if (previous != -1) {
+            releaseIfSparse(previous);
+        }
+    }
+
+    private int free(int slot) {
+        long handle = slotHandles[slot];
+        int segmentNum = (int) (handle >>> 32);
+        segmentSlots.get(segmentNum).remove(slot, copyLength(handle) + LENGTH_SIZE);
+        return segmentNum;
+    }
+
+    private void releaseIfSparse(int segmentNum) {
+        SegmentSlots slots = segmentSlots.get(segmentNum);
+        if (slots == null || segmentNum == currentSegment) {
+            return;
+        }
+        if (slots.count == 0) {
+            recycle(segmentNum);
+            return;
+        }
+        // move the few remaining rows so that the mostly-empty segment can be reused
+        if (segments.get(segmentNum).capacity() == segmentSize && slots.bytes < segmentSize / COMPACT_DIVISOR) {
+            int[] moved = Arrays.copyOf(slots.slots, slots.count);
+            for (int slot : moved) {
+                byte[] row = copy(slotHandles[slot]);
+                allocate(slot, row);
+            }
+            recycle(segmentNum);
+        }
+    }
+
+    private int copyLength(long handle) {
+        return segments.get((int) (handle >>> 32)).getInt((int) handle);
+    }
+
+    private byte[] copy(long handle) {
+        ByteBuffer segment = segments.get((int) (handle >>> 32)).duplicate();
+        int offset = (int) handle;
+        byte[] row = new byte[segment.getInt(offset)];
+        segment.position(offset + LENGTH_SIZE);
+        segment.get(row);
+        return row;
+    }
+
+    private int newSegment(int size) {
+        ByteBuffer segment = ByteBuffer.allocateDirect(size);
+        allocatedBytes += size;
+        if (!unusedSegmentNumbers.isEmpty()) {
+            int segmentNum = unusedSegmentNumbers.poll();
+            segments.set(segmentNum, segment);
+            segmentSlots.set(segmentNum, new SegmentSlots());
+            return segmentNum;
+        }
+        segments.add(segment);
+        segmentSlots.add(new SegmentSlots());
+        return segments.size() - 1;
+    }
+
+    private int reuseSegment() {
+        int segmentNum = freeSegments.poll();
+        segmentSlots.set(segmentNum, new SegmentSlots());
+        return segmentNum;
+    }
+
+    private void recycle(int segmentNum) {
+        ByteBuffer segment = segments.get(segmentNum);
+        if (segment.capacity() == segmentSize) {
+            segment.clear();
+            segmentSlots.set(segmentNum, null);
+            freeSegments.add(segmentNum);
+            return;
+        }
+        // oversized segments are not reused
+        allocatedBytes -= segment.capacity();
+        segments.set(segmentNum, null);
+        segmentSlots.set(segmentNum, null);
+        unusedSegmentNumbers.add(segmentNum);
+    }
+
+    private final class SegmentSlots {
+        private int[] slots = new int[INITIAL_SLOTS];
+        private int count;
+        private int bytes;
+
+        private void add(int slot, int length) {
+            if (count == slots.length) {
+                slots = Arrays.copyOf(slots, count * 2);
+            }
+            slotPositions[slot] = count;
+            slots[count++] = slot;
+            bytes += length;
+        }
+
+        private void remove(int slot, int length) {
+            int position = slotPositions[slot];
+            int last = slots[--count];
+            slots[position] = last;
+            slotPositions[last] = position;
+            bytes -= length;
+        }
+    }
+
+    private static final class DecodedRow {
+        private final int slot;
+        private final int version;
+        private final Object underlying;
+
+        private DecodedRow(int slot, int version, Object underlying) {
+            this.slot = slot;
+            this.version = version;
+            this.underlying = underlying;
+        }
+    }
+}
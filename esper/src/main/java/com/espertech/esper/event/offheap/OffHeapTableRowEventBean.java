@@ -0,0 +1,41 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EventType;
+
+/**
+ * Off-heap row of a table.
+ * <p>
+ * The first column holds the aggregation state of the row, which is changed in place and therefore remains on-heap.
+ * The remaining, plain columns are kept off-heap.
+ * </p>
+ */
+public class OffHeapTableRowEventBean extends OffHeapObjectArrayEventBean {
+    private final Object aggregations;
+
+    public OffHeapTableRowEventBean(EventType eventType, OffHeapRowStore store, Object aggregations) {
+        super(eventType, store);
+        this.aggregations = aggregations;
+    }
+
+    protected Object decode(byte[] row) {
+        Object[] values = (Object[]) super.decode(row);
+        values[0] = aggregations;
+        return values;
+    }
+
+    protected byte[] encode(Object underlying) {
+        Object[] values = ((Object[]) underlying).clone();
+        values[0] = null;
+        return super.encode(values);
+    }
+}
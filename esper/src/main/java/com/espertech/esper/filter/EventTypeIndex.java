@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -31,9 +32,15 @@ import java.util.concurrent.locks.ReadWriteLock;
 public class EventTypeIndex implements EventEvaluator {
     private Map<EventType, FilterHandleSetNode> eventTypes;
     private ReadWriteLock eventTypesRWLock;
+    private final boolean lockFreeRead;
 
     public EventTypeIndex(FilterServiceGranularLockFactory lockFactory) {
-        eventTypes = new HashMap<EventType, FilterHandleSetNode>();
+        lockFreeRead = lockFactory.isLockFreeRead();
+        if (lockFreeRead) {
+            eventTypes = new ConcurrentHashMap<EventType, FilterHandleSetNode>();
+        } else {
+            eventTypes = new HashMap<EventType, FilterHandleSetNode>();
+        }
         eventTypesRWLock = lockFactory.obtainNew();
     }
 
@@ -80,6 +87,9 @@ public class EventTypeIndex implements EventEvaluator {
      * @return the subtree's root node
      */
     public FilterHandleSetNode get(EventType eventType) {
+        if (lockFreeRead) {
+            return eventTypes.get(eventType);
+        }
         eventTypesRWLock.readLock().lock();
         FilterHandleSetNode result = eventTypes.get(eventType);
         eventTypesRWLock.readLock().unlock();
@@ -131,12 +141,16 @@ public class EventTypeIndex implements EventEvaluator {
     }
 
     private void matchType(EventType eventType, EventBean eventBean, Collection<FilterHandle> matches) {
-        eventTypesRWLock.readLock().lock();
         FilterHandleSetNode rootNode = null;
-        try {
+        if (lockFreeRead) {
             rootNode = eventTypes.get(eventType);
-        } finally {
-            eventTypesRWLock.readLock().unlock();
+        } else {
+            eventTypesRWLock.readLock().lock();
+            try {
+                rootNode = eventTypes.get(eventType);
+            } finally {
+                eventTypesRWLock.readLock().unlock();
+            }
         }
 
         // If the top class node is null, no filters have yet been registered for this event type.
@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -23,16 +24,39 @@ import java.util.concurrent.locks.ReadWriteLock;
  * but can also be non-leaf (some indizes exist) in a filter evaluation tree.
  * Events are evaluated by asking each of the indizes to evaluate the event and by
  * adding any filter callbacks in this node to the "matches" list of callbacks.
+ * <p>
+ * When constructed for lock-free reads, matching does not take the node lock: the indizes are kept in a
+ * copy-on-write list and writers publish a new array of filter callbacks after each change.
+ * </p>
  */
 public final class FilterHandleSetNode implements EventEvaluator {
     private final ReadWriteLock nodeRWLock;
     private final Set<FilterHandle> callbackSet;
     private final List<FilterParamIndexBase> indizes;
+    private final boolean lockFreeRead;
+    private volatile FilterHandle[] callbacksPublished = EMPTY_CALLBACKS;
+
+    private static final FilterHandle[] EMPTY_CALLBACKS = new FilterHandle[0];
 
     public FilterHandleSetNode(ReadWriteLock nodeRWLock) {
+        this(nodeRWLock, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param nodeRWLock   lock that writers acquire, and that readers acquire unless reading lock-free
+     * @param lockFreeRead indicator whether matching reads this node without locking
+     */
+    public FilterHandleSetNode(ReadWriteLock nodeRWLock, boolean lockFreeRead) {
         this.nodeRWLock = nodeRWLock;
+        this.lockFreeRead = lockFreeRead;
         callbackSet = new LinkedHashSet<FilterHandle>();
-        indizes = new LinkedList<FilterParamIndexBase>();
+        if (lockFreeRead) {
+            indizes = new CopyOnWriteArrayList<FilterParamIndexBase>();
+        } else {
+            indizes = new LinkedList<FilterParamIndexBase>();
+        }
     }
 
     /**
@@ -84,6 +108,11 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @param matches  is the list of callbacks to add to for any matches found
      */
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        if (lockFreeRead) {
+            matchEventLockFree(theEvent, matches);
+            return;
+        }
+
         nodeRWLock.readLock().lock();
         try {
             if (InstrumentationHelper.ENABLED) {
@@ -118,6 +147,36 @@ public final class FilterHandleSetNode implements EventEvaluator {
         }
     }
 
+    private void matchEventLockFree(EventBean theEvent, Collection<FilterHandle> matches) {
+        if (InstrumentationHelper.ENABLED) {
+            if (!indizes.isEmpty()) {
+                InstrumentationHelper.get().qFilterHandleSetIndexes(indizes);
+            }
+        }
+
+        // Copy-on-write list: iteration works off the version current when the iterator was obtained
+        for (FilterParamIndexBase index : indizes) {
+            index.matchEvent(theEvent, matches);
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            if (!indizes.isEmpty()) {
+                InstrumentationHelper.get().aFilterHandleSetIndexes();
+            }
+        }
+
+        FilterHandle[] callbacks = callbacksPublished;
+        if (InstrumentationHelper.ENABLED) {
+            if (callbacks.length > 0) {
+                InstrumentationHelper.get().qaFilterHandleSetCallbacks(new LinkedHashSet<FilterHandle>(Arrays.asList(callbacks)));
+            }
+        }
+
+        for (FilterHandle filterCallback : callbacks) {
+            matches.add(filterCallback);
+        }
+    }
+
     /**
      * Returns an indication whether the filter callback exists in this node.
      * NOTE: the client to this method must use the read-write lock of this object to lock, if required by the client
@@ -162,7 +221,9 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @param filterCallback is the callback to add
      */
     public final void add(FilterHandle filterCallback) {
-        callbackSet.add(filterCallback);
+        if (callbackSet.add(filterCallback) && lockFreeRead) {
+            publishCallbacks();
+        }
     }
 
     /**
@@ -174,10 +235,18 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @return true if found, false if not existing
      */
     public final boolean remove(FilterHandle filterCallback) {
-        return callbackSet.remove(filterCallback);
+        boolean removed = callbackSet.remove(filterCallback);
+        if (removed && lockFreeRead) {
+            publishCallbacks();
+        }
+        return removed;
     }
 
     public Set<FilterHandle> getCallbackSet() {
         return callbackSet;
     }
+
+    private void publishCallbacks() {
+        callbacksPublished = callbackSet.toArray(new FilterHandle[callbackSet.size()]);
+    }
 }
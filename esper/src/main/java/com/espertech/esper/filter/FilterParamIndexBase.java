@@ -82,6 +82,16 @@ public abstract class FilterParamIndexBase implements EventEvaluator {
      */
     public abstract ReadWriteLock getReadWriteLock();
 
+    /**
+     * Returns indicator whether matching reads this index without taking the read lock, in which case
+     * writers replace a value for a constant by a single put rather than a remove followed by a put.
+     *
+     * @return lock-free read indicator
+     */
+    public boolean isLockFreeRead() {
+        return false;
+    }
+
     /**
      * Returns the filter operator that the index matches for.
      *
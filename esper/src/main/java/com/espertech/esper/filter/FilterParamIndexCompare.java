@@ -17,7 +17,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -27,17 +29,27 @@ import java.util.concurrent.locks.ReadWriteLock;
  * for fast range checking, since the assumption is that frequently values fall within a range.
  */
 public final class FilterParamIndexCompare extends FilterParamIndexLookupableBase {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private final NavigableMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean lockFreeRead;
 
-    private Double lowerBounds;
-    private Double upperBounds;
+    private volatile Double lowerBounds;
+    private volatile Double upperBounds;
 
     public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean lockFreeRead) {
         super(filterOperator, lookupable);
 
-        constantsMap = new TreeMap<Object, EventEvaluator>();
+        if (lockFreeRead) {
+            constantsMap = new ConcurrentSkipListMap<Object, EventEvaluator>();
+        } else {
+            constantsMap = new TreeMap<Object, EventEvaluator>();
+        }
         constantsMapRWLock = readWriteLock;
+        this.lockFreeRead = lockFreeRead;
 
         if ((filterOperator != FilterOperator.GREATER) &&
                 (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -82,6 +94,10 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         return constantsMapRWLock;
     }
 
+    public final boolean isLockFreeRead() {
+        return lockFreeRead;
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
         Object propertyValue = lookupable.getGetter().get(theEvent);
         if (InstrumentationHelper.ENABLED) {
@@ -95,8 +111,10 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
             return;
         }
 
-        // A undefine lower bound indicates an empty index
-        if (lowerBounds == null) {
+        // A undefine lower bound indicates an empty index, read once as writers may change the bounds when reading lock-free
+        Double lowerBounds = this.lowerBounds;
+        Double upperBounds = this.upperBounds;
+        if (lowerBounds == null || upperBounds == null) {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aFilterReverseIndex(false);
             }
@@ -129,6 +147,14 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
             return;
         }
 
+        if (lockFreeRead) {
+            matchLockFree(propertyValue, filterOperator, theEvent, matches);
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(null);
+            }
+            return;
+        }
+
         // Look up in table
         constantsMapRWLock.readLock().lock();
         try {
@@ -185,5 +211,29 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         upperBounds = ((Number) constantsMap.lastKey()).doubleValue();
     }
 
+    // The concurrent map may change between calls, therefore use the navigable views that include or exclude the property value
+    private void matchLockFree(Object propertyValue, FilterOperator filterOperator, EventBean theEvent, Collection<FilterHandle> matches) {
+        Map<Object, EventEvaluator> subMap;
+        EventEvaluator exactEquals = null;
+        if (filterOperator == FilterOperator.GREATER) {
+            subMap = constantsMap.headMap(propertyValue, false);
+        } else if (filterOperator == FilterOperator.GREATER_OR_EQUAL) {
+            subMap = constantsMap.headMap(propertyValue, false);
+            exactEquals = constantsMap.get(propertyValue);
+        } else if (filterOperator == FilterOperator.LESS) {
+            subMap = constantsMap.tailMap(propertyValue, false);
+        } else {
+            subMap = constantsMap.tailMap(propertyValue, true);
+        }
+
+        for (EventEvaluator matcher : subMap.values()) {
+            matcher.matchEvent(theEvent, matches);
+        }
+
+        if (exactEquals != null) {
+            exactEquals.matchEvent(theEvent, matches);
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexCompare.class);
 }
@@ -17,7 +17,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -27,14 +29,24 @@ import java.util.concurrent.locks.ReadWriteLock;
  * for fast range checking, since the assumption is that frequently values fall within a range.
  */
 public final class FilterParamIndexCompareString extends FilterParamIndexLookupableBase {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private final NavigableMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean lockFreeRead;
 
     public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean lockFreeRead) {
         super(filterOperator, lookupable);
 
-        constantsMap = new TreeMap<Object, EventEvaluator>();
+        if (lockFreeRead) {
+            constantsMap = new ConcurrentSkipListMap<Object, EventEvaluator>();
+        } else {
+            constantsMap = new TreeMap<Object, EventEvaluator>();
+        }
         constantsMapRWLock = readWriteLock;
+        this.lockFreeRead = lockFreeRead;
 
         if ((filterOperator != FilterOperator.GREATER) &&
                 (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -68,6 +80,10 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
         return constantsMapRWLock;
     }
 
+    public final boolean isLockFreeRead() {
+        return lockFreeRead;
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
         Object propertyValue = lookupable.getGetter().get(theEvent);
         if (InstrumentationHelper.ENABLED) {
@@ -83,6 +99,14 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
 
         FilterOperator filterOperator = this.getFilterOperator();
 
+        if (lockFreeRead) {
+            matchLockFree(propertyValue, filterOperator, theEvent, matches);
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(null);
+            }
+            return;
+        }
+
         // Look up in table
         constantsMapRWLock.readLock().lock();
         try {
@@ -130,5 +154,29 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
         }
     }
 
+    // The concurrent map may change between calls, therefore use the navigable views that include or exclude the property value
+    private void matchLockFree(Object propertyValue, FilterOperator filterOperator, EventBean theEvent, Collection<FilterHandle> matches) {
+        Map<Object, EventEvaluator> subMap;
+        EventEvaluator exactEquals = null;
+        if (filterOperator == FilterOperator.GREATER) {
+            subMap = constantsMap.headMap(propertyValue, false);
+        } else if (filterOperator == FilterOperator.GREATER_OR_EQUAL) {
+            subMap = constantsMap.headMap(propertyValue, false);
+            exactEquals = constantsMap.get(propertyValue);
+        } else if (filterOperator == FilterOperator.LESS) {
+            subMap = constantsMap.tailMap(propertyValue, false);
+        } else {
+            subMap = constantsMap.tailMap(propertyValue, true);
+        }
+
+        for (EventEvaluator matcher : subMap.values()) {
+            matcher.matchEvent(theEvent, matches);
+        }
+
+        if (exactEquals != null) {
+            exactEquals.matchEvent(theEvent, matches);
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexCompareString.class);
 }
@@ -34,19 +34,27 @@ public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRan
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
-        Object objAttributeValue = lookupable.getGetter().get(theEvent);
-        if (InstrumentationHelper.ENABLED) {
-            InstrumentationHelper.get().qFilterReverseIndex(this, objAttributeValue);
-        }
-
-        if (objAttributeValue == null) {
+        double attributeValue;
+        if (primitiveGetter != null) {
+            attributeValue = primitiveGetter.getDouble(theEvent);
             if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aFilterReverseIndex(false);
+                InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+            }
+        } else {
+            Object objAttributeValue = lookupable.getGetter().get(theEvent);
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().qFilterReverseIndex(this, objAttributeValue);
             }
-            return;
-        }
 
-        double attributeValue = ((Number) objAttributeValue).doubleValue();
+            if (objAttributeValue == null) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aFilterReverseIndex(false);
+                }
+                return;
+            }
+
+            attributeValue = ((Number) objAttributeValue).doubleValue();
+        }
 
         DoubleRange rangeStart = new DoubleRange(attributeValue - largestRangeValueDouble, attributeValue);
         DoubleRange rangeEnd = new DoubleRange(attributeValue, Double.MAX_VALUE);
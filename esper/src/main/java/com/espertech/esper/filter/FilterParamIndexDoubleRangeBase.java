@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.filter;
 
+import com.espertech.esper.event.EventPropertyGetterPrimitive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +25,7 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLookupableBase {
     protected final TreeMap<DoubleRange, EventEvaluator> ranges;
+    protected final EventPropertyGetterPrimitive primitiveGetter;
     private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
 
@@ -35,6 +37,7 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
         ranges = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
         rangesRWLock = readWriteLock;
+        primitiveGetter = lookupable.getGetter() instanceof EventPropertyGetterPrimitive ? (EventPropertyGetterPrimitive) lookupable.getGetter() : null;
     }
 
     public final EventEvaluator get(Object expressionValue) {
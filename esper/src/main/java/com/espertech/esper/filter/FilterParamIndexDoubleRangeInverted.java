@@ -33,19 +33,27 @@ public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexD
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
-        Object objAttributeValue = lookupable.getGetter().get(theEvent);
-        if (InstrumentationHelper.ENABLED) {
-            InstrumentationHelper.get().qFilterReverseIndex(this, objAttributeValue);
-        }
-
-        if (objAttributeValue == null) {
+        double attributeValue;
+        if (primitiveGetter != null) {
+            attributeValue = primitiveGetter.getDouble(theEvent);
             if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aFilterReverseIndex(false);
+                InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+            }
+        } else {
+            Object objAttributeValue = lookupable.getGetter().get(theEvent);
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().qFilterReverseIndex(this, objAttributeValue);
             }
-            return;
-        }
 
-        double attributeValue = ((Number) objAttributeValue).doubleValue();
+            if (objAttributeValue == null) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aFilterReverseIndex(false);
+                }
+                return;
+            }
+
+            attributeValue = ((Number) objAttributeValue).doubleValue();
+        }
 
         if (this.getFilterOperator() == FilterOperator.NOT_RANGE_CLOSED) {   // include all endpoints
             for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
@@ -25,6 +25,10 @@ public final class FilterParamIndexEquals extends FilterParamIndexEqualsBase {
         super(lookupable, readWriteLock, FilterOperator.EQUAL);
     }
 
+    public FilterParamIndexEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean lockFreeRead) {
+        super(lookupable, readWriteLock, FilterOperator.EQUAL, lockFreeRead);
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
         Object attributeValue = lookupable.getGetter().get(theEvent);
         if (InstrumentationHelper.ENABLED) {
@@ -40,11 +44,15 @@ public final class FilterParamIndexEquals extends FilterParamIndexEqualsBase {
 
         // Look up in hashtable
         EventEvaluator evaluator = null;
-        constantsMapRWLock.readLock().lock();
-        try {
+        if (lockFreeRead) {
             evaluator = constantsMap.get(attributeValue);
-        } finally {
-            constantsMapRWLock.readLock().unlock();
+        } else {
+            constantsMapRWLock.readLock().lock();
+            try {
+                evaluator = constantsMap.get(attributeValue);
+            } finally {
+                constantsMapRWLock.readLock().unlock();
+            }
         }
 
         // No listener found for the value, return
@@ -12,6 +12,7 @@ package com.espertech.esper.filter;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -21,23 +22,49 @@ import java.util.concurrent.locks.ReadWriteLock;
 public abstract class FilterParamIndexEqualsBase extends FilterParamIndexLookupableBase {
     protected final Map<Object, EventEvaluator> constantsMap;
     protected final ReadWriteLock constantsMapRWLock;
+    protected final boolean lockFreeRead;
+    private EventEvaluator nullConstantEvaluator;
 
     protected FilterParamIndexEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    protected FilterParamIndexEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean lockFreeRead) {
         super(filterOperator, lookupable);
 
-        constantsMap = new HashMap<Object, EventEvaluator>();
+        // the concurrent map does not allow null keys, the null constant is kept separately and never matches
+        if (lockFreeRead) {
+            constantsMap = new ConcurrentHashMap<Object, EventEvaluator>();
+        } else {
+            constantsMap = new HashMap<Object, EventEvaluator>();
+        }
         constantsMapRWLock = readWriteLock;
+        this.lockFreeRead = lockFreeRead;
     }
 
     public final EventEvaluator get(Object filterConstant) {
+        if (filterConstant == null && lockFreeRead) {
+            return nullConstantEvaluator;
+        }
         return constantsMap.get(filterConstant);
     }
 
     public final void put(Object filterConstant, EventEvaluator evaluator) {
+        if (filterConstant == null && lockFreeRead) {
+            nullConstantEvaluator = evaluator;
+            return;
+        }
         constantsMap.put(filterConstant, evaluator);
     }
 
     public final boolean remove(Object filterConstant) {
+        if (filterConstant == null && lockFreeRead) {
+            if (nullConstantEvaluator == null) {
+                return false;
+            }
+            nullConstantEvaluator = null;
+            return true;
+        }
         if (constantsMap.remove(filterConstant) == null) {
             return false;
         }
@@ -45,7 +72,11 @@ public abstract class FilterParamIndexEqualsBase extends FilterParamIndexLookupa
     }
 
     public final int size() {
-        return constantsMap.size();
+        return constantsMap.size() + (nullConstantEvaluator == null ? 0 : 1);
+    }
+
+    public final boolean isLockFreeRead() {
+        return lockFreeRead;
     }
 
     public final ReadWriteLock getReadWriteLock() {
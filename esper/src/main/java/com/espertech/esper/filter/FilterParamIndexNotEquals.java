@@ -28,6 +28,10 @@ public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBa
         super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL);
     }
 
+    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean lockFreeRead) {
+        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL, lockFreeRead);
+    }
+
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
         Object attributeValue = lookupable.getGetter().get(theEvent);
         if (InstrumentationHelper.ENABLED) {
@@ -42,19 +46,15 @@ public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBa
         }
 
         // Look up in hashtable
-        constantsMapRWLock.readLock().lock();
-        try {
-            for (Map.Entry<Object, EventEvaluator> entry : constantsMap.entrySet()) {
-                if (entry.getKey() == null) {
-                    continue;   // null-value cannot match, not even null (use "is" or "is not", i.e. null != null returns null)
-                }
-
-                if (!entry.getKey().equals(attributeValue)) {
-                    entry.getValue().matchEvent(theEvent, matches);
-                }
+        if (lockFreeRead) {
+            matchEntries(attributeValue, theEvent, matches);
+        } else {
+            constantsMapRWLock.readLock().lock();
+            try {
+                matchEntries(attributeValue, theEvent, matches);
+            } finally {
+                constantsMapRWLock.readLock().unlock();
             }
-        } finally {
-            constantsMapRWLock.readLock().unlock();
         }
 
         if (InstrumentationHelper.ENABLED) {
@@ -62,5 +62,17 @@ public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBa
         }
     }
 
+    private void matchEntries(Object attributeValue, EventBean theEvent, Collection<FilterHandle> matches) {
+        for (Map.Entry<Object, EventEvaluator> entry : constantsMap.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;   // null-value cannot match, not even null (use "is" or "is not", i.e. null != null returns null)
+            }
+
+            if (!entry.getKey().equals(attributeValue)) {
+                entry.getValue().matchEvent(theEvent, matches);
+            }
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexNotEquals.class);
 }
@@ -80,7 +80,7 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
         numEventsEvaluated.incrementAndGet();
 
         // Finds all matching filters and return their callbacks.
-        retryableMatchEvent(theEvent, matches);
+        matchEvent(theEvent, matches);
 
         if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
             for (FilterServiceListener listener : filterServiceListeners) {
@@ -102,7 +102,7 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
         ArrayDeque<FilterHandle> allMatches = new ArrayDeque<FilterHandle>();
 
         // Finds all matching filters
-        retryableMatchEvent(theEvent, allMatches);
+        matchEvent(theEvent, allMatches);
 
         // Add statement matches to collection passed
         for (FilterHandle match : allMatches) {
@@ -166,6 +166,16 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
         eventTypeIndex.removeType(type);
     }
 
+    /**
+     * Finds all matching filters for an event, retrying on lock back-off.
+     *
+     * @param theEvent event
+     * @param matches  collection to add matches to
+     */
+    protected void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        retryableMatchEvent(theEvent, matches);
+    }
+
     private void retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
         // Install lock backoff exception handler that retries the evaluation.
         try {
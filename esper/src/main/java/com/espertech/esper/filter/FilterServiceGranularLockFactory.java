@@ -14,4 +14,12 @@ import java.util.concurrent.locks.ReadWriteLock;
 
 public interface FilterServiceGranularLockFactory {
     public ReadWriteLock obtainNew();
+
+    /**
+     * Returns indicator whether event matching reads nodes and indexes without taking their read lock.
+     * When true, nodes and indexes that support it use concurrent-read collections and only writers acquire the lock.
+     *
+     * @return lock-free read indicator
+     */
+    public boolean isLockFreeRead();
 }
@@ -0,0 +1,31 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock factory for filter services that match events without taking read locks.
+ * <p>
+ * Writers still acquire the write lock of each node and index they change. Nodes and indexes that support
+ * lock-free reads publish changes through concurrent-read collections, all others continue to take the read lock.
+ * </p>
+ */
+public class FilterServiceGranularLockFactoryLockFreeRead implements FilterServiceGranularLockFactory {
+    public ReadWriteLock obtainNew() {
+        return new ReentrantReadWriteLock();
+    }
+
+    public boolean isLockFreeRead() {
+        return true;
+    }
+}
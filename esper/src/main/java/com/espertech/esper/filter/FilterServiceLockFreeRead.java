@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filter service that evaluates events without locking.
+ * <p>
+ * Filters are added and removed under the locks of the index tree nodes they change and become visible to
+ * event evaluation through concurrent-read collections, so evaluation is not blocked by adding or removing filters.
+ * </p>
+ * <p>
+ * Changes that span multiple filters, such as terminating and restarting a context partition, are made holding the write lock.
+ * The write lock advances a change epoch when acquired and when released. Evaluation that observes an epoch
+ * change repeats the evaluation, and evaluation waits while the write lock is held, so that such changes appear
+ * atomic to events.
+ * </p>
+ */
+public final class FilterServiceLockFreeRead extends FilterServiceBase {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long epoch;
+
+    public FilterServiceLockFreeRead(boolean allowIsolation) {
+        super(new FilterServiceGranularLockFactoryLockFreeRead(), allowIsolation);
+    }
+
+    public void acquireWriteLock() {
+        lock.writeLock().lock();
+        if (lock.getWriteHoldCount() == 1) {
+            epoch++;
+        }
+    }
+
+    public void releaseWriteLock() {
+        if (lock.getWriteHoldCount() == 1) {
+            epoch++;
+        }
+        lock.writeLock().unlock();
+    }
+
+    public FilterSet take(Set<Integer> statementId) {
+        acquireWriteLock();
+        try {
+            return super.takeInternal(statementId);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    public void apply(FilterSet filterSet) {
+        acquireWriteLock();
+        try {
+            super.applyInternal(filterSet);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        return super.evaluateInternal(theEvent, matches);
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        return super.evaluateInternal(theEvent, matches, statementId);
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        return super.addInternal(filterValueSet, callback);
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        super.removeInternal(callback, filterServiceEntry);
+    }
+
+    public void removeType(EventType type) {
+        acquireWriteLock();
+        try {
+            super.removeTypeInternal(type);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    protected void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        if (lock.isWriteLockedByCurrentThread()) {
+            super.matchEvent(theEvent, matches);
+            return;
+        }
+
+        while (true) {
+            long start = epoch;
+            if ((start & 1) != 0) {
+                // wait for the change in progress to complete
+                lock.readLock().lock();
+                lock.readLock().unlock();
+                continue;
+            }
+
+            super.matchEvent(theEvent, matches);
+            if (epoch == start) {
+                return;
+            }
+            matches.clear();
+        }
+    }
+}
@@ -30,13 +30,13 @@ public class IndexFactory {
 
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL) {
-            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew(), lockFactory.isLockFreeRead());
             return index;
         }
 
         // Handle all NOT-EQUAL comparisons
         if (filterOperator == FilterOperator.NOT_EQUAL) {
-            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew(), lockFactory.isLockFreeRead());
             return index;
         }
 
@@ -56,9 +56,9 @@ public class IndexFactory {
                 (filterOperator == FilterOperator.LESS) ||
                 (filterOperator == FilterOperator.LESS_OR_EQUAL)) {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator, lockFactory.isLockFreeRead());
             } else {
-                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator, lockFactory.isLockFreeRead());
             }
             return index;
         }
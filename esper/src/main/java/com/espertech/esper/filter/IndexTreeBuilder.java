@@ -335,9 +335,12 @@ public final class IndexTreeBuilder {
 
                 // The found eventEvaluator must be converted to a new FilterHandleSetNode
                 FilterParamIndexBase nextIndex = (FilterParamIndexBase) eventEvaluator;
-                FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory.isLockFreeRead());
                 newNode.add(nextIndex);
-                index.remove(filterForValue);
+                // lock-free readers must always find a value for the constant, replace by a single put
+                if (!index.isLockFreeRead()) {
+                    index.remove(filterForValue);
+                }
                 index.put(filterForValue, newNode);
                 addToNode(remainingParameters, filterCallback, newNode, treePathInfo, lockFactory);
 
@@ -347,7 +350,7 @@ public final class IndexTreeBuilder {
             // The index does not currently have this filterCallback value,
             // if there are no remaining parameters, create a node
             if (remainingParameters.isEmpty()) {
-                FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory.isLockFreeRead());
                 addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory);
                 index.put(filterForValue, node);
                 return;
@@ -16,6 +16,7 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.collection.SingleEventIterator;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.agg.service.AggregationServiceMatchRecognize;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -36,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * View for match recognize support.
@@ -44,6 +46,12 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
     private static final Logger log = LoggerFactory.getLogger(EventRowRegexNFAView.class);
     private static final boolean IS_DEBUG = false;
     private static final Iterator<EventBean> NULL_ITERATOR = new SingleEventIterator(null);
+    private static final int STATE_ENTRY_POOL_SIZE = 32;
+    private static final Comparator<RegexNFAStateEntry> END_EVENT_SEQNO_COMPARATOR = new Comparator<RegexNFAStateEntry>() {
+        public int compare(RegexNFAStateEntry o1, RegexNFAStateEntry o2) {
+            return Integer.compare(o1.getMatchEndEventSeqNo(), o2.getMatchEndEventSeqNo());
+        }
+    };
 
     private final EventRowRegexNFAViewFactory factory;
     private final MatchRecognizeSpec matchRecognizeSpec;
@@ -77,6 +85,11 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
 
     private final RegexPartitionStateRandomAccessGetter prevGetter;
     private final ObjectArrayBackedEventBean compositeEventBean;
+    private final RegexNFAStateEntryPool stateEntryPool;
+
+    // for processing partitions in parallel
+    private final ThreadingService threadingService;
+    private final int partitionThreads;
 
     // state
     protected RegexPartitionStateRepo regexPartitionStateRepo;
@@ -149,6 +162,14 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         }
 
         this.windowMatchedEventset = new LinkedHashSet<EventBean>();
+        this.stateEntryPool = new RegexNFAStateEntryPool(STATE_ENTRY_POOL_SIZE);
+        if (factory.isPartitionParallel()) {
+            this.threadingService = agentInstanceContext.getStatementContext().getThreadingService();
+            this.partitionThreads = matchRecognizeConfig.getPartitionThreads();
+        } else {
+            this.threadingService = null;
+            this.partitionThreads = 0;
+        }
 
         // handle "previous" function nodes (performance-optimized for direct index access)
         if (!callbacksPerIndex.isEmpty()) {
@@ -296,46 +317,50 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         List<RegexNFAStateEntry> endStates = new ArrayList<RegexNFAStateEntry>();
         List<RegexNFAStateEntry> terminationStatesAll = null;
 
-        for (EventBean newEvent : newData) {
-            List<RegexNFAStateEntry> nextStates = new ArrayList<RegexNFAStateEntry>(2);
-            int eventSequenceNumber = regexPartitionStateRepo.incrementAndGetEventSequenceNum();
+        if (threadingService != null && newData.length > 1 && threadingService.isMatchRecognizeThreading() && !InstrumentationHelper.ENABLED) {
+            stepPartitionsParallel(newData, endStates);
+        } else {
+            for (EventBean newEvent : newData) {
+                List<RegexNFAStateEntry> nextStates = new ArrayList<RegexNFAStateEntry>(2);
+                int eventSequenceNumber = regexPartitionStateRepo.incrementAndGetEventSequenceNum();
 
-            // get state holder for this event
-            RegexPartitionState partitionState = regexPartitionStateRepo.getState(newEvent, true);
-            Iterator<RegexNFAStateEntry> currentStatesIterator = partitionState.getCurrentStatesIterator();
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().qRegEx(newEvent, partitionState);
-            }
+                // get state holder for this event
+                RegexPartitionState partitionState = regexPartitionStateRepo.getState(newEvent, true);
+                Iterator<RegexNFAStateEntry> currentStatesIterator = partitionState.getCurrentStatesIterator();
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qRegEx(newEvent, partitionState);
+                }
 
-            if (partitionState.getRandomAccess() != null) {
-                partitionState.getRandomAccess().newEventPrepare(newEvent);
-            }
+                if (partitionState.getRandomAccess() != null) {
+                    partitionState.getRandomAccess().newEventPrepare(newEvent);
+                }
 
-            if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || IS_DEBUG) {
-                log.info("Evaluating event " + newEvent.getUnderlying() + "\n" +
-                        "current : " + EventRowRegexNFAViewUtil.printStates(partitionState.getCurrentStatesForPrint(), streamsVariables, variableStreams, multimatchStreamNumToVariable));
-            }
+                if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || IS_DEBUG) {
+                    log.info("Evaluating event " + newEvent.getUnderlying() + "\n" +
+                            "current : " + EventRowRegexNFAViewUtil.printStates(partitionState.getCurrentStatesForPrint(), streamsVariables, variableStreams, multimatchStreamNumToVariable));
+                }
 
-            List<RegexNFAStateEntry> terminationStates = step(false, currentStatesIterator, newEvent, nextStates, endStates, !isUnbound, eventSequenceNumber, partitionState.getOptionalKeys());
+                List<RegexNFAStateEntry> terminationStates = step(false, currentStatesIterator, newEvent, nextStates, endStates, isUnbound ? null : windowMatchedEventset, eventSequenceNumber, partitionState.getOptionalKeys(), stateEntryPool);
 
-            if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || IS_DEBUG) {
-                log.info("Evaluated event " + newEvent.getUnderlying() + "\n" +
-                        "next : " + EventRowRegexNFAViewUtil.printStates(nextStates, streamsVariables, variableStreams, multimatchStreamNumToVariable) + "\n" +
-                        "end : " + EventRowRegexNFAViewUtil.printStates(endStates, streamsVariables, variableStreams, multimatchStreamNumToVariable));
-            }
+                if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || IS_DEBUG) {
+                    log.info("Evaluated event " + newEvent.getUnderlying() + "\n" +
+                            "next : " + EventRowRegexNFAViewUtil.printStates(nextStates, streamsVariables, variableStreams, multimatchStreamNumToVariable) + "\n" +
+                            "end : " + EventRowRegexNFAViewUtil.printStates(endStates, streamsVariables, variableStreams, multimatchStreamNumToVariable));
+                }
 
-            // add termination states, for use with interval and "or terminated"
-            if (terminationStates != null) {
-                if (terminationStatesAll == null) {
-                    terminationStatesAll = terminationStates;
-                } else {
-                    terminationStatesAll.addAll(terminationStates);
+                // add termination states, for use with interval and "or terminated"
+                if (terminationStates != null) {
+                    if (terminationStatesAll == null) {
+                        terminationStatesAll = terminationStates;
+                    } else {
+                        terminationStatesAll.addAll(terminationStates);
+                    }
                 }
-            }
 
-            partitionState.setCurrentStates(nextStates);
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aRegEx(partitionState, endStates, terminationStates);
+                partitionState.setCurrentStates(nextStates);
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aRegEx(partitionState, endStates, terminationStates);
+                }
             }
         }
 
@@ -487,7 +512,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
             // check partition state - if empty delete (no states and no random access)
             if (endState.getPartitionKey() != null) {
                 RegexPartitionState state = regexPartitionStateRepo.getState(endState.getPartitionKey());
-                if (state.isEmptyCurrentState() && state.getRandomAccess() == null) {
+                if (state != null && state.isEmptyCurrentState() && state.getRandomAccess() == null) {
                     regexPartitionStateRepo.removeState(endState.getPartitionKey());
                 }
             }
@@ -504,6 +529,48 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         }
     }
 
+    private void stepPartitionsParallel(EventBean[] newData, List<RegexNFAStateEntry> endStates) {
+        // assign sequence numbers and partitions in event order, and assign each partition to a unit of work
+        int[] sequenceNums = new int[newData.length];
+        RegexPartitionState[] partitionStates = new RegexPartitionState[newData.length];
+        int[] unitNums = new int[newData.length];
+        PartitionUnit[] units = new PartitionUnit[partitionThreads];
+        List<PartitionUnit> unitsUsed = new ArrayList<PartitionUnit>(partitionThreads);
+        for (int i = 0; i < newData.length; i++) {
+            sequenceNums[i] = regexPartitionStateRepo.incrementAndGetEventSequenceNum();
+            partitionStates[i] = regexPartitionStateRepo.getState(newData[i], i == 0);
+            Object key = partitionStates[i].getOptionalKeys();
+            int hash = key == null ? 0 : key.hashCode();
+            int unitNum = ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % partitionThreads;
+            unitNums[i] = unitNum;
+            if (units[unitNum] == null) {
+                units[unitNum] = new PartitionUnit(unitNum, newData, sequenceNums, partitionStates, unitNums);
+                unitsUsed.add(units[unitNum]);
+            }
+        }
+
+        if (unitsUsed.size() == 1) {
+            unitsUsed.get(0).process();
+        } else {
+            threadingService.invokeMatchRecognize(unitsUsed);
+        }
+
+        // end states are ordered by event as when processed by a single thread
+        for (PartitionUnit unit : unitsUsed) {
+            endStates.addAll(unit.endStates);
+        }
+        if (unitsUsed.size() > 1) {
+            Collections.sort(endStates, END_EVENT_SEQNO_COMPARATOR);
+        }
+        if (!isUnbound) {
+            for (int i = 0; i < newData.length; i++) {
+                if (units[unitNums[i]].retainEventSet.contains(newData[i])) {
+                    windowMatchedEventset.add(newData[i]);
+                }
+            }
+        }
+    }
+
     private RegexNFAStateEntry rankEndStates(List<RegexNFAStateEntry> endStates) {
 
         // sort by end-event descending (newest first)
@@ -592,7 +659,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         "current : " + EventRowRegexNFAViewUtil.printStates(partitionState.getCurrentStatesForPrint(), streamsVariables, variableStreams, multimatchStreamNumToVariable));
             }
 
-            step(!isOutOfSeqDelete, currentStates, theEvent, nextStates, endStates, false, eventSequenceNumber, partitionState.getOptionalKeys());
+            step(!isOutOfSeqDelete, currentStates, theEvent, nextStates, endStates, null, eventSequenceNumber, partitionState.getOptionalKeys(), null);
 
             if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || IS_DEBUG) {
                 log.info("Evaluating event " + theEvent.getUnderlying() + "\n" +
@@ -783,9 +850,10 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                                           EventBean theEvent,
                                           List<RegexNFAStateEntry> nextStates,
                                           List<RegexNFAStateEntry> endStates,
-                                          boolean isRetainEventSet,
+                                          Set<EventBean> retainEventSet,
                                           int currentEventSequenceNumber,
-                                          Object partitionKey) {
+                                          Object partitionKey,
+                                          RegexNFAStateEntryPool pool) {
         List<RegexNFAStateEntry> terminationStates = null;  // always null or a list of entries (no singleton list)
 
         // handle current state matching
@@ -802,26 +870,29 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
             }
 
             EventBean[] eventsPerStream = currentState.getEventsPerStream();
-            int currentStateStreamNum = currentState.getState().getStreamNum();
+            RegexNFAState currentNFAState = currentState.getState();
+            int currentStateStreamNum = currentNFAState.getStreamNum();
             eventsPerStream[currentStateStreamNum] = theEvent;
             if (isDefineAsksMultimatches) {
                 eventsPerStream[numEventsEventsPerStreamDefine - 1] = getMultimatchState(currentState);
             }
 
-            if (currentState.getState().matches(eventsPerStream, agentInstanceContext)) {
-                if (isRetainEventSet) {
-                    this.windowMatchedEventset.add(theEvent);
+            if (currentNFAState.matches(eventsPerStream, agentInstanceContext)) {
+                if (retainEventSet != null) {
+                    retainEventSet.add(theEvent);
                 }
-                List<RegexNFAState> nextStatesFromHere = currentState.getState().getNextStates();
+                List<RegexNFAState> nextStatesFromHere = currentNFAState.getNextStates();
 
-                // save state for each next state
-                boolean copy = nextStatesFromHere.size() > 1;
-                for (RegexNFAState next : nextStatesFromHere) {
+                // save state for each next state, the last next state continues with the current entry and its arrays
+                int numNextStates = nextStatesFromHere.size();
+                for (int i = 0; i < numNextStates; i++) {
+                    RegexNFAState next = nextStatesFromHere.get(i);
+                    boolean reuse = i == numNextStates - 1;
                     EventBean[] eventsForState = eventsPerStream;
                     MultimatchState[] multimatches = currentState.getOptionalMultiMatches();
                     int[] greedyCounts = currentState.getGreedycountPerState();
 
-                    if (copy) {
+                    if (!reuse) {
                         eventsForState = new EventBean[eventsForState.length];
                         System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
 
@@ -834,16 +905,22 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         }
                     }
 
-                    if (isCollectMultimatches && (currentState.getState().isMultiple())) {
-                        multimatches = addTag(currentState.getState().getStreamNum(), theEvent, multimatches);
+                    if (isCollectMultimatches && (currentNFAState.isMultiple())) {
+                        multimatches = addTag(currentNFAState.getStreamNum(), theEvent, multimatches);
                         eventsForState[currentStateStreamNum] = null; // remove event from evaluation list
                     }
 
-                    if ((currentState.getState().isGreedy() != null) && (currentState.getState().isGreedy())) {
-                        greedyCounts[currentState.getState().getNodeNumFlat()]++;
+                    if ((currentNFAState.isGreedy() != null) && (currentNFAState.isGreedy())) {
+                        greedyCounts[currentNFAState.getNodeNumFlat()]++;
                     }
 
-                    RegexNFAStateEntry entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
+                    RegexNFAStateEntry entry;
+                    if (reuse) {
+                        entry = currentState;
+                        entry.setOptionalMultiMatches(multimatches);
+                    } else {
+                        entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentNFAState, eventsForState, greedyCounts, multimatches, partitionKey);
+                    }
                     if (next instanceof RegexNFAStateEnd) {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
                         endStates.add(entry);
@@ -890,6 +967,8 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         }
                         terminationStates.add(entry);
                     }
+                } else if (pool != null) {
+                    pool.release(currentState);
                 }
             }
         }
@@ -900,19 +979,22 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 InstrumentationHelper.get().qRegExStateStart(startState, variableStreams, multimatchStreamNumToVariable);
             }
 
-            EventBean[] eventsPerStream = new EventBean[numEventsEventsPerStreamDefine];
+            RegexNFAStateEntry pooled = pool == null ? null : pool.take();
+            EventBean[] eventsPerStream = pooled == null ? new EventBean[numEventsEventsPerStreamDefine] : pooled.getEventsPerStream();
             int currentStateStreamNum = startState.getStreamNum();
             eventsPerStream[currentStateStreamNum] = theEvent;
 
             if (startState.matches(eventsPerStream, agentInstanceContext)) {
-                if (isRetainEventSet) {
-                    this.windowMatchedEventset.add(theEvent);
+                if (retainEventSet != null) {
+                    retainEventSet.add(theEvent);
                 }
                 List<RegexNFAState> nextStatesFromHere = startState.getNextStates();
 
-                // save state for each next state
-                boolean copy = nextStatesFromHere.size() > 1;
-                for (RegexNFAState next : nextStatesFromHere) {
+                // save state for each next state, the last next state takes the evaluated events and any pooled entry
+                int numNextStates = nextStatesFromHere.size();
+                for (int i = 0; i < numNextStates; i++) {
+                    RegexNFAState next = nextStatesFromHere.get(i);
+                    boolean last = i == numNextStates - 1;
 
                     if (isTrackMaxStates && !skipTrackMaxState) {
                         MatchRecognizeStatePoolStmtSvc poolSvc = agentInstanceContext.getStatementContext().getMatchRecognizeStatePoolStmtSvc();
@@ -925,15 +1007,11 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
 
                     EventBean[] eventsForState = eventsPerStream;
                     MultimatchState[] multimatches = isCollectMultimatches ? new MultimatchState[multimatchVariablesArray.length] : null;
-                    int[] greedyCounts = new int[allStates.length];
+                    int[] greedyCounts = last && pooled != null ? pooled.getGreedycountPerState() : new int[allStates.length];
 
-                    if (copy) {
+                    if (!last) {
                         eventsForState = new EventBean[eventsForState.length];
                         System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
-
-                        int[] greedyCountsCopy = new int[greedyCounts.length];
-                        System.arraycopy(greedyCounts, 0, greedyCountsCopy, 0, greedyCounts.length);
-                        greedyCounts = greedyCountsCopy;
                     }
 
                     if (isCollectMultimatches && (startState.isMultiple())) {
@@ -950,7 +1028,14 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
                     }
 
-                    RegexNFAStateEntry entry = new RegexNFAStateEntry(currentEventSequenceNumber, time, startState, eventsForState, greedyCounts, multimatches, partitionKey);
+                    RegexNFAStateEntry entry;
+                    if (last && pooled != null) {
+                        entry = pooled;
+                        entry.reset(currentEventSequenceNumber, time, startState, multimatches, partitionKey);
+                        pooled = null;
+                    } else {
+                        entry = new RegexNFAStateEntry(currentEventSequenceNumber, time, startState, eventsForState, greedyCounts, multimatches, partitionKey);
+                    }
                     if (next instanceof RegexNFAStateEnd) {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
                         endStates.add(entry);
@@ -961,6 +1046,10 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 }
             }
 
+            if (pooled != null) {
+                pool.release(pooled);
+            }
+
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aRegExStateStart(nextStates, variableStreams, multimatchStreamNumToVariable);
             }
@@ -1154,4 +1243,41 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
     public EventRowRegexNFAViewFactory getFactory() {
         return factory;
     }
+
+    /**
+     * Processes the events of the partitions assigned to the unit, in event order.
+     */
+    private class PartitionUnit extends RecursiveAction {
+        private final int unitNum;
+        private final EventBean[] newData;
+        private final int[] sequenceNums;
+        private final RegexPartitionState[] partitionStates;
+        private final int[] unitNums;
+        private final List<RegexNFAStateEntry> endStates = new ArrayList<RegexNFAStateEntry>();
+        private final Set<EventBean> retainEventSet = isUnbound ? null : new HashSet<EventBean>();
+
+        private PartitionUnit(int unitNum, EventBean[] newData, int[] sequenceNums, RegexPartitionState[] partitionStates, int[] unitNums) {
+            this.unitNum = unitNum;
+            this.newData = newData;
+            this.sequenceNums = sequenceNums;
+            this.partitionStates = partitionStates;
+            this.unitNums = unitNums;
+        }
+
+        protected void compute() {
+            process();
+        }
+
+        private void process() {
+            for (int i = 0; i < newData.length; i++) {
+                if (unitNums[i] != unitNum) {
+                    continue;
+                }
+                RegexPartitionState partitionState = partitionStates[i];
+                List<RegexNFAStateEntry> nextStates = new ArrayList<RegexNFAStateEntry>(2);
+                step(false, partitionState.getCurrentStatesIterator(), newData[i], nextStates, endStates, retainEventSet, sequenceNums[i], partitionState.getOptionalKeys(), null);
+                partitionState.setCurrentStates(nextStates);
+            }
+        }
+    }
 }
@@ -33,6 +33,10 @@ import com.espertech.esper.epl.expression.visitor.ExprNodeIdentifierVisitor;
 import com.espertech.esper.epl.expression.visitor.ExprNodePreviousVisitorWParent;
 import com.espertech.esper.epl.expression.visitor.ExprNodeStreamRequiredVisitor;
 import com.espertech.esper.epl.expression.visitor.ExprNodeStreamUseCollectVisitor;
+import com.espertech.esper.epl.expression.visitor.ExprNodeSubselectDeclaredDotVisitor;
+import com.espertech.esper.epl.expression.visitor.ExprNodeTableAccessFinderVisitor;
+import com.espertech.esper.epl.expression.visitor.ExprNodeUserCodeFinderVisitor;
+import com.espertech.esper.epl.expression.visitor.ExprNodeVariableVisitor;
 import com.espertech.esper.epl.spec.MatchRecognizeDefineItem;
 import com.espertech.esper.epl.spec.MatchRecognizeMeasureItem;
 import com.espertech.esper.epl.spec.MatchRecognizeSpec;
@@ -65,6 +69,7 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
     protected final boolean[] isExprRequiresMultimatchState;
     protected final RowRegexExprNode expandedPatternNode;
     protected final ConfigurationEngineDefaults.MatchRecognize matchRecognizeConfig;
+    protected final boolean isPartitionParallel;
 
     /**
      * Ctor.
@@ -180,6 +185,7 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
         }
         isDefineAsksMultimatches = CollectionUtil.isAnySet(isExprRequiresMultimatchState);
         defineMultimatchEventBean = isDefineAsksMultimatches ? EventRowRegexNFAViewFactoryHelper.getDefineMultimatchBean(statementContext, variableStreams, parentViewType) : null;
+        isPartitionParallel = determinePartitionParallel(statementContext);
 
         // assign "prev" node indexes
         // Since an expression such as "prior(2, price), prior(8, price)" translates into {2, 8} the relative index is {0, 1}.
@@ -402,6 +408,38 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
         return defineItemExpression;
     }
 
+    // partitions can be processed in parallel if define-expressions do not share state between partitions
+    // and do not call application code, such as scripts and single-row functions, that may not be thread-safe
+    private boolean determinePartitionParallel(StatementContext statementContext) {
+        if (matchRecognizeConfig == null || matchRecognizeConfig.getPartitionThreads() < 2 || matchRecognizeConfig.getMaxStates() != null) {
+            return false;
+        }
+        if (matchRecognizeSpec.getPartitionByExpressions().isEmpty() || matchRecognizeSpec.getInterval() != null || isIterateOnly) {
+            return false;
+        }
+        if (!callbacksPerIndex.isEmpty() || isDefineAsksMultimatches) {
+            return false;
+        }
+        for (MatchRecognizeDefineItem defineItem : matchRecognizeSpec.getDefines()) {
+            ExprNodeSubselectDeclaredDotVisitor subselectVisitor = new ExprNodeSubselectDeclaredDotVisitor();
+            defineItem.getExpression().accept(subselectVisitor);
+            ExprNodeTableAccessFinderVisitor tableVisitor = new ExprNodeTableAccessFinderVisitor();
+            defineItem.getExpression().accept(tableVisitor);
+            ExprNodeVariableVisitor variableVisitor = new ExprNodeVariableVisitor(statementContext.getVariableService());
+            defineItem.getExpression().accept(variableVisitor);
+            ExprNodeUserCodeFinderVisitor userCodeVisitor = new ExprNodeUserCodeFinderVisitor();
+            defineItem.getExpression().accept(userCodeVisitor);
+            if (!subselectVisitor.getSubselects().isEmpty() || tableVisitor.isHasTableAccess() || variableVisitor.isHasVariables() || userCodeVisitor.isHasUserCode()) {
+                return false;
+            }
+            // enumeration methods, expression declarations and method calls on events share the statement's expression result cache
+            if (!subselectVisitor.getChainedExpressionsDot().isEmpty() || !subselectVisitor.getDeclaredExpressions().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> viewParameters) throws ViewParameterException {
     }
 
@@ -471,4 +509,8 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
     public String getViewName() {
         return "Match-recognize";
     }
+
+    public boolean isPartitionParallel() {
+        return isPartitionParallel;
+    }
 }
@@ -16,13 +16,13 @@ import com.espertech.esper.client.EventBean;
  * State for a partial NFA match.
  */
 public class RegexNFAStateEntry {
-    private final int matchBeginEventSeqNo;
-    private final long matchBeginEventTime;
+    private int matchBeginEventSeqNo;
+    private long matchBeginEventTime;
     private RegexNFAState state;
     private final EventBean[] eventsPerStream;
     private final int[] greedycountPerState;
-    private final MultimatchState[] optionalMultiMatches;
-    private final Object partitionKey;
+    private MultimatchState[] optionalMultiMatches;
+    private Object partitionKey;
     private int matchEndEventSeqNo;
 
     /**
@@ -140,4 +140,31 @@ public class RegexNFAStateEntry {
     public void setState(RegexNFAState state) {
         this.state = state;
     }
+
+    /**
+     * Sets the matches for multirow-variables.
+     *
+     * @param optionalMultiMatches matches for multirow-variables
+     */
+    public void setOptionalMultiMatches(MultimatchState[] optionalMultiMatches) {
+        this.optionalMultiMatches = optionalMultiMatches;
+    }
+
+    /**
+     * Re-initializes an entry taken from a state entry pool for a new match, keeping the event and greedy-count arrays.
+     *
+     * @param matchBeginEventSeqNo the event number where the match started
+     * @param matchBeginEventTime  the time the first match occured
+     * @param state                the current match state
+     * @param optionalMultiMatches matches for multirow-variables
+     * @param partitionKey         key of partition
+     */
+    public void reset(int matchBeginEventSeqNo, long matchBeginEventTime, RegexNFAState state, MultimatchState[] optionalMultiMatches, Object partitionKey) {
+        this.matchBeginEventSeqNo = matchBeginEventSeqNo;
+        this.matchBeginEventTime = matchBeginEventTime;
+        this.state = state;
+        this.optionalMultiMatches = optionalMultiMatches;
+        this.partitionKey = partitionKey;
+        this.matchEndEventSeqNo = 0;
+    }
 }
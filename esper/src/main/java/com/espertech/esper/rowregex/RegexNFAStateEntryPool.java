@@ -0,0 +1,71 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.rowregex;
+
+import java.util.Arrays;
+
+/**
+ * Bounded pool of discarded state entries for reuse by new matches, backed by an array and a fill index.
+ * <p>
+ * Entries released to the pool must be exclusively owned, i.e. their event and greedy-count arrays may not be
+ * shared with any other entry. The pool clears the arrays upon release. Not thread-safe.
+ */
+public class RegexNFAStateEntryPool {
+    private final RegexNFAStateEntry[] entries;
+    private int size;
+
+    /**
+     * Ctor.
+     *
+     * @param capacity maximum number of entries held
+     */
+    public RegexNFAStateEntryPool(int capacity) {
+        this.entries = new RegexNFAStateEntry[capacity];
+    }
+
+    /**
+     * Returns a pooled entry with cleared arrays, or null if the pool is empty.
+     *
+     * @return entry or null
+     */
+    public RegexNFAStateEntry take() {
+        if (size == 0) {
+            return null;
+        }
+        RegexNFAStateEntry entry = entries[--size];
+        entries[size] = null;
+        return entry;
+    }
+
+    /**
+     * Returns an entry to the pool, clearing its arrays, or drops the entry if the pool is full.
+     *
+     * @param entry to release
+     */
+    public void release(RegexNFAStateEntry entry) {
+        if (size == entries.length) {
+            return;
+        }
+        Arrays.fill(entry.getEventsPerStream(), null);
+        Arrays.fill(entry.getGreedycountPerState(), 0);
+        entry.reset(0, 0, null, null, null);
+        entries[size++] = entry;
+    }
+
+    /**
+     * Returns the number of entries in the pool.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+}
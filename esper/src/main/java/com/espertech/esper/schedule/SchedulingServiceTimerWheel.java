@@ -0,0 +1,538 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implements the schedule service as a hierarchical timer wheel.
+ * <p>
+ * Each of the wheel levels has 64 buckets with an occupancy bitmap, the lowest level having one bucket per time unit
+ * and each higher level having buckets that span a full wheel of the level below. Schedules beyond the highest level are kept
+ * in a sorted overflow map and are cascaded into the wheel when time gets close. Evaluation skips empty buckets using the bitmaps.
+ * <p>
+ * Add and remove do not lock: the handle-to-entry map is the authority of what is scheduled, add puts a new entry
+ * into the map and into one of several striped queues of pending entries, and remove removes the entry from the map.
+ * Evaluation drains the pending queues into the wheel under the wheel lock and fires an entry only if it is still the
+ * entry in the map, discarding entries that were replaced or removed. The wheel is rebuilt from the map
+ * when discarded entries outnumber the live ones.
+ * <p>
+ * Handles triggering at the same time are returned ordered by schedule slot, same as {@link SchedulingServiceImpl}.
+ */
+public final class SchedulingServiceTimerWheel implements SchedulingServiceSPI {
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimerWheel.class);
+
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final long MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final int NUM_STRIPES = 16;
+    private static final int COMPACT_MIN_STALE = 1024;
+
+    private static final Comparator<Entry> SLOT_COMPARATOR = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            return Long.compare(o1.slot, o2.slot);
+        }
+    };
+
+    private static final Comparator<Entry> TIME_SLOT_COMPARATOR = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            int result = Long.compare(o1.time, o2.time);
+            return result != 0 ? result : Long.compare(o1.slot, o2.slot);
+        }
+    };
+
+    // Buckets per level and bitmap of non-empty buckets per level, guarded by the wheel lock
+    private final ArrayList<Entry>[][] wheels;
+    private final long[] occupancy;
+
+    // Schedules beyond the span of the highest level, by time, guarded by the wheel lock
+    private final TreeMap<Long, ArrayList<Entry>> overflow;
+
+    // Schedules that were added for a time before the cursor, guarded by the wheel lock
+    private final ArrayList<Entry> due;
+
+    // Current entry per handle, an entry in the wheel that is not the current entry is stale
+    private final ConcurrentHashMap<ScheduleHandle, Entry> handleEntryMap;
+
+    // Entries added and not yet placed into the wheel, striped by adding thread
+    private final ConcurrentLinkedQueue<Entry>[] pending;
+
+    // Approximate number of stale entries in the wheel and the pending queues
+    private final AtomicLong numStale = new AtomicLong();
+
+    private final Object wheelLock = new Object();
+    private final ArrayList<Entry> scratch = new ArrayList<Entry>();
+
+    // All schedules with a time before the cursor have been evaluated, guarded by the wheel lock
+    private long cursor;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     *
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimerWheel(TimeSourceService timeSourceService) {
+        this.wheels = new ArrayList[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int index = 0; index < WHEEL_SIZE; index++) {
+                wheels[level][index] = new ArrayList<Entry>(2);
+            }
+        }
+        this.occupancy = new long[LEVELS];
+        this.overflow = new TreeMap<Long, ArrayList<Entry>>();
+        this.due = new ArrayList<Entry>();
+        this.handleEntryMap = new ConcurrentHashMap<ScheduleHandle, Entry>();
+        this.pending = new ConcurrentLinkedQueue[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            pending[i] = new ConcurrentLinkedQueue<Entry>();
+        }
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.cursor = currentTime + 1;
+    }
+
+    public void destroy() {
+        log.debug("Destroying scheduling service");
+        synchronized (wheelLock) {
+            handleEntryMap.clear();
+            for (ConcurrentLinkedQueue<Entry> queue : pending) {
+                queue.clear();
+            }
+            clearWheel();
+            numStale.set(0);
+        }
+    }
+
+    public long getTime() {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public final void setTime(long currentTime) {
+        this.currentTime = currentTime;
+    }
+
+    public final void add(long afterTime, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleAdd(currentTime, afterTime, handle, slot);
+        }
+        Entry entry = new Entry(handle, currentTime + afterTime, slot);
+        if (handleEntryMap.put(handle, entry) != null) {
+            numStale.incrementAndGet();
+        }
+        pending[(int) (Thread.currentThread().getId() % NUM_STRIPES)].add(entry);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleAdd();
+        }
+    }
+
+    public final void remove(ScheduleHandle handle, long slot) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleRemove(handle, slot);
+        }
+        // If it already has been removed then that's fine;
+        // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+        if (handleEntryMap.remove(handle) != null) {
+            numStale.incrementAndGet();
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleRemove();
+        }
+    }
+
+    public final void evaluate(Collection<ScheduleHandle> handles) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleEval(currentTime);
+        }
+        synchronized (wheelLock) {
+            evaluateInternal(handles);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleEval(handles);
+        }
+    }
+
+    private void evaluateInternal(Collection<ScheduleHandle> handles) {
+        long time = currentTime;
+
+        // the cursor is one past the evaluated time, therefore the largest time is evaluated separately
+        boolean maxTime = time == Long.MAX_VALUE;
+        if (maxTime) {
+            time = Long.MAX_VALUE - 1;
+        }
+
+        // time moved backwards, or too many stale entries: place all schedules relative to the new time
+        if (time < cursor - 1) {
+            rebuild(time + 1);
+        } else {
+            drainPending();
+            if (numStale.get() > handleEntryMap.size() + COMPACT_MIN_STALE) {
+                rebuild(cursor);
+            }
+        }
+
+        // schedules added for a time before the cursor are earlier then any schedule in the wheel
+        if (!due.isEmpty()) {
+            Collections.sort(due, TIME_SLOT_COMPARATOR);
+            fire(due, handles);
+        }
+
+        while (cursor <= time) {
+            long blockEnd = cursor | MASK;
+            int first = (int) (cursor & MASK);
+            int last = time < blockEnd ? (int) (time & MASK) : WHEEL_SIZE - 1;
+            long bits = occupancy[0] & (-1L << first) & (-1L >>> (WHEEL_SIZE - 1 - last));
+            while (bits != 0) {
+                int index = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                occupancy[0] &= ~(1L << index);
+                ArrayList<Entry> bucket = wheels[0][index];
+                if (bucket.size() > 1) {
+                    Collections.sort(bucket, SLOT_COMPARATOR);
+                }
+                fire(bucket, handles);
+            }
+
+            if (time < blockEnd) {
+                cursor = time + 1;
+                break;
+            }
+
+            // skip ahead to the earliest non-empty bucket, cascading its schedules to the lower levels
+            cursor = blockEnd + 1;
+            long next = nextBucketStart();
+            if (next > time) {
+                moveTo(time + 1);
+                break;
+            }
+            moveTo(next);
+        }
+
+        if (maxTime && (occupancy[0] & (1L << MASK)) != 0) {
+            occupancy[0] &= ~(1L << MASK);
+            ArrayList<Entry> bucket = wheels[0][(int) MASK];
+            if (bucket.size() > 1) {
+                Collections.sort(bucket, SLOT_COMPARATOR);
+            }
+            fire(bucket, handles);
+        }
+    }
+
+    public ScheduleSet take(Set<Integer> statementIds) {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (Entry entry : sortedEntries()) {
+            if (statementIds.contains(entry.handle.getStatementId())) {
+                long relative = entry.time - currentTime;
+                list.add(new ScheduleSetEntry(relative, entry.slot, entry.handle));
+            }
+        }
+
+        for (ScheduleSetEntry entry : list) {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet) {
+        for (ScheduleSetEntry entry : scheduleSet.getList()) {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public int getTimeHandleCount() {
+        Set<Long> times = new HashSet<Long>();
+        for (Entry entry : handleEntryMap.values()) {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate() {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate() {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public Long getFurthestTimeHandle() {
+        synchronized (wheelLock) {
+            drainPending();
+            for (Iterator<ArrayList<Entry>> it = overflow.descendingMap().values().iterator(); it.hasNext(); ) {
+                Long time = maxValidTime(it.next());
+                if (time != null) {
+                    return time;
+                }
+            }
+            for (int level = LEVELS - 1; level >= 0; level--) {
+                long bits = occupancy[level];
+                while (bits != 0) {
+                    int index = WHEEL_SIZE - 1 - Long.numberOfLeadingZeros(bits);
+                    bits &= ~(1L << index);
+                    Long time = maxValidTime(wheels[level][index]);
+                    if (time != null) {
+                        return time;
+                    }
+                }
+            }
+            return maxValidTime(due);
+        }
+    }
+
+    public int getScheduleHandleCount() {
+        return handleEntryMap.size();
+    }
+
+    public boolean isScheduled(ScheduleHandle handle) {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    public Long getNearestTimeHandle() {
+        synchronized (wheelLock) {
+            drainPending();
+            Long dueTime = minValidTime(due);
+            if (dueTime != null) {
+                return dueTime;
+            }
+            for (int level = 0; level < LEVELS; level++) {
+                long bits = occupancy[level] & (-1L << (int) ((cursor >> (BITS * level)) & MASK));
+                while (bits != 0) {
+                    int index = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    Long time = minValidTime(wheels[level][index]);
+                    if (time != null) {
+                        return time;
+                    }
+                }
+            }
+            for (ArrayList<Entry> list : overflow.values()) {
+                Long time = minValidTime(list);
+                if (time != null) {
+                    return time;
+                }
+            }
+            return null;
+        }
+    }
+
+    public void visitSchedules(ScheduleVisitor visitor) {
+        // visit in order of time as the sorted implementation does
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : sortedEntries()) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    private List<Entry> sortedEntries() {
+        List<Entry> entries = new ArrayList<Entry>(handleEntryMap.values());
+        Collections.sort(entries, TIME_SLOT_COMPARATOR);
+        return entries;
+    }
+
+    private boolean isCurrent(Entry entry) {
+        return handleEntryMap.get(entry.handle) == entry;
+    }
+
+    private void drainPending() {
+        for (ConcurrentLinkedQueue<Entry> queue : pending) {
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                if (isCurrent(entry)) {
+                    place(entry);
+                } else {
+                    numStale.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long time = entry.time;
+        if (time < cursor) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((time >> shift) == (cursor >> shift)) {
+                int index = (int) ((time >> (BITS * level)) & MASK);
+                wheels[level][index].add(entry);
+                occupancy[level] |= 1L << index;
+                return;
+            }
+        }
+        ArrayList<Entry> list = overflow.get(time);
+        if (list == null) {
+            list = new ArrayList<Entry>(2);
+            overflow.put(time, list);
+        }
+        list.add(entry);
+    }
+
+    private void fire(ArrayList<Entry> list, Collection<ScheduleHandle> handles) {
+        for (int i = 0; i < list.size(); i++) {
+            Entry entry = list.get(i);
+            // an entry that was replaced or removed is not current and does not fire
+            if (handleEntryMap.remove(entry.handle, entry)) {
+                handles.add(entry.handle);
+            } else {
+                numStale.decrementAndGet();
+            }
+        }
+        list.clear();
+    }
+
+    /**
+     * Returns the start time of the earliest non-empty bucket, or Long.MAX_VALUE when there are no schedules.
+     * The lowest level is empty when called.
+     */
+    private long nextBucketStart() {
+        for (int level = 1; level < LEVELS; level++) {
+            long bits = occupancy[level] & (-1L << (int) ((cursor >> (BITS * level)) & MASK));
+            if (bits != 0) {
+                int shift = BITS * (level + 1);
+                long start = ((cursor >> shift) << shift) | ((long) Long.numberOfTrailingZeros(bits) << (BITS * level));
+                return Math.max(cursor, start);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            return Math.max(cursor, overflow.firstKey());
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Moves the cursor forward to a time that is not after any schedule,
+     * cascading schedules that now fall into the cursor's span down to the lower levels.
+     */
+    private void moveTo(long target) {
+        cursor = target;
+        if (!overflow.isEmpty()) {
+            int shift = BITS * LEVELS;
+            NavigableMap<Long, ArrayList<Entry>> head = overflow.headMap(target | ((1L << shift) - 1), true);
+            if (!head.isEmpty()) {
+                for (ArrayList<Entry> list : head.values()) {
+                    scratch.addAll(list);
+                }
+                head.clear();
+                replaceScratch();
+            }
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int index = (int) ((target >> (BITS * level)) & MASK);
+            if ((occupancy[level] & (1L << index)) != 0) {
+                occupancy[level] &= ~(1L << index);
+                scratch.addAll(wheels[level][index]);
+                wheels[level][index].clear();
+                replaceScratch();
+            }
+        }
+    }
+
+    private void rebuild(long target) {
+        // the map holds all current entries, including those still pending
+        for (ConcurrentLinkedQueue<Entry> queue : pending) {
+            queue.clear();
+        }
+        clearWheel();
+        numStale.set(0);
+        cursor = target;
+        scratch.addAll(handleEntryMap.values());
+        replaceScratch();
+    }
+
+    private void clearWheel() {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int index = 0; index < WHEEL_SIZE; index++) {
+                wheels[level][index].clear();
+            }
+            occupancy[level] = 0;
+        }
+        overflow.clear();
+        due.clear();
+    }
+
+    private void replaceScratch() {
+        for (int i = 0; i < scratch.size(); i++) {
+            place(scratch.get(i));
+        }
+        scratch.clear();
+    }
+
+    private Long minValidTime(List<Entry> list) {
+        Long min = null;
+        for (int i = 0; i < list.size(); i++) {
+            Entry entry = list.get(i);
+            if ((min == null || entry.time < min) && isCurrent(entry)) {
+                min = entry.time;
+            }
+        }
+        return min;
+    }
+
+    private Long maxValidTime(List<Entry> list) {
+        Long max = null;
+        for (int i = 0; i < list.size(); i++) {
+            Entry entry = list.get(i);
+            if ((max == null || entry.time > max) && isCurrent(entry)) {
+                max = entry.time;
+            }
+        }
+        return max;
+    }
+
+    private static final class Entry {
+        private final ScheduleHandle handle;
+        private final long time;
+        private final long slot;
+
+        private Entry(ScheduleHandle handle, long time, long slot) {
+            this.handle = handle;
+            this.time = time;
+            this.slot = slot;
+        }
+    }
+}
@@ -10,5 +10,259 @@
  */
 package com.espertech.esper.util;
 
+/**
+ * Streaming hash functions that take primitive and string values directly, without first serializing values to a byte array.
+ * <p>
+ * The CRC-32 functions compute the same checksum as {@link java.util.zip.CRC32} over the bytes that
+ * {@link java.io.DataOutputStream} writes for the same values. The state of a running checksum or hash is kept by the caller
+ * as an int value, so that computing a hash does not allocate.
+ * </p>
+ */
 public class HashUtil {
+
+    /**
+     * Initial state of a CRC-32 checksum.
+     */
+    public static final int CRC32_INITIAL = 0xffffffff;
+
+    /**
+     * Initial state of a Murmur3 hash.
+     */
+    public static final int MURMUR3_INITIAL = 0;
+
+    private static final int[] CRC32_TABLE = new int[256];
+
+    private static final int MURMUR3_C1 = 0xcc9e2d51;
+    private static final int MURMUR3_C2 = 0x1b873593;
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int c = i;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? 0xedb88320 ^ (c >>> 1) : c >>> 1;
+            }
+            CRC32_TABLE[i] = c;
+        }
+    }
+
+    /**
+     * Update a CRC-32 checksum with a single byte.
+     *
+     * @param crc checksum state
+     * @param b   byte, only the low 8 bits are used
+     * @return checksum state
+     */
+    public static int crc32Byte(int crc, int b) {
+        return CRC32_TABLE[(crc ^ b) & 0xff] ^ (crc >>> 8);
+    }
+
+    /**
+     * Update a CRC-32 checksum with a short value, high byte first.
+     *
+     * @param crc   checksum state
+     * @param value value
+     * @return checksum state
+     */
+    public static int crc32Short(int crc, int value) {
+        crc = crc32Byte(crc, value >>> 8);
+        return crc32Byte(crc, value);
+    }
+
+    /**
+     * Update a CRC-32 checksum with an int value, high byte first.
+     *
+     * @param crc   checksum state
+     * @param value value
+     * @return checksum state
+     */
+    public static int crc32Int(int crc, int value) {
+        crc = crc32Byte(crc, value >>> 24);
+        crc = crc32Byte(crc, value >>> 16);
+        crc = crc32Byte(crc, value >>> 8);
+        return crc32Byte(crc, value);
+    }
+
+    /**
+     * Update a CRC-32 checksum with a long value, high byte first.
+     *
+     * @param crc   checksum state
+     * @param value value
+     * @return checksum state
+     */
+    public static int crc32Long(int crc, long value) {
+        crc = crc32Int(crc, (int) (value >>> 32));
+        return crc32Int(crc, (int) value);
+    }
+
+    /**
+     * Update a CRC-32 checksum with a string value in modified UTF-8 encoding including the length prefix,
+     * as written by {@link java.io.DataOutputStream#writeUTF(String)}.
+     *
+     * @param crc       checksum state
+     * @param value     value
+     * @param utfLength encoded length as returned by {@link #utfLength(String)}
+     * @return checksum state
+     */
+    public static int crc32UTF(int crc, String value, int utfLength) {
+        crc = crc32Short(crc, utfLength);
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                crc = crc32Byte(crc, c);
+            } else if (c > 0x07FF) {
+                crc = crc32Byte(crc, 0xE0 | ((c >> 12) & 0x0F));
+                crc = crc32Byte(crc, 0x80 | ((c >> 6) & 0x3F));
+                crc = crc32Byte(crc, 0x80 | (c & 0x3F));
+            } else {
+                crc = crc32Byte(crc, 0xC0 | ((c >> 6) & 0x1F));
+                crc = crc32Byte(crc, 0x80 | (c & 0x3F));
+            }
+        }
+        return crc;
+    }
+
+    /**
+     * Returns the checksum value for a checksum state, same as {@link java.util.zip.CRC32#getValue()}.
+     *
+     * @param crc checksum state
+     * @return checksum
+     */
+    public static long crc32Value(int crc) {
+        return ~crc & 0xffffffffL;
+    }
+
+    /**
+     * Returns the number of bytes of the modified UTF-8 encoding of a string, not including the length prefix.
+     *
+     * @param value value
+     * @return encoded length
+     */
+    public static int utfLength(String value) {
+        int length = value.length();
+        int utfLength = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utfLength++;
+            } else if (c > 0x07FF) {
+                utfLength += 3;
+            } else {
+                utfLength += 2;
+            }
+        }
+        return utfLength;
+    }
+
+    /**
+     * Update a Murmur3 (32-bit) hash with a 4-byte block.
+     *
+     * @param hash  hash state
+     * @param block block
+     * @return hash state
+     */
+    public static int murmur3Block(int hash, int block) {
+        block *= MURMUR3_C1;
+        block = Integer.rotateLeft(block, 15);
+        block *= MURMUR3_C2;
+        hash ^= block;
+        hash = Integer.rotateLeft(hash, 13);
+        return hash * 5 + 0xe6546b64;
+    }
+
+    /**
+     * Update a Murmur3 (32-bit) hash with a long value as two blocks, low int first.
+     *
+     * @param hash  hash state
+     * @param value value
+     * @return hash state
+     */
+    public static int murmur3Long(int hash, long value) {
+        hash = murmur3Block(hash, (int) value);
+        return murmur3Block(hash, (int) (value >>> 32));
+    }
+
+    /**
+     * Update a Murmur3 (32-bit) hash with the characters of a string, two characters per block.
+     * A string with an odd number of characters has its last character in its own block.
+     *
+     * @param hash  hash state
+     * @param value value
+     * @return hash state
+     */
+    public static int murmur3String(int hash, String value) {
+        int length = value.length();
+        int i = 1;
+        for (; i < length; i += 2) {
+            hash = murmur3Block(hash, value.charAt(i - 1) | (value.charAt(i) << 16));
+        }
+        if ((length & 1) != 0) {
+            hash = murmur3Block(hash, value.charAt(length - 1));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the number of bytes that {@link #murmur3String(int, String)} hashes for a string.
+     *
+     * @param value value
+     * @return number of bytes
+     */
+    public static int murmur3StringLength(String value) {
+        return ((value.length() + 1) >> 1) * 4;
+    }
+
+    /**
+     * Finalize a Murmur3 (32-bit) hash.
+     *
+     * @param hash   hash state
+     * @param length total number of bytes hashed
+     * @return hash
+     */
+    public static int murmur3Finish(int hash, int length) {
+        hash ^= length;
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * Murmur3 (32-bit) hash of a byte array, with bytes read as little-endian blocks.
+     *
+     * @param data   bytes
+     * @param offset offset
+     * @param length number of bytes
+     * @param seed   seed
+     * @return hash
+     */
+    public static int murmur3(byte[] data, int offset, int length, int seed) {
+        int hash = seed;
+        int numBlocks = length >> 2;
+        for (int i = 0; i < numBlocks; i++) {
+            int index = offset + (i << 2);
+            int block = (data[index] & 0xff) | ((data[index + 1] & 0xff) << 8) | ((data[index + 2] & 0xff) << 16) | (data[index + 3] << 24);
+            hash = murmur3Block(hash, block);
+        }
+
+        int left = length & 3;
+        if (left != 0) {
+            int tailIndex = offset + (numBlocks << 2);
+            int block = 0;
+            if (left >= 3) {
+                block ^= (data[tailIndex + 2] & 0xff) << 16;
+            }
+            if (left >= 2) {
+                block ^= (data[tailIndex + 1] & 0xff) << 8;
+            }
+            block ^= data[tailIndex] & 0xff;
+            block *= MURMUR3_C1;
+            block = Integer.rotateLeft(block, 15);
+            block *= MURMUR3_C2;
+            hash ^= block;
+        }
+        return murmur3Finish(hash, length);
+    }
 }
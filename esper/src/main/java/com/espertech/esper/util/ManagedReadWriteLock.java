@@ -132,6 +132,25 @@ public class ManagedReadWriteLock {
         }
     }
 
+    /**
+     * Lock read lock on behalf of a thread that holds the read lock and waits for the current thread,
+     * acquiring the read lock ahead of any waiting writer so that the waiting writer cannot block both threads.
+     */
+    public void acquireReadLockOnBehalf() {
+        if (ThreadLogUtil.ENABLED_TRACE) {
+            ThreadLogUtil.traceLock(ACQUIRE_TEXT + " read on behalf " + name, lock);
+        }
+
+        // barging succeeds unless the write lock is held, which the read lock held by the waiting thread excludes
+        if (!lock.readLock().tryLock()) {
+            lock.readLock().lock();
+        }
+
+        if (ThreadLogUtil.ENABLED_TRACE) {
+            ThreadLogUtil.traceLock(ACQUIRED_TEXT + " read on behalf " + name, lock);
+        }
+    }
+
     /**
      * Unlock read lock.
      */
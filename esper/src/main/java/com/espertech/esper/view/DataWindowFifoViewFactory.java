@@ -8,22 +8,13 @@
  *  a copy of which has been included with this distribution in the license.txt file.  *
  ***************************************************************************************
  */
-package com.espertech.esper.collection;
+package com.espertech.esper.view;
 
-import java.util.ArrayDeque;
-
-public final class TimeWindowIterator extends MixedEventBeanAndCollectionIteratorBase {
-    /**
-     * Ctor.
-     *
-     * @param window is the time-slotted collection
-     */
-    public TimeWindowIterator(ArrayDeque<TimeWindowPair> window) {
-        super(window.iterator());
-        init();
-    }
-
-    protected Object getValue(Object iteratorKeyValue) {
-        return ((TimeWindowPair) iteratorKeyValue).getEventHolder();
-    }
+/**
+ * Marker interface for use with view factories that create data window views that remove events in the same
+ * order the events were added, i.e. first-in first-out.
+ * <p>
+ * Aggregations over such data windows may keep state that relies on the order in which events leave.
+ */
+public interface DataWindowFifoViewFactory extends DataWindowViewFactory {
 }
@@ -71,6 +71,15 @@ public class ViewFactoryChain {
         return count;
     }
 
+    /**
+     * Returns true if the chain consists of a single data window that removes events in the same order the events were added.
+     *
+     * @return indicator for first-in first-out expiry
+     */
+    public boolean isFifoExpiry() {
+        return viewFactoryChain.size() == 1 && viewFactoryChain.get(0) instanceof DataWindowFifoViewFactory;
+    }
+
     public static ViewFactoryChain fromTypeNoViews(EventType eventType) {
         return new ViewFactoryChain(eventType, Collections.<ViewFactory>emptyList());
     }
@@ -24,7 +24,7 @@ import java.util.List;
 /**
  * Factory for {@link com.espertech.esper.view.window.TimeBatchView}.
  */
-public class LengthBatchViewFactory implements DataWindowViewFactory, DataWindowViewWithPrevious, DataWindowBatchingViewFactory {
+public class LengthBatchViewFactory implements DataWindowFifoViewFactory, DataWindowViewWithPrevious, DataWindowBatchingViewFactory {
     /**
      * The length window size.
      */
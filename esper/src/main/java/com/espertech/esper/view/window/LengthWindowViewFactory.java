@@ -24,7 +24,7 @@ import java.util.List;
 /**
  * Factory for {@link LengthWindowView}.
  */
-public class LengthWindowViewFactory implements DataWindowViewFactory, DataWindowViewWithPrevious {
+public class LengthWindowViewFactory implements DataWindowFifoViewFactory, DataWindowViewWithPrevious {
     /**
      * Size of length window.
      */
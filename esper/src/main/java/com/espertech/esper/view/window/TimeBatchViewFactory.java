@@ -25,7 +25,7 @@ import java.util.List;
 /**
  * Factory for {@link TimeBatchView}.
  */
-public class TimeBatchViewFactory extends TimeBatchViewFactoryParams implements DataWindowViewFactory, DataWindowViewWithPrevious, DataWindowBatchingViewFactory {
+public class TimeBatchViewFactory extends TimeBatchViewFactoryParams implements DataWindowFifoViewFactory, DataWindowViewWithPrevious, DataWindowBatchingViewFactory {
     /**
      * The reference point, or null if none supplied.
      */
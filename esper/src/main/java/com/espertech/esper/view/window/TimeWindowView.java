@@ -24,7 +24,6 @@ import com.espertech.esper.schedule.ScheduleHandleCallback;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -160,12 +159,11 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
 
         // Remove from the timeWindow any events that have an older or timestamp then the given timestamp
         // The window extends from X to (X - millisecondsBeforeExpiry + 1)
-        ArrayDeque<EventBean> expired = timeWindow.expireEvents(expireBeforeTimestamp);
+        EventBean[] oldEvents = timeWindow.expireEvents(expireBeforeTimestamp);
 
         // If there are child views, fireStatementStopped update method
         if (this.hasViews()) {
-            if ((expired != null) && (!expired.isEmpty())) {
-                EventBean[] oldEvents = expired.toArray(new EventBean[expired.size()]);
+            if (oldEvents != null) {
                 if (viewUpdatedCollection != null) {
                     viewUpdatedCollection.update(null, oldEvents);
                 }
@@ -193,6 +191,39 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
         scheduleCallback(scheduleTime);
     }
 
+    /**
+     * Returns the timestamps of the events in the window, in the order of the iterator, for use by engine state snapshots.
+     *
+     * @return timestamps
+     */
+    public long[] getTimestamps() {
+        return timeWindow.getTimestamps();
+    }
+
+    /**
+     * Assigns new timestamps to the events in the window, in the order of the iterator, and reschedules expiry
+     * for the oldest timestamp. Used when restoring a snapshot into a window that received the events at the current time.
+     * Events whose expiry time has already passed expire at the next time advance.
+     *
+     * @param timestamps ascending timestamps, one for each event in the window
+     */
+    public void restoreTimestamps(long[] timestamps) {
+        if (timestamps.length != timeWindow.size()) {
+            throw new IllegalArgumentException("Expected " + timeWindow.size() + " timestamps but received " + timestamps.length);
+        }
+        if (timestamps.length == 0) {
+            return;
+        }
+        EventBean[] events = timeWindow.expireEvents(Long.MAX_VALUE);
+        for (int i = 0; i < events.length; i++) {
+            timeWindow.add(timestamps[i], events[i]);
+        }
+        long oldestTimestamp = timestamps[0];
+        long currentTimestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+        long scheduleTime = timeDeltaComputation.deltaAdd(oldestTimestamp) + oldestTimestamp - currentTimestamp;
+        scheduleCallback(Math.max(0, scheduleTime));
+    }
+
     public ExprTimePeriodEvalDeltaConst getTimeDeltaComputation() {
         return timeDeltaComputation;
     }
@@ -25,7 +25,7 @@ import java.util.List;
 /**
  * Factory for {@link TimeWindowView}.
  */
-public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowViewWithPrevious {
+public class TimeWindowViewFactory implements DataWindowFifoViewFactory, DataWindowViewWithPrevious {
     protected ExprTimePeriodEvalDeltaConstFactory timeDeltaComputationFactory;
 
     private EventType eventType;
@@ -54,9 +54,13 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionKeys().isEmpty());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolFanOut());
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getEngineDefaults().getThreading().getThreadPoolFanOutNumThreads());
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getEngineDefaults().getThreading().getThreadPoolAsyncDeliveryNumThreads());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
         assertTrue(config.getEngineDefaults().getThreading().isNamedWindowConsumerDispatchPreserveOrder());
@@ -86,6 +90,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(true, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
         assertEquals(null, config.getEngineDefaults().getMatchRecognize().getMaxStates());
         assertEquals(true, config.getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart());
+        assertEquals(0, config.getEngineDefaults().getMatchRecognize().getPartitionThreads());
         assertEquals(ConfigurationEngineDefaults.TimeSourceType.MILLI, config.getEngineDefaults().getTimeSource().getTimeSourceType());
         assertEquals(TimeUnit.MILLISECONDS, config.getEngineDefaults().getTimeSource().getTimeUnit());
         assertFalse(config.getEngineDefaults().getExecution().isPrioritized());
@@ -93,8 +98,13 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertNull(config.getEngineDefaults().getExecution().getContextStateDirectory());
+        assertEquals(1000, config.getEngineDefaults().getExecution().getContextStateCheckpointIntervalMsec());
+        assertNull(config.getEngineDefaults().getExecution().getStatementCacheDirectory());
+        assertEquals(10000, config.getEngineDefaults().getExecution().getStatementCacheMaxEntries());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
         assertFalse(config.getEngineDefaults().getLanguage().isSortUsingCollator());
@@ -104,6 +114,7 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(config.getEngineDefaults().getExpression().isUdfCache());
         assertTrue(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertFalse(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertFalse(config.getEngineDefaults().getExpression().isCompileExpressions());
         assertNull(config.getEngineDefaults().getExpression().getMathContext());
         assertEquals(TimeZone.getDefault(), config.getEngineDefaults().getExpression().getTimeZone());
         assertNull(config.getEngineDefaults().getExceptionHandling().getHandlerFactories());
@@ -404,9 +415,14 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(3, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(4, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(1000, (int) config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertEquals(1, config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionKeys().size());
+        assertEquals("symbol", config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionKeys().get("MySampleEventOne"));
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolFanOut());
+        assertEquals(6, config.getEngineDefaults().getThreading().getThreadPoolFanOutNumThreads());
+        assertEquals(7, config.getEngineDefaults().getThreading().getThreadPoolAsyncDeliveryNumThreads());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -432,6 +448,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(false, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
         assertEquals(3L, (long) config.getEngineDefaults().getMatchRecognize().getMaxStates());
         assertEquals(false, config.getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart());
+        assertEquals(4, config.getEngineDefaults().getMatchRecognize().getPartitionThreads());
         assertEquals(StreamSelector.RSTREAM_ISTREAM_BOTH, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
 
         assertEquals(ConfigurationEngineDefaults.TimeSourceType.NANO, config.getEngineDefaults().getTimeSource().getTimeSourceType());
@@ -442,8 +459,13 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMERWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertEquals("/var/esper/context-state", config.getEngineDefaults().getExecution().getContextStateDirectory());
+        assertEquals(5000, config.getEngineDefaults().getExecution().getContextStateCheckpointIntervalMsec());
+        assertEquals("/var/esper/statement-cache", config.getEngineDefaults().getExecution().getStatementCacheDirectory());
+        assertEquals(500, config.getEngineDefaults().getExecution().getStatementCacheMaxEntries());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
         assertTrue(metrics.isEnableMetricsReporting());
@@ -476,6 +498,7 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(config.getEngineDefaults().getExpression().isUdfCache());
         assertFalse(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertTrue(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertTrue(config.getEngineDefaults().getExpression().isCompileExpressions());
         assertEquals(2, config.getEngineDefaults().getExpression().getMathContext().getPrecision());
         assertEquals(RoundingMode.CEILING, config.getEngineDefaults().getExpression().getMathContext().getRoundingMode());
         assertEquals(TimeZone.getTimeZone("GMT-4:00"), config.getEngineDefaults().getExpression().getTimeZone());
@@ -0,0 +1,96 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Random;
+
+public class TestMonotonicDeque extends TestCase {
+    public void testMax() {
+        MonotonicDeque<Integer, String> deque = new MonotonicDeque<Integer, String>(null, true);
+        assertNull(deque.getFirstKey());
+        assertNull(deque.getFirstValue());
+
+        deque.add(5, "A");
+        deque.add(3, "B");
+        deque.add(5, "C");
+        assertEquals(5, (int) deque.getFirstKey());
+        assertEquals("A", deque.getFirstValue());
+        assertEquals(2, deque.size());
+
+        // "B" was removed when adding "C"
+        assertTrue(deque.removeIfFirst(5, "A"));
+        assertEquals("C", deque.getFirstValue());
+        assertFalse(deque.removeIfFirst(3, "B"));
+        assertEquals("C", deque.getFirstValue());
+
+        deque.add(7, "D");
+        assertEquals(1, deque.size());
+        assertFalse(deque.removeIfFirst(5, "C"));
+        assertEquals("D", deque.getFirstValue());
+        assertTrue(deque.removeIfFirst(7, "D"));
+        assertEquals(0, deque.size());
+        assertNull(deque.getFirstKey());
+    }
+
+    public void testMinWithComparator() {
+        Comparator<String> lengthComparator = new Comparator<String>() {
+            public int compare(String o1, String o2) {
+                return o1.length() - o2.length();
+            }
+        };
+        MonotonicDeque<String, Object> deque = new MonotonicDeque<String, Object>(lengthComparator, false);
+        deque.add("aaa", null);
+        deque.add("bb", null);
+        deque.add("cccc", null);
+        assertEquals("bb", deque.getFirstKey());
+        assertFalse(deque.removeIfFirst("xxx", null));
+        assertFalse(deque.removeIfFirst("xx", "other"));
+        assertTrue(deque.removeIfFirst("xx", null));
+        assertEquals("cccc", deque.getFirstKey());
+
+        deque.clear();
+        assertEquals(0, deque.size());
+        assertNull(deque.getFirstKey());
+    }
+
+    public void testSlidingWindow() {
+        Random random = new Random(17);
+        for (int windowSize = 1; windowSize < 40; windowSize += 7) {
+            MonotonicDeque<Integer, Object> max = new MonotonicDeque<Integer, Object>(null, true);
+            MonotonicDeque<Integer, Object> min = new MonotonicDeque<Integer, Object>(null, false);
+            ArrayDeque<Integer> window = new ArrayDeque<Integer>();
+            for (int i = 0; i < 2000; i++) {
+                int value = random.nextInt(50);
+                window.add(value);
+                max.add(value, null);
+                min.add(value, null);
+                if (window.size() > windowSize) {
+                    int leaving = window.removeFirst();
+                    max.removeIfFirst(leaving, null);
+                    min.removeIfFirst(leaving, null);
+                }
+                int expectedMax = Integer.MIN_VALUE;
+                int expectedMin = Integer.MAX_VALUE;
+                for (int windowValue : window) {
+                    expectedMax = Math.max(expectedMax, windowValue);
+                    expectedMin = Math.min(expectedMin, windowValue);
+                }
+                assertEquals(expectedMax, (int) max.getFirstKey());
+                assertEquals(expectedMin, (int) min.getFirstKey());
+                assertTrue(max.size() <= window.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestPrimitiveKeyHashMap extends TestCase {
+    public void testLongKeys() {
+        PrimitiveKeyHashMap<String> map = new PrimitiveKeyHashMap<String>(long.class);
+        assertNull(map.put(10L, "a"));
+        assertEquals("a", map.put(10L, "b"));
+        assertEquals("b", map.get(10L));
+        assertNull(map.get(10));
+        assertFalse(map.containsKey(10));
+        assertTrue(map.containsKey(10L));
+
+        // keys of other types are kept as-is, as in a HashMap
+        map.put(10, "int");
+        map.put(null, "null");
+        assertEquals("int", map.get(10));
+        assertEquals("null", map.get(null));
+        assertEquals(3, map.size());
+
+        Map<Object, String> expected = new HashMap<Object, String>();
+        expected.put(10L, "b");
+        expected.put(10, "int");
+        expected.put(null, "null");
+        assertEquals(expected, new HashMap<Object, String>(map));
+
+        assertEquals("int", map.remove(10));
+        assertEquals("b", map.remove(10L));
+        assertNull(map.remove(10L));
+        assertEquals(1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.values().iterator().hasNext());
+    }
+
+    public void testDoubleKeys() {
+        PrimitiveKeyHashMap<String> map = new PrimitiveKeyHashMap<String>(Double.class);
+        map.put(0.0d, "zero");
+        map.put(-0.0d, "negzero");
+        map.put(Double.NaN, "nan");
+        assertEquals("zero", map.get(0.0d));
+        assertEquals("negzero", map.get(-0.0d));
+        assertEquals("nan", map.get(Double.NaN));
+        assertEquals(3, map.size());
+        assertTrue(map.keySet().contains(-0.0d));
+    }
+
+    public void testInvalid() {
+        try {
+            new PrimitiveKeyHashMap<String>(String.class);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            new PrimitiveKeyHashMap<String>(int.class).put(1, null);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testCompareHashMap() {
+        Random random = new Random(4321);
+        PrimitiveKeyHashMap<Integer> map = new PrimitiveKeyHashMap<Integer>(int.class);
+        Map<Object, Integer> expected = new HashMap<Object, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            // keys are strided to exercise collisions in the probe sequences
+            Integer key = random.nextInt(2000) * (i % 3 == 0 ? 1024 : 1);
+            int op = random.nextInt(3);
+            if (op == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, new HashMap<Object, Integer>(map));
+        for (Object key : expected.keySet()) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        List<Integer> values = new ArrayList<Integer>(map.values());
+        List<Integer> expectedValues = new ArrayList<Integer>(expected.values());
+        Collections.sort(values);
+        Collections.sort(expectedValues);
+        assertEquals(expectedValues, values);
+    }
+}
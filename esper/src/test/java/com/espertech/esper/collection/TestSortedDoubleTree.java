@@ -0,0 +1,96 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestSortedDoubleTree extends TestCase {
+    private SortedDoubleTree tree;
+
+    public void setUp() {
+        tree = new SortedDoubleTree();
+    }
+
+    public void testAddRemove() {
+        assertEquals(0, tree.size());
+
+        tree.add(10);
+        tree.add(0);
+        tree.add(5);
+        tree.add(10);
+        tree.add(5.5);
+        compare(new double[]{0, 5, 5.5, 10, 10});
+
+        tree.remove(10);
+        tree.remove(0);
+        compare(new double[]{5, 5.5, 10});
+
+        tree.add(99);
+        tree.remove(99);
+        try {
+            tree.remove(99);
+            fail();
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        compare(new double[]{5, 5.5, 10});
+
+        try {
+            tree.getValue(3);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+
+        tree.add(Double.NaN);
+        tree.remove(Double.NaN);
+        compare(new double[]{5, 5.5, 10});
+
+        tree.clear();
+        compare(new double[0]);
+        tree.add(1);
+        compare(new double[]{1});
+    }
+
+    public void testRandomAgainstSortedList() {
+        Random random = new Random(1);
+        List<Double> sorted = new ArrayList<Double>();
+        for (int i = 0; i < 20000; i++) {
+            if (sorted.size() > 0 && random.nextInt(3) == 0) {
+                double value = sorted.remove(random.nextInt(sorted.size()));
+                tree.remove(value);
+            } else {
+                double value = random.nextInt(500);
+                int index = Collections.binarySearch(sorted, value);
+                sorted.add(index < 0 ? -(index + 1) : index, value);
+                tree.add(value);
+            }
+            assertEquals(sorted.size(), tree.size());
+            if (i % 1000 == 0) {
+                for (int j = 0; j < sorted.size(); j++) {
+                    assertEquals((double) sorted.get(j), tree.getValue(j));
+                }
+            }
+        }
+    }
+
+    private void compare(double[] expected) {
+        assertEquals(expected.length, tree.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tree.getValue(i));
+        }
+    }
+}
@@ -17,7 +17,7 @@ import junit.framework.TestCase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
+import java.util.Iterator;
 
 public class TestTimeWindow extends TestCase {
     private final TimeWindow window = new TimeWindow(false);
@@ -46,30 +46,30 @@ public class TestTimeWindow extends TestCase {
         window.add(22, beans[5]);
         assertTrue(window.getOldestTimestamp() == 19L);
 
-        ArrayDeque<EventBean> beanList = window.expireEvents(19);
+        EventBean[] beanList = window.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = window.expireEvents(20);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[0]);
-        assertTrue(beanList.poll() == beans[1]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[0]);
+        assertTrue(beanList[1] == beans[1]);
 
         beanList = window.expireEvents(21);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[2]);
-        assertTrue(beanList.poll() == beans[3]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[2]);
+        assertTrue(beanList[1] == beans[3]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 21);
 
         beanList = window.expireEvents(22);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[4]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[4]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 22);
 
         beanList = window.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == null);
 
@@ -99,25 +99,25 @@ public class TestTimeWindow extends TestCase {
         windowRemovable.remove(beans[0]);
         windowRemovable.remove(beans[3]);
 
-        ArrayDeque<EventBean> beanList = windowRemovable.expireEvents(19);
+        EventBean[] beanList = windowRemovable.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(20);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[1]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[1]);
 
         beanList = windowRemovable.expireEvents(21);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[2]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[2]);
         assertFalse(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == 22);
 
         beanList = windowRemovable.expireEvents(22);
-        assertTrue(beanList.size() == 0);
+        assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == null);
 
@@ -129,6 +129,63 @@ public class TestTimeWindow extends TestCase {
         assertEquals(0, windowRemovable.getReverseIndex().size());
     }
 
+    public void testChunks() {
+        // the first chunk holds 16 events and expires as a whole
+        EventBean[] events = new EventBean[100];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = createBean();
+            windowRemovable.add(i, events[i]);
+        }
+        assertEquals(100, windowRemovable.size());
+
+        EventBean[] expired = windowRemovable.expireEvents(16);
+        assertEquals(16, expired.length);
+        for (int i = 0; i < 16; i++) {
+            assertSame(events[i], expired[i]);
+        }
+        assertTrue(windowRemovable.getOldestTimestamp() == 16);
+
+        // remove events at a chunk boundary and the oldest event
+        windowRemovable.remove(events[16]);
+        windowRemovable.remove(events[31]);
+        windowRemovable.remove(events[32]);
+        assertTrue(windowRemovable.getOldestTimestamp() == 17);
+        assertEquals(81, windowRemovable.size());
+
+        int count = 0;
+        for (Iterator<EventBean> it = windowRemovable.iterator(); it.hasNext(); ) {
+            EventBean theEvent = it.next();
+            assertTrue(theEvent != events[16] && theEvent != events[31] && theEvent != events[32]);
+            count++;
+        }
+        assertEquals(81, count);
+        long[] timestamps = windowRemovable.getTimestamps();
+        assertEquals(81, timestamps.length);
+        assertEquals(17, timestamps[0]);
+        assertEquals(30, timestamps[13]);
+        assertEquals(33, timestamps[14]);
+        assertEquals(99, timestamps[80]);
+
+        // expire across chunks
+        expired = windowRemovable.expireEvents(40);
+        assertEquals(21, expired.length);
+        assertSame(events[17], expired[0]);
+        assertSame(events[30], expired[13]);
+        assertSame(events[33], expired[14]);
+        assertSame(events[39], expired[20]);
+        assertTrue(windowRemovable.getOldestTimestamp() == 40);
+
+        windowRemovable.adjust(100);
+        assertTrue(windowRemovable.getOldestTimestamp() == 140);
+        assertNull(windowRemovable.expireEvents(140));
+        expired = windowRemovable.expireEvents(1000);
+        assertEquals(60, expired.length);
+        assertSame(events[99], expired[59]);
+        assertTrue(windowRemovable.isEmpty());
+        assertFalse(windowRemovable.iterator().hasNext());
+        assertEquals(0, windowRemovable.getReverseIndex().size());
+    }
+
     public void testTimeWindowPerformance() {
         log.info(".testTimeWindowPerformance Starting");
 
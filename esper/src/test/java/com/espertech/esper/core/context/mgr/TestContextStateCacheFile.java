@@ -0,0 +1,141 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.context.ContextPartitionState;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.TreeMap;
+
+public class TestContextStateCacheFile extends TestCase {
+    private File directory;
+
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("esper-context-state").toFile();
+    }
+
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testWriteAndRestore() {
+        ContextStateCacheFile cache = new ContextStateCacheFile(directory, 4096, 0);
+        ContextStatePathValueBinding binding = cache.getBinding(null);
+        cache.addContextPath("CtxA", 1, 0, 1, 0, "E1", binding);
+        cache.addContextPath("CtxA", 1, 0, 2, 1, "E2", binding);
+        cache.addContextPath("CtxA", 2, 1, 1, null, "E3", binding);
+        cache.addContextPath("CtxA", 2, 2, 1, null, "E4", binding);
+        cache.addContextPath("CtxB", 1, 0, 1, 0, "E5", binding);
+        cache.updateContextPath("CtxA", new ContextStatePathKey(1, 0, 2), new ContextStatePathValue(1, binding.toByteArray("E2"), ContextPartitionState.STOPPED));
+        cache.removeContextPath("CtxA", 1, 0, 1);
+        cache.removeContextParentPath("CtxA", 2, 1);
+        cache.checkpoint();
+
+        // restore from the log without closing, as after a crash
+        ContextStateCacheFile restored = new ContextStateCacheFile(directory, 4096, 0);
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = restored.getContextPaths("CtxA");
+        assertEquals(2, paths.size());
+        ContextStatePathValue value = paths.get(new ContextStatePathKey(1, 0, 2));
+        assertEquals(1, (int) value.getOptionalContextPartitionId());
+        assertEquals(ContextPartitionState.STOPPED, value.getState());
+        assertEquals("E2", binding.byteArrayToObject(value.getBlob(), null));
+        value = paths.get(new ContextStatePathKey(2, 2, 1));
+        assertNull(value.getOptionalContextPartitionId());
+        assertEquals("E4", binding.byteArrayToObject(value.getBlob(), null));
+        assertEquals(1, restored.getContextPaths("CtxB").size());
+
+        restored.removeContext("CtxB");
+        restored.close();
+        assertEquals(1, restored.getNumSegments());
+
+        // changes after close are ignored
+        restored.removeContext("CtxA");
+        restored = new ContextStateCacheFile(directory, 4096, 0);
+        assertEquals(2, restored.getContextPaths("CtxA").size());
+        assertNull(restored.getContextPaths("CtxB"));
+        restored.close();
+    }
+
+    public void testCompaction() {
+        ContextStateCacheFile cache = new ContextStateCacheFile(directory, 1024, 0);
+        ContextStatePathValueBinding binding = cache.getBinding(null);
+        addRemovePaths(cache, binding);
+        assertTrue(cache.getNumSegments() < 100);
+
+        ContextStateCacheFile restored = new ContextStateCacheFile(directory, 1024, 1000);
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = restored.getContextPaths("Ctx");
+        assertEquals(10, paths.size());
+        assertEquals(4990, paths.firstKey().getSubPath());
+        assertEquals(4999, paths.lastKey().getSubPath());
+        restored.close();
+    }
+
+    public void testBackgroundCheckpoint() throws Exception {
+        ContextStateCacheFile cache = new ContextStateCacheFile(directory, 1024, 10);
+        ContextStatePathValueBinding binding = cache.getBinding(null);
+        addRemovePaths(cache, binding);
+
+        // compaction is left to the checkpoint thread; records appended after the last compaction stay in the log
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cache.getNumSegments() >= 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(cache.getNumSegments() < 100);
+
+        // restore from the log without closing, as after a crash
+        ContextStateCacheFile restored = new ContextStateCacheFile(directory, 1024, 0);
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = restored.getContextPaths("Ctx");
+        assertEquals(10, paths.size());
+        assertEquals(4990, paths.firstKey().getSubPath());
+        cache.close();
+        restored.close();
+    }
+
+    public void testIncompleteRecord() throws Exception {
+        ContextStateCacheFile cache = new ContextStateCacheFile(directory, 4096, 0);
+        ContextStatePathValueBinding binding = cache.getBinding(null);
+        cache.addContextPath("Ctx", 1, 0, 1, 0, "E1", binding);
+        cache.addContextPath("Ctx", 1, 0, 2, 1, "E2", binding);
+        cache.checkpoint();
+
+        // corrupt the payload of the last record, as if the write was torn
+        File segment = directory.listFiles()[0];
+        RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+        int length = raf.readInt();
+        raf.seek(8 + length + 8);
+        raf.writeByte(0x7f);
+        raf.close();
+
+        ContextStateCacheFile restored = new ContextStateCacheFile(directory, 4096, 0);
+        TreeMap<ContextStatePathKey, ContextStatePathValue> paths = restored.getContextPaths("Ctx");
+        assertEquals(1, paths.size());
+        assertTrue(paths.containsKey(new ContextStatePathKey(1, 0, 1)));
+        restored.close();
+    }
+
+    private static void addRemovePaths(ContextStateCacheFile cache, ContextStatePathValueBinding binding) {
+        for (int i = 0; i < 5000; i++) {
+            cache.addContextPath("Ctx", 1, 0, i, i, "E" + i, binding);
+            if (i >= 10) {
+                cache.removeContextPath("Ctx", 1, 0, i - 10);
+            }
+        }
+    }
+}
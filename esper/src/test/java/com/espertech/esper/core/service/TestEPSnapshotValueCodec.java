@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.snapshot.EPSnapshotException;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestEPSnapshotValueCodec extends TestCase {
+
+    public void testRoundTrip() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 70000; i++) {
+            longString.append((char) ('a' + i % 26));
+        }
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("a", 1);
+        map.put("b", new Object[] {"x", null});
+
+        Object[] values = new Object[] {null, true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.5d, 'c', "\u00e4bc", longString.toString(),
+            new BigDecimal("1.25"), new int[] {1, 2}};
+        for (Object value : values) {
+            Object result = roundTrip(value);
+            if (value instanceof int[]) {
+                assertTrue(Arrays.equals((int[]) value, (int[]) result));
+            } else {
+                assertEquals(value, result);
+            }
+        }
+
+        Object[] array = (Object[]) roundTrip(new Object[] {1, "a", map});
+        assertEquals(1, array[0]);
+        assertEquals("a", array[1]);
+        Map<?, ?> mapResult = (Map<?, ?>) array[2];
+        assertEquals(1, mapResult.get("a"));
+        assertEquals("x", ((Object[]) mapResult.get("b"))[0]);
+    }
+
+    public void testNotSerializable() throws Exception {
+        try {
+            roundTrip(new Object());
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertEquals("Value of type 'java.lang.Object' is not serializable", ex.getMessage());
+        }
+    }
+
+    private static Object roundTrip(Object value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EPSnapshotValueCodec.write(new DataOutputStream(bytes), value);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Object result = EPSnapshotValueCodec.read(input, null);
+        assertEquals(-1, input.read());
+        return result;
+    }
+}
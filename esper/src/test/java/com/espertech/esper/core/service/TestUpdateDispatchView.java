@@ -21,11 +21,14 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.metric.MetricReportingPath;
 import com.espertech.esper.supportunit.core.SupportEPStatementSPI;
 import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
 import com.espertech.esper.util.support.SupportExprEvaluatorContext;
 import junit.framework.TestCase;
 
+import java.util.concurrent.CountDownLatch;
+
 public class TestUpdateDispatchView extends TestCase {
-    private UpdateDispatchViewBlockingWait updateDispatchView;
+    private UpdateDispatchViewBlockingRingBuffer updateDispatchView;
     private SupportUpdateListener listenerOne;
     private SupportUpdateListener listenerTwo;
     private DispatchService dispatchService;
@@ -47,7 +50,7 @@ public class TestUpdateDispatchView extends TestCase {
         statementResultService.setSelectClause(new Class[1], new String[1], false, new ExprEvaluator[1], new SupportExprEvaluatorContext(null));
         statementResultService.setContext(new SupportEPStatementSPI(), null, false, false, false, false, null);
 
-        updateDispatchView = new UpdateDispatchViewBlockingWait(statementResultService, dispatchService, 1000);
+        updateDispatchView = new UpdateDispatchViewBlockingRingBuffer(statementResultService, dispatchService, 10000, false, new TimeSourceServiceImpl());
     }
 
     public void testUpdateOnceAndDispatch() {
@@ -78,6 +81,70 @@ public class TestUpdateDispatchView extends TestCase {
         assertTrue(listenerTwo.getLastOldData()[1] == oldDataTwo[0]);
     }
 
+    public void testOrderAcrossThreads() throws Exception {
+        EventBean[] newDataOne = makeEvents("new1");
+        updateDispatchView.newResult(new UniformPair<EventBean[]>(newDataOne, null));
+
+        // the second thread produces its result later but dispatches first, and must wait for the first result to be delivered
+        final EventBean[] newDataTwo = makeEvents("new2");
+        final CountDownLatch produced = new CountDownLatch(1);
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                updateDispatchView.newResult(new UniformPair<EventBean[]>(newDataTwo, null));
+                produced.countDown();
+                dispatchService.dispatch();
+            }
+        });
+        thread.start();
+        produced.await();
+        Thread.sleep(100);
+        assertFalse(listenerOne.isInvoked());
+
+        dispatchService.dispatch();
+        thread.join();
+        assertEquals(2, listenerOne.getNewDataList().size());
+        assertSame(newDataOne[0], listenerOne.getNewDataList().get(0)[0]);
+        assertSame(newDataTwo[0], listenerOne.getNewDataList().get(1)[0]);
+
+        // dispatch without a claim, and many dispatch cycles wrapping the ring buffer
+        listenerOne.reset();
+        dispatchService.dispatch();
+        assertFalse(listenerOne.isInvoked());
+        for (int i = 0; i < 3000; i++) {
+            updateDispatchView.newResult(new UniformPair<EventBean[]>(newDataOne, null));
+            dispatchService.dispatch();
+        }
+        assertEquals(3000, listenerOne.getNewDataList().size());
+    }
+
+    public void testTimeoutSkipsUndispatched() throws Exception {
+        updateDispatchView = new UpdateDispatchViewBlockingRingBuffer(statementResultService, dispatchService, 100, false, new TimeSourceServiceImpl());
+        EventBean[] newDataOne = makeEvents("new1");
+        updateDispatchView.newResult(new UniformPair<EventBean[]>(newDataOne, null));
+
+        // the second thread times out waiting for the first result, which then no longer holds back later results
+        final EventBean[] newDataTwo = makeEvents("new2");
+        final EventBean[] newDataThree = makeEvents("new3");
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                updateDispatchView.newResult(new UniformPair<EventBean[]>(newDataTwo, null));
+                dispatchService.dispatch();
+                updateDispatchView.newResult(new UniformPair<EventBean[]>(newDataThree, null));
+                dispatchService.dispatch();
+            }
+        });
+        thread.start();
+        thread.join();
+        assertEquals(2, listenerOne.getNewDataList().size());
+        assertSame(newDataTwo[0], listenerOne.getNewDataList().get(0)[0]);
+        assertSame(newDataThree[0], listenerOne.getNewDataList().get(1)[0]);
+
+        // the skipped result gets delivered by its own thread
+        dispatchService.dispatch();
+        assertEquals(3, listenerOne.getNewDataList().size());
+        assertSame(newDataOne[0], listenerOne.getNewDataList().get(2)[0]);
+    }
+
     private EventBean[] makeEvents(String text) {
         return new EventBean[]{SupportEventBeanFactory.createObject(text)};
     }
@@ -26,4 +26,19 @@ public class TestAvgAggregator extends TestCase {
         assertEquals(175d, agg.getValue());
     }
 
+    public void testPrimitive() {
+        AggregatorAvg agg = new AggregatorAvg();
+        agg.enterDouble(100);
+        agg.enter(150);
+        assertEquals(125d, agg.getValue());
+        assertSame(agg.getValue(), agg.getValue());
+        agg.enterDouble(200);
+        assertEquals(150d, agg.getValue());
+        agg.leaveDouble(100);
+        assertEquals(175d, agg.getValue());
+        agg.leave(150);
+        agg.leaveDouble(200);
+        assertNull(agg.getValue());
+    }
+
 }
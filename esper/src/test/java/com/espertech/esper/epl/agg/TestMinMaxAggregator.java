@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.agg;
 
 import com.espertech.esper.epl.agg.aggregator.AggregatorMinMax;
+import com.espertech.esper.epl.agg.aggregator.AggregatorMinMaxFifo;
 import com.espertech.esper.type.MinMaxTypeEnum;
 import junit.framework.TestCase;
 
@@ -48,4 +49,33 @@ public class TestMinMaxAggregator extends TestCase {
         agg.leave(10);
         assertEquals(null, agg.getValue());
     }
+
+    public void testAggregatorFifo() {
+        AggregatorMinMaxFifo max = new AggregatorMinMaxFifo(MinMaxTypeEnum.MAX);
+        AggregatorMinMaxFifo min = new AggregatorMinMaxFifo(MinMaxTypeEnum.MIN);
+        int[] values = {10, 20, 10, 5, 20, 30, 1};
+        for (int i = 0; i < values.length; i++) {
+            max.enter(values[i]);
+            min.enter(values[i]);
+            max.enter(null);
+            // window of three values
+            if (i >= 3) {
+                max.leave(values[i - 3]);
+                min.leave(values[i - 3]);
+                max.leave(null);
+            }
+            int from = Math.max(0, i - 2);
+            int expectedMax = Integer.MIN_VALUE;
+            int expectedMin = Integer.MAX_VALUE;
+            for (int j = from; j <= i; j++) {
+                expectedMax = Math.max(expectedMax, values[j]);
+                expectedMin = Math.min(expectedMin, values[j]);
+            }
+            assertEquals(expectedMax, max.getValue());
+            assertEquals(expectedMin, min.getValue());
+        }
+
+        max.clear();
+        assertNull(max.getValue());
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.epl.agg.aggregator.AggregatorPercentile;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class TestPercentileAggregator extends TestCase {
+    public void testAggregator() {
+        AggregatorPercentile single = new AggregatorPercentile(new double[]{50}, false);
+        AggregatorPercentile multiple = new AggregatorPercentile(new double[]{0, 25, 95, 100}, true);
+        assertNull(single.getValue());
+        assertNull(multiple.getValue());
+
+        for (int i = 1; i <= 5; i++) {
+            single.enter(i * 10);
+            multiple.enter(i * 10);
+        }
+        assertEquals(30D, single.getValue());
+        assertTrue(Arrays.equals(new Double[]{10D, 20D, 48D, 50D}, (Double[]) multiple.getValue()));
+
+        single.leave(50);
+        assertEquals(25D, single.getValue());
+
+        single.leave(10);
+        single.leave(20);
+        single.leave(30);
+        assertEquals(40D, single.getValue());
+        single.leave(40);
+        assertNull(single.getValue());
+    }
+}
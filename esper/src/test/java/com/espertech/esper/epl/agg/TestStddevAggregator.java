@@ -40,6 +40,19 @@ public class TestStddevAggregator extends TestCase {
         assertEquals("2.0816", Double.toString(result).substring(0, 6));
     }
 
+    public void testPrimitive() {
+        AggregatorStddev agg = new AggregatorStddev();
+        agg.enterDouble(10);
+        assertNull(agg.getValue());
+        agg.enterDouble(8);
+        agg.enter(5);
+        agg.enterDouble(9);
+        assertEquals("2.1602", agg.getValue().toString().substring(0, 6));
+        assertSame(agg.getValue(), agg.getValue());
+        agg.leaveDouble(10);
+        assertEquals("2.0816", agg.getValue().toString().substring(0, 6));
+    }
+
     public void testAllOne() {
         AggregationMethod agg = new AggregatorStddev();
         agg.enter(1);
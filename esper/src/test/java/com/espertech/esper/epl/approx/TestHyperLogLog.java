@@ -0,0 +1,99 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+public class TestHyperLogLog extends TestCase {
+
+    public void testSparseAndDense() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertEquals(0, sketch.estimate());
+
+        sketch.add("a");
+        sketch.add("a");
+        sketch.add(null);
+        assertEquals(1, sketch.estimate());
+
+        for (int i = 0; i < 500; i++) {
+            sketch.add(i);
+            sketch.add(i);
+        }
+        assertTrue(sketch.isSparse());
+        assertEquals(501, sketch.estimate(), 10);
+
+        for (int i = 0; i < 1000000; i++) {
+            sketch.add("value" + i);
+        }
+        assertFalse(sketch.isSparse());
+        assertEquals(1000501, sketch.estimate(), 1000501 * 0.05);
+
+        sketch.clear();
+        assertTrue(sketch.isSparse());
+        assertEquals(0, sketch.estimate());
+    }
+
+    public void testMerge() {
+        HyperLogLog first = new HyperLogLog(14);
+        HyperLogLog second = new HyperLogLog(14);
+        HyperLogLog small = new HyperLogLog(14);
+        for (long i = 0; i < 100000; i++) {
+            first.add(i);
+            second.add(i + 50000);
+        }
+        small.add(-1L);
+        first.merge(second);
+        assertEquals(150000, first.estimate(), 150000 * 0.03);
+        small.merge(first);
+        assertEquals(150001, small.estimate(), 150000 * 0.03);
+
+    }
+
+    public void testMergeDifferentPrecision() {
+        HyperLogLog high = new HyperLogLog(14);
+        HyperLogLog low = new HyperLogLog(10);
+        HyperLogLog expected = new HyperLogLog(10);
+        for (long i = 0; i < 100000; i++) {
+            high.add(i);
+            low.add(i + 50000);
+            expected.add(i);
+            expected.add(i + 50000);
+        }
+
+        // a higher-precision sketch reduces to the lower precision exactly as if the values had been added at the lower precision
+        HyperLogLog reduced = new HyperLogLog(10);
+        reduced.merge(high);
+        HyperLogLog direct = new HyperLogLog(10);
+        for (long i = 0; i < 100000; i++) {
+            direct.add(i);
+        }
+        assertEquals(direct.estimate(), reduced.estimate());
+
+        HyperLogLog merged = high.copy();
+        merged.merge(low);
+        assertEquals(10, merged.getPrecision());
+        assertEquals(expected.estimate(), merged.estimate());
+        assertEquals(14, high.getPrecision());
+
+        low.merge(high);
+        assertEquals(10, low.getPrecision());
+        assertEquals(expected.estimate(), low.estimate());
+    }
+
+    public void testInvalid() {
+        try {
+            new HyperLogLog(17);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Precision must be between 4 and 16 but was 17", ex.getMessage());
+        }
+    }
+}
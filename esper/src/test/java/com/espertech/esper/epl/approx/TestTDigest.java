@@ -0,0 +1,96 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestTDigest extends TestCase {
+
+    public void testSmall() {
+        TDigest digest = new TDigest();
+        assertNull(digest.quantile(0.5));
+
+        digest.add(10);
+        assertEquals(10d, digest.quantile(0.5));
+        assertEquals(10d, digest.quantile(0.99));
+
+        digest.add(20);
+        digest.add(30);
+        assertEquals(20d, digest.quantile(0.5));
+        assertEquals(10d, digest.quantile(0));
+        assertEquals(30d, digest.quantile(1));
+
+        digest.remove(30);
+        assertEquals(2, digest.size());
+        assertEquals(20d, digest.quantile(1));
+        digest.remove(10);
+        digest.remove(20);
+        assertEquals(0, digest.size());
+        assertNull(digest.quantile(0.5));
+
+        digest.add(Double.NaN);
+        assertEquals(0, digest.size());
+    }
+
+    public void testAccuracyAndBoundedSize() {
+        TDigest digest = new TDigest();
+        Random random = new Random(1);
+        int count = 200000;
+        for (int i = 0; i < count; i++) {
+            digest.add(random.nextDouble());
+        }
+        assertEquals(count, digest.size());
+        assertTrue(digest.getNumCentroids() < 2 * digest.getCompression());
+        assertEquals(0.5, digest.quantile(0.5), 0.01);
+        assertEquals(0.99, digest.quantile(0.99), 0.002);
+        assertEquals(0.001, digest.quantile(0.001), 0.001);
+    }
+
+    public void testRemoveSlidingWindow() {
+        TDigest digest = new TDigest();
+        int window = 10000;
+        for (int i = 0; i < 50000; i++) {
+            digest.add(i);
+            if (i >= window) {
+                digest.remove(i - window);
+            }
+        }
+        // window holds 40000 to 49999
+        assertEquals(window, digest.size());
+        assertEquals(45000, digest.quantile(0.5), 200);
+        assertEquals(49900, digest.quantile(0.99), 200);
+    }
+
+    public void testMerge() {
+        TDigest first = new TDigest();
+        TDigest second = new TDigest();
+        for (int i = 0; i < 10000; i++) {
+            first.add(i);
+            second.add(i + 10000);
+        }
+        first.merge(second);
+        assertEquals(20000, first.size());
+        assertEquals(10000, first.quantile(0.5), 100);
+        assertEquals(0d, first.quantile(0));
+        assertEquals(19999d, first.quantile(1));
+    }
+
+    public void testInvalid() {
+        try {
+            new TDigest(1);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Compression must be at least 10 but was 1.0", ex.getMessage());
+        }
+    }
+}
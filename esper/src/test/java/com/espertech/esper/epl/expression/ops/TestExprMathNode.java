@@ -10,12 +10,19 @@
  */
 package com.espertech.esper.epl.expression.ops;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
 import com.espertech.esper.epl.expression.core.ExprNodeOrigin;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.supportunit.bean.SupportBean;
 import com.espertech.esper.supportunit.epl.SupportExprNode;
 import com.espertech.esper.supportunit.epl.SupportExprNodeUtil;
+import com.espertech.esper.supportunit.epl.SupportStreamTypeSvc3Stream;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
 import com.espertech.esper.type.MathArithTypeEnum;
 import com.espertech.esper.util.support.SupportExprValidationContextFactory;
 import junit.framework.TestCase;
@@ -83,6 +90,48 @@ public class TestExprMathNode extends TestCase {
         assertNull(arithNode.evaluate(null, false, null));
     }
 
+    public void testEvaluateCompiled() throws Exception {
+        // (intBoxed * doubleBoxed) + 1
+        ExprMathNode multiply = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
+        multiply.addChildNode(new ExprIdentNodeImpl("intBoxed", "s0"));
+        multiply.addChildNode(new ExprIdentNodeImpl("doubleBoxed", "s0"));
+        arithNode.addChildNode(multiply);
+        arithNode.addChildNode(new ExprConstantNodeImpl(1));
+        ExprNodeUtility.getValidatedSubtree(ExprNodeOrigin.SELECT, arithNode, SupportExprValidationContextFactory.makeCompileExpressions(new SupportStreamTypeSvc3Stream()));
+        ExprEvaluator evaluator = arithNode.getExprEvaluator();
+        assertTrue(evaluator instanceof ExprMathNodeCompiledDouble);
+
+        SupportBean bean = new SupportBean();
+        EventBean[] events = new EventBean[]{SupportEventBeanFactory.createObject(bean), null, null};
+        bean.setIntBoxed(4);
+        bean.setDoubleBoxed(2.5);
+        assertEquals(11d, evaluator.evaluate(events, true, null));
+
+        bean.setDoubleBoxed(null);
+        assertNull(evaluator.evaluate(events, true, null));
+
+        bean.setDoubleBoxed(Double.NaN);
+        assertEquals(Double.NaN, evaluator.evaluate(events, true, null));
+
+        assertNull(evaluator.evaluate(new EventBean[3], true, null));
+
+        // long arithmetic, integer division by zero returns null
+        ExprMathNode divide = new ExprMathNode(MathArithTypeEnum.DIVIDE, true, false);
+        divide.addChildNode(new ExprIdentNodeImpl("longBoxed", "s0"));
+        divide.addChildNode(new ExprIdentNodeImpl("longPrimitive", "s0"));
+        ExprNodeUtility.getValidatedSubtree(ExprNodeOrigin.SELECT, divide, SupportExprValidationContextFactory.makeCompileExpressions(new SupportStreamTypeSvc3Stream()));
+        evaluator = divide.getExprEvaluator();
+        assertTrue(evaluator instanceof ExprMathNodeCompiledLong);
+        bean.setLongBoxed(7L);
+        bean.setLongPrimitive(2);
+        assertEquals(3L, evaluator.evaluate(events, true, null));
+        bean.setLongPrimitive(0);
+        assertNull(evaluator.evaluate(events, true, null));
+        bean.setLongBoxed(Long.MIN_VALUE);
+        bean.setLongPrimitive(1);
+        assertEquals(Long.MIN_VALUE, evaluator.evaluate(events, true, null));
+    }
+
     public void testEqualsNode() throws Exception {
         assertTrue(arithNode.equalsNode(arithNode));
         assertFalse(arithNode.equalsNode(new ExprMathNode(MathArithTypeEnum.DIVIDE, false, false)));
@@ -10,12 +10,21 @@
  */
 package com.espertech.esper.epl.expression.ops;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprNodeOrigin;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.ops.ExprOrNode;
 import com.espertech.esper.epl.expression.ops.ExprRelationalOpNode;
 import com.espertech.esper.epl.expression.ops.ExprRelationalOpNodeImpl;
+import com.espertech.esper.supportunit.bean.SupportBean;
 import com.espertech.esper.supportunit.epl.SupportExprNode;
+import com.espertech.esper.supportunit.epl.SupportStreamTypeSvc3Stream;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.type.MathArithTypeEnum;
 import com.espertech.esper.supportunit.epl.SupportExprNodeUtil;
 import com.espertech.esper.type.RelationalOpEnum;
 import com.espertech.esper.util.support.SupportExprValidationContextFactory;
@@ -113,4 +122,40 @@ public class TestExprRelationalOpNode extends TestCase {
         assertFalse(opNode.equalsNode(new ExprRelationalOpNodeImpl(RelationalOpEnum.LE)));
         assertFalse(opNode.equalsNode(new ExprOrNode()));
     }
+
+    public void testEvaluateCompiled() throws Exception {
+        // doubleBoxed * 2 >= intPrimitive
+        ExprMathNode multiply = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
+        multiply.addChildNode(new ExprIdentNodeImpl("doubleBoxed", "s0"));
+        multiply.addChildNode(new ExprConstantNodeImpl(2));
+        opNode.addChildNode(multiply);
+        opNode.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        ExprNodeUtility.getValidatedSubtree(ExprNodeOrigin.FILTER, opNode, SupportExprValidationContextFactory.makeCompileExpressions(new SupportStreamTypeSvc3Stream()));
+        ExprEvaluator evaluator = opNode.getExprEvaluator();
+        assertTrue(evaluator instanceof ExprRelationalOpNodeCompiledDouble);
+
+        SupportBean bean = new SupportBean();
+        EventBean[] events = new EventBean[]{SupportEventBeanFactory.createObject(bean), null, null};
+        bean.setDoubleBoxed(5d);
+        bean.setIntPrimitive(10);
+        assertEquals(true, evaluator.evaluate(events, true, null));
+        bean.setIntPrimitive(11);
+        assertEquals(false, evaluator.evaluate(events, true, null));
+        bean.setDoubleBoxed(null);
+        assertNull(evaluator.evaluate(events, true, null));
+
+        // longBoxed < intPrimitive
+        ExprRelationalOpNodeImpl lessThan = new ExprRelationalOpNodeImpl(RelationalOpEnum.LT);
+        lessThan.addChildNode(new ExprIdentNodeImpl("longBoxed", "s0"));
+        lessThan.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        ExprNodeUtility.getValidatedSubtree(ExprNodeOrigin.FILTER, lessThan, SupportExprValidationContextFactory.makeCompileExpressions(new SupportStreamTypeSvc3Stream()));
+        evaluator = lessThan.getExprEvaluator();
+        assertTrue(evaluator instanceof ExprRelationalOpNodeCompiledLong);
+        bean.setLongBoxed(10L);
+        assertEquals(true, evaluator.evaluate(events, true, null));
+        bean.setLongBoxed(Long.MIN_VALUE);
+        assertEquals(true, evaluator.evaluate(events, true, null));
+        bean.setLongBoxed(null);
+        assertNull(evaluator.evaluate(events, true, null));
+    }
 }
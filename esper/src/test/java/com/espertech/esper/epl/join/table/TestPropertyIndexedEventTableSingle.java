@@ -0,0 +1,77 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+
+public class TestPropertyIndexedEventTableSingle extends TestCase {
+    private EventType eventType;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testPrimitiveKey() {
+        PropertyIndexedEventTableSingle index = (PropertyIndexedEventTableSingle) new PropertyIndexedEventTableSingleFactory(0, eventType, "intPrimitive", false, null).makeEventTables(null)[0];
+        assertTrue(index.getIndex() instanceof PrimitiveKeyHashMap);
+
+        EventBean[] events = new EventBean[]{makeBean("E1", 1), makeBean("E2", 2), makeBean("E3", 1)};
+        index.add(events);
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[]{events[0], events[2]}, index.lookup(1).toArray());
+        assertNull(index.lookup(1L));
+        assertNull(index.lookup(3));
+        EPAssertionUtil.assertEqualsAnyOrder(events, EPAssertionUtil.iteratorToArray(index.iterator()));
+
+        index.remove(new EventBean[]{events[0], events[1]});
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[]{events[2]}, index.lookup(1).toArray());
+        assertNull(index.lookup(2));
+        assertEquals(1, index.getNumKeys());
+    }
+
+    public void testPrimitiveKeyUnique() {
+        PropertyIndexedEventTableSingleUnique index = (PropertyIndexedEventTableSingleUnique) new PropertyIndexedEventTableSingleFactory(0, eventType, "longPrimitive", true, "idx").makeEventTables(null)[0];
+        assertTrue(index.getIndex() instanceof PrimitiveKeyHashMap);
+
+        EventBean one = makeBean("E1", 1);
+        index.add(new EventBean[]{one});
+        assertSame(one, index.lookup(1L).iterator().next());
+        try {
+            index.add(new EventBean[]{makeBean("E2", 1)});
+            fail();
+        } catch (EPException ex) {
+            // expected
+        }
+
+        index.clear();
+        assertTrue(index.isEmpty());
+    }
+
+    public void testNonPrimitiveKey() {
+        PropertyIndexedEventTableSingle index = (PropertyIndexedEventTableSingle) new PropertyIndexedEventTableSingleFactory(0, eventType, "theString", false, null).makeEventTables(null)[0];
+        assertTrue(index.getIndex() instanceof HashMap);
+    }
+
+    private EventBean makeBean(String theString, int intPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(intPrimitive);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+}
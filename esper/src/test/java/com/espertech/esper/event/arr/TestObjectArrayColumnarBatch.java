@@ -0,0 +1,79 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.event.EventTypeMetadata;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestObjectArrayColumnarBatch extends TestCase {
+    private ObjectArrayEventType eventType;
+
+    public void setUp() {
+        Map<String, Object> typeRep = new LinkedHashMap<String, Object>();
+        typeRep.put("symbol", String.class);
+        typeRep.put("price", double.class);
+        typeRep.put("volume", Long.class);
+        typeRep.put("flag", boolean.class);
+
+        EventTypeMetadata metadata = EventTypeMetadata.createNonPojoApplicationType(EventTypeMetadata.ApplicationType.OBJECTARR, "testtype", true, true, true, false, false);
+        eventType = new ObjectArrayEventType(metadata, "testtype", 1, SupportEventAdapterService.getService(), typeRep, null, null, null);
+    }
+
+    public void testGet() {
+        Object[] columns = new Object[]{new String[]{"A", "B", "C"}, new double[]{1.5, 2.5, 3.5}, new long[]{10, 20, 30}, new boolean[]{true, false, true}};
+        ObjectArrayColumnarBatch batch = new ObjectArrayColumnarBatch(eventType, columns, 2);
+        EventBean[] events = batch.getEvents();
+        assertEquals(2, events.length);
+
+        ObjectArrayColumnarEventBean second = (ObjectArrayColumnarEventBean) events[1];
+        assertSame(eventType, second.getEventType());
+        assertEquals("B", second.get("symbol"));
+        assertEquals(2.5, second.get("price"));
+        assertEquals(20L, second.get("volume"));
+        assertEquals(false, second.get("flag"));
+        assertEquals(20L, second.getColumnValue(2));
+
+        // the underlying array is allocated once on request and takes precedence thereafter
+        Object[] underlying = (Object[]) second.getUnderlying();
+        assertTrue(Arrays.equals(new Object[]{"B", 2.5, 20L, false}, underlying));
+        assertSame(underlying, ((ObjectArrayBackedEventBean) second).getProperties());
+        second.setPropertyValues(new Object[]{"X", 0d, 0L, true});
+        assertEquals("X", second.get("symbol"));
+        assertEquals("A", events[0].get("symbol"));
+    }
+
+    public void testInvalid() {
+        tryInvalid(new Object[]{new String[0], new double[0], new long[0]}, 0,
+                "Expected 4 columns for event type 'testtype' but received 3 columns");
+        tryInvalid(new Object[]{new String[0], new double[0], null, new boolean[0]}, 0,
+                "Column 2 for property 'volume' is not an array");
+        tryInvalid(new Object[]{new String[1], new double[2], new long[2], new boolean[2]}, 2,
+                "Column 0 for property 'symbol' has fewer than 2 rows");
+        tryInvalid(new Object[]{new String[0], new int[0], new long[0], new boolean[0]}, 0,
+                "Column 1 of type 'int(Array)' does not match property 'price' of type 'double'");
+    }
+
+    private void tryInvalid(Object[] columns, int numRows, String message) {
+        try {
+            new ObjectArrayColumnarBatch(eventType, columns, numRows);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
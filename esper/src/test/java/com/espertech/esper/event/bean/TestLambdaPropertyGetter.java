@@ -0,0 +1,104 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterPrimitive;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestLambdaPropertyGetter extends TestCase {
+    private EventBean unitTestBean;
+
+    public void setUp() {
+        SupportBean testEvent = new SupportBean("a", 10);
+        testEvent.setLongPrimitive(-20);
+        testEvent.setShortPrimitive((short) 30);
+        testEvent.setBytePrimitive((byte) 40);
+        testEvent.setDoublePrimitive(1.5);
+        testEvent.setFloatPrimitive(2.5f);
+        testEvent.setBoolPrimitive(true);
+        testEvent.setCharPrimitive('x');
+        unitTestBean = SupportEventBeanFactory.createObject(testEvent);
+    }
+
+    public void testGetter() throws Exception {
+        assertGetter("getTheString", LambdaPropertyGetter.class, "a");
+        assertGetter("getIntPrimitive", LambdaPropertyGetterLong.class, 10);
+        assertGetter("getLongPrimitive", LambdaPropertyGetterLong.class, -20L);
+        assertGetter("getShortPrimitive", LambdaPropertyGetterLong.class, (short) 30);
+        assertGetter("getBytePrimitive", LambdaPropertyGetterLong.class, (byte) 40);
+        assertGetter("getDoublePrimitive", LambdaPropertyGetterDouble.class, 1.5d);
+        assertGetter("getFloatPrimitive", LambdaPropertyGetterDouble.class, 2.5f);
+        assertGetter("isBoolPrimitive", LambdaPropertyGetter.class, true);
+        assertGetter("getCharPrimitive", LambdaPropertyGetter.class, 'x');
+        assertGetter("getDoubleBoxed", LambdaPropertyGetter.class, null);
+
+        EventPropertyGetterPrimitive primitive = (EventPropertyGetterPrimitive) makeGetter("getLongPrimitive");
+        assertEquals(-20L, primitive.getLong(unitTestBean));
+        assertEquals(-20d, primitive.getDouble(unitTestBean));
+        primitive = (EventPropertyGetterPrimitive) makeGetter("getDoublePrimitive");
+        assertEquals(1L, primitive.getLong(unitTestBean));
+        assertEquals(1.5d, primitive.getDouble(unitTestBean));
+    }
+
+    public void testInvalid() throws Exception {
+        EventPropertyGetter getter = makeGetter("getTheString");
+        try {
+            getter.get(SupportEventBeanFactory.createObject(new Object()));
+            fail();
+        } catch (PropertyAccessException ex) {
+            assertTrue(ex.getMessage().startsWith("Mismatched getter instance to event bean type"));
+        }
+
+        // the getter method throws an exception
+        getter = LambdaPropertyGetterFactory.make(MyThrowingBean.class.getMethod("getValue"), SupportEventAdapterService.getService());
+        try {
+            getter.get(SupportEventBeanFactory.createObject(new MyThrowingBean()));
+            fail();
+        } catch (PropertyAccessException ex) {
+            assertEquals("Failed to invoke method getValue on class " + MyThrowingBean.class.getName() + ": failed", ex.getMessage());
+        }
+
+        // non-public classes use a different getter
+        assertNull(LambdaPropertyGetterFactory.make(MyNonPublicBean.class.getMethod("getValue"), SupportEventAdapterService.getService()));
+    }
+
+    private void assertGetter(String methodName, Class expectedGetterClass, Object expected) throws Exception {
+        EventPropertyGetter getter = makeGetter(methodName);
+        assertEquals(expectedGetterClass, getter.getClass());
+        Object value = getter.get(unitTestBean);
+        assertEquals(expected, value);
+        if (expected != null) {
+            assertEquals(expected.getClass(), value.getClass());
+        }
+    }
+
+    private EventPropertyGetter makeGetter(String methodName) throws Exception {
+        return LambdaPropertyGetterFactory.make(SupportBean.class.getMethod(methodName), SupportEventAdapterService.getService());
+    }
+
+    public static class MyThrowingBean {
+        public String getValue() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    private static class MyNonPublicBean {
+        public String getValue() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.MappedEventBean;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestOffHeapRowStore extends TestCase {
+    private EventAdapterService eventAdapterService;
+    private EventType oaType;
+    private EventType mapType;
+
+    public void setUp() {
+        eventAdapterService = SupportEventAdapterService.getService();
+        Map<String, Object> types = new LinkedHashMap<String, Object>();
+        types.put("p0", String.class);
+        types.put("p1", Long.class);
+        types.put("p2", Object.class);
+        oaType = eventAdapterService.addNestableObjectArrayType("OffHeapOA", types, null, false, false, false, false, false, false, null);
+        mapType = eventAdapterService.addNestableMapType("OffHeapMap", types, null, false, false, false, false, false);
+    }
+
+    public void testObjectArray() {
+        OffHeapRowStore store = new OffHeapRowStore();
+        Object[] values = new Object[]{"a", 10L, new BigDecimal("1.5")};
+        EventBean stored = store.add(eventAdapterService.adapterForTypedObjectArray(values, oaType));
+
+        assertTrue(stored instanceof OffHeapObjectArrayEventBean);
+        assertSame(oaType, stored.getEventType());
+        assertEquals("a", stored.get("p0"));
+        assertEquals(10L, stored.get("p1"));
+        assertEquals(new BigDecimal("1.5"), stored.get("p2"));
+        assertTrue(Arrays.equals(values, ((ObjectArrayBackedEventBean) stored).getProperties()));
+        assertSame(((ObjectArrayBackedEventBean) stored).getProperties(), ((ObjectArrayBackedEventBean) stored).getProperties());
+        assertSame(stored, store.add(stored));
+        assertEquals(1, store.getRowCount());
+
+        ((ObjectArrayBackedEventBean) stored).setPropertyValues(new Object[]{"b", null, null});
+        assertEquals("b", stored.get("p0"));
+        assertNull(stored.get("p1"));
+        assertEquals(1, store.getRowCount());
+
+        store.release(new EventBean[]{stored});
+        assertEquals(0, store.getRowCount());
+        assertFalse(((OffHeapEventBean) stored).isOffHeap());
+        assertEquals("b", stored.get("p0"));
+    }
+
+    public void testMap() {
+        OffHeapRowStore store = new OffHeapRowStore();
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("p0", "a");
+        values.put("p1", 10L);
+        values.put("p2", true);
+        EventBean stored = store.add(eventAdapterService.adapterForTypedMap(values, mapType));
+
+        assertTrue(stored instanceof OffHeapMapEventBean);
+        assertEquals(values, ((MappedEventBean) stored).getProperties());
+        assertEquals("a", stored.get("p0"));
+        assertEquals(true, stored.get("p2"));
+
+        store.release(new EventBean[]{stored});
+        assertEquals(values, stored.getUnderlying());
+    }
+
+    public void testCodec() {
+        Object[] values = new Object[]{null, 1, 2L, 3d, 4f, (short) 5, (byte) 6, true, false, 'x', "", "\u00e9t\u00e9", makeString(70000), new BigDecimal("7.7"), new int[]{1, 2}};
+        Object[] decoded = OffHeapRowCodec.decodeObjectArray(OffHeapRowCodec.encodeObjectArray(values));
+        assertTrue(Arrays.deepEquals(values, decoded));
+
+        try {
+            OffHeapRowCodec.encodeObjectArray(new Object[]{new Object()});
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Off-heap storage requires serializable values but received value of type 'java.lang.Object'", ex.getMessage());
+        }
+    }
+
+    public void testSegments() {
+        // 100 bytes per segment holds 4 rows of 24 bytes each
+        OffHeapRowStore store = new OffHeapRowStore(100);
+        EventBean[] rows = new EventBean[8];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{"E", (long) i, null}, oaType));
+        }
+        assertEquals(8, store.getRowCount());
+        assertEquals(200, store.getAllocatedBytes());
+
+        // releasing all rows of the first segment makes it available again
+        store.release(Arrays.copyOfRange(rows, 0, 4));
+        for (int i = 0; i < 4; i++) {
+            rows[i] = store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{"F", (long) i, null}, oaType));
+        }
+        assertEquals(8, store.getRowCount());
+        assertEquals(200, store.getAllocatedBytes());
+
+        // a row larger than the segment size gets its own segment that is not reused
+        EventBean large = store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{makeString(500), 0L, null}, oaType));
+        assertEquals(makeString(500), large.get("p0"));
+        assertTrue(store.getAllocatedBytes() > 700);
+        store.release(new EventBean[]{large});
+        assertEquals(200, store.getAllocatedBytes());
+
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(i < 4 ? "F" : "E", rows[i].get("p0"));
+            assertEquals((long) i, rows[i].get("p1"));
+        }
+    }
+
+    public void testCompact() {
+        // 100 bytes per segment holds 4 rows of 24 bytes each
+        OffHeapRowStore store = new OffHeapRowStore(100);
+        EventBean[] rows = new EventBean[12];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{"E", (long) i, null}, oaType));
+        }
+        assertEquals(300, store.getAllocatedBytes());
+
+        // a segment left with a single row has that row moved so the segment can be reused
+        store.release(new EventBean[]{rows[0], rows[1], rows[2], rows[4], rows[5], rows[6]});
+        assertEquals(6, store.getRowCount());
+        assertEquals(400, store.getAllocatedBytes());
+        for (int i = 0; i < 6; i++) {
+            store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{"F", (long) i, null}, oaType));
+        }
+        assertEquals(12, store.getRowCount());
+        assertEquals(400, store.getAllocatedBytes());
+
+        for (int i : new int[]{3, 7, 8, 9, 10, 11}) {
+            assertTrue(((OffHeapEventBean) rows[i]).isOffHeap());
+            assertEquals((long) i, rows[i].get("p1"));
+        }
+    }
+
+    public void testSlotReuse() {
+        OffHeapRowStore store = new OffHeapRowStore();
+        EventBean first = store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{"a", 1L, null}, oaType));
+        assertEquals("a", first.get("p0"));
+        store.release(first);
+        store.release(first);
+        assertEquals(0, store.getRowCount());
+
+        // the released slot is reused and the new row does not see the decoded values of the released row
+        EventBean second = store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{"b", 2L, null}, oaType));
+        assertFalse(((OffHeapEventBean) first).isOffHeap());
+        assertEquals(0, ((OffHeapEventBean) second).getSlot());
+        assertEquals("b", second.get("p0"));
+        assertEquals("a", first.get("p0"));
+        assertEquals(1, store.getRowCount());
+    }
+
+    public void testPin() {
+        OffHeapRowStore store = new OffHeapRowStore();
+        OffHeapObjectArrayEventBean stored = (OffHeapObjectArrayEventBean) store.add(eventAdapterService.adapterForTypedObjectArray(new Object[]{"a", 1L, null}, oaType));
+        assertEquals("a", stored.get("p0"));
+
+        stored.pin();
+        stored.getProperties()[0] = "b";
+        assertEquals("b", stored.get("p0"));
+        stored.unpin();
+        assertTrue(stored.isOffHeap());
+        assertEquals("b", stored.get("p0"));
+        assertEquals(1L, stored.get("p1"));
+        assertEquals(1, store.getRowCount());
+    }
+
+    public void testTableRow() {
+        OffHeapRowStore store = new OffHeapRowStore();
+        Object aggregations = new Object();
+        ObjectArrayBackedEventBean row = (ObjectArrayBackedEventBean) eventAdapterService.adapterForTypedObjectArray(new Object[]{aggregations, 1L, "x"}, oaType);
+        ObjectArrayBackedEventBean stored = store.addTableRow(row);
+
+        // the aggregation state is not serialized and remains the same instance
+        assertTrue(stored instanceof OffHeapTableRowEventBean);
+        assertSame(aggregations, stored.getProperties()[0]);
+        assertEquals("x", stored.getProperties()[2]);
+        assertSame(stored, store.addTableRow(stored));
+
+        ((OffHeapEventBean) stored).pin();
+        stored.getProperties()[2] = "y";
+        ((OffHeapEventBean) stored).unpin();
+        assertSame(aggregations, stored.getProperties()[0]);
+        assertEquals("y", stored.getProperties()[2]);
+
+        store.release(stored);
+        assertSame(aggregations, stored.getProperties()[0]);
+        assertEquals(0, store.getRowCount());
+    }
+
+    public void testInvalid() {
+        OffHeapRowStore store = new OffHeapRowStore();
+        try {
+            store.add(SupportEventAdapterService.getService().adapterForBean(new SupportBean()));
+            fail();
+        } catch (EPException ex) {
+            assertTrue(ex.getMessage().startsWith("Off-heap storage requires object-array or map events"));
+        }
+        assertFalse(OffHeapRowStore.isSupportedEventType(SupportEventAdapterService.getService().adapterForBean(new SupportBean()).getEventType()));
+        assertTrue(OffHeapRowStore.isSupportedEventType(oaType));
+        assertTrue(OffHeapRowStore.isSupportedEventType(mapType));
+    }
+
+    private static String makeString(int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        return builder.toString();
+    }
+}
@@ -10,15 +10,20 @@
  */
 package com.espertech.esper.filter;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
 import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
 import com.espertech.esper.supportunit.filter.SupportFilterHandle;
 import com.espertech.esper.supportunit.filter.SupportFilterSpecBuilder;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Test for multithread-safety for manageing statements, i.e. creating and stopping statements
@@ -27,6 +32,128 @@ public class TestFilterServiceMT extends TestCase {
     public void testFilterService() throws Exception {
         runAssertionAddRemoveFilter(new FilterServiceLockCoarse(false));
         runAssertionAddRemoveFilter(new FilterServiceLockFine(false));
+        runAssertionAddRemoveFilter(new FilterServiceLockFreeRead(false));
+    }
+
+    public void testLockFreeReadMatchWhileChanging() throws Exception {
+        final FilterService service = new FilterServiceLockFreeRead(false);
+        final EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+
+        // the stable filter must match every event evaluated while other filters come and go
+        final SupportFilterHandle stableHandle = new SupportFilterHandle();
+        service.add(SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO", "intPrimitive", FilterOperator.GREATER, 0}).getValueSet(null, null, null), stableHandle);
+
+        final AtomicBoolean done = new AtomicBoolean();
+        Callable[] callables = new Callable[4];
+        for (int i = 0; i < 3; i++) {
+            final int writerNum = i;
+            callables[i] = new Callable() {
+                public Object call() throws Exception {
+                    for (int loop = 0; loop < 2000; loop++) {
+                        FilterValueSet[] valueSets = new FilterValueSet[]{
+                            SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO", "intPrimitive", FilterOperator.GREATER, loop % 10}).getValueSet(null, null, null),
+                            SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO", "intPrimitive", FilterOperator.LESS, loop}).getValueSet(null, null, null),
+                            SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "W" + writerNum + "_" + loop}).getValueSet(null, null, null),
+                            SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.NOT_EQUAL, "HELLO"}).getValueSet(null, null, null),
+                        };
+                        List<FilterServiceEntry> entries = new ArrayList<FilterServiceEntry>();
+                        List<SupportFilterHandle> handles = new ArrayList<SupportFilterHandle>();
+                        for (FilterValueSet valueSet : valueSets) {
+                            SupportFilterHandle handle = new SupportFilterHandle();
+                            entries.add(service.add(valueSet, handle));
+                            handles.add(handle);
+                        }
+                        for (int j = 0; j < handles.size(); j++) {
+                            service.remove(handles.get(j), entries.get(j));
+                        }
+                    }
+                    return true;
+                }
+            };
+        }
+        callables[3] = new Callable() {
+            public Object call() throws Exception {
+                EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("HELLO", 5));
+                List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                while (!done.get()) {
+                    matches.clear();
+                    service.evaluate(theEvent, matches);
+                    if (!matches.contains(stableHandle)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(callables.length);
+        Future[] futures = new Future[callables.length];
+        for (int i = 0; i < callables.length; i++) {
+            futures[i] = threadPool.submit(callables[i]);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(true, futures[i].get(30, TimeUnit.SECONDS));
+        }
+        done.set(true);
+        assertEquals(true, futures[3].get(10, TimeUnit.SECONDS));
+        threadPool.shutdown();
+        threadPool.awaitTermination(10, TimeUnit.SECONDS);
+
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        service.evaluate(SupportEventBeanFactory.createObject(new SupportBean("HELLO", 5)), matches);
+        assertEquals(1, matches.size());
+        assertSame(stableHandle, matches.get(0));
+    }
+
+    public void testLockFreeReadCompoundChange() throws Exception {
+        final FilterServiceLockFreeRead service = new FilterServiceLockFreeRead(false);
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        final FilterValueSet valueSet = SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO"}).getValueSet(null, null, null);
+        final FilterValueSet valueSetOther = SupportFilterSpecBuilder.build(eventType, new Object[]{"intPrimitive", FilterOperator.GREATER, 0}).getValueSet(null, null, null);
+
+        // a handle replaced by another handle under the write lock: evaluation sees either one but never none or both
+        final AtomicBoolean done = new AtomicBoolean();
+        final SupportFilterHandle[] current = new SupportFilterHandle[] {new SupportFilterHandle()};
+        final FilterServiceEntry[] currentEntry = new FilterServiceEntry[] {service.add(valueSet, current[0])};
+        Callable writer = new Callable() {
+            public Object call() throws Exception {
+                for (int loop = 0; loop < 5000; loop++) {
+                    service.acquireWriteLock();
+                    try {
+                        service.remove(current[0], currentEntry[0]);
+                        current[0] = new SupportFilterHandle();
+                        currentEntry[0] = service.add(loop % 2 == 0 ? valueSetOther : valueSet, current[0]);
+                    } finally {
+                        service.releaseWriteLock();
+                    }
+                }
+                return true;
+            }
+        };
+        Callable reader = new Callable() {
+            public Object call() throws Exception {
+                EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean("HELLO", 5));
+                List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                while (!done.get()) {
+                    matches.clear();
+                    service.evaluate(theEvent, matches);
+                    if (matches.size() != 1) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(3);
+        Future readerOne = threadPool.submit(reader);
+        Future readerTwo = threadPool.submit(reader);
+        assertEquals(true, threadPool.submit(writer).get(30, TimeUnit.SECONDS));
+        done.set(true);
+        assertEquals(true, readerOne.get(10, TimeUnit.SECONDS));
+        assertEquals(true, readerTwo.get(10, TimeUnit.SECONDS));
+        threadPool.shutdown();
+        threadPool.awaitTermination(10, TimeUnit.SECONDS);
     }
 
     private void runAssertionAddRemoveFilter(final FilterService service) throws Exception {
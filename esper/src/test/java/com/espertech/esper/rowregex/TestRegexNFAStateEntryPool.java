@@ -0,0 +1,52 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.rowregex;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestRegexNFAStateEntryPool extends TestCase {
+
+    public void testTakeRelease() {
+        RegexNFAStateEntryPool pool = new RegexNFAStateEntryPool(2);
+        assertNull(pool.take());
+
+        EventBean theEvent = SupportEventBeanFactory.createObject("E1");
+        RegexNFAStateEntry entryOne = new RegexNFAStateEntry(1, 10, null, new EventBean[]{theEvent, theEvent}, new int[]{1, 2}, new MultimatchState[1], "K1");
+        entryOne.setMatchEndEventSeqNo(5);
+        RegexNFAStateEntry entryTwo = new RegexNFAStateEntry(2, 20, null, new EventBean[2], new int[2], null, "K2");
+        RegexNFAStateEntry entryThree = new RegexNFAStateEntry(3, 30, null, new EventBean[2], new int[2], null, "K3");
+        pool.release(entryOne);
+        pool.release(entryTwo);
+        pool.release(entryThree);
+        assertEquals(2, pool.size());
+
+        assertSame(entryTwo, pool.take());
+        RegexNFAStateEntry taken = pool.take();
+        assertSame(entryOne, taken);
+        assertEquals(0, pool.size());
+        assertNull(pool.take());
+
+        // released entries have their arrays cleared
+        assertNull(taken.getEventsPerStream()[0]);
+        assertNull(taken.getEventsPerStream()[1]);
+        assertEquals(0, taken.getGreedycountPerState()[1]);
+        assertNull(taken.getOptionalMultiMatches());
+        assertNull(taken.getPartitionKey());
+        assertEquals(0, taken.getMatchEndEventSeqNo());
+
+        taken.reset(7, 70, null, null, "K7");
+        assertEquals(7, taken.getMatchBeginEventSeqNo());
+        assertEquals(70, taken.getMatchBeginEventTime());
+        assertEquals("K7", taken.getPartitionKey());
+    }
+}
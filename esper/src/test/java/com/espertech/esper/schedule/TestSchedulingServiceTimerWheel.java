@@ -0,0 +1,236 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.supportunit.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimerWheel extends TestCase {
+    private SchedulingServiceTimerWheel service;
+
+    public void setUp() {
+        service = new SchedulingServiceTimerWheel(new TimeSourceServiceImpl());
+    }
+
+    public void testTrigger() {
+        SupportScheduleCallback[] callbacks = makeCallbacks(4);
+        service.setTime(0);
+        service.add(20, callbacks[3], 4);
+        service.add(20, callbacks[2], 3);
+        service.add(20, callbacks[1], 2);
+        service.add(21, callbacks[0], 1);
+        assertTrue(service.isScheduled(callbacks[3]));
+        assertEquals(4, service.getScheduleHandleCount());
+        assertEquals(2, service.getTimeHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(19);
+        assertEvaluate();
+
+        service.setTime(20);
+        assertEvaluate(callbacks[1], callbacks[2], callbacks[3]);
+        assertFalse(service.isScheduled(callbacks[3]));
+
+        service.setTime(20);
+        assertEvaluate();
+
+        service.remove(callbacks[0], 1);
+        service.setTime(100);
+        assertEvaluate();
+        assertEquals(0, service.getScheduleHandleCount());
+        assertNull(service.getNearestTimeHandle());
+    }
+
+    public void testCascadeAndOverflow() {
+        SupportScheduleCallback[] callbacks = makeCallbacks(5);
+        service.setTime(1000);
+        service.add(Integer.MAX_VALUE, callbacks[0], 1);
+        service.add(70000, callbacks[1], 2);
+        service.add(4096, callbacks[2], 3);
+        service.add(64, callbacks[3], 4);
+        service.add(0, callbacks[4], 5);
+        assertEquals(1000L, (long) service.getNearestTimeHandle());
+        assertEquals(1000L + Integer.MAX_VALUE, (long) service.getFurthestTimeHandle());
+
+        assertEvaluate(callbacks[4]);
+        assertEquals(1064L, (long) service.getNearestTimeHandle());
+
+        service.setTime(1063);
+        assertEvaluate();
+        service.setTime(1064);
+        assertEvaluate(callbacks[3]);
+        service.setTime(1000 + 70000);
+        assertEvaluate(callbacks[2], callbacks[1]);
+        service.setTime(1000L + Integer.MAX_VALUE - 1);
+        assertEvaluate();
+        service.setTime(1000L + Integer.MAX_VALUE);
+        assertEvaluate(callbacks[0]);
+    }
+
+    public void testMaxTime() {
+        SupportScheduleCallback[] callbacks = makeCallbacks(3);
+        service.setTime(1000);
+        service.add(Long.MAX_VALUE - 1000, callbacks[0], 1);
+        service.add(Long.MAX_VALUE - 1001, callbacks[1], 2);
+
+        service.setTime(Long.MAX_VALUE);
+        assertEvaluate(callbacks[1], callbacks[0]);
+        assertEvaluate();
+
+        service.add(0, callbacks[2], 3);
+        assertEvaluate(callbacks[2]);
+        assertEquals(0, service.getScheduleHandleCount());
+    }
+
+    public void testTake() {
+        SupportScheduleCallback[] callbacks = makeCallbacks(2);
+        service.setTime(0);
+        service.add(100, callbacks[0], 1);
+        service.add(200, callbacks[1], 2);
+
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(2, set.getList().size());
+        assertEquals(0, service.getScheduleHandleCount());
+
+        service.setTime(50);
+        service.apply(set);
+        service.setTime(150);
+        assertEvaluate(callbacks[0]);
+        service.setTime(250);
+        assertEvaluate(callbacks[1]);
+    }
+
+    public void testCompareSorted() {
+        Random random = new Random(1234);
+        SchedulingServiceImpl reference = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        SupportScheduleCallback[] callbacks = makeCallbacks(300);
+        long[] slots = new long[callbacks.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = random.nextLong();
+        }
+
+        long time = 1000000;
+        service.setTime(time);
+        reference.setTime(time);
+        for (int step = 0; step < 20000; step++) {
+            int index = random.nextInt(callbacks.length);
+            int action = random.nextInt(10);
+            if (action < 5) {
+                long after = randomDelta(random);
+                service.add(after, callbacks[index], slots[index]);
+                reference.add(after, callbacks[index], slots[index]);
+            } else if (action < 7) {
+                service.remove(callbacks[index], slots[index]);
+                reference.remove(callbacks[index], slots[index]);
+            } else {
+                time += random.nextInt(50) == 0 ? -random.nextInt(1000) : randomDelta(random);
+                service.setTime(time);
+                reference.setTime(time);
+
+                List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+                service.evaluate(handles);
+                List<ScheduleHandle> expected = new ArrayList<ScheduleHandle>();
+                reference.evaluate(expected);
+                assertEquals(expected, handles);
+            }
+            assertEquals(reference.getScheduleHandleCount(), service.getScheduleHandleCount());
+            assertEquals(reference.getNearestTimeHandle(), service.getNearestTimeHandle());
+            assertEquals(reference.isScheduled(callbacks[index]), service.isScheduled(callbacks[index]));
+            if (step % 100 == 0) {
+                assertEquals(visitTimes(reference), visitTimes(service));
+            }
+        }
+    }
+
+    public void testConcurrentAddRemove() throws Exception {
+        final int numThreads = 4;
+        final int numPerThread = 2000;
+        service.setTime(0);
+        final SupportScheduleCallback[][] callbacks = new SupportScheduleCallback[numThreads][];
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            callbacks[i] = makeCallbacks(numPerThread);
+            final int thread = i;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < numPerThread; j++) {
+                        service.add(1 + j % 500, callbacks[thread][j], thread * numPerThread + j);
+                        if (j % 2 == 1) {
+                            service.remove(callbacks[thread][j], thread * numPerThread + j);
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(numThreads * numPerThread / 2, service.getScheduleHandleCount());
+
+        service.setTime(1000);
+        List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+        service.evaluate(handles);
+        assertEquals(numThreads * numPerThread / 2, handles.size());
+        assertEquals(handles.size(), new HashSet<ScheduleHandle>(handles).size());
+        for (int i = 0; i < numThreads; i++) {
+            for (int j = 0; j < numPerThread; j++) {
+                assertEquals(j % 2 == 0, handles.contains(callbacks[i][j]));
+            }
+        }
+        assertEquals(0, service.getScheduleHandleCount());
+    }
+
+    private static List<Long> visitTimes(SchedulingServiceSPI spi) {
+        final List<Long> times = new ArrayList<Long>();
+        spi.visitSchedules(new ScheduleVisitor() {
+            public void visit(ScheduleVisit visit) {
+                times.add(visit.getTimestamp());
+            }
+        });
+        return times;
+    }
+
+    private long randomDelta(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return 0;
+            case 1:
+                return random.nextInt(64);
+            case 2:
+                return random.nextInt(5000);
+            case 3:
+                return random.nextInt(100000000);
+            default:
+                return random.nextInt(100);
+        }
+    }
+
+    private void assertEvaluate(ScheduleHandle... expected) {
+        List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+        service.evaluate(handles);
+        assertEquals(Arrays.asList(expected), handles);
+    }
+
+    private static SupportScheduleCallback[] makeCallbacks(int num) {
+        SupportScheduleCallback[] callbacks = new SupportScheduleCallback[num];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+        return callbacks;
+    }
+}
@@ -56,6 +56,10 @@ public class SupportStreamTypeSvc1Stream implements StreamTypeService {
         return new boolean[10];
     }
 
+    public boolean[] getFifoExpiry() {
+        return new boolean[10];
+    }
+
     public int getStreamNumForStreamName(String streamWildcard) {
         return impl.getStreamNumForStreamName(streamWildcard);
     }
@@ -0,0 +1,84 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.util;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+public class TestHashUtil extends TestCase {
+
+    public void testCRC32() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream ds = new DataOutputStream(buf);
+        int crc = HashUtil.CRC32_INITIAL;
+        assertCRC32(buf, crc);
+
+        String[] texts = new String[]{"", "abc", "\u00e9t\u00e9", "\u0000x", "\u20ac\ud83d\ude00"};
+        for (String text : texts) {
+            ds.writeUTF(text);
+            crc = HashUtil.crc32UTF(crc, text, HashUtil.utfLength(text));
+            assertCRC32(buf, crc);
+        }
+
+        for (int value : new int[]{0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 123456789}) {
+            ds.writeInt(value);
+            crc = HashUtil.crc32Int(crc, value);
+            ds.writeShort(value);
+            crc = HashUtil.crc32Short(crc, (short) value);
+            ds.writeByte(value);
+            crc = HashUtil.crc32Byte(crc, (byte) value);
+            assertCRC32(buf, crc);
+        }
+
+        for (long value : new long[]{0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1234567890123L}) {
+            ds.writeLong(value);
+            crc = HashUtil.crc32Long(crc, value);
+            ds.writeDouble(value / 3d);
+            crc = HashUtil.crc32Long(crc, Double.doubleToLongBits(value / 3d));
+            ds.writeFloat(value / 3f);
+            crc = HashUtil.crc32Int(crc, Float.floatToIntBits(value / 3f));
+            assertCRC32(buf, crc);
+        }
+
+        ds.writeBoolean(true);
+        crc = HashUtil.crc32Byte(crc, 1);
+        ds.writeBoolean(false);
+        crc = HashUtil.crc32Byte(crc, 0);
+        assertCRC32(buf, crc);
+    }
+
+    public void testMurmur3() {
+        assertEquals(0, HashUtil.murmur3(new byte[0], 0, 0, 0));
+        assertEquals(0xba6bd213, HashUtil.murmur3("test".getBytes(StandardCharsets.UTF_8), 0, 4, 0));
+        assertEquals(0x2e4ff723, HashUtil.murmur3("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8), 0, 43, 0));
+
+        // streaming blocks is the same as hashing the little-endian bytes
+        String text = "abcde";
+        byte[] bytes = new byte[]{'a', 0, 'b', 0, 'c', 0, 'd', 0, 'e', 0, 0, 0, 1, 0, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0};
+        int hash = HashUtil.murmur3String(HashUtil.MURMUR3_INITIAL, text);
+        hash = HashUtil.murmur3Block(hash, 1);
+        hash = HashUtil.murmur3Long(hash, 2);
+        int length = HashUtil.murmur3StringLength(text) + 4 + 8;
+        assertEquals(bytes.length, length);
+        assertEquals(HashUtil.murmur3(bytes, 0, bytes.length, 0), HashUtil.murmur3Finish(hash, length));
+    }
+
+    private static void assertCRC32(ByteArrayOutputStream buf, int crc) {
+        CRC32 expected = new CRC32();
+        expected.update(buf.toByteArray());
+        assertEquals(expected.getValue(), HashUtil.crc32Value(crc));
+    }
+}